@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package com.linecorp.armeria.client;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.util.EventLoopGroups;
+import com.linecorp.armeria.common.util.ReleasableHolder;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+
+/**
+ * Microbenchmarks of {@link DefaultEventLoopScheduler} acquiring an {@link EventLoop} while handling
+ * a server-side request. {@link HandoffCounters} reports how many acquisitions end up on an {@link EventLoop}
+ * other than the one of the {@link ServiceRequestContext}.
+ */
+@State(Scope.Benchmark)
+public class EventLoopSchedulerBenchmark {
+
+    private static final Endpoint endpoint = Endpoint.of("127.0.0.1", 8080);
+
+    private EventLoopGroup eventLoopGroup;
+    private DefaultEventLoopScheduler scheduler;
+    private ServiceRequestContext[] contexts;
+
+    @Param({ "1", "4" })
+    private int maxNumEventLoops;
+
+    @Param({ "true", "false" })
+    private boolean preferServiceEventLoop;
+
+    @Setup
+    public void setUp() {
+        final int numEventLoops = 16;
+        eventLoopGroup = EventLoopGroups.newEventLoopGroup(numEventLoops);
+        scheduler = new DefaultEventLoopScheduler(eventLoopGroup, maxNumEventLoops, maxNumEventLoops,
+                                                  ImmutableList.of(), preferServiceEventLoop,
+                                                  false);
+        contexts = new ServiceRequestContext[numEventLoops];
+        for (int i = 0; i < numEventLoops; i++) {
+            contexts[i] = ServiceRequestContext.builder(HttpRequest.of(HttpMethod.GET, "/"))
+                                               .eventLoop(eventLoopGroup.next())
+                                               .build();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        eventLoopGroup.shutdownGracefully();
+    }
+
+    @Benchmark
+    public EventLoop acquireInServiceContext(HandoffCounters counters) {
+        final ServiceRequestContext ctx = contexts[counters.nextIndex(contexts.length)];
+        try (SafeCloseable ignored = ctx.push()) {
+            final ReleasableHolder<EventLoop> acquired =
+                    scheduler.acquire(SessionProtocol.H2C, endpoint, endpoint);
+            final EventLoop eventLoop = acquired.get();
+            counters.record(eventLoop == ctx.eventLoop().withoutContext());
+            acquired.release();
+            return eventLoop;
+        }
+    }
+
+    @AuxCounters
+    @State(Scope.Thread)
+    public static class HandoffCounters {
+        private long sameEventLoops;
+        private long crossEventLoops;
+        private int index;
+
+        int nextIndex(int size) {
+            final int index = this.index;
+            this.index = (index + 1) % size;
+            return index;
+        }
+
+        void record(boolean sameEventLoop) {
+            if (sameEventLoop) {
+                sameEventLoops++;
+            } else {
+                crossEventLoops++;
+            }
+        }
+
+        public long sameEventLoops() {
+            return sameEventLoops;
+        }
+
+        public long crossEventLoops() {
+            return crossEventLoops;
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            sameEventLoops = 0;
+            crossEventLoops = 0;
+        }
+    }
+}
@@ -42,8 +42,8 @@ public class EventLoopStateBenchmark {
 
     @Param({ "32", "64", "128", "256" })
     private int maxNumEventLoops;
-    @Param({ "true", "false" })
-    private boolean arrayBased;
+    @Param
+    private StateType stateType;
 
     @Setup
     public void setUp() {
@@ -51,14 +51,15 @@ public class EventLoopStateBenchmark {
 
         eventLoopGroup = EventLoopGroups.newEventLoopGroup(maxNumEventLoops);
         final DefaultEventLoopScheduler scheduler = new DefaultEventLoopScheduler(
-                eventLoopGroup, maxNumEventLoops, maxNumEventLoops, ImmutableList.of());
+                eventLoopGroup, maxNumEventLoops, maxNumEventLoops, ImmutableList.of(), false,
+                stateType == StateType.LOAD_AWARE);
         final List<EventLoop> eventLoops = Streams.stream(eventLoopGroup)
                                                   .map(EventLoop.class::cast)
                                                   .collect(toImmutableList());
-        if (arrayBased) {
-            state = new ArrayBasedEventLoopState(eventLoops, maxNumEventLoops, scheduler);
-        } else {
+        if (stateType == StateType.HEAP) {
             state = new HeapBasedEventLoopState(eventLoops, maxNumEventLoops, scheduler);
+        } else {
+            state = new ArrayBasedEventLoopState(eventLoops, maxNumEventLoops, scheduler);
         }
 
         // Acquire as many as the number of eventLoops so that the active request of all states are
@@ -92,4 +93,10 @@ public class EventLoopStateBenchmark {
             acquired[i].release();
         }
     }
+
+    public enum StateType {
+        ARRAY,
+        HEAP,
+        LOAD_AWARE
+    }
 }
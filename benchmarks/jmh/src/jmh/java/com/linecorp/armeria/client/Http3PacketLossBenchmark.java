@@ -0,0 +1,246 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.google.common.base.Strings;
+
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.TlsKeyPair;
+import com.linecorp.armeria.common.TlsProvider;
+import com.linecorp.armeria.common.util.EventLoopGroups;
+import com.linecorp.armeria.common.util.TransportType;
+import com.linecorp.armeria.server.Server;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.DatagramPacket;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * Measures the latency of a batch of concurrent requests over HTTP/2 and HTTP/3 while a relay between
+ * the client and the server simulates packet loss.
+ *
+ * <p>The HTTP/3 relay drops UDP datagrams, leaving the loss recovery to QUIC. The TCP stack of
+ * the loopback interface never loses a segment, so the HTTP/2 relay emulates a lost segment by holding
+ * the chunk it read, and every chunk after it in the same direction, for a retransmission timeout.
+ * That is the head-of-line blocking a real loss causes to all the streams of a TCP connection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Http3PacketLossBenchmark {
+
+    private static final long RETRANSMISSION_TIMEOUT_MILLIS = 200;
+
+    @Param({ "H2", "H3" })
+    private SessionProtocol protocol;
+
+    @Param({ "0", "0.01", "0.05" })
+    private double lossRate;
+
+    @Param("16")
+    private int numConcurrentRequests;
+
+    private Server server;
+    private EventLoopGroup relayGroup;
+    private Channel relayChannel;
+    private ClientFactory clientFactory;
+    private WebClient client;
+
+    @Setup
+    public void setUp() {
+        final String content = Strings.repeat("a", 16 * 1024);
+        server = Server.builder()
+                       .https(0)
+                       .port(0, SessionProtocol.H3)
+                       .tlsProvider(TlsProvider.of(TlsKeyPair.ofSelfSigned()))
+                       .service("/", (ctx, req) -> HttpResponse.of(content))
+                       .build();
+        server.start().join();
+
+        relayGroup = EventLoopGroups.newEventLoopGroup(1);
+        final InetSocketAddress relayAddress;
+        if (protocol == SessionProtocol.H3) {
+            relayAddress = startUdpRelay(server.activeLocalPort(SessionProtocol.H3));
+        } else {
+            relayAddress = startTcpRelay(server.activeLocalPort(SessionProtocol.HTTPS));
+        }
+
+        clientFactory = ClientFactory.builder()
+                                     .tlsProvider(TlsProvider.of(TlsKeyPair.ofSelfSigned()),
+                                                  ClientTlsConfig.builder().tlsNoVerify().build())
+                                     .build();
+        client = WebClient.builder(protocol.uriText() + "://127.0.0.1:" + relayAddress.getPort())
+                          .factory(clientFactory)
+                          .responseTimeoutMillis(0)
+                          .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        clientFactory.closeAsync().join();
+        relayChannel.close().syncUninterruptibly();
+        relayGroup.shutdownGracefully().syncUninterruptibly();
+        server.stop().join();
+    }
+
+    @Benchmark
+    public void concurrentRequests() {
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[numConcurrentRequests];
+        for (int i = 0; i < numConcurrentRequests; i++) {
+            futures[i] = client.get("/").aggregate();
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private boolean shouldDrop() {
+        return lossRate > 0 && ThreadLocalRandom.current().nextDouble() < lossRate;
+    }
+
+    /**
+     * Starts a relay which forwards the UDP datagrams between a client and the specified port,
+     * dropping each datagram at {@link #lossRate}.
+     */
+    private InetSocketAddress startUdpRelay(int serverPort) {
+        final InetSocketAddress serverAddress = new InetSocketAddress("127.0.0.1", serverPort);
+        final InetSocketAddress[] clientAddress = new InetSocketAddress[1];
+        final Channel[] frontend = new Channel[1];
+        final Bootstrap bootstrap = new Bootstrap().group(relayGroup)
+                                                   .channel(TransportType.datagramChannelType(relayGroup));
+        final Channel backend = bootstrap.clone().handler(new SimpleChannelInboundHandler<DatagramPacket>() {
+            @Override
+            protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket packet) {
+                if (clientAddress[0] != null && !shouldDrop()) {
+                    frontend[0].writeAndFlush(new DatagramPacket(packet.content().retain(), clientAddress[0]));
+                }
+            }
+        }).bind(new InetSocketAddress("127.0.0.1", 0)).syncUninterruptibly().channel();
+        frontend[0] = bootstrap.clone().handler(new SimpleChannelInboundHandler<DatagramPacket>() {
+            @Override
+            protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket packet) {
+                clientAddress[0] = packet.sender();
+                if (!shouldDrop()) {
+                    backend.writeAndFlush(new DatagramPacket(packet.content().retain(), serverAddress));
+                }
+            }
+
+            @Override
+            public void channelInactive(ChannelHandlerContext ctx) {
+                backend.close();
+            }
+        }).bind(new InetSocketAddress("127.0.0.1", 0)).syncUninterruptibly().channel();
+        relayChannel = frontend[0];
+        return (InetSocketAddress) relayChannel.localAddress();
+    }
+
+    /**
+     * Starts a relay which forwards the TCP connections of a client to the specified port. A chunk is
+     * considered lost at {@link #lossRate}, which delays it and every chunk after it by
+     * {@value #RETRANSMISSION_TIMEOUT_MILLIS} milliseconds.
+     */
+    private InetSocketAddress startTcpRelay(int serverPort) {
+        relayChannel = new ServerBootstrap()
+                .group(relayGroup)
+                .channel(TransportType.serverChannelType(relayGroup))
+                .childOption(ChannelOption.AUTO_READ, false)
+                .childHandler(new ChannelInitializer<Channel>() {
+                    @Override
+                    protected void initChannel(Channel inbound) {
+                        final Channel outbound =
+                                new Bootstrap().group(inbound.eventLoop())
+                                               .channel(TransportType.socketChannelType(relayGroup))
+                                               .handler(new LossyForwarder(inbound))
+                                               .connect("127.0.0.1", serverPort)
+                                               .addListener(f -> inbound.config().setAutoRead(true))
+                                               .channel();
+                        inbound.pipeline().addLast(new LossyForwarder(outbound));
+                    }
+                })
+                .bind(new InetSocketAddress("127.0.0.1", 0))
+                .syncUninterruptibly()
+                .channel();
+        return (InetSocketAddress) relayChannel.localAddress();
+    }
+
+    /**
+     * Forwards the chunks read from a TCP connection to the other side of the relay in order.
+     */
+    private final class LossyForwarder extends ChannelInboundHandlerAdapter {
+
+        private final Channel peer;
+        private long stalledUntilNanos;
+        private int numScheduledWrites;
+
+        LossyForwarder(Channel peer) {
+            this.peer = peer;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            if (!(msg instanceof ByteBuf)) {
+                ReferenceCountUtil.release(msg);
+                return;
+            }
+
+            final long now = System.nanoTime();
+            if (shouldDrop()) {
+                stalledUntilNanos = Math.max(stalledUntilNanos, now) +
+                                    TimeUnit.MILLISECONDS.toNanos(RETRANSMISSION_TIMEOUT_MILLIS);
+            }
+            if (stalledUntilNanos <= now && numScheduledWrites == 0) {
+                peer.writeAndFlush(msg);
+                return;
+            }
+
+            // The chunks after a lost one are not delivered until it is retransmitted.
+            numScheduledWrites++;
+            ctx.executor().schedule(() -> {
+                numScheduledWrites--;
+                peer.writeAndFlush(msg);
+            }, Math.max(0, stalledUntilNanos - now), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            peer.close();
+        }
+    }
+}
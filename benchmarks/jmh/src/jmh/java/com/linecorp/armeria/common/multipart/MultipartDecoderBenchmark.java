@@ -0,0 +1,107 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.multipart;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.common.ContentDisposition;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.stream.StreamMessage;
+
+import io.netty.util.concurrent.ImmediateEventExecutor;
+
+/**
+ * Microbenchmarks of decoding a {@code multipart/form-data} body which is received in chunks.
+ */
+@State(Scope.Benchmark)
+public class MultipartDecoderBenchmark {
+
+    private static final String BOUNDARY = "ArmeriaMultipartBenchmarkBoundary";
+
+    @Param({ "4", "32" })
+    private int numParts;
+
+    @Param({ "1024", "262144" })
+    private int partSize;
+
+    @Param({ "8192" })
+    private int chunkSize;
+
+    private HttpData[] chunks;
+
+    @Setup
+    public void setUp() {
+        final ImmutableList.Builder<BodyPart> parts = ImmutableList.builder();
+        for (int i = 0; i < numParts; i++) {
+            final byte[] content = new byte[partSize];
+            ThreadLocalRandom.current().nextBytes(content);
+            final ContentDisposition disposition =
+                    ContentDisposition.of("form-data", "file" + i, "file" + i + ".bin");
+            parts.add(BodyPart.of(disposition, HttpData.wrap(content)));
+        }
+        final byte[] encoded = Multipart.of(BOUNDARY, parts.build())
+                                        .toStreamMessage()
+                                        .collectBytes()
+                                        .join();
+
+        final int numChunks = (encoded.length + chunkSize - 1) / chunkSize;
+        chunks = new HttpData[numChunks];
+        for (int i = 0; i < numChunks; i++) {
+            final int offset = i * chunkSize;
+            chunks[i] = HttpData.wrap(encoded, offset, Math.min(chunkSize, encoded.length - offset));
+        }
+    }
+
+    private Multipart newMultipart() {
+        return Multipart.from(BOUNDARY, StreamMessage.of(chunks));
+    }
+
+    /**
+     * Aggregates all parts into the memory.
+     */
+    @Benchmark
+    public AggregatedMultipart aggregate() {
+        return newMultipart().aggregate(ImmediateEventExecutor.INSTANCE).join();
+    }
+
+    /**
+     * Consumes the content of each part as it arrives without buffering it, as the parts written to
+     * the disk are.
+     */
+    @Benchmark
+    public List<Long> streamParts() {
+        return newMultipart().collect(part -> {
+            final long[] length = new long[1];
+            return part.content()
+                       .filter(data -> {
+                           length[0] += data.length();
+                           return false;
+                       })
+                       .collect(ImmediateEventExecutor.INSTANCE)
+                       .thenApply(unused -> length[0]);
+        }).join();
+    }
+}
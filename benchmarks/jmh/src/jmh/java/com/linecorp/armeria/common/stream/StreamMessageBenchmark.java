@@ -16,8 +16,11 @@
 
 package com.linecorp.armeria.common.stream;
 
+import java.time.Duration;
 import java.util.concurrent.CountDownLatch;
 
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.AuxCounters.Type;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Level;
@@ -31,6 +34,12 @@ import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpObject;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpResponseWriter;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.ResponseHeaders;
 import com.linecorp.armeria.shared.EventLoopJmhExecutor;
 
 import io.netty.channel.DefaultEventLoop;
@@ -146,6 +155,18 @@ public class StreamMessageBenchmark {
         return streamObjects.computedSum(stream);
     }
 
+    // Measures the map and filter operators fused into a single subscriber.
+    @Benchmark
+    public long mapAndFilter(StreamObjects streamObjects) {
+        final StreamMessage<Integer> stream = newStream(streamObjects);
+        final StreamMessage<Integer> transformed = stream.map(i -> i + 1)
+                                                         .filter(i -> i > 0)
+                                                         .map(i -> i - 1);
+        transformed.subscribe(streamObjects.subscriber, EventLoopJmhExecutor.currentEventLoop());
+        streamObjects.writeAllValues(stream);
+        return streamObjects.computedSum(transformed);
+    }
+
     // Has synchronization overhead, but does not require the stream to execute events inline so can be used
     // to compare approaches.
     @Benchmark
@@ -158,6 +179,55 @@ public class StreamMessageBenchmark {
         return streamObjects.computedSum(stream);
     }
 
+    @State(Scope.Thread)
+    public static class ChunkedResponse {
+
+        @Param({ "16", "256" })
+        private int chunkSize;
+
+        @Param({ "0", "8192" })
+        private int coalesceBytes;
+
+        private HttpData chunk;
+
+        @Setup
+        public void setUp() {
+            chunk = HttpData.wrap(new byte[chunkSize]);
+        }
+
+        HttpResponse newResponse() {
+            final HttpResponseWriter writer = HttpResponse.streaming();
+            writer.write(ResponseHeaders.of(HttpStatus.OK));
+            for (int i = 0; i < 1000; i++) {
+                writer.write(chunk);
+            }
+            writer.close();
+            if (coalesceBytes == 0) {
+                return writer;
+            }
+            return writer.coalesceData(coalesceBytes, Duration.ofMillis(10));
+        }
+    }
+
+    /**
+     * Counts the {@link HttpObject}s that would be written to a channel, i.e. the number of writes.
+     */
+    @AuxCounters(Type.EVENTS)
+    @State(Scope.Thread)
+    public static class WriteCounters {
+        public long writes;
+    }
+
+    // Simulates a streaming endpoint which writes many small chunks. Each HttpObject received by
+    // the subscriber corresponds to a write and a flush to the channel.
+    @Benchmark
+    public long chunkedResponse(ChunkedResponse chunkedResponse, WriteCounters counters) {
+        final HttpResponse response = chunkedResponse.newResponse();
+        final long writes = response.collect().join().size();
+        counters.writes += writes;
+        return writes;
+    }
+
     static StreamMessage<Integer> newStream(StreamObjects streamObjects) {
         switch (streamObjects.streamType) {
             case DEFAULT_STREAM_MESSAGE:
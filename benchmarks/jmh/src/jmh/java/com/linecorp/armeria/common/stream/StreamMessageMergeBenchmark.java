@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.common.collect.ImmutableList;
+
+import io.netty.util.concurrent.ImmediateEventExecutor;
+
+/**
+ * Microbenchmarks of {@link StreamMessage#merge(Iterable, int)} and
+ * {@link StreamMessage#zip(Iterable, java.util.function.Function)}.
+ */
+@State(Scope.Benchmark)
+public class StreamMessageMergeBenchmark {
+
+    @Param({ "2", "8" })
+    private int numSources;
+
+    @Param({ "1000" })
+    private int numElements;
+
+    @Param({ "1", "32" })
+    private int prefetch;
+
+    private Integer[] elements;
+
+    @Setup
+    public void setUp() {
+        elements = IntStream.range(0, numElements).boxed().toArray(Integer[]::new);
+    }
+
+    private List<StreamMessage<Integer>> newSources() {
+        final ImmutableList.Builder<StreamMessage<Integer>> builder = ImmutableList.builder();
+        for (int i = 0; i < numSources; i++) {
+            builder.add(StreamMessage.of(elements));
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public List<Integer> merge() {
+        return StreamMessage.merge(newSources(), prefetch)
+                            .collect(ImmediateEventExecutor.INSTANCE).join();
+    }
+
+    @Benchmark
+    public List<Integer> concat() {
+        // The baseline which subscribes to the sources one by one.
+        return StreamMessage.concat(newSources())
+                            .collect(ImmediateEventExecutor.INSTANCE).join();
+    }
+
+    @Benchmark
+    public List<Integer> zip() {
+        return StreamMessage.zip(newSources(), items -> items.get(0))
+                            .collect(ImmediateEventExecutor.INSTANCE).join();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.thrift.text;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.thrift.TDeserializer;
+import org.apache.thrift.TSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.thrift.services.Catalog;
+import com.linecorp.armeria.thrift.services.Color;
+import com.linecorp.armeria.thrift.services.Item;
+
+/**
+ * Measures the performance of encoding and decoding a Thrift struct with nested structs, enums and
+ * containers using {@link TTextProtocol}.
+ */
+@State(Scope.Benchmark)
+public class TTextProtocolBenchmark {
+
+    @Param({ "false", "true" })
+    private boolean useNamedEnums;
+
+    private TSerializer serializer;
+    private TDeserializer deserializer;
+    private Catalog catalog;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        final TTextProtocolFactory factory = TTextProtocolFactory.get(useNamedEnums);
+        serializer = new TSerializer(factory);
+        deserializer = new TDeserializer(factory);
+
+        final List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            final Map<String, Integer> counts = new HashMap<>();
+            counts.put("views", i * 10);
+            counts.put("likes", i);
+            items.add(new Item(i, "item-" + i, Color.findByValue(i % 3 + 1),
+                               ImmutableList.of("foo", "bar", "baz"), counts));
+        }
+        catalog = new Catalog("catalog", items);
+        encoded = serializer.serialize(catalog);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return serializer.serialize(catalog);
+    }
+
+    @Benchmark
+    public Catalog decode() throws Exception {
+        final Catalog decoded = new Catalog();
+        deserializer.deserialize(decoded, encoded);
+        return decoded;
+    }
+}
@@ -28,7 +28,7 @@ import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.infra.Blackhole;
 
-import com.linecorp.armeria.client.Clients;
+import com.linecorp.armeria.client.ClientFactory;
 import com.linecorp.armeria.client.WebClient;
 import com.linecorp.armeria.common.HttpData;
 import com.linecorp.armeria.common.HttpResponse;
@@ -38,12 +38,25 @@ import com.linecorp.armeria.common.MediaType;
 import com.linecorp.armeria.common.ResponseHeaders;
 import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.metric.NoopMeterRegistry;
+import com.linecorp.armeria.common.util.ThreadFactories;
+import com.linecorp.armeria.common.util.TransportType;
 import com.linecorp.armeria.server.Server;
 import com.linecorp.armeria.server.ServerPort;
 import com.linecorp.armeria.shared.AsyncCounters;
 
+import io.netty.channel.EventLoopGroup;
+
 /**
  * Microbenchmarks of a {@link Server}.
+ *
+ * <p>Both the server and the client use the {@link TransportType} specified by {@code transportType}.
+ * Note that {@link TransportType#IO_URING} is available only when the JVM is started with
+ * {@code -Dcom.linecorp.armeria.transportType=io_uring}, e.g.
+ * <pre>{@code
+ * ./gradlew :benchmarks:jmh:jmh -Pjmh.includes=HttpServerBenchmark \
+ *     -Pjmh.params=transportType=IO_URING \
+ *     -Pjmh.jvmargs=-Dcom.linecorp.armeria.transportType=io_uring
+ * }</pre>
  */
 @State(Scope.Benchmark)
 public class HttpServerBenchmark {
@@ -65,16 +78,25 @@ public class HttpServerBenchmark {
     }
 
     private Server server;
+    private ClientFactory clientFactory;
     private WebClient webClient;
 
     @Param
     private Protocol protocol;
 
+    @Param({ "NIO", "EPOLL" })
+    private TransportType transportType;
+
     @Param("100")
     private int chunkCount;
 
     @Setup
     public void startServer() throws Exception {
+        if (!transportType.isAvailable()) {
+            throw new IllegalStateException(transportType + " is not available",
+                                            transportType.unavailabilityCause());
+        }
+
         final byte[] plaintext = "Hello, World!".getBytes(StandardCharsets.UTF_8);
 
         server = Server.builder()
@@ -96,18 +118,31 @@ public class HttpServerBenchmark {
                        })
                        .requestTimeout(Duration.ZERO)
                        .meterRegistry(NoopMeterRegistry.get())
+                       .workerGroup(newEventLoopGroup("server"), true)
                        .build();
         server.start().join();
         final ServerPort httpPort = server.activePorts().values().stream()
                                           .filter(ServerPort::hasHttp).findAny()
                                           .get();
-        webClient = Clients.newClient("none+" + protocol.uriText() + "://127.0.0.1:" +
-                                      httpPort.localAddress().getPort() + '/',
-                                      WebClient.class);
+        clientFactory = ClientFactory.builder()
+                                     .workerGroup(newEventLoopGroup("client"), true)
+                                     .meterRegistry(NoopMeterRegistry.get())
+                                     .build();
+        webClient = WebClient.builder("none+" + protocol.uriText() + "://127.0.0.1:" +
+                                      httpPort.localAddress().getPort() + '/')
+                             .factory(clientFactory)
+                             .build();
+    }
+
+    private EventLoopGroup newEventLoopGroup(String name) {
+        final int numThreads = Runtime.getRuntime().availableProcessors();
+        return transportType.newEventLoopGroup(numThreads, type -> ThreadFactories.newEventLoopThreadFactory(
+                "benchmark-" + name + '-' + type.lowerCasedName(), true));
     }
 
     @TearDown
     public void stopServer() throws Exception {
+        clientFactory.closeAsync().join();
         server.stop().join();
     }
 
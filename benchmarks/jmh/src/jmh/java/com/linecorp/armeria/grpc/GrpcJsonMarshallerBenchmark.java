@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.grpc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.protobuf.ByteString;
+
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.grpc.GrpcJsonMarshaller;
+import com.linecorp.armeria.grpc.OrderOuterClass.Order;
+import com.linecorp.armeria.grpc.OrderOuterClass.OrderItem;
+import com.linecorp.armeria.grpc.OrderOuterClass.OrderStatus;
+import com.linecorp.armeria.grpc.OrderServiceGrpc.OrderServiceImplBase;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.grpc.GrpcService;
+
+import io.grpc.MethodDescriptor.Marshaller;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Microbenchmarks of the JSON conversion of gRPC messages, which is used for the unframed JSON requests and
+ * the HTTP/JSON transcoding. {@code generatedCodecs} switches between the codecs generated from
+ * the message descriptors and the default {@code MessageMarshaller}.
+ */
+@State(Scope.Thread)
+public class GrpcJsonMarshallerBenchmark {
+
+    private static final Order ORDER;
+
+    static {
+        final Order.Builder builder = Order.newBuilder()
+                                           .setId("order-0123456789")
+                                           .setCustomerId("customer-9876543210")
+                                           .setStatus(OrderStatus.ORDER_STATUS_SHIPPED)
+                                           .putLabels("channel", "mobile")
+                                           .putLabels("region", "kr")
+                                           .setGift(true)
+                                           .setSignature(ByteString.copyFromUtf8("signature"));
+        for (int i = 0; i < 20; i++) {
+            builder.addItems(OrderItem.newBuilder()
+                                      .setSku("sku-" + i)
+                                      .setName("Armeria sticker #" + i)
+                                      .setQuantity(i + 1)
+                                      .setPriceMicros(1_500_000L * i)
+                                      .setDiscountRate(0.05 * (i % 3)));
+        }
+        ORDER = builder.build();
+    }
+
+    @Param({ "false", "true" })
+    private boolean generatedCodecs;
+
+    private GrpcJsonMarshaller jsonMarshaller;
+    private Marshaller<Order> marshaller;
+    private byte[] json;
+    private HttpService service;
+
+    @Setup
+    public void setUp() throws Exception {
+        jsonMarshaller = GrpcJsonMarshaller.builder()
+                                           .useGeneratedCodecs(generatedCodecs)
+                                           .build(OrderServiceGrpc.getServiceDescriptor());
+        marshaller = OrderServiceGrpc.getEchoMethod().getRequestMarshaller();
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        jsonMarshaller.serializeMessage(marshaller, ORDER, os);
+        json = os.toByteArray();
+
+        service = GrpcService.builder()
+                             .addService(new OrderServiceImplBase() {
+                                 @Override
+                                 public void echo(Order request, StreamObserver<Order> responseObserver) {
+                                     responseObserver.onNext(request);
+                                     responseObserver.onCompleted();
+                                 }
+                             })
+                             .enableUnframedRequests(true)
+                             .jsonMarshallerFactory(serviceDescriptor -> {
+                                 return GrpcJsonMarshaller.builder()
+                                                          .useGeneratedCodecs(generatedCodecs)
+                                                          .build(serviceDescriptor);
+                             })
+                             .build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream(json.length);
+        jsonMarshaller.serializeMessage(marshaller, ORDER, os);
+        return os.toByteArray();
+    }
+
+    @Benchmark
+    public Order deserialize() throws Exception {
+        return jsonMarshaller.deserializeMessage(marshaller, new ByteArrayInputStream(json));
+    }
+
+    /**
+     * Serves an unframed JSON request, which goes through the same conversion as a transcoded request.
+     */
+    @Benchmark
+    public AggregatedHttpResponse serveUnframedJson() throws Exception {
+        final HttpRequest req = HttpRequest.of(HttpMethod.POST,
+                                               '/' + OrderServiceGrpc.getEchoMethod().getFullMethodName(),
+                                               MediaType.JSON_UTF_8, new String(json, StandardCharsets.UTF_8));
+        final ServiceRequestContext ctx = ServiceRequestContext.builder(req)
+                                                               .service(service)
+                                                               .build();
+        return service.serve(ctx, req).aggregate().join();
+    }
+}
@@ -32,6 +32,7 @@ import com.linecorp.armeria.grpc.shared.GithubApiService;
 import com.linecorp.armeria.grpc.shared.SimpleBenchmarkBase;
 import com.linecorp.armeria.server.Server;
 import com.linecorp.armeria.server.grpc.GrpcService;
+import com.linecorp.armeria.server.grpc.GrpcServiceBuilder;
 
 @State(Scope.Benchmark)
 @Fork(jvmArgsAppend = "-Dcom.linecorp.armeria.cachedHeaders=:authority,:scheme,:method,accept-encoding," +
@@ -45,6 +46,12 @@ public class DownstreamSimpleBenchmark extends SimpleBenchmarkBase {
     @Param(value = {"false"})
     private Boolean useBlockingTaskExecutor;
 
+    @Param({ "false", "true" })
+    private boolean coalesceStreamingResponses;
+
+    @Param({ "false", "true" })
+    private boolean useUnaryFastPath;
+
     @Override
     protected int port() {
         return server.activeLocalPort(SessionProtocol.HTTP);
@@ -62,18 +69,26 @@ public class DownstreamSimpleBenchmark extends SimpleBenchmarkBase {
 
     @Override
     protected void setUp() throws Exception {
+        final GrpcServiceBuilder grpcServiceBuilder =
+                GrpcService.builder()
+                           .useBlockingTaskExecutor(useBlockingTaskExecutor)
+                           .addService(new GithubApiService());
+        if (coalesceStreamingResponses) {
+            grpcServiceBuilder.coalesceStreamingResponses(16384, Duration.ofMillis(10));
+        }
         server = Server.builder()
-                       .serviceUnder("/",
-                                     GrpcService.builder()
-                                                .useBlockingTaskExecutor(useBlockingTaskExecutor)
-                                                .addService(new GithubApiService()).build())
-                                                .requestTimeout(Duration.ZERO)
-                                                .meterRegistry(NoopMeterRegistry.get())
-                                                .build();
+                       .serviceUnder("/", grpcServiceBuilder.build())
+                       .requestTimeout(Duration.ZERO)
+                       .meterRegistry(NoopMeterRegistry.get())
+                       .build();
         server.start().join();
         final String url = "http://127.0.0.1:" + port() + '/';
-        githubApiClient = GrpcClients.newClient(url, GithubServiceBlockingStub.class);
-        githubApiFutureClient = GrpcClients.newClient(url, GithubServiceFutureStub.class);
+        githubApiClient = GrpcClients.builder(url)
+                                     .useUnaryFastPath(useUnaryFastPath)
+                                     .build(GithubServiceBlockingStub.class);
+        githubApiFutureClient = GrpcClients.builder(url)
+                                           .useUnaryFastPath(useUnaryFastPath)
+                                           .build(GithubServiceFutureStub.class);
     }
 
     @Override
@@ -29,10 +29,15 @@ import com.google.protobuf.ByteString;
 import com.google.protobuf.util.Timestamps;
 
 import com.linecorp.armeria.client.grpc.GrpcClients;
+import com.linecorp.armeria.common.HttpData;
 import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.grpc.GrpcSerializationFormats;
+import com.linecorp.armeria.common.grpc.protocol.ArmeriaMessageFramer;
+import com.linecorp.armeria.grpc.BinaryProxyGrpc;
 import com.linecorp.armeria.grpc.BinaryProxyGrpc.BinaryProxyImplBase;
 import com.linecorp.armeria.grpc.BinaryProxyGrpc.BinaryProxyStub;
 import com.linecorp.armeria.grpc.BinaryProxyOuterClass.BinaryPayload;
+import com.linecorp.armeria.internal.common.grpc.GrpcMessageMarshaller;
 import com.linecorp.armeria.server.Server;
 import com.linecorp.armeria.server.ServiceRequestContext;
 import com.linecorp.armeria.server.grpc.GrpcService;
@@ -40,6 +45,8 @@ import com.linecorp.armeria.unsafe.grpc.GrpcUnsafeBufferUtil;
 
 import io.grpc.BindableService;
 import io.grpc.stub.StreamObserver;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import joptsimple.internal.Strings;
 
 /**
@@ -59,6 +66,8 @@ public class LargePayloadBenchmark {
     private Server server;
     private BindableService bindableService;
     private BinaryProxyStub binaryProxyClient;
+    private GrpcMessageMarshaller<BinaryPayload, BinaryPayload> marshaller;
+    private ArmeriaMessageFramer framer;
 
     @Param({ "false", "true" })
     private boolean wrapBuffer;
@@ -105,13 +114,38 @@ public class LargePayloadBenchmark {
 
         final String url = "http://127.0.0.1:" + server.activeLocalPort(SessionProtocol.HTTP) + '/';
         binaryProxyClient = GrpcClients.newClient(url, BinaryProxyStub.class);
+
+        marshaller = new GrpcMessageMarshaller<>(ByteBufAllocator.DEFAULT, GrpcSerializationFormats.PROTO,
+                                                 BinaryProxyGrpc.getEchoMethod(), null, false, false);
+        framer = new ArmeriaMessageFramer(ByteBufAllocator.DEFAULT,
+                                          ArmeriaMessageFramer.NO_MAX_OUTBOUND_MESSAGE_SIZE, false);
     }
 
     @TearDown
     public void tearDown() {
+        framer.close();
         server.stop().join();
     }
 
+    /**
+     * Serializes and frames a response in the way before the message is serialized right after the header.
+     */
+    @Benchmark
+    public int frameResponse() throws Exception {
+        try (HttpData framed = framer.writePayload(marshaller.serializeResponse(PAYLOAD))) {
+            return framed.length();
+        }
+    }
+
+    @Benchmark
+    public int frameResponseInPlace() throws Exception {
+        final ByteBuf frame = marshaller.serializeResponse(PAYLOAD, ArmeriaMessageFramer.HEADER_LENGTH);
+        assert frame != null;
+        try (HttpData framed = framer.writeReservedPayload(frame)) {
+            return framed.length();
+        }
+    }
+
     @Benchmark
     public boolean normal() throws Exception {
         final EchoObserver responseObserver = new EchoObserver();
@@ -22,6 +22,8 @@ import com.google.common.io.Resources;
 import com.google.protobuf.Empty;
 
 import com.linecorp.armeria.grpc.GithubApi.SearchResponse;
+import com.linecorp.armeria.grpc.GithubApi.StreamRequest;
+import com.linecorp.armeria.grpc.GithubApi.StreamResponse;
 import com.linecorp.armeria.grpc.GithubServiceGrpc.GithubServiceImplBase;
 
 import io.grpc.stub.StreamObserver;
@@ -53,4 +55,13 @@ public class GithubApiService extends GithubServiceImplBase {
         responseObserver.onNext(Empty.getDefaultInstance());
         responseObserver.onCompleted();
     }
+
+    @Override
+    public void stream(StreamRequest request, StreamObserver<StreamResponse> responseObserver) {
+        final StreamResponse.Builder builder = StreamResponse.newBuilder().setName("armeria");
+        for (int i = 0; i < request.getCount(); i++) {
+            responseObserver.onNext(builder.setSequence(i).build());
+        }
+        responseObserver.onCompleted();
+    }
 }
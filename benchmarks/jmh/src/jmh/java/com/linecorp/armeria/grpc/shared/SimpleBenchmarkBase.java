@@ -18,6 +18,7 @@ package com.linecorp.armeria.grpc.shared;
 
 import static com.linecorp.armeria.grpc.shared.GithubApiService.SEARCH_RESPONSE;
 
+import java.util.Iterator;
 import java.util.concurrent.TimeUnit;
 
 import org.openjdk.jmh.annotations.Benchmark;
@@ -34,6 +35,8 @@ import com.google.protobuf.Empty;
 
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.grpc.GithubApi.SearchResponse;
+import com.linecorp.armeria.grpc.GithubApi.StreamRequest;
+import com.linecorp.armeria.grpc.GithubApi.StreamResponse;
 import com.linecorp.armeria.grpc.GithubServiceGrpc;
 import com.linecorp.armeria.grpc.GithubServiceGrpc.GithubServiceBlockingStub;
 import com.linecorp.armeria.grpc.GithubServiceGrpc.GithubServiceFutureStub;
@@ -48,6 +51,8 @@ import io.grpc.okhttp.OkHttpChannelBuilder;
 @State(Scope.Benchmark)
 public abstract class SimpleBenchmarkBase {
 
+    private static final StreamRequest STREAM_REQUEST = StreamRequest.newBuilder().setCount(1000).build();
+
     /**
      * The port the benchmark's server is listening on.
      */
@@ -127,6 +132,17 @@ public abstract class SimpleBenchmarkBase {
                 MoreExecutors.directExecutor());
     }
 
+    @Benchmark
+    public int stream() throws Exception {
+        int numResponses = 0;
+        final Iterator<StreamResponse> it = stub().stream(STREAM_REQUEST);
+        while (it.hasNext()) {
+            it.next();
+            numResponses++;
+        }
+        return numResponses;
+    }
+
     private GithubServiceBlockingStub stub() {
         return clientType == ClientType.NORMAL ? normalClient() : githubApiOkhttpClient;
     }
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package com.linecorp.armeria.internal.common.websocket;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.AuxCounters.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.linecorp.armeria.common.websocket.PerMessageDeflateConfig;
+import com.linecorp.armeria.common.websocket.WebSocketFrame;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Microbenchmarks of the permessage-deflate extension. The CPU cost per message is the inverse of
+ * the throughput and the bytes on the wire per message is {@code wireBytes / messages} of
+ * the {@link WireCounters}.
+ */
+@State(Scope.Thread)
+public class PerMessageDeflateBenchmark {
+
+    public enum Compression {
+        NONE,
+        CONTEXT_TAKEOVER,
+        NO_CONTEXT_TAKEOVER
+    }
+
+    private static final String JSON_ELEMENT =
+            "{\"id\":%d,\"symbol\":\"ARMR\",\"price\":%d.25,\"volume\":%d,\"exchange\":\"LINE\"},";
+
+    private static final ByteBufAllocator alloc = ByteBufAllocator.DEFAULT;
+
+    @Param
+    private Compression compression;
+
+    @Param({ "256", "4096", "65536" })
+    private int messageSize;
+
+    private byte[] message;
+    private byte[] compressedPayload;
+    private WebSocketFrameEncoder encoder;
+    private WebSocketFrameCompressor compressor;
+    private WebSocketFrameDecompressor decompressor;
+
+    @AuxCounters(Type.EVENTS)
+    @State(Scope.Thread)
+    public static class WireCounters {
+        public long wireBytes;
+        public long messages;
+    }
+
+    @Setup
+    public void setUp() {
+        // A feed of JSON objects whose keys repeat and whose values vary.
+        final StringBuilder buf = new StringBuilder(messageSize + 128).append('[');
+        for (int i = 0; buf.length() < messageSize - 1; i++) {
+            buf.append(String.format(JSON_ELEMENT, i, 100 + i % 17, i * 31 % 1000));
+        }
+        buf.setLength(messageSize - 1);
+        message = buf.append(']').toString().getBytes(StandardCharsets.UTF_8);
+
+        encoder = WebSocketFrameEncoder.of(false);
+        if (compression == Compression.NONE) {
+            return;
+        }
+        final boolean noContextTakeover = compression == Compression.NO_CONTEXT_TAKEOVER;
+        final PerMessageDeflateConfig config =
+                PerMessageDeflateConfig.builder()
+                                       .minCompressionLength(0)
+                                       .serverNoContextTakeover(noContextTakeover)
+                                       .clientNoContextTakeover(noContextTakeover)
+                                       .build();
+        final PerMessageDeflate perMessageDeflate = PerMessageDeflate.negotiate("permessage-deflate", config);
+        assert perMessageDeflate != null;
+        compressor = perMessageDeflate.newCompressor(true);
+        decompressor = perMessageDeflate.newDecompressor(true, alloc);
+        compressedPayload = compress(message);
+    }
+
+    private static byte[] compress(byte[] message) {
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(message);
+        final byte[] out = new byte[message.length + 64];
+        final int length = deflater.deflate(out, 0, out.length, Deflater.SYNC_FLUSH);
+        deflater.end();
+        // Remove the tail (0x00 0x00 0xff 0xff).
+        return Arrays.copyOf(out, length - 4);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (compressor != null) {
+            compressor.close();
+            decompressor.close();
+        }
+    }
+
+    @Benchmark
+    public int encode(WireCounters counters) {
+        final WebSocketFrame frame = WebSocketFrame.ofText(message);
+        final ByteBuf encoded;
+        if (compressor != null) {
+            encoded = compressor.encode(alloc, frame);
+        } else {
+            encoded = encoder.encode(alloc, frame);
+        }
+        final int length = encoded.readableBytes();
+        encoded.release();
+        counters.wireBytes += length;
+        counters.messages++;
+        return length;
+    }
+
+    @Benchmark
+    public int decompress() throws DataFormatException {
+        if (decompressor == null) {
+            return message.length;
+        }
+        final ByteBuf decompressed = decompressor.decompress(Unpooled.wrappedBuffer(compressedPayload),
+                                                             true, Integer.MAX_VALUE);
+        assert decompressed != null;
+        final int length = decompressed.readableBytes();
+        decompressed.release();
+        return length;
+    }
+}
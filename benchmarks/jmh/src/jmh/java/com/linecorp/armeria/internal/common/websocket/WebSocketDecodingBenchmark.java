@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package com.linecorp.armeria.internal.common.websocket;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.google.common.base.Strings;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * Microbenchmarks of the UTF-8 validation and the unmasking of a WebSocket frame payload.
+ * The {@code legacy*} benchmarks process the payload in the way before the word-at-a-time loops.
+ */
+@State(Scope.Thread)
+public class WebSocketDecodingBenchmark {
+
+    public enum Payload {
+        ASCII,
+        MULTILINGUAL
+    }
+
+    @Param
+    private Payload payload;
+
+    @Param({ "64", "1024", "65536" })
+    private int payloadSize;
+
+    @Param({ "true", "false" })
+    private boolean direct;
+
+    private ByteBuf buf;
+    private int mask;
+
+    @Setup
+    public void setUp() {
+        final String text;
+        if (payload == Payload.ASCII) {
+            text = Strings.repeat("{\"message\":\"Hello, Armeria!\"},", payloadSize / 29 + 1);
+        } else {
+            text = Strings.repeat("{\"message\":\"Hello, 아르메리아! 😀\"},", payloadSize / 44 + 1);
+        }
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        buf = direct ? ByteBufAllocator.DEFAULT.directBuffer(payloadSize)
+                     : ByteBufAllocator.DEFAULT.heapBuffer(payloadSize);
+        // Do not cut a multibyte sequence in the middle.
+        int length = Math.min(payloadSize, bytes.length);
+        while ((bytes[length - 1] & 0xC0) == 0x80 || (bytes[length - 1] & 0xC0) == 0xC0) {
+            length--;
+        }
+        buf.writeBytes(bytes, 0, length);
+        mask = ThreadLocalRandom.current().nextInt();
+    }
+
+    @TearDown
+    public void tearDown() {
+        buf.release();
+    }
+
+    @Benchmark
+    public boolean validateUtf8() {
+        final Utf8Validator validator = new Utf8Validator();
+        validator.check(buf, buf.readerIndex(), buf.readableBytes());
+        return validator.isComplete();
+    }
+
+    @Benchmark
+    public boolean legacyValidateUtf8() {
+        final Utf8Validator validator = new Utf8Validator();
+        buf.forEachByte(value -> {
+            validator.process(value);
+            return true;
+        });
+        return validator.isComplete();
+    }
+
+    @Benchmark
+    public ByteBuf unmask() {
+        WebSocketUtil.unmask(buf, mask);
+        return buf;
+    }
+
+    @Benchmark
+    public ByteBuf legacyUnmask() {
+        long longMask = mask & 0xFFFFFFFFL;
+        longMask |= longMask << 32;
+
+        int i = buf.readerIndex();
+        final int end = buf.writerIndex();
+        for (final int lim = end - 7; i < lim; i += 8) {
+            buf.setLong(i, buf.getLong(i) ^ longMask);
+        }
+
+        if (i < end - 3) {
+            buf.setInt(i, buf.getInt(i) ^ (int) longMask);
+            i += 4;
+        }
+
+        int maskOffset = 0;
+        for (; i < end; i++) {
+            buf.setByte(i, buf.getByte(i) ^ WebSocketUtil.byteAtIndex(mask, maskOffset++ & 3));
+        }
+        return buf;
+    }
+}
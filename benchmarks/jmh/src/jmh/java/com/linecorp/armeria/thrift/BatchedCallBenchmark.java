@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.thrift;
+
+import java.time.Duration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.linecorp.armeria.client.thrift.ThriftClients;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.thrift.ThriftFuture;
+import com.linecorp.armeria.server.Server;
+import com.linecorp.armeria.server.thrift.THttpService;
+import com.linecorp.armeria.thrift.services.HelloService;
+import com.linecorp.armeria.thrift.services.HelloService.AsyncIface;
+
+/**
+ * Compares the performance of sending concurrent Thrift calls in separate HTTP/2 streams and
+ * packing them into fewer HTTP requests.
+ */
+@State(Scope.Benchmark)
+public class BatchedCallBenchmark {
+
+    private static final int NUM_CALLS = 32;
+
+    @Param({ "1", "8", "32" })
+    private int maxBatchSize;
+
+    private Server server;
+    private HelloService.AsyncIface client;
+
+    @Setup
+    public void startServer() throws Exception {
+        final THttpService service = THttpService.builder()
+                                                 .addService((AsyncIface) (name, cb) -> cb.onComplete(name))
+                                                 .allowBatchedRequests(true)
+                                                 .build();
+        server = Server.builder()
+                       .service("/hello", service)
+                       .build();
+        server.start().join();
+
+        final int httpPort = server.activeLocalPort(SessionProtocol.HTTP);
+        client = ThriftClients.builder("http://127.0.0.1:" + httpPort)
+                              .path("/hello")
+                              .batchCalls(maxBatchSize, Duration.ofMillis(1))
+                              .build(HelloService.AsyncIface.class);
+    }
+
+    @TearDown
+    public void stopServer() throws Exception {
+        server.stop().join();
+    }
+
+    @Benchmark
+    public void concurrentCalls(Blackhole bh) throws Exception {
+        @SuppressWarnings("unchecked")
+        final ThriftFuture<String>[] futures = new ThriftFuture[NUM_CALLS];
+        for (int i = 0; i < NUM_CALLS; i++) {
+            futures[i] = new ThriftFuture<>();
+            client.hello("hello", futures[i]);
+        }
+        for (ThriftFuture<String> future : futures) {
+            bh.consume(future.get());
+        }
+    }
+}
@@ -4,3 +4,23 @@ namespace java com.linecorp.armeria.thrift.services
 service HelloService {
     string hello(1:string name)
 }
+
+// Used by TTextProtocolBenchmark.
+enum Color {
+    RED = 1,
+    GREEN = 2,
+    BLUE = 3
+}
+
+struct Item {
+    1: i64 id,
+    2: string name,
+    3: Color color,
+    4: list<string> tags,
+    5: map<string, i32> counts
+}
+
+struct Catalog {
+    1: string name,
+    2: list<Item> items
+}
@@ -31,7 +31,9 @@ abstract class AbstractEventLoopState {
                                      DefaultEventLoopScheduler scheduler) {
         if (maxNumEventLoops == 1) {
             return new OneEventLoopState(eventLoops, scheduler);
-        } else if (maxNumEventLoops <= 128) {
+        } else if (maxNumEventLoops <= 128 || scheduler.isLoadAware()) {
+            // A load-aware state scans all entries because the load of an event loop changes
+            // without acquisition and release, which a heap cannot track.
             return new ArrayBasedEventLoopState(eventLoops, maxNumEventLoops, scheduler);
         }
         return new HeapBasedEventLoopState(eventLoops, maxNumEventLoops, scheduler);
@@ -25,12 +25,14 @@ final class ArrayBasedEventLoopState extends AbstractEventLoopState {
 
     private final AbstractEventLoopEntry[] entries;
     private final int maxNumEventLoops;
+    private final boolean loadAware;
     private int allActiveRequests;
 
     ArrayBasedEventLoopState(List<EventLoop> eventLoops, int maxNumEventLoops,
                              DefaultEventLoopScheduler scheduler) {
         super(eventLoops, scheduler);
         this.maxNumEventLoops = maxNumEventLoops;
+        loadAware = scheduler.isLoadAware();
         entries = new AbstractEventLoopEntry[maxNumEventLoops];
         if (eventLoops.size() == maxNumEventLoops) {
             init(0);
@@ -50,6 +52,10 @@ final class ArrayBasedEventLoopState extends AbstractEventLoopState {
     }
 
     private AbstractEventLoopEntry targetEntry() {
+        if (loadAware) {
+            return leastLoadedEntry();
+        }
+
         int minActiveRequest = Integer.MAX_VALUE;
         int targetIndex = 0;
         for (int i = 0; i < maxNumEventLoops; ++i) {
@@ -66,6 +72,27 @@ final class ArrayBasedEventLoopState extends AbstractEventLoopState {
         return entries[targetIndex];
     }
 
+    /**
+     * Returns the entry with the least sum of its active requests and
+     * the {@linkplain DefaultEventLoopScheduler#load(EventLoop) measured load} of its {@link EventLoop}.
+     */
+    private AbstractEventLoopEntry leastLoadedEntry() {
+        long minLoad = Long.MAX_VALUE;
+        int targetIndex = 0;
+        for (int i = 0; i < maxNumEventLoops; ++i) {
+            final AbstractEventLoopEntry e = entries[i];
+            final long load = e.activeRequests() + scheduler().load(e.get());
+            if (load == 0) {
+                return e;
+            }
+            if (minLoad > load) {
+                minLoad = load;
+                targetIndex = i;
+            }
+        }
+        return entries[targetIndex];
+    }
+
     @Override
     AbstractEventLoopEntry acquire() {
         lock();
@@ -70,6 +70,7 @@ import com.linecorp.armeria.common.util.TlsEngineType;
 import com.linecorp.armeria.internal.common.IgnoreHostsTrustManager;
 import com.linecorp.armeria.internal.common.RequestContextUtil;
 import com.linecorp.armeria.internal.common.util.ChannelUtil;
+import com.linecorp.armeria.server.ServiceRequestContext;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.ChannelOption;
@@ -124,6 +125,8 @@ public final class ClientFactoryBuilder implements TlsSetters {
     private int maxNumEventLoopsPerEndpoint;
     private int maxNumEventLoopsPerHttp1Endpoint;
     private final List<ToIntFunction<Endpoint>> maxNumEventLoopsFunctions = new ArrayList<>();
+    private boolean preferServiceEventLoop;
+    private boolean loadAwareEventLoopScheduling;
     private boolean tlsNoVerifySet;
     private final Set<String> insecureHosts = new HashSet<>();
     @Nullable
@@ -171,6 +174,10 @@ public final class ClientFactoryBuilder implements TlsSetters {
         checkState(maxNumEventLoopsPerHttp1Endpoint == 0 && maxNumEventLoopsPerEndpoint == 0 &&
                    maxNumEventLoopsFunctions.isEmpty(),
                    "Cannot set eventLoopSchedulerFactory when maxEventLoop per endpoint is specified.");
+        checkState(!preferServiceEventLoop,
+                   "preferServiceEventLoop() and eventLoopSchedulerFactory() are mutually exclusive.");
+        checkState(!loadAwareEventLoopScheduling,
+                   "loadAwareEventLoopScheduling() and eventLoopSchedulerFactory() are mutually exclusive.");
         option(ClientFactoryOptions.EVENT_LOOP_SCHEDULER_FACTORY, eventLoopSchedulerFactory);
         return this;
     }
@@ -227,6 +234,46 @@ public final class ClientFactoryBuilder implements TlsSetters {
         return this;
     }
 
+    /**
+     * Sets whether to prefer the {@link EventLoop} of the current {@link ServiceRequestContext} when
+     * a request is sent while handling a server-side request. If enabled, the request and its response are
+     * handled by the same {@link EventLoop} as the server-side request unless the {@link EventLoop} is
+     * overloaded, which avoids handing off every request and response chunk to another thread.
+     * Note that this may increase the number of connections to an {@link Endpoint} up to the number of
+     * {@link EventLoop}s, because a connection is bound to an {@link EventLoop}.
+     * It works only when the server and this {@link ClientFactory} share the same worker
+     * {@link EventLoopGroup}, which is the default. This option is disabled by default.
+     *
+     * <p>The number of acquisitions on the same or a different {@link EventLoop} are exported as
+     * {@code armeria.client.event.loop.acquisitions} meters.
+     */
+    @UnstableApi
+    public ClientFactoryBuilder preferServiceEventLoop(boolean preferServiceEventLoop) {
+        checkState(!options.containsKey(ClientFactoryOptions.EVENT_LOOP_SCHEDULER_FACTORY),
+                   "preferServiceEventLoop() and eventLoopSchedulerFactory() are mutually exclusive.");
+        this.preferServiceEventLoop = preferServiceEventLoop;
+        return this;
+    }
+
+    /**
+     * Sets whether to choose an {@link EventLoop} for an {@link Endpoint} by how busy the {@link EventLoop}
+     * actually is. If enabled, the {@link EventLoop} with the least sum of the active requests to
+     * the {@link Endpoint}, the number of its pending tasks and its recent task latency is chosen, so that
+     * an {@link EventLoop} stuck on heavy work, e.g. TLS handshakes, does not get new requests. If disabled,
+     * only the number of active requests to the {@link Endpoint} is used. This option has no effect when
+     * only one {@link EventLoop} is used for an {@link Endpoint}. This option is disabled by default.
+     *
+     * @see #maxNumEventLoopsPerEndpoint(int)
+     * @see #maxNumEventLoopsPerHttp1Endpoint(int)
+     */
+    @UnstableApi
+    public ClientFactoryBuilder loadAwareEventLoopScheduling(boolean loadAwareEventLoopScheduling) {
+        checkState(!options.containsKey(ClientFactoryOptions.EVENT_LOOP_SCHEDULER_FACTORY),
+                   "loadAwareEventLoopScheduling() and eventLoopSchedulerFactory() are mutually exclusive.");
+        this.loadAwareEventLoopScheduling = loadAwareEventLoopScheduling;
+        return this;
+    }
+
     /**
      * Sets the timeout of a socket connection attempt.
      */
@@ -987,7 +1034,8 @@ public final class ClientFactoryBuilder implements TlsSetters {
             final Function<? super EventLoopGroup, ? extends EventLoopScheduler> eventLoopSchedulerFactory =
                     eventLoopGroup -> new DefaultEventLoopScheduler(
                             eventLoopGroup, maxNumEventLoopsPerEndpoint, maxNumEventLoopsPerHttp1Endpoint,
-                            maxNumEventLoopsFunctions);
+                            maxNumEventLoopsFunctions, preferServiceEventLoop,
+                            loadAwareEventLoopScheduling);
             return ClientFactoryOptions.EVENT_LOOP_SCHEDULER_FACTORY.newValue(eventLoopSchedulerFactory);
         });
 
@@ -1060,7 +1108,8 @@ public final class ClientFactoryBuilder implements TlsSetters {
 
         final Map<ChannelOption<?>, Object> newChannelOptions =
                 ChannelUtil.applyDefaultChannelOptions(
-                        newOptions.channelOptions(), idleTimeoutMillis, pingIntervalMillis);
+                        ChannelUtil.transportType(newOptions.workerGroup()), newOptions.channelOptions(),
+                        idleTimeoutMillis, pingIntervalMillis);
         adjustedOptionsBuilder.add(ClientFactoryOptions.CHANNEL_OPTIONS.newValue(newChannelOptions));
 
         final List<ClientFactoryOptionValue<?>> adjustedOptions = adjustedOptionsBuilder.build();
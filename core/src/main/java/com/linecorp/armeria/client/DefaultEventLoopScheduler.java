@@ -27,6 +27,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.ToIntFunction;
 
@@ -35,6 +36,7 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Streams;
 
 import com.linecorp.armeria.client.endpoint.EndpointGroup;
@@ -42,9 +44,13 @@ import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.util.ReleasableHolder;
 import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
+import com.linecorp.armeria.server.ServiceRequestContext;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
 
 final class DefaultEventLoopScheduler implements EventLoopScheduler {
     private static final Logger logger = LoggerFactory.getLogger(DefaultEventLoopScheduler.class);
@@ -59,6 +65,12 @@ final class DefaultEventLoopScheduler implements EventLoopScheduler {
 
     static final int DEFAULT_MAX_NUM_EVENT_LOOPS = 1;
 
+    /**
+     * The number of pending tasks above which the {@link EventLoop} of the current
+     * {@link ServiceRequestContext} is considered overloaded and thus not preferred.
+     */
+    static final int MAX_PENDING_TASKS_FOR_AFFINITY = 1024;
+
     private final ReentrantLock lock = new ReentrantShortLock();
 
     private final List<EventLoop> eventLoops;
@@ -70,6 +82,12 @@ final class DefaultEventLoopScheduler implements EventLoopScheduler {
 
     private final List<ToIntFunction<Endpoint>> maxNumEventLoopsFunctions;
 
+    private final boolean preferServiceEventLoop;
+    private final Map<EventLoop, ReleasableHolder<EventLoop>> affinityHolders;
+    private final Map<EventLoop, EventLoopLoadProbe> loadProbes;
+    private final LongAdder sameEventLoopAcquisitions = new LongAdder();
+    private final LongAdder crossEventLoopAcquisitions = new LongAdder();
+
     private int cleanupCounter;
 
     @SuppressWarnings("FieldMayBeFinal")
@@ -81,9 +99,38 @@ final class DefaultEventLoopScheduler implements EventLoopScheduler {
     DefaultEventLoopScheduler(EventLoopGroup eventLoopGroup, int maxNumEventLoopsPerEndpoint,
                               int maxNumEventLoopsPerHttp1Endpoint,
                               List<ToIntFunction<Endpoint>> maxNumEventLoopsFunctions) {
+        this(eventLoopGroup, maxNumEventLoopsPerEndpoint, maxNumEventLoopsPerHttp1Endpoint,
+             maxNumEventLoopsFunctions, false, false);
+    }
+
+    DefaultEventLoopScheduler(EventLoopGroup eventLoopGroup, int maxNumEventLoopsPerEndpoint,
+                              int maxNumEventLoopsPerHttp1Endpoint,
+                              List<ToIntFunction<Endpoint>> maxNumEventLoopsFunctions,
+                              boolean preferServiceEventLoop, boolean loadAware) {
         eventLoops = Streams.stream(eventLoopGroup)
                             .map(EventLoop.class::cast)
                             .collect(toImmutableList());
+        this.preferServiceEventLoop = preferServiceEventLoop;
+        if (preferServiceEventLoop) {
+            final ImmutableMap.Builder<EventLoop, ReleasableHolder<EventLoop>> builder =
+                    ImmutableMap.builderWithExpectedSize(eventLoops.size());
+            for (EventLoop eventLoop : eventLoops) {
+                builder.put(eventLoop, new AffinityHolder(eventLoop));
+            }
+            affinityHolders = builder.build();
+        } else {
+            affinityHolders = ImmutableMap.of();
+        }
+        if (loadAware) {
+            final ImmutableMap.Builder<EventLoop, EventLoopLoadProbe> builder =
+                    ImmutableMap.builderWithExpectedSize(eventLoops.size());
+            for (EventLoop eventLoop : eventLoops) {
+                builder.put(eventLoop, new EventLoopLoadProbe(eventLoop));
+            }
+            loadProbes = builder.build();
+        } else {
+            loadProbes = ImmutableMap.of();
+        }
         final int eventLoopSize = eventLoops.size();
         acquisitionStartIndex = ThreadLocalRandom.current().nextInt(eventLoopSize);
 
@@ -117,18 +164,115 @@ final class DefaultEventLoopScheduler implements EventLoopScheduler {
         }
     }
 
+    /**
+     * Returns whether an {@link AbstractEventLoopState} should choose an {@link EventLoop} by its measured
+     * load in addition to the number of active requests.
+     */
+    boolean isLoadAware() {
+        return !loadProbes.isEmpty();
+    }
+
+    /**
+     * Returns the estimated load of the specified {@link EventLoop}.
+     *
+     * @see EventLoopLoadProbe#load()
+     */
+    long load(EventLoop eventLoop) {
+        final EventLoopLoadProbe probe = loadProbes.get(eventLoop);
+        assert probe != null;
+        return probe.load();
+    }
+
     @Override
     public ReleasableHolder<EventLoop> acquire(SessionProtocol sessionProtocol,
                                                EndpointGroup endpointGroup,
                                                @Nullable Endpoint endpoint) {
         requireNonNull(sessionProtocol, "sessionProtocol");
         requireNonNull(endpointGroup, "endpointGroup");
+
+        EventLoop serviceEventLoop = null;
+        if (preferServiceEventLoop) {
+            serviceEventLoop = serviceEventLoop();
+            if (serviceEventLoop != null && !isOverloaded(serviceEventLoop)) {
+                // Stay on the event loop of the current ServiceRequestContext
+                // to avoid handing off the request and response to another thread.
+                sameEventLoopAcquisitions.increment();
+                final ReleasableHolder<EventLoop> holder = affinityHolders.get(serviceEventLoop);
+                assert holder != null;
+                return holder;
+            }
+        }
+
         final AbstractEventLoopState state = state(sessionProtocol, endpointGroup, endpoint);
         final AbstractEventLoopEntry acquired = state.acquire();
+        if (serviceEventLoop != null) {
+            if (acquired.get() == serviceEventLoop) {
+                sameEventLoopAcquisitions.increment();
+            } else {
+                crossEventLoopAcquisitions.increment();
+            }
+        }
         cleanup();
         return acquired;
     }
 
+    /**
+     * Returns the {@link EventLoop} of the current {@link ServiceRequestContext} if it belongs to
+     * the {@link EventLoopGroup} of this scheduler.
+     */
+    @Nullable
+    private EventLoop serviceEventLoop() {
+        final ServiceRequestContext ctx = ServiceRequestContext.currentOrNull();
+        if (ctx == null) {
+            return null;
+        }
+        final EventLoop eventLoop = ctx.eventLoop().withoutContext();
+        return affinityHolders.containsKey(eventLoop) ? eventLoop : null;
+    }
+
+    private static boolean isOverloaded(EventLoop eventLoop) {
+        return eventLoop instanceof SingleThreadEventExecutor &&
+               ((SingleThreadEventExecutor) eventLoop).pendingTasks() > MAX_PENDING_TASKS_FOR_AFFINITY;
+    }
+
+    /**
+     * Returns the number of the {@link EventLoop}s acquired while handling a server-side request,
+     * which are the same with the {@link EventLoop} of the {@link ServiceRequestContext}.
+     */
+    long sameEventLoopAcquisitions() {
+        return sameEventLoopAcquisitions.sum();
+    }
+
+    /**
+     * Returns the number of the {@link EventLoop}s acquired while handling a server-side request,
+     * which are different from the {@link EventLoop} of the {@link ServiceRequestContext}. A request sent
+     * from such an {@link EventLoop} is handed off to another thread.
+     */
+    long crossEventLoopAcquisitions() {
+        return crossEventLoopAcquisitions.sum();
+    }
+
+    /**
+     * Registers the meters which count the {@link EventLoop} acquisitions made while handling
+     * a server-side request, if {@code preferServiceEventLoop} is enabled.
+     */
+    void bindTo(MeterRegistry registry) {
+        if (!preferServiceEventLoop) {
+            return;
+        }
+        FunctionCounter.builder("armeria.client.event.loop.acquisitions", this,
+                                scheduler -> scheduler.sameEventLoopAcquisitions())
+                       .tag("result", "same")
+                       .description("The number of event loops acquired on the server-side event loop")
+                       .register(registry);
+        FunctionCounter.builder("armeria.client.event.loop.acquisitions", this,
+                                scheduler -> scheduler.crossEventLoopAcquisitions())
+                       .tag("result", "cross")
+                       .description("The number of event loops acquired on other than " +
+                                    "the server-side event loop")
+                       .register(registry);
+    }
+
     @VisibleForTesting
     AbstractEventLoopEntry[] entries(SessionProtocol sessionProtocol,
                                      EndpointGroup endpointGroup,
@@ -266,6 +410,25 @@ final class DefaultEventLoopScheduler implements EventLoopScheduler {
         }
     }
 
+    private static final class AffinityHolder implements ReleasableHolder<EventLoop> {
+
+        private final EventLoop eventLoop;
+
+        AffinityHolder(EventLoop eventLoop) {
+            this.eventLoop = eventLoop;
+        }
+
+        @Override
+        public EventLoop get() {
+            return eventLoop;
+        }
+
+        @Override
+        public void release() {
+            // An EventLoop acquired for affinity is not tracked by AbstractEventLoopState.
+        }
+    }
+
     private static final class StateKey {
         private final String ipOrHost;
         private final int port;
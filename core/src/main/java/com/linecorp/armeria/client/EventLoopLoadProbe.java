@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+
+/**
+ * Estimates how busy an {@link EventLoop} is, using the number of its pending tasks and the recent latency
+ * of a probe task submitted to it. A probe is submitted lazily from {@link #load()} at most once per
+ * {@value #PROBE_INTERVAL_MILLIS} milliseconds, so no background task is scheduled.
+ */
+final class EventLoopLoadProbe {
+
+    private static final AtomicIntegerFieldUpdater<EventLoopLoadProbe> inFlightUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(EventLoopLoadProbe.class, "inFlight");
+
+    static final long PROBE_INTERVAL_MILLIS = 100;
+    private static final long PROBE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(PROBE_INTERVAL_MILLIS);
+
+    /**
+     * The probe latency which is counted as one pending task.
+     */
+    @VisibleForTesting
+    static final long LATENCY_UNIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final EventLoop eventLoop;
+
+    private volatile long latencyNanos;
+    private volatile long lastProbeTimeNanos = System.nanoTime() - PROBE_INTERVAL_NANOS;
+    private volatile int inFlight;
+
+    EventLoopLoadProbe(EventLoop eventLoop) {
+        this.eventLoop = eventLoop;
+    }
+
+    /**
+     * Returns the estimated load of the {@link EventLoop}, which is the sum of the number of pending tasks and
+     * the recent probe latency in the unit of {@link #LATENCY_UNIT_NANOS}.
+     */
+    long load() {
+        final long currentTimeNanos = System.nanoTime();
+        long latencyNanos = this.latencyNanos;
+        if (inFlight != 0) {
+            // Take the in-flight probe into account so that a stuck event loop is not considered idle.
+            latencyNanos = Math.max(latencyNanos, currentTimeNanos - lastProbeTimeNanos);
+        } else {
+            maybeProbe(currentTimeNanos);
+        }
+        return pendingTasks() + latencyNanos / LATENCY_UNIT_NANOS;
+    }
+
+    private int pendingTasks() {
+        if (eventLoop instanceof SingleThreadEventExecutor) {
+            return ((SingleThreadEventExecutor) eventLoop).pendingTasks();
+        }
+        return 0;
+    }
+
+    private void maybeProbe(long currentTimeNanos) {
+        if (currentTimeNanos - lastProbeTimeNanos < PROBE_INTERVAL_NANOS ||
+            !inFlightUpdater.compareAndSet(this, 0, 1)) {
+            return;
+        }
+
+        lastProbeTimeNanos = currentTimeNanos;
+        try {
+            eventLoop.execute(() -> {
+                final long latencyNanos = System.nanoTime() - currentTimeNanos;
+                final long oldLatencyNanos = this.latencyNanos;
+                // An exponentially weighted moving average which gives 1/4 weight to the latest sample.
+                this.latencyNanos = oldLatencyNanos == 0 ? latencyNanos
+                                                         : (oldLatencyNanos * 3 + latencyNanos) / 4;
+                inFlight = 0;
+            });
+        } catch (RejectedExecutionException ignored) {
+            // The event loop is shutting down.
+            inFlight = 0;
+        }
+    }
+}
@@ -37,6 +37,7 @@ import com.linecorp.armeria.common.util.SafeCloseable;
 import com.linecorp.armeria.internal.client.ClientPendingThrowableUtil;
 import com.linecorp.armeria.internal.client.ClientRequestContextExtension;
 import com.linecorp.armeria.internal.client.DecodedHttpResponse;
+import com.linecorp.armeria.internal.client.Http3ClientTransport;
 import com.linecorp.armeria.internal.client.HttpSession;
 import com.linecorp.armeria.internal.client.PooledChannel;
 import com.linecorp.armeria.internal.common.RequestContextUtil;
@@ -95,6 +96,17 @@ final class HttpClientDelegate implements HttpClient {
             return earlyFailedResponse(t, ctx);
         }
 
+        if (protocol.isExplicitHttp3()) {
+            if (factory.http3Transport() == null) {
+                return earlyFailedResponse(new IllegalStateException(
+                        "armeria-http3 module is required to send a request over " + protocol), ctx);
+            }
+            if (proxyConfig.proxyType() != ProxyType.DIRECT) {
+                return earlyFailedResponse(new IllegalArgumentException(
+                        "cannot send a request over " + protocol + " via a proxy: " + proxyConfig), ctx);
+            }
+        }
+
         final Throwable cancellationCause = ctx.cancellationCause();
         if (cancellationCause != null) {
             return earlyFailedResponse(cancellationCause, ctx);
@@ -187,6 +199,14 @@ final class HttpClientDelegate implements HttpClient {
                                               HttpRequest req, DecodedHttpResponse res,
                                               ClientConnectionTimingsBuilder timingsBuilder,
                                               ProxyConfig proxyConfig) {
+        final Http3ClientTransport http3Transport = factory.http3Transport();
+        if (ctx.sessionProtocol().isExplicitHttp3()) {
+            // Validated in execute().
+            assert http3Transport != null;
+            http3Transport.execute(ctx, endpoint, req, res, timingsBuilder);
+            return;
+        }
+
         final PoolKey key = new PoolKey(endpoint, proxyConfig);
         final HttpChannelPool pool;
         try {
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
@@ -36,6 +37,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.MapMaker;
 
 import com.linecorp.armeria.client.endpoint.EndpointGroup;
@@ -55,6 +57,8 @@ import com.linecorp.armeria.common.util.ReleasableHolder;
 import com.linecorp.armeria.common.util.ShutdownHooks;
 import com.linecorp.armeria.common.util.TlsEngineType;
 import com.linecorp.armeria.common.util.TransportType;
+import com.linecorp.armeria.internal.client.Http3ClientTransport;
+import com.linecorp.armeria.internal.client.Http3ClientTransportProvider;
 import com.linecorp.armeria.internal.common.RequestTargetCache;
 import com.linecorp.armeria.internal.common.SslContextFactory;
 import com.linecorp.armeria.internal.common.util.ChannelUtil;
@@ -88,6 +92,12 @@ final class HttpClientFactory implements ClientFactory {
                                           Scheme.of(SerializationFormat.WS, p)))
                   .collect(toImmutableSet());
 
+    @Nullable
+    private static final Http3ClientTransportProvider http3TransportProvider =
+            Iterables.getFirst(ServiceLoader.load(Http3ClientTransportProvider.class,
+                                                  HttpClientFactory.class.getClassLoader()),
+                               null);
+
     private static void setupTlsMetrics(List<X509Certificate> certificates, MeterRegistry registry) {
         final MeterIdPrefix meterIdPrefix = new MeterIdPrefix("armeria.client");
         try {
@@ -132,6 +142,8 @@ final class HttpClientFactory implements ClientFactory {
 
     private final ConcurrentMap<EventLoop, HttpChannelPool> pools = new MapMaker().weakKeys().makeMap();
     private final HttpClientDelegate clientDelegate;
+    @Nullable
+    private final Http3ClientTransport http3Transport;
 
     private final EventLoopScheduler eventLoopScheduler;
     private final Supplier<EventLoop> eventLoopSupplier =
@@ -228,8 +240,16 @@ final class HttpClientFactory implements ClientFactory {
 
         this.options = options;
 
+        if (http3TransportProvider != null) {
+            http3Transport = http3TransportProvider.newTransport(options);
+        } else {
+            http3Transport = null;
+        }
         clientDelegate = new HttpClientDelegate(this, addressResolverGroup);
         RequestTargetCache.registerClientMetrics(meterRegistry);
+        if (eventLoopScheduler instanceof DefaultEventLoopScheduler) {
+            ((DefaultEventLoopScheduler) eventLoopScheduler).bindTo(meterRegistry);
+        }
     }
 
     /**
@@ -330,6 +350,15 @@ final class HttpClientFactory implements ClientFactory {
         return http1HeaderNaming;
     }
 
+    /**
+     * Returns the {@link Http3ClientTransport} which sends the requests of {@link SessionProtocol#H3},
+     * or {@code null} if the {@code armeria-http3} module is not in the class path.
+     */
+    @Nullable
+    Http3ClientTransport http3Transport() {
+        return http3Transport;
+    }
+
     @VisibleForTesting
     AddressResolverGroup<InetSocketAddress> addressResolverGroup() {
         return addressResolverGroup;
@@ -448,11 +477,14 @@ final class HttpClientFactory implements ClientFactory {
     }
 
     private void closeAsync(CompletableFuture<?> future) {
-        final List<CompletableFuture<?>> dependencies = new ArrayList<>(pools.size());
+        final List<CompletableFuture<?>> dependencies = new ArrayList<>(pools.size() + 1);
         for (final Iterator<HttpChannelPool> i = pools.values().iterator(); i.hasNext();) {
             dependencies.add(i.next().closeAsync());
             i.remove();
         }
+        if (http3Transport != null) {
+            dependencies.add(http3Transport.closeAsync());
+        }
 
         addressResolverGroup.close();
 
@@ -225,6 +225,7 @@ public final class RetryingClient extends AbstractRetryingClient<HttpRequest, Ht
     }
 
     private final boolean useRetryAfter;
+    private final long maxInMemoryRequestLength;
 
     /**
      * Creates a new instance that decorates the specified {@link HttpClient}.
@@ -233,9 +234,10 @@ public final class RetryingClient extends AbstractRetryingClient<HttpRequest, Ht
             HttpClient delegate,
             RetryConfigMapping<HttpResponse> mapping,
             @Nullable RetryConfig<HttpResponse> retryConfig,
-            boolean useRetryAfter) {
+            boolean useRetryAfter, long maxInMemoryRequestLength) {
         super(delegate, mapping, retryConfig);
         this.useRetryAfter = useRetryAfter;
+        this.maxInMemoryRequestLength = maxInMemoryRequestLength;
     }
 
     @Override
@@ -243,7 +245,8 @@ public final class RetryingClient extends AbstractRetryingClient<HttpRequest, Ht
         final CompletableFuture<HttpResponse> responseFuture = new CompletableFuture<>();
         final HttpResponse res = HttpResponse.of(responseFuture, ctx.eventLoop());
         if (ctx.exchangeType().isRequestStreaming()) {
-            final HttpRequestDuplicator reqDuplicator = req.toDuplicator(ctx.eventLoop().withoutContext(), 0);
+            final HttpRequestDuplicator reqDuplicator =
+                    req.toDuplicator(ctx.eventLoop().withoutContext(), 0, maxInMemoryRequestLength);
             doExecute0(ctx, reqDuplicator, req, res, responseFuture);
         } else {
             req.aggregate(AggregationOptions.usePooledObjects(ctx.alloc(), ctx.eventLoop()))
@@ -16,11 +16,15 @@
 
 package com.linecorp.armeria.client.retry;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import java.time.Duration;
 import java.util.function.Function;
 
 import com.linecorp.armeria.client.HttpClient;
+import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.annotation.UnstableApi;
 
 /**
  * Builds a new {@link RetryingClient} or its decorator function.
@@ -28,6 +32,7 @@ import com.linecorp.armeria.common.HttpResponse;
 public final class RetryingClientBuilder extends AbstractRetryingClientBuilder<HttpResponse> {
 
     private boolean useRetryAfter;
+    private long maxInMemoryRequestLength;
 
     /**
      * Creates a new builder with the specified {@link RetryConfig}.
@@ -58,11 +63,27 @@ public final class RetryingClientBuilder extends AbstractRetryingClientBuilder<H
         return this;
     }
 
+    /**
+     * Sets the maximum length of a streaming {@link HttpRequest} content which is kept in memory for
+     * retries. The content beyond the length is written to a temporary file and read back from the file
+     * for each attempt, so that a large upload can be retried without holding all of it in memory.
+     * This option does not affect a non-streaming {@link HttpRequest}, which is aggregated for retries.
+     * {@code 0} disables writing the content to a file, which is the default.
+     */
+    @UnstableApi
+    public RetryingClientBuilder maxInMemoryRequestLength(long maxInMemoryRequestLength) {
+        checkArgument(maxInMemoryRequestLength >= 0,
+                      "maxInMemoryRequestLength: %s (expected: >= 0)", maxInMemoryRequestLength);
+        this.maxInMemoryRequestLength = maxInMemoryRequestLength;
+        return this;
+    }
+
     /**
      * Returns a newly-created {@link RetryingClient} based on the properties of this builder.
      */
     public RetryingClient build(HttpClient delegate) {
-        return new RetryingClient(delegate, mapping(), retryConfig(), useRetryAfter);
+        return new RetryingClient(delegate, mapping(), retryConfig(), useRetryAfter,
+                                  maxInMemoryRequestLength);
     }
 
     /**
@@ -75,7 +96,9 @@ public final class RetryingClientBuilder extends AbstractRetryingClientBuilder<H
 
     @Override
     public String toString() {
-        return toStringHelper().add("useRetryAfter", useRetryAfter).toString();
+        return toStringHelper().add("useRetryAfter", useRetryAfter)
+                               .add("maxInMemoryRequestLength", maxInMemoryRequestLength)
+                               .toString();
     }
 
     // Methods that were overridden to change the return type.
@@ -49,10 +49,14 @@ import com.linecorp.armeria.common.ResponseHeaders;
 import com.linecorp.armeria.common.Scheme;
 import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.SplitHttpResponse;
+import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.logging.RequestLogProperty;
 import com.linecorp.armeria.common.stream.ByteStreamMessage;
 import com.linecorp.armeria.common.stream.StreamMessage;
+import com.linecorp.armeria.common.websocket.PerMessageDeflateConfig;
 import com.linecorp.armeria.internal.common.DefaultSplitHttpResponse;
+import com.linecorp.armeria.internal.common.websocket.PerMessageDeflate;
+import com.linecorp.armeria.internal.common.websocket.WebSocketFrameCompressor;
 import com.linecorp.armeria.internal.common.websocket.WebSocketFrameEncoder;
 import com.linecorp.armeria.internal.common.websocket.WebSocketWrapper;
 
@@ -70,9 +74,12 @@ final class DefaultWebSocketClient implements WebSocketClient {
     private final List<String> subprotocols;
     private final String joinedSubprotocols;
     private final boolean aggregateContinuation;
+    @Nullable
+    private final PerMessageDeflateConfig perMessageDeflateConfig;
 
     DefaultWebSocketClient(WebClient webClient, int maxFramePayloadLength, boolean allowMaskMismatch,
-                           List<String> subprotocols, boolean aggregateContinuation) {
+                           List<String> subprotocols, boolean aggregateContinuation,
+                           @Nullable PerMessageDeflateConfig perMessageDeflateConfig) {
         this.webClient = webClient;
         this.maxFramePayloadLength = maxFramePayloadLength;
         this.allowMaskMismatch = allowMaskMismatch;
@@ -83,6 +90,7 @@ final class DefaultWebSocketClient implements WebSocketClient {
             joinedSubprotocols = "";
         }
         this.aggregateContinuation = aggregateContinuation;
+        this.perMessageDeflateConfig = perMessageDeflateConfig;
     }
 
     @Override
@@ -120,12 +128,35 @@ final class DefaultWebSocketClient implements WebSocketClient {
                 return null;
             }
 
+            PerMessageDeflate perMessageDeflate = null;
+            if (perMessageDeflateConfig != null) {
+                try {
+                    perMessageDeflate = PerMessageDeflate.accept(
+                            responseHeaders.get(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS),
+                            perMessageDeflateConfig);
+                } catch (IllegalArgumentException e) {
+                    fail(outboundFuture, split.body(), result, new WebSocketClientHandshakeException(
+                            "invalid " + HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS + " header: " +
+                            e.getMessage(), responseHeaders));
+                    return null;
+                }
+            }
+
             final WebSocketClientFrameDecoder decoder =
-                    new WebSocketClientFrameDecoder(ctx, maxFramePayloadLength, allowMaskMismatch,
-                                                    aggregateContinuation);
+                    new WebSocketClientFrameDecoder(
+                            ctx, maxFramePayloadLength, allowMaskMismatch, aggregateContinuation,
+                            perMessageDeflate != null ? perMessageDeflate.newDecompressor(false, ctx.alloc())
+                                                      : null);
             final WebSocketWrapper inbound = new WebSocketWrapper(split.body().decode(decoder, ctx.alloc()));
 
-            result.complete(new WebSocketSession(ctx, responseHeaders, inbound, outboundFuture, encoder));
+            WebSocketFrameCompressor compressor = null;
+            if (perMessageDeflate != null) {
+                compressor = perMessageDeflate.newCompressor(false);
+                // Release the compression context after the last frame is written.
+                ctx.log().whenComplete().thenRun(compressor::close);
+            }
+            result.complete(new WebSocketSession(ctx, responseHeaders, inbound, outboundFuture, encoder,
+                                                 compressor));
             return null;
         });
         return result;
@@ -154,6 +185,10 @@ final class DefaultWebSocketClient implements WebSocketClient {
         if (!builder.contains(HttpHeaderNames.SEC_WEBSOCKET_PROTOCOL) && !subprotocols.isEmpty()) {
             builder.set(HttpHeaderNames.SEC_WEBSOCKET_PROTOCOL, joinedSubprotocols);
         }
+        if (perMessageDeflateConfig != null && !builder.contains(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS)) {
+            builder.set(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS,
+                        PerMessageDeflate.offer(perMessageDeflateConfig));
+        }
 
         return builder.build();
     }
@@ -62,6 +62,7 @@ import com.linecorp.armeria.common.auth.AuthToken;
 import com.linecorp.armeria.common.auth.BasicToken;
 import com.linecorp.armeria.common.auth.OAuth1aToken;
 import com.linecorp.armeria.common.auth.OAuth2Token;
+import com.linecorp.armeria.common.websocket.PerMessageDeflateConfig;
 import com.linecorp.armeria.common.websocket.WebSocketFrameType;
 
 /**
@@ -83,6 +84,8 @@ public final class WebSocketClientBuilder extends AbstractWebClientBuilder {
     private boolean allowMaskMismatch;
     private List<String> subprotocols = ImmutableList.of();
     private boolean aggregateContinuation;
+    @Nullable
+    private PerMessageDeflateConfig perMessageDeflateConfig;
 
     WebSocketClientBuilder(URI uri) {
         super(validateUri(requireNonNull(uri, "uri")), null, null, null);
@@ -198,6 +201,17 @@ public final class WebSocketClientBuilder extends AbstractWebClientBuilder {
         return this;
     }
 
+    /**
+     * Enables the <a href="https://datatracker.ietf.org/doc/html/rfc7692">permessage-deflate</a> extension
+     * with the specified {@link PerMessageDeflateConfig}. The extension is offered to a server and used only
+     * when the server accepts it. The {@link #maxFramePayloadLength(int)} limits the length of
+     * a decompressed payload as well. It's disabled by default.
+     */
+    public WebSocketClientBuilder perMessageDeflate(PerMessageDeflateConfig perMessageDeflateConfig) {
+        this.perMessageDeflateConfig = requireNonNull(perMessageDeflateConfig, "perMessageDeflateConfig");
+        return this;
+    }
+
     /**
      * Sets whether to add an {@link HttpHeaderNames#ORIGIN} header automatically when sending
      * an {@link HttpRequest} when the {@link HttpRequest#headers()} does not have it.
@@ -215,7 +229,7 @@ public final class WebSocketClientBuilder extends AbstractWebClientBuilder {
     public WebSocketClient build() {
         final WebClient webClient = buildWebClient();
         return new DefaultWebSocketClient(webClient, maxFramePayloadLength, allowMaskMismatch, subprotocols,
-                                          aggregateContinuation);
+                                          aggregateContinuation, perMessageDeflateConfig);
     }
 
     // Override the return type of the chaining methods in the superclass.
@@ -16,16 +16,19 @@
 package com.linecorp.armeria.client.websocket;
 
 import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.internal.client.websocket.WebSocketClientUtil;
 import com.linecorp.armeria.internal.common.websocket.WebSocketFrameDecoder;
+import com.linecorp.armeria.internal.common.websocket.WebSocketFrameDecompressor;
 
 final class WebSocketClientFrameDecoder extends WebSocketFrameDecoder {
 
     private final ClientRequestContext ctx;
 
     WebSocketClientFrameDecoder(ClientRequestContext ctx, int maxFramePayloadLength,
-                                boolean allowMaskMismatch, boolean aggregateContinuation) {
-        super(maxFramePayloadLength, allowMaskMismatch, aggregateContinuation);
+                                boolean allowMaskMismatch, boolean aggregateContinuation,
+                                @Nullable WebSocketFrameDecompressor decompressor) {
+        super(maxFramePayloadLength, allowMaskMismatch, aggregateContinuation, decompressor);
         this.ctx = ctx;
     }
 
@@ -34,6 +34,7 @@ import com.linecorp.armeria.common.stream.StreamMessage;
 import com.linecorp.armeria.common.websocket.WebSocket;
 import com.linecorp.armeria.common.websocket.WebSocketFrame;
 import com.linecorp.armeria.common.websocket.WebSocketWriter;
+import com.linecorp.armeria.internal.common.websocket.WebSocketFrameCompressor;
 import com.linecorp.armeria.internal.common.websocket.WebSocketFrameEncoder;
 
 /**
@@ -51,16 +52,19 @@ public final class WebSocketSession {
     private final WebSocket inbound;
     private final CompletableFuture<StreamMessage<HttpData>> outboundFuture;
     private final WebSocketFrameEncoder encoder;
+    @Nullable
+    private final WebSocketFrameCompressor compressor;
 
     WebSocketSession(ClientRequestContext ctx, ResponseHeaders responseHeaders, WebSocket inbound,
                      CompletableFuture<StreamMessage<HttpData>> outboundFuture,
-                     WebSocketFrameEncoder encoder) {
+                     WebSocketFrameEncoder encoder, @Nullable WebSocketFrameCompressor compressor) {
         this.ctx = ctx;
         this.responseHeaders = responseHeaders;
         subprotocol = responseHeaders.get(HttpHeaderNames.SEC_WEBSOCKET_PROTOCOL);
         this.inbound = inbound;
         this.outboundFuture = outboundFuture;
         this.encoder = encoder;
+        this.compressor = compressor;
     }
 
     /**
@@ -123,8 +127,13 @@ public final class WebSocketSession {
             streamMessage = new PublisherBasedStreamMessage<>(outbound);
         }
 
-        if (!outboundFuture.complete(
-                streamMessage.map(webSocketFrame -> HttpData.wrap(encoder.encode(ctx, webSocketFrame))))) {
+        final StreamMessage<HttpData> encoded;
+        if (compressor != null) {
+            encoded = streamMessage.map(frame -> HttpData.wrap(compressor.encode(ctx.alloc(), frame)));
+        } else {
+            encoded = streamMessage.map(webSocketFrame -> HttpData.wrap(encoder.encode(ctx, webSocketFrame)));
+        }
+        if (!outboundFuture.complete(encoded)) {
             streamMessage.abort();
             throw new IllegalStateException("outbound() or setOutbound() has been already called.");
         }
@@ -79,4 +79,14 @@ public interface AggregationOptions {
      */
     @Nullable
     ByteBufAllocator alloc();
+
+    /**
+     * (Advanced users only) Returns whether to aggregate the content into a
+     * {@link io.netty.buffer.CompositeByteBuf} which references the received {@link HttpData}s instead of
+     * copying them into a contiguous buffer. This option is effective only when {@link #alloc()} is
+     * not {@code null}.
+     */
+    default boolean compositeContent() {
+        return false;
+    }
 }
@@ -16,6 +16,7 @@
 
 package com.linecorp.armeria.common;
 
+import static com.google.common.base.Preconditions.checkState;
 import static java.util.Objects.requireNonNull;
 
 import com.linecorp.armeria.common.annotation.Nullable;
@@ -23,6 +24,7 @@ import com.linecorp.armeria.common.annotation.UnstableApi;
 import com.linecorp.armeria.unsafe.PooledObjects;
 
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.util.concurrent.EventExecutor;
 
 /**
@@ -37,6 +39,7 @@ public final class AggregationOptionsBuilder {
     private ByteBufAllocator alloc;
     private boolean cacheResult;
     private boolean preferCached = true;
+    private boolean compositeContent;
 
     AggregationOptionsBuilder() {}
 
@@ -134,10 +137,24 @@ public final class AggregationOptionsBuilder {
         return this;
     }
 
+    /**
+     * (Advanced users only) Sets whether to aggregate the content into a {@link CompositeByteBuf} which
+     * references the received {@link HttpData}s instead of copying them into a contiguous buffer.
+     * This avoids copying large multi-chunk contents. The content is copied only when
+     * {@link HttpData#array()} is called. This option is disabled by default and requires
+     * {@link #usePooledObjects(ByteBufAllocator)}.
+     */
+    public AggregationOptionsBuilder compositeContent(boolean compositeContent) {
+        this.compositeContent = compositeContent;
+        return this;
+    }
+
     /**
      * Returns a newly created {@link AggregationOptions} with the properties set so far.
      */
     public AggregationOptions build() {
-        return new DefaultAggregationOptions(executor, alloc, preferCached, cacheResult);
+        checkState(!compositeContent || alloc != null,
+                   "compositeContent() requires usePooledObjects()");
+        return new DefaultAggregationOptions(executor, alloc, preferCached, cacheResult, compositeContent);
     }
 }
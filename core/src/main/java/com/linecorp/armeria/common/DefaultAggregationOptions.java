@@ -33,13 +33,15 @@ final class DefaultAggregationOptions implements AggregationOptions {
     private final ByteBufAllocator alloc;
     private final boolean preferCached;
     private final boolean cacheResult;
+    private final boolean compositeContent;
 
     DefaultAggregationOptions(@Nullable EventExecutor executor, @Nullable ByteBufAllocator alloc,
-                              boolean preferCached, boolean cacheResult) {
+                              boolean preferCached, boolean cacheResult, boolean compositeContent) {
         this.executor = executor;
         this.alloc = alloc;
         this.preferCached = preferCached;
         this.cacheResult = cacheResult;
+        this.compositeContent = compositeContent;
     }
 
     @Nullable
@@ -64,6 +66,11 @@ final class DefaultAggregationOptions implements AggregationOptions {
         return alloc;
     }
 
+    @Override
+    public boolean compositeContent() {
+        return compositeContent;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -75,13 +82,14 @@ final class DefaultAggregationOptions implements AggregationOptions {
         final AggregationOptions that = (AggregationOptions) o;
         return cacheResult == that.cacheResult() &&
                preferCached == that.preferCached() &&
+               compositeContent == that.compositeContent() &&
                Objects.equals(executor, that.executor()) &&
                Objects.equals(alloc, that.alloc());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(executor, alloc, cacheResult, preferCached);
+        return Objects.hash(executor, alloc, cacheResult, preferCached, compositeContent);
     }
 
     @Override
@@ -91,6 +99,7 @@ final class DefaultAggregationOptions implements AggregationOptions {
                           .add("alloc", alloc)
                           .add("cacheResult", cacheResult)
                           .add("preferCached", preferCached)
+                          .add("compositeContent", compositeContent)
                           .toString();
     }
 }
@@ -51,6 +51,8 @@ final class DefaultFlagsProvider implements FlagsProvider {
     static final int MAX_NUM_CONNECTIONS = Integer.MAX_VALUE;
     static final int NUM_COMMON_BLOCKING_TASK_THREADS = 200; // from Tomcat default maxThreads
     static final long DEFAULT_MAX_REQUEST_LENGTH = 10 * 1024 * 1024; // 10 MiB
+    static final long DEFAULT_MAX_MULTIPART_PART_LENGTH = 0; // Disabled
+    static final long DEFAULT_MAX_MULTIPART_LENGTH = 0; // Disabled
     static final long DEFAULT_MAX_RESPONSE_LENGTH = 10 * 1024 * 1024; // 10 MiB
 
     // Use slightly greater value than the client-side default so that clients close the connection more often.
@@ -484,6 +486,16 @@ final class DefaultFlagsProvider implements FlagsProvider {
         return MultipartRemovalStrategy.ON_RESPONSE_COMPLETION;
     }
 
+    @Override
+    public Long defaultMaxMultipartPartLength() {
+        return DEFAULT_MAX_MULTIPART_PART_LENGTH;
+    }
+
+    @Override
+    public Long defaultMaxMultipartLength() {
+        return DEFAULT_MAX_MULTIPART_LENGTH;
+    }
+
     @Override
     public Sampler<? super RequestContext> requestContextLeakDetectionSampler() {
         return Sampler.never();
@@ -33,13 +33,14 @@ final class DefaultHttpRequestDuplicator
 
     private final RequestHeaders headers;
 
-    DefaultHttpRequestDuplicator(HttpRequest req, EventExecutor executor, long maxRequestLength) {
+    DefaultHttpRequestDuplicator(HttpRequest req, EventExecutor executor, long maxRequestLength,
+                                 long maxInMemoryRequestLength) {
         super(requireNonNull(req, "req"), obj -> {
             if (obj instanceof HttpData) {
                 return ((HttpData) obj).length();
             }
             return 0;
-        }, executor, maxRequestLength);
+        }, executor, maxRequestLength, maxInMemoryRequestLength);
         headers = req.headers();
     }
 
@@ -427,6 +427,14 @@ public final class Flags {
     private static final MultipartRemovalStrategy DEFAULT_MULTIPART_REMOVAL_STRATEGY =
             getValue(FlagsProvider::defaultMultipartRemovalStrategy, "defaultMultipartRemovalStrategy");
 
+    private static final long DEFAULT_MAX_MULTIPART_PART_LENGTH =
+            getValue(FlagsProvider::defaultMaxMultipartPartLength, "defaultMaxMultipartPartLength",
+                     value -> value >= 0);
+
+    private static final long DEFAULT_MAX_MULTIPART_LENGTH =
+            getValue(FlagsProvider::defaultMaxMultipartLength, "defaultMaxMultipartLength",
+                     value -> value >= 0);
+
     private static final Sampler<? super RequestContext> REQUEST_CONTEXT_LEAK_DETECTION_SAMPLER =
             getValue(FlagsProvider::requestContextLeakDetectionSampler, "requestContextLeakDetectionSampler");
 
@@ -1519,6 +1527,35 @@ public final class Flags {
         return DEFAULT_MULTIPART_REMOVAL_STRATEGY;
     }
 
+    /**
+     * Returns the maximum length of a single part of a {@code multipart/form-data} request which is
+     * aggregated by an annotated service. A part that exceeds this length fails the request with
+     * a {@link ContentTooLargeException} and its partially written file is removed.
+     *
+     * <p>The default value of this flag is {@value DefaultFlagsProvider#DEFAULT_MAX_MULTIPART_PART_LENGTH}.
+     * Specify the {@code -Dcom.linecorp.armeria.defaultMaxMultipartPartLength=<long>} to override the default
+     * value. {@code 0} disables the length limit.
+     */
+    @UnstableApi
+    public static long defaultMaxMultipartPartLength() {
+        return DEFAULT_MAX_MULTIPART_PART_LENGTH;
+    }
+
+    /**
+     * Returns the maximum total length of the parts of a {@code multipart/form-data} request which is
+     * aggregated by an annotated service. Unlike {@link #defaultMaxRequestLength()}, this limit is applied
+     * only to the contents of the parts, so that it can be set independently from the limit of
+     * the other requests. A request that exceeds this length fails with a {@link ContentTooLargeException}.
+     *
+     * <p>The default value of this flag is {@value DefaultFlagsProvider#DEFAULT_MAX_MULTIPART_LENGTH}.
+     * Specify the {@code -Dcom.linecorp.armeria.defaultMaxMultipartLength=<long>} to override the default
+     * value. {@code 0} disables the length limit.
+     */
+    @UnstableApi
+    public static long defaultMaxMultipartLength() {
+        return DEFAULT_MAX_MULTIPART_LENGTH;
+    }
+
     /**
      * Returns whether to allow double dots ({@code ..}) in a request path query string.
      *
@@ -1137,6 +1137,37 @@ public interface FlagsProvider {
         return null;
     }
 
+    /**
+     * Returns the maximum length of a single part of a {@code multipart/form-data} request which is
+     * aggregated by an annotated service. A part that exceeds this length fails the request with
+     * a {@link ContentTooLargeException} and its partially written file is removed.
+     *
+     * <p>The default value of this flag is {@value DefaultFlagsProvider#DEFAULT_MAX_MULTIPART_PART_LENGTH}.
+     * Specify the {@code -Dcom.linecorp.armeria.defaultMaxMultipartPartLength=<long>} to override the default
+     * value. {@code 0} disables the length limit.
+     */
+    @Nullable
+    @UnstableApi
+    default Long defaultMaxMultipartPartLength() {
+        return null;
+    }
+
+    /**
+     * Returns the maximum total length of the parts of a {@code multipart/form-data} request which is
+     * aggregated by an annotated service. Unlike {@link #defaultMaxRequestLength()}, this limit is applied
+     * only to the contents of the parts, so that it can be set independently from the limit of
+     * the other requests. A request that exceeds this length fails with a {@link ContentTooLargeException}.
+     *
+     * <p>The default value of this flag is {@value DefaultFlagsProvider#DEFAULT_MAX_MULTIPART_LENGTH}.
+     * Specify the {@code -Dcom.linecorp.armeria.defaultMaxMultipartLength=<long>} to override the default
+     * value. {@code 0} disables the length limit.
+     */
+    @Nullable
+    @UnstableApi
+    default Long defaultMaxMultipartLength() {
+        return null;
+    }
+
     /**
      * Returns the {@link Sampler} that determines whether to trace the stack trace of request contexts leaks
      * and how frequently to keeps stack trace. A sampled exception will have the stack trace while the others
@@ -643,7 +643,27 @@ public interface HttpRequest extends Request, HttpMessage {
     @Override
     default HttpRequestDuplicator toDuplicator(EventExecutor executor, long maxRequestLength) {
         requireNonNull(executor, "executor");
-        return new DefaultHttpRequestDuplicator(this, executor, maxRequestLength);
+        return new DefaultHttpRequestDuplicator(this, executor, maxRequestLength, 0);
+    }
+
+    /**
+     * Returns a new {@link HttpRequestDuplicator} that duplicates this {@link HttpRequest} into one or
+     * more {@link HttpRequest}s, which publish the same elements. Up to {@code maxInMemoryRequestLength}
+     * bytes of the content are kept in memory, and the rest is written to a temporary file and read
+     * back when a duplicated {@link HttpRequest} consumes it. This is useful for duplicating a large
+     * request without holding all of it in memory.
+     *
+     * @param executor the executor to duplicate
+     * @param maxRequestLength the maximum request length that the duplicator can hold.
+     *                         {@code 0} disables the length limit.
+     * @param maxInMemoryRequestLength the maximum request length that the duplicator keeps in memory.
+     *                                 {@code 0} disables writing the content to a file.
+     */
+    @UnstableApi
+    default HttpRequestDuplicator toDuplicator(EventExecutor executor, long maxRequestLength,
+                                               long maxInMemoryRequestLength) {
+        requireNonNull(executor, "executor");
+        return new DefaultHttpRequestDuplicator(this, executor, maxRequestLength, maxInMemoryRequestLength);
     }
 
     /**
@@ -53,6 +53,7 @@ import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.annotation.UnstableApi;
 import com.linecorp.armeria.common.stream.PublisherBasedStreamMessage;
 import com.linecorp.armeria.common.stream.StreamMessage;
+import com.linecorp.armeria.common.stream.StreamRateLimiter;
 import com.linecorp.armeria.common.stream.StreamTimeoutMode;
 import com.linecorp.armeria.common.stream.SubscriptionOption;
 import com.linecorp.armeria.common.util.Exceptions;
@@ -60,6 +61,7 @@ import com.linecorp.armeria.internal.common.AbortedHttpResponse;
 import com.linecorp.armeria.internal.common.DefaultHttpResponse;
 import com.linecorp.armeria.internal.common.DefaultSplitHttpResponse;
 import com.linecorp.armeria.internal.common.JacksonUtil;
+import com.linecorp.armeria.internal.common.stream.BufferingStreamMessage;
 import com.linecorp.armeria.internal.common.stream.RecoverableStreamMessage;
 import com.linecorp.armeria.unsafe.PooledObjects;
 
@@ -976,6 +978,47 @@ public interface HttpResponse extends Response, HttpMessage {
         return of(stream);
     }
 
+    /**
+     * Merges the consecutive {@link HttpData}s emitted by this {@link HttpResponse} into one {@link HttpData}
+     * of about {@code maxBytes}, so that a response which streams many small chunks is written with
+     * fewer writes and flushes. A merged {@link HttpData} is emitted when it reaches {@code maxBytes},
+     * when {@code maxDelay} has passed since its first chunk was received, or right before headers, trailers
+     * or the end of the stream. The chunks are merged into a pooled buffer when subscribed with
+     * {@link SubscriptionOption#WITH_POOLED_OBJECTS}.
+     *
+     * <p>For example:<pre>{@code
+     * HttpResponse response = HttpResponse.streaming(); // Writes many small chunks.
+     * // Write up to 8 KiB at once, but do not delay a chunk for longer than 20 milliseconds.
+     * HttpResponse coalesced = response.coalesceData(8192, Duration.ofMillis(20));
+     * }</pre>
+     */
+    @UnstableApi
+    default HttpResponse coalesceData(int maxBytes, Duration maxDelay) {
+        checkArgument(maxBytes > 0, "maxBytes: %s (expected: > 0)", maxBytes);
+        requireNonNull(maxDelay, "maxDelay");
+        checkArgument(!maxDelay.isNegative() && !maxDelay.isZero(),
+                      "maxDelay: %s (expected: > 0)", maxDelay);
+        return of(BufferingStreamMessage.coalesceHttpData(this, maxBytes, maxDelay));
+    }
+
+    /**
+     * Delays the {@link HttpData}s of this {@link HttpResponse} so that the number of bytes emitted per second
+     * does not exceed the rate of the specified {@link StreamRateLimiter}. Headers and trailers are not
+     * counted. A {@link StreamRateLimiter} shared by multiple {@link HttpResponse}s caps their total
+     * bandwidth.
+     *
+     * <p>For example:<pre>{@code
+     * // Send the file at up to 1 MiB/s.
+     * HttpResponse response = fileService.serve(ctx, req);
+     * HttpResponse throttled = response.throttle(StreamRateLimiter.of(1024 * 1024));
+     * }</pre>
+     */
+    @UnstableApi
+    default HttpResponse throttle(StreamRateLimiter rateLimiter) {
+        requireNonNull(rateLimiter, "rateLimiter");
+        return of(throttle(rateLimiter, obj -> obj instanceof HttpData ? ((HttpData) obj).length() : 0));
+    }
+
     /**
      * Transforms the {@linkplain HttpHeaders trailers} emitted by this {@link HttpResponse} by applying the
      * specified {@link Function}.
@@ -57,6 +57,11 @@ public enum SessionProtocol {
      * HTTP/2 - cleartext.
      */
     H2C("h2c", false, true, 80),
+    /**
+     * HTTP/3 - over QUIC. Requires the {@code armeria-http3} module.
+     */
+    @UnstableApi
+    H3("h3", true, true, 443),
     /**
      * <a href="https://www.haproxy.org/download/1.8/doc/proxy-protocol.txt">PROXY protocol</a> - v1 or v2.
      */
@@ -177,6 +182,14 @@ public enum SessionProtocol {
         return this == H2 || this == H2C;
     }
 
+    /**
+     * Returns {@code true} if this {@link SessionProtocol} is {@link #H3}.
+     */
+    @UnstableApi
+    public boolean isExplicitHttp3() {
+        return this == H3;
+    }
+
     /**
      * Returns {@code true} if and only if this protocol uses TLS as its transport-level security layer.
      */
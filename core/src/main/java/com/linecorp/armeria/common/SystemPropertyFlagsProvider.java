@@ -566,6 +566,18 @@ final class SystemPropertyFlagsProvider implements FlagsProvider {
         }
     }
 
+    @Nullable
+    @Override
+    public Long defaultMaxMultipartPartLength() {
+        return getLong("defaultMaxMultipartPartLength");
+    }
+
+    @Nullable
+    @Override
+    public Long defaultMaxMultipartLength() {
+        return getLong("defaultMaxMultipartLength");
+    }
+
     @Nullable
     @Override
     public Sampler<? super RequestContext> requestContextLeakDetectionSampler() {
@@ -20,9 +20,11 @@ import static java.util.Objects.requireNonNull;
 
 import java.security.cert.X509Certificate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.util.UnmodifiableFuture;
 
 /**
  * Provides {@link TlsKeyPair}s for TLS handshakes.
@@ -71,6 +73,19 @@ public interface TlsProvider {
     @Nullable
     TlsKeyPair keyPair(String hostname);
 
+    /**
+     * Asynchronously finds a {@link TlsKeyPair} for the specified {@code hostname}.
+     * The returned {@link CompletableFuture} is completed with {@code null} if no matching {@link TlsKeyPair}
+     * is found.
+     *
+     * <p>Override this method if loading a {@link TlsKeyPair} may take a while, e.g. reading it from a file
+     * or fetching it from a remote key store, so that a server does not block an event loop while
+     * serving a TLS handshake. By default, this method returns the result of {@link #keyPair(String)}.
+     */
+    default CompletableFuture<@Nullable TlsKeyPair> keyPairAsync(String hostname) {
+        return UnmodifiableFuture.completedFuture(keyPair(hostname));
+    }
+
     /**
      * Returns trusted certificates for verifying the remote endpoint's certificate.
      *
@@ -91,6 +91,7 @@ public abstract class AggregationSupport {
             headers = null;
         }
         final ByteBufAllocator alloc = options.alloc();
+        final boolean compositeContent = options.compositeContent();
         final SubscriptionOption[] subscriptionOptions = alloc != null ? POOLED_OBJECTS : EMPTY_OPTIONS;
 
         final CompletableFuture<?> aggregation = this.aggregation;
@@ -109,7 +110,7 @@ public abstract class AggregationSupport {
                 executor = httpMessage.defaultSubscriberExecutor();
             }
             return httpMessage.collect(executor, subscriptionOptions)
-                              .thenApply(objects -> aggregate(objects, headers, alloc));
+                              .thenApply(objects -> aggregate(objects, headers, alloc, compositeContent));
         }
 
         final CompletableFuture<U> aggregationFuture = new CompletableFuture<>();
@@ -124,7 +125,8 @@ public abstract class AggregationSupport {
             executor = httpMessage.defaultSubscriberExecutor();
         }
         httpMessage.collect(executor, subscriptionOptions)
-                   .thenApply(objects -> aggregate(objects, headers, alloc)).handle((res, cause) -> {
+                   .thenApply(objects -> aggregate(objects, headers, alloc, compositeContent))
+                   .handle((res, cause) -> {
                        if (cause != null) {
                            cause = Exceptions.peel(cause);
                            aggregationFuture.completeExceptionally(cause);
@@ -140,11 +142,12 @@ public abstract class AggregationSupport {
     @SuppressWarnings("unchecked")
     private static <U extends AggregatedHttpMessage> U aggregate(List<HttpObject> objects,
                                                                  @Nullable RequestHeaders headers,
-                                                                 @Nullable ByteBufAllocator allocator) {
+                                                                 @Nullable ByteBufAllocator allocator,
+                                                                 boolean compositeContent) {
         if (headers != null) {
-            return (U) HttpMessageAggregator.aggregateRequest(headers, objects, allocator);
+            return (U) HttpMessageAggregator.aggregateRequest(headers, objects, allocator, compositeContent);
         } else {
-            return (U) HttpMessageAggregator.aggregateResponse(objects, allocator);
+            return (U) HttpMessageAggregator.aggregateResponse(objects, allocator, compositeContent);
         }
     }
 
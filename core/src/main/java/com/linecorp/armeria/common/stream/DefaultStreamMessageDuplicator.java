@@ -26,6 +26,7 @@ import static com.linecorp.armeria.internal.common.stream.InternalStreamMessageU
 import static com.linecorp.armeria.internal.common.stream.SubscriberUtil.abortedOrLate;
 import static java.util.Objects.requireNonNull;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -51,8 +52,10 @@ import com.linecorp.armeria.common.ContentTooLargeException;
 import com.linecorp.armeria.common.HttpData;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.stream.DuplicatorSpillFile.SpilledData;
 import com.linecorp.armeria.common.util.CompositeException;
 import com.linecorp.armeria.common.util.EventLoopCheckingFuture;
+import com.linecorp.armeria.common.util.Exceptions;
 import com.linecorp.armeria.internal.common.stream.AbortingSubscriber;
 import com.linecorp.armeria.internal.common.stream.NeverInvokedSubscriber;
 import com.linecorp.armeria.internal.common.stream.NoopSubscription;
@@ -91,12 +94,28 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
     public DefaultStreamMessageDuplicator(
             StreamMessage<T> upstream, SignalLengthGetter<? super T> signalLengthGetter,
             EventExecutor executor, long maxSignalLength) {
+        this(upstream, signalLengthGetter, executor, maxSignalLength, 0);
+    }
+
+    /**
+     * Creates a new instance which keeps up to {@code maxInMemorySignalLength} of signals in memory.
+     * The {@link HttpData} signals beyond {@code maxInMemorySignalLength} are written to a temporary file
+     * and read back from the file when a duplicated stream consumes them, so that a large stream can be
+     * duplicated without holding all of it in memory. The temporary file is deleted when all duplicated
+     * streams are complete and this duplicator is closed. {@code 0} disables spilling to a file.
+     */
+    public DefaultStreamMessageDuplicator(
+            StreamMessage<T> upstream, SignalLengthGetter<? super T> signalLengthGetter,
+            EventExecutor executor, long maxSignalLength, long maxInMemorySignalLength) {
         requireNonNull(upstream, "upstream");
         requireNonNull(signalLengthGetter, "signalLengthGetter");
         this.executor = requireNonNull(executor, "executor");
         checkArgument(maxSignalLength >= 0,
                       "maxSignalLength: %s (expected: >= 0)", maxSignalLength);
-        processor = new StreamMessageProcessor<>(this, upstream, signalLengthGetter, executor, maxSignalLength);
+        checkArgument(maxInMemorySignalLength >= 0,
+                      "maxInMemorySignalLength: %s (expected: >= 0)", maxInMemorySignalLength);
+        processor = new StreamMessageProcessor<>(this, upstream, signalLengthGetter, executor, maxSignalLength,
+                                                 maxInMemorySignalLength);
     }
 
     @Override
@@ -146,8 +165,11 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
         private final SignalQueue signals;
         private final SignalLengthGetter<Object> signalLengthGetter;
         private final EventExecutor executor;
-        private final int maxSignalLength;
-        private int signalLength;
+        private final long maxSignalLength;
+        private final long maxInMemorySignalLength;
+        private long signalLength;
+        @Nullable
+        private DuplicatorSpillFile spillFile;
 
         private final Set<DownstreamSubscription<T>> downstreamSubscriptions =
                 Collections.newSetFromMap(new ConcurrentHashMap<>());
@@ -168,15 +190,17 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
         @SuppressWarnings("unchecked")
         StreamMessageProcessor(DefaultStreamMessageDuplicator<T> duplicator, StreamMessage<T> upstream,
                                SignalLengthGetter<?> signalLengthGetter,
-                               EventExecutor executor, long maxSignalLength) {
+                               EventExecutor executor, long maxSignalLength, long maxInMemorySignalLength) {
             this.duplicator = duplicator;
             this.upstream = upstream;
             this.signalLengthGetter = (SignalLengthGetter<Object>) signalLengthGetter;
             this.executor = executor;
-            if (maxSignalLength == 0 || maxSignalLength > Integer.MAX_VALUE) {
-                this.maxSignalLength = Integer.MAX_VALUE;
+            this.maxSignalLength = maxSignalLength == 0 ? Long.MAX_VALUE : maxSignalLength;
+            if (maxInMemorySignalLength == 0 || maxInMemorySignalLength >= this.maxSignalLength) {
+                // Never spill.
+                this.maxInMemorySignalLength = Long.MAX_VALUE;
             } else {
-                this.maxSignalLength = (int) maxSignalLength;
+                this.maxInMemorySignalLength = maxInMemorySignalLength;
             }
             signals = new SignalQueue(this.signalLengthGetter);
             upstream.subscribe(this, executor, CANCELLATION_AND_POOLED_OPTIONS);
@@ -235,7 +259,8 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
             }
         }
 
-        private void doPushSignal(Object obj) {
+        private void doPushSignal(Object signal) {
+            Object obj = signal;
             if (state == State.ABORTED) {
                 StreamMessageUtil.closeOrAbort(obj, abortCause);
                 return;
@@ -243,9 +268,8 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
             if (!(obj instanceof CloseEvent)) {
                 final int dataLength = signalLengthGetter.length(obj);
                 if (dataLength > 0) {
-                    final int allowedMaxSignalLength = maxSignalLength - signalLength;
-                    if (dataLength > allowedMaxSignalLength) {
-                        final long transferred = LongMath.saturatedAdd(signalLength, dataLength);
+                    final long transferred = LongMath.saturatedAdd(signalLength, dataLength);
+                    if (transferred > maxSignalLength) {
                         final ContentTooLargeException cause =
                                 ContentTooLargeException.builder()
                                                         .maxContentLength(maxSignalLength)
@@ -255,12 +279,21 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
                         upstream.abort(cause);
                         return;
                     }
-                    signalLength += dataLength;
+                    signalLength = transferred;
+                    if (signalLength > maxInMemorySignalLength && obj instanceof HttpData) {
+                        try {
+                            obj = spill((HttpData) obj);
+                        } catch (IOException e) {
+                            StreamMessageUtil.closeOrAbort(obj, e);
+                            upstream.abort(e);
+                            return;
+                        }
+                    }
                 }
             }
 
             try {
-                final int removedLength = signals.addAndRemoveIfRequested(obj);
+                final long removedLength = signals.addAndRemoveIfRequested(obj);
                 signalLength -= removedLength;
             } catch (IllegalStateException e) {
                 StreamMessageUtil.closeOrAbort(obj, e);
@@ -275,6 +308,21 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
             }
         }
 
+        private SpilledData spill(HttpData data) throws IOException {
+            DuplicatorSpillFile spillFile = this.spillFile;
+            if (spillFile == null) {
+                spillFile = this.spillFile = new DuplicatorSpillFile();
+            }
+            return spillFile.spill(data);
+        }
+
+        private void clearSignals(@Nullable Throwable cause) {
+            signals.clear(cause);
+            if (spillFile != null) {
+                spillFile.close();
+            }
+        }
+
         void subscribe(DownstreamSubscription<T> subscription) {
             if (executor.inEventLoop()) {
                 doSubscribe(subscription);
@@ -310,7 +358,7 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
                 // anymore and are guaranteed that the last unsubscribed downstream will run this cleanup logic.
                 state = State.ABORTED;
                 doCancelUpstreamSubscription();
-                signals.clear(null);
+                clearSignals(null);
             }
         }
 
@@ -365,7 +413,7 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
                 if (duplicator.unsubscribed == 0 && downstreamSubscriptions.isEmpty()) {
                     state = State.ABORTED;
                     doCancelUpstreamSubscription();
-                    signals.clear(null);
+                    clearSignals(null);
                 } else {
                     state = State.CLOSED;
                 }
@@ -402,7 +450,7 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
             downstreamSubscriptions.clear();
             CompletableFutures.successfulAsList(completionFutures, unused -> null)
                               .handle((unused1, unused2) -> {
-                                  signals.clear(cause);
+                                  clearSignals(cause);
                                   return null;
                               });
         }
@@ -576,6 +624,10 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
         private volatile int offset;
         private long cumulativeDemand;
         private boolean inOnNext;
+        // The HttpData read back from the spill file for the SpilledData at the current offset.
+        @Nullable
+        private HttpData loadedData;
+        private boolean loading;
 
         DownstreamSubscription(ChildStreamMessage<T> streamMessage,
                                Subscriber<? super T> subscriber, StreamMessageProcessor<T> processor,
@@ -737,6 +789,14 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
                 return false;
             }
 
+            if (signal instanceof SpilledData && loadedData == null) {
+                if (loading || demand == 0) {
+                    return false;
+                }
+                loadSpilledData((SpilledData) signal);
+                return false;
+            }
+
             for (;;) {
                 final long demand = this.demand;
                 if (demand == 0) {
@@ -749,6 +809,15 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
                 }
 
                 offset++;
+                if (signal instanceof SpilledData) {
+                    final HttpData loadedData = this.loadedData;
+                    assert loadedData != null;
+                    this.loadedData = null;
+                    @SuppressWarnings("unchecked")
+                    final T obj = (T) loadedData;
+                    return onNext(signals, obj);
+                }
+
                 @SuppressWarnings("unchecked")
                 T obj = (T) signal;
                 try {
@@ -778,32 +847,57 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
                     return false;
                 }
 
-                if (processor.isClosed() && processor.duplicator.unsubscribed == 0) {
-                    if (++processor.downstreamSignaledCounter >= REQUEST_REMOVAL_THRESHOLD) {
-                        // don't need to use AtomicBoolean cause it's used for rough counting
-                        processor.downstreamSignaledCounter = 0;
-                        int minOffset = Integer.MAX_VALUE;
-                        for (DownstreamSubscription<?> s : processor.downstreamSubscriptions) {
-                            minOffset = Math.min(minOffset, s.offset);
-                        }
-                        signals.requestRemovalAheadOf(minOffset);
+                return onNext(signals, obj);
+            }
+        }
+
+        private boolean onNext(SignalQueue signals, T obj) {
+            if (processor.isClosed() && processor.duplicator.unsubscribed == 0) {
+                if (++processor.downstreamSignaledCounter >= REQUEST_REMOVAL_THRESHOLD) {
+                    // don't need to use AtomicBoolean cause it's used for rough counting
+                    processor.downstreamSignaledCounter = 0;
+                    int minOffset = Integer.MAX_VALUE;
+                    for (DownstreamSubscription<?> s : processor.downstreamSubscriptions) {
+                        minOffset = Math.min(minOffset, s.offset);
                     }
+                    signals.requestRemovalAheadOf(minOffset);
                 }
+            }
 
-                inOnNext = true;
-                try {
-                    subscriber.onNext(obj);
-                } catch (Throwable t) {
-                    unsubscribe(t);
-                    throwIfFatal(t);
-                    logger.warn("Subscriber.onNext({}) should not raise an exception. subscriber: {}",
-                                obj, subscriber, t);
-                    return false;
-                } finally {
-                    inOnNext = false;
-                }
-                return true;
+            inOnNext = true;
+            try {
+                subscriber.onNext(obj);
+            } catch (Throwable t) {
+                unsubscribe(t);
+                throwIfFatal(t);
+                logger.warn("Subscriber.onNext({}) should not raise an exception. subscriber: {}",
+                            obj, subscriber, t);
+                return false;
+            } finally {
+                inOnNext = false;
             }
+            return true;
+        }
+
+        private void loadSpilledData(SpilledData spilled) {
+            loading = true;
+            spilled.read(withPooledObjects).handle((data, cause) -> {
+                downstreamExecutor.execute(() -> {
+                    loading = false;
+                    if (cause != null) {
+                        unsubscribe(Exceptions.peel(cause));
+                        return;
+                    }
+                    if (!processor.downstreamSubscriptions.contains(this)) {
+                        // Unsubscribed while reading.
+                        data.close();
+                        return;
+                    }
+                    loadedData = data;
+                    doSignal();
+                });
+                return null;
+            });
         }
 
         void unsubscribe(@Nullable Throwable cause) {
@@ -819,6 +913,12 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
                 return;
             }
 
+            final HttpData loadedData = this.loadedData;
+            if (loadedData != null) {
+                this.loadedData = null;
+                loadedData.close();
+            }
+
             final Subscriber<? super T> subscriber = this.subscriber;
             clearSubscriber();
 
@@ -920,9 +1020,9 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
         /**
          * Invoked by the executor in {@link StreamMessageProcessor}.
          */
-        int addAndRemoveIfRequested(Object o) {
+        long addAndRemoveIfRequested(Object o) {
             requireNonNull(o);
-            int removedLength = 0;
+            long removedLength = 0;
             if (headOffset < lastRemovalRequestedOffset) {
                 removedLength = removeElements();
             }
@@ -941,7 +1041,7 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
         /**
          * Invoked by the executor in {@link StreamMessageProcessor}.
          */
-        private int removeElements() {
+        private long removeElements() {
             final int removalRequestedOffset = lastRemovalRequestedOffset;
             final int numElementsToBeRemoved = removalRequestedOffset - headOffset;
             final Object[] elements = this.elements;
@@ -949,11 +1049,13 @@ public class DefaultStreamMessageDuplicator<T> implements StreamMessageDuplicato
 
             final int bitMask = elements.length - 1;
             final int oldHead = head;
-            int removedLength = 0;
+            long removedLength = 0;
             for (int numRemovals = 0; numRemovals < numElementsToBeRemoved; numRemovals++) {
                 final int index = oldHead + numRemovals & bitMask;
                 final Object o = elements[index];
-                if (!(o instanceof CloseEvent)) {
+                if (o instanceof SpilledData) {
+                    removedLength += ((SpilledData) o).length();
+                } else if (!(o instanceof CloseEvent)) {
                     removedLength += signalLengthGetter.length(o);
                 }
                 StreamMessageUtil.closeOrAbort(o);
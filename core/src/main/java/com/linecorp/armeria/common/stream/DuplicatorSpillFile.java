@@ -0,0 +1,265 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableSet;
+
+import com.linecorp.armeria.common.CommonPools;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.util.Exceptions;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * A temporary file which keeps the {@link HttpData} signals of a {@link DefaultStreamMessageDuplicator}
+ * that exceed its in-memory limit. The file is created lazily on the first {@link #spill(HttpData)} and
+ * deleted when {@link #close()} is called. Because creating and opening a file blocks, it is done by
+ * {@link CommonPools#blockingTaskExecutor()}, and the writes requested meanwhile wait for the file to be
+ * opened.
+ */
+final class DuplicatorSpillFile {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicatorSpillFile.class);
+
+    // The maximum length of a chunk which can be read back into a single buffer.
+    private static final int MAX_CHUNK_LENGTH = Integer.MAX_VALUE - 8;
+
+    @Nullable
+    private volatile CompletableFuture<AsynchronousFileChannel> fileChannelFuture;
+    // Accessed only by the executor of the duplicator.
+    private long position;
+    private volatile boolean closed;
+
+    /**
+     * Writes the specified {@link HttpData} to this file and returns the {@link SpilledData} that reads it
+     * back. The specified {@link HttpData} is closed when the write is complete.
+     */
+    SpilledData spill(HttpData data) throws IOException {
+        if (closed) {
+            throw new IOException("spill file closed already");
+        }
+        final int length = data.length();
+        if (length < 0 || length > MAX_CHUNK_LENGTH) {
+            throw new IOException("length: " + length + " (expected: 0 <= length <= " + MAX_CHUNK_LENGTH +
+                                  ')');
+        }
+        final SpilledData spilled = new SpilledData(this, position, length, data.isEndOfStream());
+        position += length;
+
+        CompletableFuture<AsynchronousFileChannel> fileChannelFuture = this.fileChannelFuture;
+        if (fileChannelFuture == null) {
+            fileChannelFuture = this.fileChannelFuture = openFileChannel();
+        }
+        fileChannelFuture.handle((fileChannel, cause) -> {
+            if (cause == null && closed) {
+                cause = new IOException("spill file closed already");
+            }
+            if (cause != null) {
+                data.close();
+                spilled.whenWritten.completeExceptionally(cause);
+            } else {
+                write(fileChannel, data, spilled);
+            }
+            return null;
+        });
+        return spilled;
+    }
+
+    private static CompletableFuture<AsynchronousFileChannel> openFileChannel() {
+        return CompletableFuture.supplyAsync(() -> {
+            Path path = null;
+            try {
+                path = Files.createTempFile("armeria-duplicator-", ".tmp");
+                return AsynchronousFileChannel.open(
+                        path, ImmutableSet.of(StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                              StandardOpenOption.DELETE_ON_CLOSE),
+                        CommonPools.blockingTaskExecutor());
+            } catch (IOException e) {
+                if (path != null) {
+                    try {
+                        Files.deleteIfExists(path);
+                    } catch (IOException e1) {
+                        e.addSuppressed(e1);
+                    }
+                }
+                return Exceptions.throwUnsafely(e);
+            }
+        }, CommonPools.blockingTaskExecutor());
+    }
+
+    private static void write(AsynchronousFileChannel fileChannel, HttpData data, SpilledData spilled) {
+        final ByteBuf byteBuf = data.byteBuf();
+        final ByteBuffer byteBuffer = byteBuf.nioBuffer();
+        final CompletionHandler<Integer, Void> handler = new CompletionHandler<Integer, Void>() {
+            private long position = spilled.position;
+
+            @Override
+            public void completed(Integer result, @Nullable Void unused) {
+                position += result;
+                if (byteBuffer.hasRemaining()) {
+                    try {
+                        fileChannel.write(byteBuffer, position, null, this);
+                    } catch (Throwable cause) {
+                        failed(cause, null);
+                    }
+                    return;
+                }
+                data.close();
+                spilled.whenWritten.complete(null);
+            }
+
+            @Override
+            public void failed(Throwable cause, @Nullable Void unused) {
+                data.close();
+                spilled.whenWritten.completeExceptionally(cause);
+            }
+        };
+        try {
+            fileChannel.write(byteBuffer, spilled.position, null, handler);
+        } catch (Throwable cause) {
+            handler.failed(cause, null);
+        }
+    }
+
+    /**
+     * Closes and deletes this file. The reads in progress fail. If the file is being opened, it is closed
+     * as soon as it is opened.
+     */
+    void close() {
+        closed = true;
+        final CompletableFuture<AsynchronousFileChannel> fileChannelFuture = this.fileChannelFuture;
+        if (fileChannelFuture != null) {
+            fileChannelFuture.thenAccept(fileChannel -> {
+                try {
+                    fileChannel.close();
+                } catch (IOException e) {
+                    logger.warn("Unexpected exception while closing {}.", fileChannel, e);
+                }
+            });
+        }
+    }
+
+    /**
+     * An {@link HttpData} which was written to a {@link DuplicatorSpillFile}.
+     */
+    static final class SpilledData {
+
+        private final DuplicatorSpillFile file;
+        private final long position;
+        private final int length;
+        private final boolean endOfStream;
+        private final CompletableFuture<Void> whenWritten = new CompletableFuture<>();
+
+        SpilledData(DuplicatorSpillFile file, long position, int length, boolean endOfStream) {
+            this.file = file;
+            this.position = position;
+            this.length = length;
+            this.endOfStream = endOfStream;
+        }
+
+        int length() {
+            return length;
+        }
+
+        /**
+         * Reads the {@link HttpData} back from the file. The returned {@link HttpData} is pooled if
+         * {@code withPooledObjects} is {@code true}.
+         */
+        CompletableFuture<HttpData> read(boolean withPooledObjects) {
+            return whenWritten.thenCompose(unused -> read0(withPooledObjects));
+        }
+
+        private CompletableFuture<HttpData> read0(boolean withPooledObjects) {
+            final CompletableFuture<HttpData> future = new CompletableFuture<>();
+            // The file was opened already because the data was written.
+            final CompletableFuture<AsynchronousFileChannel> fileChannelFuture = file.fileChannelFuture;
+            final AsynchronousFileChannel fileChannel =
+                    fileChannelFuture != null ? fileChannelFuture.getNow(null) : null;
+            if (file.closed || fileChannel == null) {
+                future.completeExceptionally(new IOException("spill file closed already"));
+                return future;
+            }
+
+            final ByteBuf byteBuf = withPooledObjects ? ByteBufAllocator.DEFAULT.buffer(length)
+                                                      : null;
+            final ByteBuffer byteBuffer = byteBuf != null ? byteBuf.nioBuffer(0, length)
+                                                          : ByteBuffer.allocate(length);
+            final CompletionHandler<Integer, Void> handler = new CompletionHandler<Integer, Void>() {
+                private long position = SpilledData.this.position;
+
+                @Override
+                public void completed(Integer result, @Nullable Void unused) {
+                    if (result < 0) {
+                        failed(new IOException("Unexpected end of spill file. position: " + position), null);
+                        return;
+                    }
+                    position += result;
+                    if (byteBuffer.hasRemaining()) {
+                        try {
+                            fileChannel.read(byteBuffer, position, null, this);
+                        } catch (Throwable cause) {
+                            failed(cause, null);
+                        }
+                        return;
+                    }
+
+                    final HttpData data;
+                    if (byteBuf != null) {
+                        byteBuf.writerIndex(length);
+                        data = HttpData.wrap(byteBuf);
+                    } else {
+                        data = HttpData.wrap(byteBuffer.array());
+                    }
+                    future.complete(data.withEndOfStream(endOfStream));
+                }
+
+                @Override
+                public void failed(Throwable cause, @Nullable Void unused) {
+                    if (byteBuf != null) {
+                        byteBuf.release();
+                    }
+                    future.completeExceptionally(cause);
+                }
+            };
+            try {
+                fileChannel.read(byteBuffer, position, null, handler);
+            } catch (Throwable cause) {
+                handler.failed(cause, null);
+            }
+            return future;
+        }
+
+        @Override
+        public String toString() {
+            return "SpilledData(position: " + position + ", length: " + length + ')';
+        }
+    }
+}
@@ -0,0 +1,398 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import static com.linecorp.armeria.internal.common.stream.InternalStreamMessageUtil.containsNotifyCancellation;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.google.common.math.LongMath;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.util.EventLoopCheckingFuture;
+import com.linecorp.armeria.internal.common.stream.NoopSubscription;
+import com.linecorp.armeria.internal.common.stream.StreamMessageUtil;
+
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * A {@link StreamMessage} which subscribes to multiple source {@link StreamMessage}s at once and combines
+ * their elements into a single stream. Each source is requested up to {@code prefetch} elements ahead,
+ * and all signals are handled by the {@link EventExecutor} of the subscription.
+ */
+abstract class FanInStreamMessage<T, U> implements StreamMessage<U> {
+
+    static final int DEFAULT_PREFETCH = 32;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<FanInStreamMessage> subscribedUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(FanInStreamMessage.class, "subscribed");
+
+    private final List<StreamMessage<? extends T>> sources;
+    private final int prefetch;
+    private final CompletableFuture<Void> completionFuture = new EventLoopCheckingFuture<>();
+
+    @Nullable
+    private volatile FanInSubscription<T, U> subscription;
+    private volatile int subscribed;
+
+    FanInStreamMessage(List<StreamMessage<? extends T>> sources, int prefetch) {
+        assert !sources.isEmpty();
+        this.sources = sources;
+        this.prefetch = prefetch;
+    }
+
+    final List<StreamMessage<? extends T>> sources() {
+        return sources;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !completionFuture.isDone();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if (isOpen()) {
+            return false;
+        }
+        for (StreamMessage<? extends T> source : sources) {
+            if (!source.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long demand() {
+        final FanInSubscription<T, U> subscription = this.subscription;
+        return subscription != null ? subscription.requested : 0;
+    }
+
+    @Override
+    public CompletableFuture<Void> whenComplete() {
+        return completionFuture;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super U> subscriber, EventExecutor executor,
+                          SubscriptionOption... options) {
+        requireNonNull(subscriber, "subscriber");
+        requireNonNull(executor, "executor");
+        requireNonNull(options, "options");
+
+        if (!subscribedUpdater.compareAndSet(this, 0, 1)) {
+            subscriber.onSubscribe(NoopSubscription.get());
+            subscriber.onError(new IllegalStateException("subscribed by other subscriber already"));
+            return;
+        }
+
+        final FanInSubscription<T, U> subscription =
+                newSubscription(subscriber, executor, sources.size(), prefetch, completionFuture,
+                                containsNotifyCancellation(options));
+        this.subscription = subscription;
+        if (executor.inEventLoop()) {
+            subscription.start(sources, options);
+        } else {
+            executor.execute(() -> subscription.start(sources, options));
+        }
+    }
+
+    abstract FanInSubscription<T, U> newSubscription(Subscriber<? super U> downstream, EventExecutor executor,
+                                                     int numSources, int prefetch,
+                                                     CompletableFuture<Void> completionFuture,
+                                                     boolean notifyCancellation);
+
+    @Override
+    public void abort() {
+        abort(AbortedStreamException.get());
+    }
+
+    @Override
+    public void abort(Throwable cause) {
+        requireNonNull(cause, "cause");
+        if (subscribedUpdater.compareAndSet(this, 0, 1)) {
+            completionFuture.completeExceptionally(cause);
+        }
+        for (StreamMessage<? extends T> source : sources) {
+            source.abort(cause);
+        }
+    }
+
+    /**
+     * A {@link Subscription} for the downstream {@link Subscriber}. All methods except
+     * {@link #request(long)} and {@link #cancel()} are invoked by the {@link EventExecutor}.
+     */
+    abstract static class FanInSubscription<T, U> implements Subscription {
+
+        private Subscriber<? super U> downstream;
+        private final EventExecutor executor;
+        private final InnerSubscriber<T>[] inners;
+        private final CompletableFuture<Void> completionFuture;
+        private final boolean notifyCancellation;
+
+        volatile long requested;
+        private boolean done;
+        private boolean draining;
+        private boolean missed;
+
+        @SuppressWarnings("unchecked")
+        FanInSubscription(Subscriber<? super U> downstream, EventExecutor executor, int numSources,
+                          int prefetch, CompletableFuture<Void> completionFuture, boolean notifyCancellation) {
+            this.downstream = downstream;
+            this.executor = executor;
+            inners = new InnerSubscriber[numSources];
+            for (int i = 0; i < numSources; i++) {
+                inners[i] = new InnerSubscriber<>(this, prefetch);
+            }
+            this.completionFuture = completionFuture;
+            this.notifyCancellation = notifyCancellation;
+        }
+
+        final void start(List<StreamMessage<? extends T>> sources, SubscriptionOption[] options) {
+            downstream.onSubscribe(this);
+            for (int i = 0; i < inners.length; i++) {
+                if (done) {
+                    // Cancelled or failed while subscribing.
+                    sources.get(i).abort(CancelledSubscriptionException.get());
+                } else {
+                    sources.get(i).subscribe(inners[i], executor, options);
+                }
+            }
+        }
+
+        final InnerSubscriber<T>[] inners() {
+            return inners;
+        }
+
+        final boolean isDone() {
+            return done;
+        }
+
+        /**
+         * Emits as many elements as {@link #requested} allows and completes the downstream if possible.
+         */
+        abstract void emit();
+
+        final void emitNext(U item) {
+            final long requested = this.requested;
+            if (requested != Long.MAX_VALUE) {
+                this.requested = requested - 1;
+            }
+            downstream.onNext(item);
+        }
+
+        final void drain() {
+            if (draining) {
+                missed = true;
+                return;
+            }
+            draining = true;
+            try {
+                do {
+                    missed = false;
+                    if (done) {
+                        return;
+                    }
+                    emit();
+                } while (missed);
+            } finally {
+                draining = false;
+            }
+        }
+
+        final void complete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            cancelInners();
+            downstream.onComplete();
+            completionFuture.complete(null);
+        }
+
+        final void fail(Throwable cause) {
+            if (done) {
+                return;
+            }
+            done = true;
+            cancelInners();
+            downstream.onError(cause);
+            completionFuture.completeExceptionally(cause);
+        }
+
+        private void cancelInners() {
+            for (InnerSubscriber<T> inner : inners) {
+                inner.cancel();
+            }
+        }
+
+        @Override
+        public final void request(long n) {
+            if (executor.inEventLoop()) {
+                request0(n);
+            } else {
+                executor.execute(() -> request0(n));
+            }
+        }
+
+        private void request0(long n) {
+            if (done) {
+                return;
+            }
+            if (n <= 0) {
+                fail(new IllegalArgumentException(
+                        "n: " + n + " (expected: > 0, see Reactive Streams specification rule 3.9)"));
+                return;
+            }
+            requested = LongMath.saturatedAdd(requested, n);
+            drain();
+        }
+
+        @Override
+        public final void cancel() {
+            if (executor.inEventLoop()) {
+                cancel0();
+            } else {
+                executor.execute(this::cancel0);
+            }
+        }
+
+        private void cancel0() {
+            if (done) {
+                return;
+            }
+            done = true;
+            cancelInners();
+            final CancelledSubscriptionException cause = CancelledSubscriptionException.get();
+            if (notifyCancellation) {
+                downstream.onError(cause);
+            }
+            downstream = NoopSubscriber.get();
+            completionFuture.completeExceptionally(cause);
+        }
+    }
+
+    static final class InnerSubscriber<T> implements Subscriber<T> {
+
+        private final FanInSubscription<T, ?> parent;
+        private final int prefetch;
+        private final int limit;
+        private final ArrayDeque<T> queue = new ArrayDeque<>();
+
+        @Nullable
+        private Subscription subscription;
+        private int consumed;
+        private boolean done;
+        private boolean cancelled;
+
+        InnerSubscriber(FanInSubscription<T, ?> parent, int prefetch) {
+            this.parent = parent;
+            this.prefetch = prefetch;
+            // Replenish when 3/4 of the prefetched elements are consumed.
+            limit = Math.max(1, prefetch - (prefetch >> 2));
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            requireNonNull(subscription, "subscription");
+            if (cancelled) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+            subscription.request(prefetch);
+        }
+
+        @Override
+        public void onNext(T item) {
+            requireNonNull(item, "item");
+            if (cancelled) {
+                StreamMessageUtil.closeOrAbort(item);
+                return;
+            }
+            queue.add(item);
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable cause) {
+            requireNonNull(cause, "cause");
+            done = true;
+            if (!cancelled) {
+                parent.fail(cause);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            if (!cancelled) {
+                parent.drain();
+            }
+        }
+
+        /**
+         * Returns whether this source completed and all its elements were consumed.
+         */
+        boolean isExhausted() {
+            return done && queue.isEmpty();
+        }
+
+        boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Nullable
+        T poll() {
+            final T item = queue.poll();
+            if (item != null && ++consumed == limit) {
+                consumed = 0;
+                final Subscription subscription = this.subscription;
+                if (subscription != null) {
+                    subscription.request(limit);
+                }
+            }
+            return item;
+        }
+
+        void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            if (subscription != null && !done) {
+                subscription.cancel();
+            }
+            for (;;) {
+                final T item = queue.poll();
+                if (item == null) {
+                    break;
+                }
+                StreamMessageUtil.closeOrAbort(item);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.reactivestreams.Subscriber;
+
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * Relays the elements of multiple {@link StreamMessage}s as soon as they are published, visiting the sources
+ * in a round-robin manner so that a busy source does not starve the others.
+ */
+final class MergeStreamMessage<T> extends FanInStreamMessage<T, T> {
+
+    MergeStreamMessage(List<StreamMessage<? extends T>> sources, int prefetch) {
+        super(sources, prefetch);
+    }
+
+    @Override
+    FanInSubscription<T, T> newSubscription(Subscriber<? super T> downstream, EventExecutor executor,
+                                            int numSources, int prefetch,
+                                            CompletableFuture<Void> completionFuture,
+                                            boolean notifyCancellation) {
+        return new MergeSubscription<>(downstream, executor, numSources, prefetch, completionFuture,
+                                       notifyCancellation);
+    }
+
+    private static final class MergeSubscription<T> extends FanInSubscription<T, T> {
+
+        // The index of the source to visit first in the next round.
+        private int cursor;
+
+        MergeSubscription(Subscriber<? super T> downstream, EventExecutor executor, int numSources,
+                          int prefetch, CompletableFuture<Void> completionFuture, boolean notifyCancellation) {
+            super(downstream, executor, numSources, prefetch, completionFuture, notifyCancellation);
+        }
+
+        @Override
+        void emit() {
+            final InnerSubscriber<T>[] inners = inners();
+            final int numSources = inners.length;
+            int numEmptySources = 0;
+            while (requested > 0 && numEmptySources < numSources) {
+                final InnerSubscriber<T> inner = inners[cursor];
+                if (++cursor == numSources) {
+                    cursor = 0;
+                }
+
+                final T item = inner.poll();
+                if (item == null) {
+                    numEmptySources++;
+                    continue;
+                }
+                numEmptySources = 0;
+                emitNext(item);
+                if (isDone()) {
+                    return;
+                }
+            }
+
+            for (InnerSubscriber<T> inner : inners) {
+                if (!inner.isExhausted()) {
+                    return;
+                }
+            }
+            complete();
+        }
+    }
+}
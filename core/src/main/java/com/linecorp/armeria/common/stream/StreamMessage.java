@@ -35,9 +35,11 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
@@ -55,6 +57,7 @@ import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.annotation.UnstableApi;
 import com.linecorp.armeria.common.util.Exceptions;
 import com.linecorp.armeria.internal.common.stream.AbortedStreamMessage;
+import com.linecorp.armeria.internal.common.stream.BufferingStreamMessage;
 import com.linecorp.armeria.internal.common.stream.DecodedStreamMessage;
 import com.linecorp.armeria.internal.common.stream.EmptyFixedStreamMessage;
 import com.linecorp.armeria.internal.common.stream.InternalStreamMessageUtil;
@@ -466,6 +469,111 @@ public interface StreamMessage<T> extends Publisher<T> {
         return new ConcatPublisherStreamMessage<>(of(publishers));
     }
 
+    /**
+     * Returns a merged {@link StreamMessage} which relays items of the specified {@link Publisher}s as soon as
+     * they are published. Unlike {@link #concat(Publisher[])}, all {@link Publisher}s are subscribed
+     * at once and their items may interleave.
+     *
+     * @see #merge(Iterable, int)
+     */
+    @SafeVarargs
+    @UnstableApi
+    static <T> StreamMessage<T> merge(Publisher<? extends T>... publishers) {
+        requireNonNull(publishers, "publishers");
+        return merge(ImmutableList.copyOf(publishers));
+    }
+
+    /**
+     * Returns a merged {@link StreamMessage} which relays items of the specified {@link Publisher}s as soon as
+     * they are published. Unlike {@link #concat(Iterable)}, all {@link Publisher}s are subscribed
+     * at once and their items may interleave.
+     *
+     * @see #merge(Iterable, int)
+     */
+    @UnstableApi
+    static <T> StreamMessage<T> merge(Iterable<? extends Publisher<? extends T>> publishers) {
+        return merge(publishers, FanInStreamMessage.DEFAULT_PREFETCH);
+    }
+
+    /**
+     * Returns a merged {@link StreamMessage} which relays items of the specified {@link Publisher}s as soon as
+     * they are published. All {@link Publisher}s are subscribed at once and each of them is requested up to
+     * {@code prefetch} items ahead of the downstream demand. When more than one {@link Publisher} has
+     * an item ready, the items are relayed in a round-robin manner so that a busy {@link Publisher} does not
+     * starve the others.
+     *
+     * <p>For example:<pre>{@code
+     * StreamMessage<Event> events = StreamMessage.merge(List.of(upstream1, upstream2, upstream3), 16);
+     * }</pre>
+     */
+    @UnstableApi
+    static <T> StreamMessage<T> merge(Iterable<? extends Publisher<? extends T>> publishers, int prefetch) {
+        requireNonNull(publishers, "publishers");
+        checkArgument(prefetch > 0, "prefetch: %s (expected: > 0)", prefetch);
+
+        if (Iterables.isEmpty(publishers)) {
+            return of();
+        }
+        final List<StreamMessage<? extends T>> streamMessages = ImmutableList.copyOf(publishers)
+                                                                             .stream()
+                                                                             .map(StreamMessage::of)
+                                                                             .collect(toImmutableList());
+        if (streamMessages.size() == 1) {
+            @SuppressWarnings("unchecked")
+            final StreamMessage<T> cast = (StreamMessage<T>) streamMessages.get(0);
+            return cast;
+        }
+        return new MergeStreamMessage<>(streamMessages, prefetch);
+    }
+
+    /**
+     * Returns a zipped {@link StreamMessage} which combines the items of the specified {@link Publisher}s
+     * at the same position using the specified {@link BiFunction}. The zipped {@link StreamMessage}
+     * completes as soon as either {@link Publisher} completes and all its items are combined.
+     *
+     * <p>For example:<pre>{@code
+     * StreamMessage<String> zipped = StreamMessage.zip(StreamMessage.of(1, 2, 3),
+     *                                                  StreamMessage.of("a", "b"),
+     *                                                  (num, str) -> num + str);
+     * assert zipped.collect().join().equals(List.of("1a", "2b"));
+     * }</pre>
+     */
+    @UnstableApi
+    static <T1, T2, U> StreamMessage<U> zip(Publisher<? extends T1> first, Publisher<? extends T2> second,
+                                            BiFunction<? super T1, ? super T2, ? extends U> combiner) {
+        requireNonNull(first, "first");
+        requireNonNull(second, "second");
+        requireNonNull(combiner, "combiner");
+        final List<StreamMessage<?>> sources = ImmutableList.of(of(first), of(second));
+        return new ZipStreamMessage<Object, U>(sources, items -> {
+            @SuppressWarnings("unchecked")
+            final T1 item1 = (T1) items.get(0);
+            @SuppressWarnings("unchecked")
+            final T2 item2 = (T2) items.get(1);
+            return combiner.apply(item1, item2);
+        }, FanInStreamMessage.DEFAULT_PREFETCH);
+    }
+
+    /**
+     * Returns a zipped {@link StreamMessage} which combines the items of the specified {@link Publisher}s
+     * at the same position using the specified {@link Function}. The {@link List} passed to
+     * the {@link Function} contains one item from each {@link Publisher} in the iteration order of
+     * {@code publishers}. The zipped {@link StreamMessage} completes as soon as one of the
+     * {@link Publisher}s completes and all its items are combined.
+     */
+    @UnstableApi
+    static <T, U> StreamMessage<U> zip(Iterable<? extends Publisher<? extends T>> publishers,
+                                       Function<? super List<T>, ? extends U> combiner) {
+        requireNonNull(publishers, "publishers");
+        requireNonNull(combiner, "combiner");
+        checkArgument(!Iterables.isEmpty(publishers), "publishers is empty.");
+        final List<StreamMessage<? extends T>> streamMessages = ImmutableList.copyOf(publishers)
+                                                                             .stream()
+                                                                             .map(StreamMessage::of)
+                                                                             .collect(toImmutableList());
+        return new ZipStreamMessage<>(streamMessages, combiner, FanInStreamMessage.DEFAULT_PREFETCH);
+    }
+
     /**
      * Returns an aborted {@link StreamMessage} that terminates with the specified {@link Throwable}
      * via {@link Subscriber#onError(Throwable)} immediately after being subscribed to.
@@ -922,6 +1030,67 @@ public interface StreamMessage<T> extends Publisher<T> {
         return new FlatMapStreamMessage<>(this, function, maxConcurrency);
     }
 
+    /**
+     * Delays the values emitted by this {@link StreamMessage} so that the permits taken by them do not exceed
+     * the rate of the specified {@link StreamRateLimiter}. The number of permits taken by each value is
+     * determined by the specified {@link ToLongFunction}. The values are delayed by timers of the
+     * subscriber's {@link EventExecutor}, so no thread is blocked. A {@link StreamRateLimiter} shared by
+     * multiple {@link StreamMessage}s caps their total rate.
+     *
+     * <p>For example:<pre>{@code
+     * StreamMessage<byte[]> chunks = ...;
+     * // Emit up to 64 KiB per second.
+     * StreamMessage<byte[]> throttled = chunks.throttle(StreamRateLimiter.of(65536), chunk -> chunk.length);
+     * }</pre>
+     */
+    @UnstableApi
+    default StreamMessage<T> throttle(StreamRateLimiter rateLimiter,
+                                      ToLongFunction<? super T> permitFunction) {
+        requireNonNull(rateLimiter, "rateLimiter");
+        requireNonNull(permitFunction, "permitFunction");
+        return new ThrottlingStreamMessage<>(this, rateLimiter, permitFunction);
+    }
+
+    /**
+     * Groups the values emitted by this {@link StreamMessage} into {@link List}s of {@code maxCount} values.
+     * The last {@link List} may contain less than {@code maxCount} values when this {@link StreamMessage}
+     * completes. Grouping values reduces the per-value overhead of the downstream, e.g. a write and
+     * a flush for each value.
+     *
+     * <p>For example:<pre>{@code
+     * StreamMessage<Integer> source = StreamMessage.of(1, 2, 3, 4, 5);
+     * StreamMessage<List<Integer>> buffered = source.buffer(2);
+     * assert buffered.collect().join().equals(List.of(List.of(1, 2), List.of(3, 4), List.of(5)));
+     * }</pre>
+     */
+    @UnstableApi
+    default StreamMessage<List<T>> buffer(int maxCount) {
+        checkArgument(maxCount > 0, "maxCount: %s (expected: > 0)", maxCount);
+        return BufferingStreamMessage.buffer(this, maxCount, null);
+    }
+
+    /**
+     * Groups the values emitted by this {@link StreamMessage} into {@link List}s of up to {@code maxCount}
+     * values. A {@link List} is emitted when it has {@code maxCount} values or when {@code maxDelay} has
+     * passed since its first value was received, whichever comes first. Specify {@link Integer#MAX_VALUE}
+     * as {@code maxCount} to group the values by a time window of {@code maxDelay} only. The values are
+     * requested from this {@link StreamMessage} in bounded chunks even in that case.
+     *
+     * <p>For example:<pre>{@code
+     * StreamMessage<Event> events = ...;
+     * // Emit up to 100 events at once, but do not hold an event for longer than 10 milliseconds.
+     * StreamMessage<List<Event>> buffered = events.buffer(100, Duration.ofMillis(10));
+     * }</pre>
+     */
+    @UnstableApi
+    default StreamMessage<List<T>> buffer(int maxCount, Duration maxDelay) {
+        checkArgument(maxCount > 0, "maxCount: %s (expected: > 0)", maxCount);
+        requireNonNull(maxDelay, "maxDelay");
+        checkArgument(!maxDelay.isNegative() && !maxDelay.isZero(),
+                      "maxDelay: %s (expected: > 0)", maxDelay);
+        return BufferingStreamMessage.buffer(this, maxCount, maxDelay);
+    }
+
     /**
      * Transforms an error emitted by this {@link StreamMessage} by applying the specified {@link Function}.
      * As per
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Ticker;
+import com.google.common.math.LongMath;
+
+import com.linecorp.armeria.common.annotation.UnstableApi;
+
+/**
+ * A token bucket which limits the rate of the elements emitted by one or more {@link StreamMessage}s,
+ * such as the number of bytes per second. The bucket holds up to {@link #maxBurstPermits()} permits and
+ * is refilled at {@link #permitsPerSecond()}. A {@link StreamRateLimiter} is thread-safe and can be shared
+ * by the {@link StreamMessage}s running on different event loops to cap their total rate.
+ *
+ * <p>For example:<pre>{@code
+ * // Limit the egress bandwidth of the response to 1 MiB/s.
+ * StreamRateLimiter limiter = StreamRateLimiter.of(1024 * 1024);
+ * HttpResponse throttled = response.throttle(limiter);
+ * }</pre>
+ *
+ * @see StreamMessage#throttle(StreamRateLimiter, java.util.function.ToLongFunction)
+ */
+@UnstableApi
+public final class StreamRateLimiter {
+
+    /**
+     * Returns a new {@link StreamRateLimiter} which allows {@code permitsPerSecond} and bursts of up to
+     * the permits of one second.
+     */
+    public static StreamRateLimiter of(long permitsPerSecond) {
+        return of(permitsPerSecond, permitsPerSecond);
+    }
+
+    /**
+     * Returns a new {@link StreamRateLimiter} which allows {@code permitsPerSecond} and bursts of up to
+     * {@code maxBurstPermits}.
+     */
+    public static StreamRateLimiter of(long permitsPerSecond, long maxBurstPermits) {
+        checkArgument(permitsPerSecond > 0, "permitsPerSecond: %s (expected: > 0)", permitsPerSecond);
+        checkArgument(maxBurstPermits > 0, "maxBurstPermits: %s (expected: > 0)", maxBurstPermits);
+        return new StreamRateLimiter(permitsPerSecond, maxBurstPermits, Ticker.systemTicker());
+    }
+
+    private final long permitsPerSecond;
+    private final long maxBurstPermits;
+    private final long maxBurstNanos;
+    private final Ticker ticker;
+
+    /**
+     * The time when the bucket would be refilled completely if no more permits were taken. The bucket is
+     * in debt when this is later than {@code now + maxBurstNanos}, which means the callers have to wait.
+     */
+    private final AtomicLong fullAtNanos;
+
+    StreamRateLimiter(long permitsPerSecond, long maxBurstPermits, Ticker ticker) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.maxBurstPermits = maxBurstPermits;
+        this.ticker = requireNonNull(ticker, "ticker");
+        maxBurstNanos = toNanos(maxBurstPermits);
+        fullAtNanos = new AtomicLong(ticker.read());
+    }
+
+    /**
+     * Returns the number of permits added to the bucket per second.
+     */
+    public long permitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * Returns the maximum number of permits the bucket holds.
+     */
+    public long maxBurstPermits() {
+        return maxBurstPermits;
+    }
+
+    /**
+     * Takes the specified number of permits from the bucket, borrowing from the future if there are not
+     * enough permits, and returns how long the caller has to wait until it is allowed to use them.
+     *
+     * @return the nanoseconds to wait, or {@code 0} if the permits can be used immediately.
+     */
+    long reserve(long permits) {
+        assert permits >= 0;
+        if (permits == 0) {
+            return 0;
+        }
+        final long permitNanos = toNanos(permits);
+        for (;;) {
+            final long now = ticker.read();
+            final long fullAt = fullAtNanos.get();
+            // An idle bucket does not accumulate more than maxBurstPermits.
+            final long newFullAt = LongMath.saturatedAdd(Math.max(fullAt, now), permitNanos);
+            if (fullAtNanos.compareAndSet(fullAt, newFullAt)) {
+                return Math.max(0, newFullAt - now - maxBurstNanos);
+            }
+        }
+    }
+
+    private long toNanos(long permits) {
+        return LongMath.saturatedMultiply(permits, TimeUnit.SECONDS.toNanos(1)) / permitsPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("permitsPerSecond", permitsPerSecond)
+                          .add("maxBurstPermits", maxBurstPermits)
+                          .toString();
+    }
+}
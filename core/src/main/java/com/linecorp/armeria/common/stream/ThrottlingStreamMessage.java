@@ -0,0 +1,288 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.google.common.math.LongMath;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.internal.common.stream.StreamMessageUtil;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+
+/**
+ * A {@link StreamMessage} which delays the elements of the source {@link StreamMessage} so that the permits
+ * taken from a {@link StreamRateLimiter} do not exceed its rate. The source is requested one element at
+ * a time and the delayed element is emitted by a task scheduled on the {@link EventExecutor} of
+ * the subscription, so no thread is blocked while waiting.
+ */
+final class ThrottlingStreamMessage<T> implements StreamMessage<T> {
+
+    private final StreamMessage<T> source;
+    private final StreamRateLimiter rateLimiter;
+    private final ToLongFunction<? super T> permitFunction;
+
+    @SuppressWarnings("unchecked")
+    ThrottlingStreamMessage(StreamMessage<? extends T> source, StreamRateLimiter rateLimiter,
+                            ToLongFunction<? super T> permitFunction) {
+        this.source = (StreamMessage<T>) requireNonNull(source, "source");
+        this.rateLimiter = requireNonNull(rateLimiter, "rateLimiter");
+        this.permitFunction = requireNonNull(permitFunction, "permitFunction");
+    }
+
+    @Override
+    public boolean isOpen() {
+        return source.isOpen();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return source.isEmpty();
+    }
+
+    @Override
+    public long demand() {
+        return source.demand();
+    }
+
+    @Override
+    public CompletableFuture<Void> whenComplete() {
+        return source.whenComplete();
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber, EventExecutor executor,
+                          SubscriptionOption... options) {
+        requireNonNull(subscriber, "subscriber");
+        requireNonNull(executor, "executor");
+        requireNonNull(options, "options");
+        source.subscribe(new ThrottlingSubscriber<>(subscriber, executor, rateLimiter, permitFunction),
+                         executor, options);
+    }
+
+    @Override
+    public void abort() {
+        source.abort();
+    }
+
+    @Override
+    public void abort(Throwable cause) {
+        requireNonNull(cause, "cause");
+        source.abort(cause);
+    }
+
+    private static final class ThrottlingSubscriber<T> implements Subscriber<T>, Subscription, Runnable {
+
+        private final Subscriber<? super T> downstream;
+        private final EventExecutor executor;
+        private final StreamRateLimiter rateLimiter;
+        private final ToLongFunction<? super T> permitFunction;
+
+        @Nullable
+        private Subscription upstream;
+        // The element waiting for the permits.
+        @Nullable
+        private T delayed;
+        @Nullable
+        private ScheduledFuture<?> delayFuture;
+        // The cause of onError() received while an element is delayed.
+        @Nullable
+        private Throwable upstreamCause;
+
+        private long requestedByDownstream;
+        private boolean requestedFromUpstream;
+        private boolean upstreamCompleted;
+        private boolean completed;
+
+        ThrottlingSubscriber(Subscriber<? super T> downstream, EventExecutor executor,
+                             StreamRateLimiter rateLimiter, ToLongFunction<? super T> permitFunction) {
+            this.downstream = downstream;
+            this.executor = executor;
+            this.rateLimiter = rateLimiter;
+            this.permitFunction = permitFunction;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            requireNonNull(subscription, "subscription");
+            upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            requireNonNull(item, "item");
+            requestedFromUpstream = false;
+            if (completed) {
+                StreamMessageUtil.closeOrAbort(item);
+                return;
+            }
+
+            final long delayNanos;
+            try {
+                delayNanos = rateLimiter.reserve(permitFunction.applyAsLong(item));
+            } catch (Throwable cause) {
+                StreamMessageUtil.closeOrAbort(item);
+                cancel0();
+                downstream.onError(cause);
+                return;
+            }
+
+            if (delayNanos == 0) {
+                emit(item);
+            } else {
+                delayed = item;
+                delayFuture = executor.schedule(this, delayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /**
+         * Invoked when the delayed element is allowed to be emitted.
+         */
+        @Override
+        public void run() {
+            delayFuture = null;
+            final T delayed = this.delayed;
+            if (completed || delayed == null) {
+                return;
+            }
+            this.delayed = null;
+            emit(delayed);
+        }
+
+        private void emit(T item) {
+            if (requestedByDownstream != Long.MAX_VALUE) {
+                requestedByDownstream--;
+            }
+            downstream.onNext(item);
+            if (!completed) {
+                if (upstreamCompleted) {
+                    completeDownstream();
+                } else {
+                    requestNext();
+                }
+            }
+        }
+
+        private void requestNext() {
+            if (requestedByDownstream > 0 && !requestedFromUpstream && delayed == null) {
+                requestedFromUpstream = true;
+                final Subscription upstream = this.upstream;
+                assert upstream != null;
+                // Request one element at a time so that the source is not read faster than the rate.
+                upstream.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable cause) {
+            requireNonNull(cause, "cause");
+            if (completed) {
+                return;
+            }
+            upstreamCompleted = true;
+            upstreamCause = cause;
+            if (delayed == null) {
+                completeDownstream();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (completed) {
+                return;
+            }
+            upstreamCompleted = true;
+            if (delayed == null) {
+                completeDownstream();
+            }
+        }
+
+        private void completeDownstream() {
+            completed = true;
+            final Throwable cause = upstreamCause;
+            if (cause != null) {
+                downstream.onError(cause);
+            } else {
+                downstream.onComplete();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (executor.inEventLoop()) {
+                handleRequest(n);
+            } else {
+                executor.execute(() -> handleRequest(n));
+            }
+        }
+
+        private void handleRequest(long n) {
+            if (completed) {
+                return;
+            }
+            if (n <= 0) {
+                cancel0();
+                downstream.onError(new IllegalArgumentException(
+                        "n: " + n + " (expected: > 0, see Reactive Streams specification rule 3.9)"));
+                return;
+            }
+            requestedByDownstream = LongMath.saturatedAdd(requestedByDownstream, n);
+            requestNext();
+        }
+
+        @Override
+        public void cancel() {
+            if (executor.inEventLoop()) {
+                cancel0();
+            } else {
+                executor.execute(this::cancel0);
+            }
+        }
+
+        private void cancel0() {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            final ScheduledFuture<?> delayFuture = this.delayFuture;
+            if (delayFuture != null) {
+                this.delayFuture = null;
+                delayFuture.cancel(false);
+            }
+            final T delayed = this.delayed;
+            if (delayed != null) {
+                this.delayed = null;
+                StreamMessageUtil.closeOrAbort(delayed);
+            }
+            if (!upstreamCompleted) {
+                final Subscription upstream = this.upstream;
+                assert upstream != null;
+                upstream.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.reactivestreams.Subscriber;
+
+import com.linecorp.armeria.internal.common.stream.StreamMessageUtil;
+
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * Combines the elements of multiple {@link StreamMessage}s at the same position into one element.
+ * The stream completes as soon as one of the sources completes and all its elements are combined.
+ */
+final class ZipStreamMessage<T, U> extends FanInStreamMessage<T, U> {
+
+    private final Function<? super List<T>, ? extends U> combiner;
+
+    ZipStreamMessage(List<StreamMessage<? extends T>> sources,
+                     Function<? super List<T>, ? extends U> combiner, int prefetch) {
+        super(sources, prefetch);
+        this.combiner = combiner;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if (isOpen()) {
+            return false;
+        }
+        for (StreamMessage<? extends T> source : sources()) {
+            if (source.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    FanInSubscription<T, U> newSubscription(Subscriber<? super U> downstream, EventExecutor executor,
+                                            int numSources, int prefetch,
+                                            CompletableFuture<Void> completionFuture,
+                                            boolean notifyCancellation) {
+        return new ZipSubscription<>(downstream, executor, numSources, prefetch, completionFuture,
+                                     notifyCancellation, combiner);
+    }
+
+    private static final class ZipSubscription<T, U> extends FanInSubscription<T, U> {
+
+        private final Function<? super List<T>, ? extends U> combiner;
+
+        ZipSubscription(Subscriber<? super U> downstream, EventExecutor executor, int numSources,
+                        int prefetch, CompletableFuture<Void> completionFuture, boolean notifyCancellation,
+                        Function<? super List<T>, ? extends U> combiner) {
+            super(downstream, executor, numSources, prefetch, completionFuture, notifyCancellation);
+            this.combiner = combiner;
+        }
+
+        @Override
+        void emit() {
+            final InnerSubscriber<T>[] inners = inners();
+            for (;;) {
+                for (InnerSubscriber<T> inner : inners) {
+                    if (inner.isExhausted()) {
+                        // No more elements can be combined.
+                        complete();
+                        return;
+                    }
+                }
+                if (requested == 0) {
+                    return;
+                }
+                for (InnerSubscriber<T> inner : inners) {
+                    if (!inner.hasNext()) {
+                        return;
+                    }
+                }
+
+                final List<T> items = new ArrayList<>(inners.length);
+                for (InnerSubscriber<T> inner : inners) {
+                    final T item = inner.poll();
+                    assert item != null;
+                    items.add(item);
+                }
+
+                final U combined;
+                try {
+                    combined = requireNonNull(combiner.apply(items), "combiner.apply() returned null");
+                } catch (Throwable cause) {
+                    for (T item : items) {
+                        StreamMessageUtil.closeOrAbort(item, cause);
+                    }
+                    fail(cause);
+                    return;
+                }
+                emitNext(combined);
+                if (isDone()) {
+                    return;
+                }
+            }
+        }
+    }
+}
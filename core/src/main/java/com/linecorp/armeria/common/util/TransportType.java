@@ -49,6 +49,17 @@ public enum TransportType {
         this.provider = provider;
     }
 
+    /**
+     * Returns the {@link TransportType} of the specified {@link EventLoopGroup} or {@link EventLoop}.
+     *
+     * @throws IllegalStateException if the specified {@link EventLoopGroup} is not supported or
+     *                               its {@link TransportType} is not currently available.
+     */
+    public static TransportType of(EventLoopGroup eventLoopGroup) {
+        requireNonNull(eventLoopGroup, "eventLoopGroup");
+        return find(eventLoopGroup);
+    }
+
     /**
      * Returns the {@link ServerChannel} class that is compatible with the specified
      * {@link EventLoopGroup}.
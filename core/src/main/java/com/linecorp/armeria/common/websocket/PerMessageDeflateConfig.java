@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package com.linecorp.armeria.common.websocket;
+
+import java.util.zip.Deflater;
+
+import com.google.common.base.MoreObjects;
+
+import com.linecorp.armeria.common.annotation.UnstableApi;
+
+/**
+ * The configuration of the <a href="https://datatracker.ietf.org/doc/html/rfc7692">permessage-deflate</a>
+ * extension which compresses the payloads of WebSocket messages.
+ *
+ * <p>A compressor and a decompressor keep their sliding windows for the lifetime of a connection unless
+ * the context takeover is disabled. Disabling the context takeover releases the compression state after
+ * each message, which lowers the memory held by an idle connection at the cost of the compression ratio.
+ */
+@UnstableApi
+public final class PerMessageDeflateConfig {
+
+    static final int DEFAULT_COMPRESSION_LEVEL = Deflater.DEFAULT_COMPRESSION;
+    static final int DEFAULT_MIN_COMPRESSION_LENGTH = 256;
+
+    private static final PerMessageDeflateConfig DEFAULT = builder().build();
+
+    /**
+     * Returns the {@link PerMessageDeflateConfig} with the default values.
+     */
+    public static PerMessageDeflateConfig of() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns a new {@link PerMessageDeflateConfigBuilder}.
+     */
+    public static PerMessageDeflateConfigBuilder builder() {
+        return new PerMessageDeflateConfigBuilder();
+    }
+
+    private final int compressionLevel;
+    private final int minCompressionLength;
+    private final boolean serverNoContextTakeover;
+    private final boolean clientNoContextTakeover;
+
+    PerMessageDeflateConfig(int compressionLevel, int minCompressionLength,
+                            boolean serverNoContextTakeover, boolean clientNoContextTakeover) {
+        this.compressionLevel = compressionLevel;
+        this.minCompressionLength = minCompressionLength;
+        this.serverNoContextTakeover = serverNoContextTakeover;
+        this.clientNoContextTakeover = clientNoContextTakeover;
+    }
+
+    /**
+     * Returns the compression level of the {@link Deflater}.
+     */
+    public int compressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Returns the minimum payload length of a message to compress. A shorter message is sent as is.
+     */
+    public int minCompressionLength() {
+        return minCompressionLength;
+    }
+
+    /**
+     * Returns whether the server resets its compression context after each message.
+     */
+    public boolean serverNoContextTakeover() {
+        return serverNoContextTakeover;
+    }
+
+    /**
+     * Returns whether the client resets its compression context after each message.
+     */
+    public boolean clientNoContextTakeover() {
+        return clientNoContextTakeover;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PerMessageDeflateConfig)) {
+            return false;
+        }
+        final PerMessageDeflateConfig that = (PerMessageDeflateConfig) o;
+        return compressionLevel == that.compressionLevel &&
+               minCompressionLength == that.minCompressionLength &&
+               serverNoContextTakeover == that.serverNoContextTakeover &&
+               clientNoContextTakeover == that.clientNoContextTakeover;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = compressionLevel;
+        hash = 31 * hash + minCompressionLength;
+        hash = 31 * hash + Boolean.hashCode(serverNoContextTakeover);
+        hash = 31 * hash + Boolean.hashCode(clientNoContextTakeover);
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("compressionLevel", compressionLevel)
+                          .add("minCompressionLength", minCompressionLength)
+                          .add("serverNoContextTakeover", serverNoContextTakeover)
+                          .add("clientNoContextTakeover", clientNoContextTakeover)
+                          .toString();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package com.linecorp.armeria.common.websocket;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.zip.Deflater;
+
+import com.linecorp.armeria.common.annotation.UnstableApi;
+
+/**
+ * Builds a {@link PerMessageDeflateConfig}.
+ */
+@UnstableApi
+public final class PerMessageDeflateConfigBuilder {
+
+    private int compressionLevel = PerMessageDeflateConfig.DEFAULT_COMPRESSION_LEVEL;
+    private int minCompressionLength = PerMessageDeflateConfig.DEFAULT_MIN_COMPRESSION_LENGTH;
+    private boolean serverNoContextTakeover;
+    private boolean clientNoContextTakeover;
+
+    PerMessageDeflateConfigBuilder() {}
+
+    /**
+     * Sets the compression level of the {@link Deflater}, from {@code 0} (no compression) to {@code 9}
+     * (best compression). {@link Deflater#DEFAULT_COMPRESSION} is used by default.
+     */
+    public PerMessageDeflateConfigBuilder compressionLevel(int compressionLevel) {
+        checkArgument(compressionLevel == Deflater.DEFAULT_COMPRESSION ||
+                      (compressionLevel >= Deflater.NO_COMPRESSION &&
+                       compressionLevel <= Deflater.BEST_COMPRESSION),
+                      "compressionLevel: %s (expected: -1 or 0-9)", compressionLevel);
+        this.compressionLevel = compressionLevel;
+        return this;
+    }
+
+    /**
+     * Sets the minimum payload length of a message to compress. A shorter message is sent uncompressed
+     * because compressing it rarely saves bytes while costing CPU.
+     * {@value PerMessageDeflateConfig#DEFAULT_MIN_COMPRESSION_LENGTH} is used by default.
+     */
+    public PerMessageDeflateConfigBuilder minCompressionLength(int minCompressionLength) {
+        checkArgument(minCompressionLength >= 0,
+                      "minCompressionLength: %s (expected: >= 0)", minCompressionLength);
+        this.minCompressionLength = minCompressionLength;
+        return this;
+    }
+
+    /**
+     * Sets whether the server resets its compression context after each message. A server always accepts
+     * the {@code server_no_context_takeover} parameter offered by a client. If enabled, a server adds the
+     * parameter even if it was not offered and a client offers it. It's disabled by default.
+     *
+     * @see <a href="https://datatracker.ietf.org/doc/html/rfc7692#section-7.1.1">
+     *     Context Takeover Control</a>
+     */
+    public PerMessageDeflateConfigBuilder serverNoContextTakeover(boolean serverNoContextTakeover) {
+        this.serverNoContextTakeover = serverNoContextTakeover;
+        return this;
+    }
+
+    /**
+     * Sets whether the client resets its compression context after each message. If enabled, a server
+     * requires the client to do so and a client offers the {@code client_no_context_takeover} parameter.
+     * It's disabled by default.
+     *
+     * @see <a href="https://datatracker.ietf.org/doc/html/rfc7692#section-7.1.1">
+     *     Context Takeover Control</a>
+     */
+    public PerMessageDeflateConfigBuilder clientNoContextTakeover(boolean clientNoContextTakeover) {
+        this.clientNoContextTakeover = clientNoContextTakeover;
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link PerMessageDeflateConfig} with the properties set so far.
+     */
+    public PerMessageDeflateConfig build() {
+        return new PerMessageDeflateConfig(compressionLevel, minCompressionLength,
+                                           serverNoContextTakeover, clientNoContextTakeover);
+    }
+}
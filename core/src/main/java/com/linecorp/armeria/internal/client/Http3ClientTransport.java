@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.client;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.logging.ClientConnectionTimingsBuilder;
+
+/**
+ * Sends the requests of {@link SessionProtocol#H3} over QUIC connections.
+ */
+public interface Http3ClientTransport {
+
+    /**
+     * Sends the specified {@link HttpRequest} to the specified {@link Endpoint} and writes the received
+     * response into the specified {@link DecodedHttpResponse}. This method is invoked from
+     * {@link ClientRequestContext#eventLoop()}. The implementation is responsible for
+     * initializing {@code res}, logging the session to {@link ClientRequestContext#logBuilder()} and
+     * cancelling {@code ctx} when the request could not be sent.
+     *
+     * @param endpoint the {@link Endpoint} whose IP address and port are resolved
+     */
+    void execute(ClientRequestContext ctx, Endpoint endpoint, HttpRequest req, DecodedHttpResponse res,
+                 ClientConnectionTimingsBuilder timingsBuilder);
+
+    /**
+     * Closes all QUIC connections and the UDP sockets they are bound to.
+     */
+    CompletableFuture<?> closeAsync();
+}
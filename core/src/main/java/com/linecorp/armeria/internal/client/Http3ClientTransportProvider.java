@@ -0,0 +1,34 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.client;
+
+import com.linecorp.armeria.client.ClientFactory;
+import com.linecorp.armeria.client.ClientFactoryOptions;
+import com.linecorp.armeria.common.SessionProtocol;
+
+/**
+ * Creates an {@link Http3ClientTransport} which sends the requests of {@link SessionProtocol#H3}
+ * for a {@link ClientFactory}. The implementation is provided by the {@code armeria-http3} module and
+ * loaded via Java SPI.
+ */
+public interface Http3ClientTransportProvider {
+
+    /**
+     * Returns a new {@link Http3ClientTransport} configured with the specified {@link ClientFactoryOptions}.
+     */
+    Http3ClientTransport newTransport(ClientFactoryOptions options);
+}
@@ -23,6 +23,7 @@ import com.google.common.collect.ImmutableList;
 
 import com.linecorp.armeria.common.AggregatedHttpRequest;
 import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.ByteBufAccessMode;
 import com.linecorp.armeria.common.EmptyHttpResponseException;
 import com.linecorp.armeria.common.HttpData;
 import com.linecorp.armeria.common.HttpHeaders;
@@ -35,11 +36,23 @@ import com.linecorp.armeria.unsafe.PooledObjects;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
 
 public final class HttpMessageAggregator {
 
     public static AggregatedHttpRequest aggregateRequest(
             RequestHeaders headers, List<HttpObject> objects, @Nullable ByteBufAllocator alloc) {
+        return aggregateRequest(headers, objects, alloc, false);
+    }
+
+    /**
+     * Aggregates the specified {@link HttpObject}s into an {@link AggregatedHttpRequest}. If
+     * {@code compositeContent} is {@code true} and {@code alloc} is specified, the content references
+     * the received {@link HttpData}s via a {@link CompositeByteBuf} instead of copying them.
+     */
+    public static AggregatedHttpRequest aggregateRequest(
+            RequestHeaders headers, List<HttpObject> objects, @Nullable ByteBufAllocator alloc,
+            boolean compositeContent) {
         final int size = objects.size();
 
         // Fast paths
@@ -69,7 +82,7 @@ public final class HttpMessageAggregator {
                 return AggregatedHttpRequest.of(headers, (HttpData) first, (HttpHeaders) second);
             }
 
-            final HttpData data = aggregateData((HttpData) first, (HttpData) second, alloc);
+            final HttpData data = aggregateData((HttpData) first, (HttpData) second, alloc, compositeContent);
             return AggregatedHttpRequest.of(headers, data);
         }
 
@@ -99,12 +112,23 @@ public final class HttpMessageAggregator {
             return AggregatedHttpRequest.of(headers, HttpData.empty(), trailers);
         }
 
-        final HttpData content = aggregateData(objects, contentLength, 0, dataEnd, alloc);
+        final HttpData content = aggregateData(objects, contentLength, 0, dataEnd, alloc, compositeContent);
         return AggregatedHttpRequest.of(headers, content, trailers);
     }
 
     public static AggregatedHttpResponse aggregateResponse(List<HttpObject> objects,
                                                            @Nullable ByteBufAllocator alloc) {
+        return aggregateResponse(objects, alloc, false);
+    }
+
+    /**
+     * Aggregates the specified {@link HttpObject}s into an {@link AggregatedHttpResponse}. If
+     * {@code compositeContent} is {@code true} and {@code alloc} is specified, the content references
+     * the received {@link HttpData}s via a {@link CompositeByteBuf} instead of copying them.
+     */
+    public static AggregatedHttpResponse aggregateResponse(List<HttpObject> objects,
+                                                           @Nullable ByteBufAllocator alloc,
+                                                           boolean compositeContent) {
         final int size = objects.size();
         if (size == 0) {
             throw EmptyHttpResponseException.get();
@@ -140,7 +164,8 @@ public final class HttpMessageAggregator {
                     return AggregatedHttpResponse.of(headers, (HttpData) second, (HttpHeaders) third);
                 }
 
-                final HttpData data = aggregateData((HttpData) second, (HttpData) third, alloc);
+                final HttpData data = aggregateData((HttpData) second, (HttpData) third, alloc,
+                                                    compositeContent);
                 return AggregatedHttpResponse.of(headers, data);
             }
         }
@@ -208,12 +233,25 @@ public final class HttpMessageAggregator {
             return AggregatedHttpResponse.of(informationals, responseHeaders, HttpData.empty(), trailers);
         }
 
-        final HttpData content = aggregateData(objects, contentLength, dataStart, dataEnd, alloc);
+        final HttpData content = aggregateData(objects, contentLength, dataStart, dataEnd, alloc,
+                                               compositeContent);
         return AggregatedHttpResponse.of(informationals, responseHeaders, content, trailers);
     }
 
     private static HttpData aggregateData(List<HttpObject> objects, int contentLength, int start, int end,
-                                          @Nullable ByteBufAllocator alloc) {
+                                          @Nullable ByteBufAllocator alloc, boolean compositeContent) {
+        if (alloc != null && compositeContent) {
+            final CompositeByteBuf composite = alloc.compositeBuffer(end - start);
+            try {
+                for (int i = start; i < end; i++) {
+                    addComponentAndClose(composite, (HttpData) objects.get(i));
+                }
+            } catch (Throwable t) {
+                composite.release();
+                throw t;
+            }
+            return HttpData.wrap(composite);
+        }
         if (alloc != null) {
             final ByteBuf merged = alloc.buffer(contentLength);
             for (int i = start; i < end; i++) {
@@ -240,6 +278,16 @@ public final class HttpMessageAggregator {
     }
 
     public static HttpData aggregateData(HttpData data1, HttpData data2, @Nullable ByteBufAllocator alloc) {
+        return aggregateData(data1, data2, alloc, false);
+    }
+
+    /**
+     * Aggregates the specified two {@link HttpData}s. If {@code compositeContent} is {@code true} and
+     * {@code alloc} is specified, the returned {@link HttpData} references the specified {@link HttpData}s
+     * via a {@link CompositeByteBuf} instead of copying them.
+     */
+    public static HttpData aggregateData(HttpData data1, HttpData data2, @Nullable ByteBufAllocator alloc,
+                                         boolean compositeContent) {
         if (data2.isEmpty()) {
             data2.close();
             return data1;
@@ -252,6 +300,12 @@ public final class HttpMessageAggregator {
         final int data1Length = data1.length();
         final int data2Length = data2.length();
         final int contentLength = data1Length + data2Length;
+        if (alloc != null && compositeContent) {
+            final CompositeByteBuf composite = alloc.compositeBuffer(2);
+            addComponentAndClose(composite, data1);
+            addComponentAndClose(composite, data2);
+            return HttpData.wrap(composite);
+        }
         if (alloc != null) {
             final ByteBuf merged = alloc.buffer(contentLength);
             copyAndClose(merged, data1, data1Length);
@@ -272,5 +326,15 @@ public final class HttpMessageAggregator {
         }
     }
 
+    private static void addComponentAndClose(CompositeByteBuf composite, HttpData data) {
+        try (SafeCloseable ignore = data) {
+            if (!data.isEmpty()) {
+                // Retain the buffer of the data so that it is owned by the composite buffer after closing
+                // the data.
+                composite.addComponent(true, data.byteBuf(ByteBufAccessMode.RETAINED_DUPLICATE));
+            }
+        }
+    }
+
     private HttpMessageAggregator() {}
 }
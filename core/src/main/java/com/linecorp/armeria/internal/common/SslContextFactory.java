@@ -21,9 +21,15 @@ import static com.linecorp.armeria.internal.common.util.SslContextUtil.createSsl
 
 import java.security.cert.X509Certificate;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
@@ -38,6 +44,7 @@ import com.linecorp.armeria.common.metric.CloseableMeterBinder;
 import com.linecorp.armeria.common.metric.MeterIdPrefix;
 import com.linecorp.armeria.common.metric.MoreMeterBinders;
 import com.linecorp.armeria.common.util.TlsEngineType;
+import com.linecorp.armeria.common.util.UnmodifiableFuture;
 import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
 import com.linecorp.armeria.server.ServerTlsConfig;
 
@@ -57,6 +64,8 @@ public final class SslContextFactory {
 
     private final Map<CacheKey, SslContextHolder> cache = new HashMap<>();
     private final Map<SslContext, CacheKey> reverseCache = new HashMap<>();
+    // The contexts which are not referenced by any connection, in the order of release.
+    private final LinkedHashMap<CacheKey, SslContextHolder> idleContexts = new LinkedHashMap<>();
 
     private final TlsProvider tlsProvider;
     private final TlsEngineType engineType;
@@ -66,17 +75,50 @@ public final class SslContextFactory {
     @Nullable
     private final MeterIdPrefix meterIdPrefix;
     private final boolean allowsUnsafeCiphers;
+    private final int maxIdleContexts;
+    @Nullable
+    private final BiFunction<TlsKeyPair, List<X509Certificate>, ? extends SslContext> serverContextBuilder;
 
     private final ReentrantShortLock lock = new ReentrantShortLock();
 
     public SslContextFactory(TlsProvider tlsProvider, TlsEngineType engineType,
                              @Nullable AbstractTlsConfig tlsConfig, MeterRegistry meterRegistry) {
+        this(tlsProvider, engineType, tlsConfig, meterRegistry, 0);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxIdleContexts the maximum number of {@link SslContext}s that are kept in the cache even after
+     *                        all connections using them are closed. The least recently released one is
+     *                        evicted first. {@code 0} disables caching of the idle {@link SslContext}s.
+     */
+    public SslContextFactory(TlsProvider tlsProvider, TlsEngineType engineType,
+                             @Nullable AbstractTlsConfig tlsConfig, MeterRegistry meterRegistry,
+                             int maxIdleContexts) {
+        this(tlsProvider, engineType, tlsConfig, meterRegistry, maxIdleContexts, null);
+    }
+
+    /**
+     * Creates a new instance which builds the {@link SslContext}s of {@link SslContextMode#SERVER} with
+     * the specified {@code serverContextBuilder} instead of an {@link SslContextBuilder}, e.g. to build
+     * a QUIC {@link SslContext}. The {@code serverContextBuilder} takes a {@link TlsKeyPair} and
+     * the trusted certificates.
+     */
+    public SslContextFactory(TlsProvider tlsProvider, TlsEngineType engineType,
+                             @Nullable AbstractTlsConfig tlsConfig, MeterRegistry meterRegistry,
+                             int maxIdleContexts,
+                             @Nullable BiFunction<TlsKeyPair, List<X509Certificate>,
+                                     ? extends SslContext> serverContextBuilder) {
         // TODO(ikhoon): Support OPENSSL_REFCNT engine type.
         assert engineType.sslProvider() != SslProvider.OPENSSL_REFCNT;
+        assert maxIdleContexts >= 0 : maxIdleContexts;
 
         this.tlsProvider = tlsProvider;
         this.engineType = engineType;
         this.meterRegistry = meterRegistry;
+        this.maxIdleContexts = maxIdleContexts;
+        this.serverContextBuilder = serverContextBuilder;
         if (tlsConfig != null) {
             this.tlsConfig = tlsConfig;
             meterIdPrefix = tlsConfig.meterIdPrefix();
@@ -100,14 +142,64 @@ public final class SslContextFactory {
             final List<X509Certificate> trustedCertificates = findTrustedCertificates(hostname);
             final CacheKey cacheKey = new CacheKey(mode, tlsKeyPair, trustedCertificates);
             final SslContextHolder contextHolder = cache.computeIfAbsent(cacheKey, this::create);
-            contextHolder.retain();
-            reverseCache.putIfAbsent(contextHolder.sslContext(), cacheKey);
-            return contextHolder.sslContext();
+            return retain(cacheKey, contextHolder);
         } finally {
             lock.unlock();
         }
     }
 
+    /**
+     * Asynchronously returns an {@link SslContext} for the specified {@link SslContextMode} and hostname.
+     * The {@link TlsKeyPair} is resolved via {@link TlsProvider#keyPairAsync(String)} and a new
+     * {@link SslContext} is built by the specified {@link Executor} if it is not cached yet, so that
+     * the caller, usually an event loop, is never blocked.
+     * Note that the returned {@link SslContext} should be released via {@link #release(SslContext)}
+     * when it is no longer used.
+     */
+    public CompletableFuture<SslContext> getOrCreateAsync(SslContextMode mode, String hostname,
+                                                          Executor executor) {
+        return findTlsKeyPairAsync(mode, hostname).thenCompose(tlsKeyPair -> {
+            final List<X509Certificate> trustedCertificates = findTrustedCertificates(hostname);
+            final CacheKey cacheKey = new CacheKey(mode, tlsKeyPair, trustedCertificates);
+            lock.lock();
+            try {
+                final SslContextHolder contextHolder = cache.get(cacheKey);
+                if (contextHolder != null) {
+                    return UnmodifiableFuture.completedFuture(retain(cacheKey, contextHolder));
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            // Building an SslContext involves parsing keys and certificates, which is too expensive
+            // to be done in an event loop.
+            return CompletableFuture.supplyAsync(() -> {
+                final SslContextHolder newContextHolder = create(cacheKey);
+                lock.lock();
+                try {
+                    final SslContextHolder oldContextHolder = cache.putIfAbsent(cacheKey, newContextHolder);
+                    if (oldContextHolder != null) {
+                        // Another request created the same SslContext first.
+                        newContextHolder.destroy();
+                        return retain(cacheKey, oldContextHolder);
+                    }
+                    return retain(cacheKey, newContextHolder);
+                } finally {
+                    lock.unlock();
+                }
+            }, executor);
+        });
+    }
+
+    private SslContext retain(CacheKey cacheKey, SslContextHolder contextHolder) {
+        if (contextHolder.retain()) {
+            // Reuse the idle SslContext.
+            idleContexts.remove(cacheKey);
+        }
+        reverseCache.putIfAbsent(contextHolder.sslContext(), cacheKey);
+        return contextHolder.sslContext();
+    }
+
     public void release(SslContext sslContext) {
         lock.lock();
         try {
@@ -116,16 +208,32 @@ public final class SslContextFactory {
             assert contextHolder != null : "sslContext not found in the cache: " + sslContext;
 
             if (contextHolder.release()) {
-                final SslContextHolder removed = cache.remove(cacheKey);
-                assert removed == contextHolder;
-                reverseCache.remove(sslContext);
-                contextHolder.destroy();
+                if (maxIdleContexts == 0) {
+                    destroy(cacheKey, contextHolder);
+                    return;
+                }
+
+                idleContexts.put(cacheKey, contextHolder);
+                if (idleContexts.size() > maxIdleContexts) {
+                    // Evict the least recently released SslContext.
+                    final Iterator<Entry<CacheKey, SslContextHolder>> it = idleContexts.entrySet().iterator();
+                    final Entry<CacheKey, SslContextHolder> eldest = it.next();
+                    it.remove();
+                    destroy(eldest.getKey(), eldest.getValue());
+                }
             }
         } finally {
             lock.unlock();
         }
     }
 
+    private void destroy(CacheKey cacheKey, SslContextHolder contextHolder) {
+        final SslContextHolder removed = cache.remove(cacheKey);
+        assert removed == contextHolder;
+        reverseCache.remove(contextHolder.sslContext());
+        contextHolder.destroy();
+    }
+
     @Nullable
     private TlsKeyPair findTlsKeyPair(SslContextMode mode, String hostname) {
         TlsKeyPair tlsKeyPair = tlsProvider.keyPair(hostname);
@@ -140,6 +248,22 @@ public final class SslContextFactory {
         return tlsKeyPair;
     }
 
+    private CompletableFuture<TlsKeyPair> findTlsKeyPairAsync(SslContextMode mode, String hostname) {
+        return tlsProvider.keyPairAsync(hostname).thenCompose(tlsKeyPair -> {
+            if (tlsKeyPair != null || "*".equals(hostname)) {
+                return UnmodifiableFuture.completedFuture(tlsKeyPair);
+            }
+            // Try to find the default TLS key pair.
+            return tlsProvider.keyPairAsync("*");
+        }).thenApply(tlsKeyPair -> {
+            if (mode == SslContextMode.SERVER && tlsKeyPair == null) {
+                // A TlsKeyPair must exist for a server.
+                throw new IllegalStateException("No TLS key pair found for " + hostname);
+            }
+            return tlsKeyPair;
+        });
+    }
+
     private List<X509Certificate> findTrustedCertificates(String hostname) {
         List<X509Certificate> certs = tlsProvider.trustedCertificates(hostname);
         if (certs == null) {
@@ -173,6 +297,9 @@ public final class SslContextFactory {
         final List<X509Certificate> trustedCerts = key.trustedCertificates();
         if (mode == SslContextMode.SERVER) {
             assert tlsKeyPair != null;
+            if (serverContextBuilder != null) {
+                return serverContextBuilder.apply(tlsKeyPair, trustedCerts);
+            }
             return createSslContext(
                     () -> {
                         final SslContextBuilder contextBuilder = SslContextBuilder.forServer(
@@ -240,6 +367,11 @@ public final class SslContextFactory {
         return cache.size();
     }
 
+    @VisibleForTesting
+    public int numIdleContexts() {
+        return idleContexts.size();
+    }
+
     public enum SslContextMode {
         SERVER,
         CLIENT_HTTP1_ONLY,
@@ -318,8 +450,11 @@ public final class SslContextFactory {
             return sslContext;
         }
 
-        void retain() {
-            refCnt++;
+        /**
+         * Increases the reference count and returns {@code true} if this holder was idle.
+         */
+        boolean retain() {
+            return refCnt++ == 0;
         }
 
         boolean release() {
@@ -0,0 +1,537 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.stream;
+
+import static com.linecorp.armeria.internal.common.stream.InternalStreamMessageUtil.containsWithPooledObjects;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.google.common.math.LongMath;
+
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpObject;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.stream.StreamMessage;
+import com.linecorp.armeria.common.stream.SubscriptionOption;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+
+/**
+ * A {@link StreamMessage} which groups the elements of the source {@link StreamMessage} into
+ * a {@link Buffer} and emits the content of the {@link Buffer} when it is full, when the first element in
+ * the {@link Buffer} has been kept for the max delay or when the source {@link StreamMessage} is complete.
+ */
+public final class BufferingStreamMessage<T, U> implements StreamMessage<U> {
+
+    /**
+     * Returns a new {@link StreamMessage} which emits the elements of the specified {@link StreamMessage}
+     * as {@link List}s of up to {@code maxCount} elements.
+     */
+    public static <T> StreamMessage<List<T>> buffer(StreamMessage<? extends T> source, int maxCount,
+                                                    @Nullable Duration maxDelay) {
+        return new BufferingStreamMessage<>(source, withPooledObjects -> new ListBuffer<>(maxCount),
+                                            maxDelay);
+    }
+
+    /**
+     * Returns a new {@link StreamMessage} which merges the consecutive {@link HttpData}s of the specified
+     * {@link StreamMessage} into one {@link HttpData} of up to about {@code maxBytes}. The other
+     * {@link HttpObject}s, such as headers and trailers, are emitted as they are, after the
+     * {@link HttpData}s received before them.
+     */
+    public static StreamMessage<HttpObject> coalesceHttpData(StreamMessage<? extends HttpObject> source,
+                                                             int maxBytes, @Nullable Duration maxDelay) {
+        return new BufferingStreamMessage<>(
+                source, withPooledObjects -> new HttpDataBuffer(maxBytes, withPooledObjects), maxDelay);
+    }
+
+    private final StreamMessage<T> source;
+    private final BufferFactory<T, U> bufferFactory;
+    private final long maxDelayNanos;
+
+    @SuppressWarnings("unchecked")
+    private BufferingStreamMessage(StreamMessage<? extends T> source, BufferFactory<T, U> bufferFactory,
+                                   @Nullable Duration maxDelay) {
+        this.source = (StreamMessage<T>) requireNonNull(source, "source");
+        this.bufferFactory = bufferFactory;
+        maxDelayNanos = maxDelay != null ? maxDelay.toNanos() : 0;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return source.isOpen();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return source.isEmpty();
+    }
+
+    @Override
+    public long demand() {
+        return source.demand();
+    }
+
+    @Override
+    public CompletableFuture<Void> whenComplete() {
+        return source.whenComplete();
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super U> subscriber, EventExecutor executor,
+                          SubscriptionOption... options) {
+        requireNonNull(subscriber, "subscriber");
+        requireNonNull(executor, "executor");
+        requireNonNull(options, "options");
+
+        final Buffer<T, U> buffer = bufferFactory.newBuffer(containsWithPooledObjects(options));
+        source.subscribe(new BufferingSubscriber<>(subscriber, executor, buffer, maxDelayNanos),
+                         executor, options);
+    }
+
+    @Override
+    public void abort() {
+        source.abort();
+    }
+
+    @Override
+    public void abort(Throwable cause) {
+        requireNonNull(cause, "cause");
+        source.abort(cause);
+    }
+
+    @FunctionalInterface
+    private interface BufferFactory<T, U> {
+        Buffer<T, U> newBuffer(boolean withPooledObjects);
+    }
+
+    /**
+     * Accumulates the elements of a {@link StreamMessage}. A {@link Buffer} is accessed only by
+     * the {@link EventExecutor} of the subscription.
+     */
+    private interface Buffer<T, U> {
+
+        /**
+         * Returns the maximum number of elements requested from the source {@link StreamMessage} but not
+         * received yet. More elements are requested when half of them are received.
+         */
+        int prefetch();
+
+        /**
+         * Adds the specified element to this {@link Buffer}.
+         *
+         * @return {@code true} if this {@link Buffer} has to be flushed right away.
+         */
+        boolean add(T element);
+
+        boolean isEmpty();
+
+        /**
+         * Emits the accumulated elements to the specified {@link Consumer} and clears this {@link Buffer}.
+         */
+        void flush(Consumer<? super U> out);
+
+        /**
+         * Releases the accumulated elements without emitting them.
+         */
+        void discard();
+
+        /**
+         * Releases the specified output which was emitted by {@link #flush(Consumer)} but has not been
+         * delivered to the downstream.
+         */
+        void discard(U output);
+    }
+
+    private static final class ListBuffer<T> implements Buffer<T, List<T>> {
+
+        // Do not request Integer.MAX_VALUE elements at once when grouping the elements by a time window,
+        // so that a fast source does not fill the List without backpressure.
+        private static final int MAX_PREFETCH = 256;
+
+        private final int maxCount;
+        private List<T> elements = new ArrayList<>();
+
+        ListBuffer(int maxCount) {
+            this.maxCount = maxCount;
+        }
+
+        @Override
+        public int prefetch() {
+            return Math.min(maxCount, MAX_PREFETCH);
+        }
+
+        @Override
+        public boolean add(T element) {
+            elements.add(element);
+            return elements.size() >= maxCount;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return elements.isEmpty();
+        }
+
+        @Override
+        public void flush(Consumer<? super List<T>> out) {
+            final List<T> elements = this.elements;
+            this.elements = new ArrayList<>();
+            out.accept(elements);
+        }
+
+        @Override
+        public void discard() {
+            discard(elements);
+        }
+
+        @Override
+        public void discard(List<T> output) {
+            for (T element : output) {
+                StreamMessageUtil.closeOrAbort(element);
+            }
+            output.clear();
+        }
+    }
+
+    private static final class HttpDataBuffer implements Buffer<HttpObject, HttpObject> {
+
+        // Small chunks are expected, so request a fair number of them at once.
+        private static final int PREFETCH = 64;
+
+        private final int maxBytes;
+        private final boolean withPooledObjects;
+        private final List<HttpData> data = new ArrayList<>();
+        private int numBytes;
+        @Nullable
+        private HttpObject last;
+
+        HttpDataBuffer(int maxBytes, boolean withPooledObjects) {
+            this.maxBytes = maxBytes;
+            this.withPooledObjects = withPooledObjects;
+        }
+
+        @Override
+        public int prefetch() {
+            return PREFETCH;
+        }
+
+        @Override
+        public boolean add(HttpObject element) {
+            if (!(element instanceof HttpData)) {
+                // Emit headers and trailers right after the data received before them.
+                last = element;
+                return true;
+            }
+
+            final HttpData data = (HttpData) element;
+            if (data.isEndOfStream()) {
+                last = data;
+                return true;
+            }
+            if (data.isEmpty()) {
+                data.close();
+                return false;
+            }
+            this.data.add(data);
+            numBytes += data.length();
+            return numBytes >= maxBytes;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return data.isEmpty() && last == null;
+        }
+
+        @Override
+        public void flush(Consumer<? super HttpObject> out) {
+            final int size = data.size();
+            if (size == 1) {
+                out.accept(data.get(0));
+            } else if (size > 1) {
+                out.accept(merge());
+            }
+            data.clear();
+            numBytes = 0;
+
+            final HttpObject last = this.last;
+            if (last != null) {
+                this.last = null;
+                out.accept(last);
+            }
+        }
+
+        private HttpData merge() {
+            if (withPooledObjects) {
+                final ByteBuf merged = ByteBufAllocator.DEFAULT.buffer(numBytes);
+                for (HttpData d : data) {
+                    final ByteBuf buf = d.byteBuf();
+                    merged.writeBytes(buf, buf.readerIndex(), buf.readableBytes());
+                    d.close();
+                }
+                return HttpData.wrap(merged);
+            }
+
+            final byte[] merged = new byte[numBytes];
+            int offset = 0;
+            for (HttpData d : data) {
+                final int length = d.length();
+                System.arraycopy(d.array(), 0, merged, offset, length);
+                offset += length;
+                d.close();
+            }
+            return HttpData.wrap(merged);
+        }
+
+        @Override
+        public void discard() {
+            for (HttpData d : data) {
+                d.close();
+            }
+            data.clear();
+            numBytes = 0;
+            if (last != null) {
+                StreamMessageUtil.closeOrAbort(last);
+                last = null;
+            }
+        }
+
+        @Override
+        public void discard(HttpObject output) {
+            StreamMessageUtil.closeOrAbort(output);
+        }
+    }
+
+    private static final class BufferingSubscriber<T, U> implements Subscriber<T>, Subscription, Runnable {
+
+        private final Subscriber<? super U> downstream;
+        private final EventExecutor executor;
+        private final Buffer<T, U> buffer;
+        private final long maxDelayNanos;
+        private final int prefetch;
+        private final ArrayDeque<U> pending = new ArrayDeque<>();
+
+        @Nullable
+        private Subscription upstream;
+        @Nullable
+        private ScheduledFuture<?> flushFuture;
+
+        private long requestedByDownstream;
+        private int requestedFromUpstream;
+        private boolean upstreamCompleted;
+        private boolean completed;
+        private boolean draining;
+
+        BufferingSubscriber(Subscriber<? super U> downstream, EventExecutor executor, Buffer<T, U> buffer,
+                            long maxDelayNanos) {
+            this.downstream = downstream;
+            this.executor = executor;
+            this.buffer = buffer;
+            this.maxDelayNanos = maxDelayNanos;
+            prefetch = buffer.prefetch();
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            requireNonNull(subscription, "subscription");
+            upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            requireNonNull(item, "item");
+            if (completed) {
+                StreamMessageUtil.closeOrAbort(item);
+                return;
+            }
+
+            requestedFromUpstream--;
+
+            final boolean wasEmpty = buffer.isEmpty();
+            if (buffer.add(item)) {
+                flush();
+            } else if (wasEmpty && maxDelayNanos > 0 && !buffer.isEmpty()) {
+                flushFuture = executor.schedule(this, maxDelayNanos, TimeUnit.NANOSECONDS);
+                drain();
+            } else {
+                drain();
+            }
+        }
+
+        /**
+         * Invoked when the first element in the {@link Buffer} has been kept for the max delay.
+         */
+        @Override
+        public void run() {
+            flushFuture = null;
+            if (!completed) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            cancelFlushFuture();
+            if (!buffer.isEmpty()) {
+                buffer.flush(pending::add);
+            }
+            drain();
+        }
+
+        private void drain() {
+            if (draining) {
+                // The outer drain() loop will pick up the changes made by reentrant calls.
+                return;
+            }
+            draining = true;
+            try {
+                for (;;) {
+                    while (requestedByDownstream > 0 && !pending.isEmpty()) {
+                        if (requestedByDownstream != Long.MAX_VALUE) {
+                            requestedByDownstream--;
+                        }
+                        downstream.onNext(pending.poll());
+                        if (completed) {
+                            return;
+                        }
+                    }
+
+                    if (completed) {
+                        return;
+                    }
+                    if (upstreamCompleted) {
+                        if (pending.isEmpty()) {
+                            completed = true;
+                            downstream.onComplete();
+                        }
+                        return;
+                    }
+                    if (requestedByDownstream > 0 && requestedFromUpstream <= prefetch >>> 1) {
+                        // Replenish before the outstanding demand runs out.
+                        final int n = prefetch - requestedFromUpstream;
+                        requestedFromUpstream = prefetch;
+                        final Subscription upstream = this.upstream;
+                        assert upstream != null;
+                        upstream.request(n);
+                        // The upstream may have signaled synchronously.
+                        continue;
+                    }
+                    return;
+                }
+            } finally {
+                draining = false;
+            }
+        }
+
+        @Override
+        public void onError(Throwable cause) {
+            requireNonNull(cause, "cause");
+            if (completed) {
+                return;
+            }
+            completed = true;
+            release();
+            downstream.onError(cause);
+        }
+
+        @Override
+        public void onComplete() {
+            if (completed) {
+                return;
+            }
+            upstreamCompleted = true;
+            flush();
+        }
+
+        @Override
+        public void request(long n) {
+            if (executor.inEventLoop()) {
+                handleRequest(n);
+            } else {
+                executor.execute(() -> handleRequest(n));
+            }
+        }
+
+        private void handleRequest(long n) {
+            if (completed) {
+                return;
+            }
+            if (n <= 0) {
+                onError(new IllegalArgumentException(
+                        "n: " + n + " (expected: > 0, see Reactive Streams specification rule 3.9)"));
+                final Subscription upstream = this.upstream;
+                assert upstream != null;
+                upstream.cancel();
+                return;
+            }
+            requestedByDownstream = LongMath.saturatedAdd(requestedByDownstream, n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (executor.inEventLoop()) {
+                cancel0();
+            } else {
+                executor.execute(this::cancel0);
+            }
+        }
+
+        private void cancel0() {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            release();
+            final Subscription upstream = this.upstream;
+            assert upstream != null;
+            upstream.cancel();
+        }
+
+        private void release() {
+            cancelFlushFuture();
+            buffer.discard();
+            for (;;) {
+                final U element = pending.poll();
+                if (element == null) {
+                    break;
+                }
+                buffer.discard(element);
+            }
+        }
+
+        private void cancelFlushFuture() {
+            final ScheduledFuture<?> flushFuture = this.flushFuture;
+            if (flushFuture != null) {
+                this.flushFuture = null;
+                flushFuture.cancel(false);
+            }
+        }
+    }
+}
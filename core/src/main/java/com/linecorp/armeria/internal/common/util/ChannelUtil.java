@@ -45,9 +45,11 @@ import com.linecorp.armeria.common.util.UnmodifiableFuture;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.unix.DomainSocketChannel;
 import io.netty.handler.ssl.SslHandler;
+import io.netty.util.AttributeKey;
 
 public final class ChannelUtil {
 
@@ -71,6 +73,13 @@ public final class ChannelUtil {
         }
     }
 
+    private static final AttributeKey<InetSocketAddress> LOCAL_ADDRESS =
+            AttributeKey.valueOf(ChannelUtil.class, "LOCAL_ADDRESS");
+    private static final AttributeKey<InetSocketAddress> REMOTE_ADDRESS =
+            AttributeKey.valueOf(ChannelUtil.class, "REMOTE_ADDRESS");
+    private static final AttributeKey<SSLSession> SSL_SESSION =
+            AttributeKey.valueOf(ChannelUtil.class, "SSL_SESSION");
+
     private static final Set<ChannelOption<?>> PROHIBITED_OPTIONS;
     private static final WriteBufferWaterMark DISABLED_WRITE_BUFFER_WATERMARK =
             new WriteBufferWaterMark(0, Integer.MAX_VALUE);
@@ -105,11 +114,15 @@ public final class ChannelUtil {
     @Nullable
     private static ChannelOption<Integer> epollTcpKeepintvl;
     @Nullable
+    private static ChannelOption<Boolean> epollReusePort;
+    @Nullable
     private static ChannelOption<Integer> ioUringTcpUserTimeout;
     @Nullable
     private static ChannelOption<Integer> ioUringTcpKeepidle;
     @Nullable
     private static ChannelOption<Integer> ioUringTcpKeepintvl;
+    @Nullable
+    private static ChannelOption<Boolean> ioUringReusePort;
 
     private static final Set<ChannelOption<?>> tcpOptions;
 
@@ -119,6 +132,7 @@ public final class ChannelUtil {
         ChannelOption<Integer> epollTcpUserTimeout = null;
         ChannelOption<Integer> epollTcpKeepidle = null;
         ChannelOption<Integer> epollTcpKeepintvl = null;
+        ChannelOption<Boolean> epollReusePort = null;
 
         try {
             final Class<?> clazz = Class.forName(
@@ -130,6 +144,8 @@ public final class ChannelUtil {
             epollTcpKeepidle = (ChannelOption<Integer>) findChannelOption(clazz, "TCP_KEEPIDLE");
             //noinspection unchecked
             epollTcpKeepintvl = (ChannelOption<Integer>) findChannelOption(clazz, "TCP_KEEPINTVL");
+            //noinspection unchecked
+            epollReusePort = (ChannelOption<Boolean>) findChannelOption(clazz, "SO_REUSEPORT");
 
             if (epollTcpUserTimeout != null) {
                 tcpOptionsBuilder.add(epollTcpUserTimeout);
@@ -147,11 +163,13 @@ public final class ChannelUtil {
         ChannelUtil.epollTcpUserTimeout = epollTcpUserTimeout;
         ChannelUtil.epollTcpKeepidle = epollTcpKeepidle;
         ChannelUtil.epollTcpKeepintvl = epollTcpKeepintvl;
+        ChannelUtil.epollReusePort = epollReusePort;
 
         if (INCUBATOR_CHANNEL_PACKAGE_NAME != null) {
             ChannelOption<Integer> ioUringTcpUserTimeout = null;
             ChannelOption<Integer> ioUringTcpKeepidle = null;
             ChannelOption<Integer> ioUringTcpKeepintvl = null;
+            ChannelOption<Boolean> ioUringReusePort = null;
 
             try {
                 final Class<?> clazz = Class.forName(
@@ -163,6 +181,8 @@ public final class ChannelUtil {
                 ioUringTcpKeepidle = (ChannelOption<Integer>) findChannelOption(clazz, "TCP_KEEPIDLE");
                 //noinspection unchecked
                 ioUringTcpKeepintvl = (ChannelOption<Integer>) findChannelOption(clazz, "TCP_KEEPINTVL");
+                //noinspection unchecked
+                ioUringReusePort = (ChannelOption<Boolean>) findChannelOption(clazz, "SO_REUSEPORT");
 
                 if (ioUringTcpUserTimeout != null) {
                     tcpOptionsBuilder.add(ioUringTcpUserTimeout);
@@ -180,6 +200,7 @@ public final class ChannelUtil {
             ChannelUtil.ioUringTcpUserTimeout = ioUringTcpUserTimeout;
             ChannelUtil.ioUringTcpKeepidle = ioUringTcpKeepidle;
             ChannelUtil.ioUringTcpKeepintvl = ioUringTcpKeepintvl;
+            ChannelUtil.ioUringReusePort = ioUringReusePort;
         }
 
         tcpOptions = tcpOptionsBuilder.build();
@@ -256,7 +277,25 @@ public final class ChannelUtil {
         }
 
         final SslHandler sslHandler = channel.pipeline().get(SslHandler.class);
-        return sslHandler != null ? sslHandler.engine().getSession() : null;
+        if (sslHandler != null) {
+            return sslHandler.engine().getSession();
+        }
+        return channel.hasAttr(SSL_SESSION) ? channel.attr(SSL_SESSION).get() : null;
+    }
+
+    /**
+     * Sets the addresses and the {@link SSLSession} of the connection the specified {@link Channel}
+     * belongs to, so that they are found by {@link #localAddress(Channel)}, {@link #remoteAddress(Channel)}
+     * and {@link #findSslSession(Channel)}. This is used for a {@link Channel} which does not expose them
+     * by itself, such as a QUIC stream.
+     */
+    public static void setConnectionInfo(Channel channel, InetSocketAddress localAddress,
+                                         InetSocketAddress remoteAddress, @Nullable SSLSession sslSession) {
+        channel.attr(LOCAL_ADDRESS).set(localAddress);
+        channel.attr(REMOTE_ADDRESS).set(remoteAddress);
+        if (sslSession != null) {
+            channel.attr(SSL_SESSION).set(sslSession);
+        }
     }
 
     private static boolean canAddChannelOption(@Nullable ChannelOption<?> channelOption,
@@ -265,13 +304,25 @@ public final class ChannelUtil {
     }
 
     public static Map<ChannelOption<?>, Object> applyDefaultChannelOptions(
-            Map<ChannelOption<?>, Object> channelOptions,
+            TransportType transportType, Map<ChannelOption<?>, Object> channelOptions,
             long idleTimeoutMillis, long pingIntervalMillis) {
         return applyDefaultChannelOptions(
-                Flags.useDefaultSocketOptions(), Flags.transportType(), channelOptions,
+                Flags.useDefaultSocketOptions(), transportType, channelOptions,
                 idleTimeoutMillis, pingIntervalMillis);
     }
 
+    /**
+     * Returns the {@link TransportType} of the specified {@link EventLoopGroup}, or
+     * {@link Flags#transportType()} if the {@link EventLoopGroup} is not a known transport, e.g.
+     * a {@code DefaultEventLoopGroup} used in tests.
+     */
+    public static TransportType transportType(EventLoopGroup eventLoopGroup) {
+        if (TransportType.isSupported(eventLoopGroup)) {
+            return TransportType.of(eventLoopGroup);
+        }
+        return Flags.transportType();
+    }
+
     @VisibleForTesting
     static Map<ChannelOption<?>, Object> applyDefaultChannelOptions(
             boolean enabled, TransportType transportType, Map<ChannelOption<?>, Object> channelOptions,
@@ -340,6 +391,24 @@ public final class ChannelUtil {
         return tcpOptions.contains(option);
     }
 
+    /**
+     * Returns the {@code SO_REUSEPORT} {@link ChannelOption} of the specified {@link TransportType}, or
+     * {@code null} if the {@link TransportType} does not distribute the datagrams sent to a port across
+     * the sockets bound to the port.
+     */
+    @Nullable
+    public static ChannelOption<Boolean> reusePortOption(TransportType transportType) {
+        switch (transportType) {
+            case EPOLL:
+                return epollReusePort;
+            case IO_URING:
+                return ioUringReusePort;
+            default:
+                // SO_REUSEPORT of BSD does not distribute the datagrams.
+                return null;
+        }
+    }
+
     @Nullable
     public static InetSocketAddress localAddress(@Nullable Channel ch) {
         if (ch == null) {
@@ -348,9 +417,13 @@ public final class ChannelUtil {
 
         if (ch instanceof DomainSocketChannel) {
             return findAddress((DomainSocketChannel) ch);
-        } else {
-            return (InetSocketAddress) ch.localAddress();
         }
+
+        final SocketAddress localAddress = ch.localAddress();
+        if (localAddress instanceof InetSocketAddress) {
+            return (InetSocketAddress) localAddress;
+        }
+        return ch.hasAttr(LOCAL_ADDRESS) ? ch.attr(LOCAL_ADDRESS).get() : null;
     }
 
     @Nullable
@@ -361,9 +434,13 @@ public final class ChannelUtil {
 
         if (ch instanceof DomainSocketChannel) {
             return findAddress((DomainSocketChannel) ch);
-        } else {
-            return (InetSocketAddress) ch.remoteAddress();
         }
+
+        final SocketAddress remoteAddress = ch.remoteAddress();
+        if (remoteAddress instanceof InetSocketAddress) {
+            return (InetSocketAddress) remoteAddress;
+        }
+        return ch.hasAttr(REMOTE_ADDRESS) ? ch.attr(REMOTE_ADDRESS).get() : null;
     }
 
     @Nullable
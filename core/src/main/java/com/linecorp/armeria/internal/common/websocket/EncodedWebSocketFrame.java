@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.websocket;
+
+import java.nio.charset.StandardCharsets;
+
+import com.google.common.base.MoreObjects;
+
+import com.linecorp.armeria.common.websocket.WebSocketFrame;
+import com.linecorp.armeria.common.websocket.WebSocketFrameType;
+import com.linecorp.armeria.internal.common.ByteBufBytes;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+
+/**
+ * A {@link WebSocketFrame} which holds its unmasked wire format as well as its payload, so that
+ * {@link WebSocketFrameEncoder} writes it as is instead of encoding it again. The payload is a slice of
+ * the wire format, so both are released together when this frame is closed.
+ */
+public final class EncodedWebSocketFrame extends ByteBufBytes implements WebSocketFrame {
+
+    /**
+     * Encodes the specified {@link WebSocketFrame} into the unmasked wire format. The specified
+     * {@link WebSocketFrame} is closed. The returned {@link EncodedWebSocketFrame} can be shared using
+     * {@link #retainedDuplicate()}.
+     */
+    public static EncodedWebSocketFrame encode(ByteBufAllocator alloc, WebSocketFrame frame) {
+        final WebSocketFrameType type = frame.type();
+        final boolean finalFragment = frame.isFinalFragment();
+        final int payloadLength = frame.length();
+        final ByteBuf encoded = WebSocketFrameEncoder.of(false).encode(alloc, frame);
+        return new EncodedWebSocketFrame(encoded, encoded.readableBytes() - payloadLength,
+                                         type, finalFragment);
+    }
+
+    private final ByteBuf encoded;
+    private final int headerLength;
+    private final WebSocketFrameType type;
+    private final boolean finalFragment;
+
+    private EncodedWebSocketFrame(ByteBuf encoded, int headerLength, WebSocketFrameType type,
+                                  boolean finalFragment) {
+        super(encoded.slice(encoded.readerIndex() + headerLength, encoded.readableBytes() - headerLength),
+              true);
+        this.encoded = encoded;
+        this.headerLength = headerLength;
+        this.type = type;
+        this.finalFragment = finalFragment;
+    }
+
+    /**
+     * Returns a new {@link EncodedWebSocketFrame} which shares the wire format with this frame and
+     * increases its reference count.
+     */
+    public EncodedWebSocketFrame retainedDuplicate() {
+        return new EncodedWebSocketFrame(encoded.retainedDuplicate(), headerLength, type, finalFragment);
+    }
+
+    /**
+     * Returns the unmasked wire format of this frame. The reference count is not increased.
+     */
+    ByteBuf encoded() {
+        return encoded;
+    }
+
+    @Override
+    public WebSocketFrameType type() {
+        return type;
+    }
+
+    @Override
+    public boolean isFinalFragment() {
+        return finalFragment;
+    }
+
+    @Override
+    public String text() {
+        return toString(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int hashCode() {
+        return (super.hashCode() * 31 + type.hashCode()) * 31 + Boolean.hashCode(finalFragment);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof WebSocketFrame)) {
+            return false;
+        }
+
+        if (obj == this) {
+            return true;
+        }
+
+        final WebSocketFrame that = (WebSocketFrame) obj;
+        return type == that.type() &&
+               finalFragment == that.isFinalFragment() &&
+               length() == that.length() &&
+               ByteBufUtil.equals(buf(), that.byteBuf());
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("type", type)
+                          .add("finalFragment", finalFragment)
+                          .add("bytes", super.toString())
+                          .toString();
+    }
+}
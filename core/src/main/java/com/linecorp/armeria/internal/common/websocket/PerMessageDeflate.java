@@ -0,0 +1,283 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package com.linecorp.armeria.internal.common.websocket;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.base.Ascii;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Splitter;
+import com.google.common.primitives.Ints;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.websocket.PerMessageDeflateConfig;
+
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * The negotiated parameters of the <a href="https://datatracker.ietf.org/doc/html/rfc7692">
+ * permessage-deflate</a> extension.
+ *
+ * <p>{@link java.util.zip.Deflater} always uses the 32 KiB sliding window, so an offer that limits
+ * the window of the server with {@code server_max_window_bits} less than {@code 15} is declined.
+ * The window of the peer never needs to be limited because {@link java.util.zip.Inflater} accepts any
+ * window size.
+ */
+public final class PerMessageDeflate {
+
+    public static final String EXTENSION_NAME = "permessage-deflate";
+
+    private static final String SERVER_NO_CONTEXT_TAKEOVER = "server_no_context_takeover";
+    private static final String CLIENT_NO_CONTEXT_TAKEOVER = "client_no_context_takeover";
+    private static final String SERVER_MAX_WINDOW_BITS = "server_max_window_bits";
+    private static final String CLIENT_MAX_WINDOW_BITS = "client_max_window_bits";
+
+    private static final int MIN_WINDOW_BITS = 8;
+    private static final int MAX_WINDOW_BITS = 15;
+
+    private static final Splitter extensionSplitter = Splitter.on(',').trimResults().omitEmptyStrings();
+    private static final Splitter paramSplitter = Splitter.on(';').trimResults();
+
+    /**
+     * Selects the first permessage-deflate offer in the specified {@code Sec-WebSocket-Extensions} header
+     * value that this server can accept.
+     *
+     * @return the negotiated {@link PerMessageDeflate} or {@code null} if no offer is acceptable.
+     */
+    @Nullable
+    public static PerMessageDeflate negotiate(@Nullable String extensions, PerMessageDeflateConfig config) {
+        if (extensions == null) {
+            return null;
+        }
+        for (String extension : extensionSplitter.split(extensions)) {
+            final List<String> params = paramSplitter.splitToList(extension);
+            if (!EXTENSION_NAME.equalsIgnoreCase(params.get(0))) {
+                continue;
+            }
+            final PerMessageDeflate accepted = acceptOffer(params, config);
+            if (accepted != null) {
+                return accepted;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static PerMessageDeflate acceptOffer(List<String> params, PerMessageDeflateConfig config) {
+        boolean serverNoContextTakeover = config.serverNoContextTakeover();
+        final Set<String> names = new HashSet<>();
+        for (int i = 1; i < params.size(); i++) {
+            final String param = params.get(i);
+            final String name = paramName(param);
+            final String value = paramValue(param);
+            if (!names.add(name)) {
+                // A parameter must not appear more than once.
+                return null;
+            }
+            switch (name) {
+                case SERVER_NO_CONTEXT_TAKEOVER:
+                    if (value != null) {
+                        return null;
+                    }
+                    serverNoContextTakeover = true;
+                    break;
+                case CLIENT_NO_CONTEXT_TAKEOVER:
+                    // A hint that the client will not use the context takeover. No need to reply.
+                    if (value != null) {
+                        return null;
+                    }
+                    break;
+                case SERVER_MAX_WINDOW_BITS:
+                    // Deflater cannot use a smaller window.
+                    if (parseWindowBits(value) != MAX_WINDOW_BITS) {
+                        return null;
+                    }
+                    break;
+                case CLIENT_MAX_WINDOW_BITS:
+                    // The client supports the parameter, but Inflater accepts any window size.
+                    if (value != null && parseWindowBits(value) < 0) {
+                        return null;
+                    }
+                    break;
+                default:
+                    return null;
+            }
+        }
+        return new PerMessageDeflate(config, serverNoContextTakeover, config.clientNoContextTakeover());
+    }
+
+    /**
+     * Returns the {@code Sec-WebSocket-Extensions} header value that a client sends to offer
+     * the permessage-deflate extension.
+     */
+    public static String offer(PerMessageDeflateConfig config) {
+        final StringBuilder buf = new StringBuilder(EXTENSION_NAME);
+        if (config.serverNoContextTakeover()) {
+            buf.append("; ").append(SERVER_NO_CONTEXT_TAKEOVER);
+        }
+        if (config.clientNoContextTakeover()) {
+            buf.append("; ").append(CLIENT_NO_CONTEXT_TAKEOVER);
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Parses the {@code Sec-WebSocket-Extensions} header value that a server responded with to
+     * the offer made by {@link #offer(PerMessageDeflateConfig)}.
+     *
+     * @return the negotiated {@link PerMessageDeflate} or {@code null} if the server declined the offer.
+     * @throws IllegalArgumentException if the response is invalid
+     */
+    @Nullable
+    public static PerMessageDeflate accept(@Nullable String extensions, PerMessageDeflateConfig config) {
+        if (extensions == null) {
+            return null;
+        }
+        PerMessageDeflate accepted = null;
+        for (String extension : extensionSplitter.split(extensions)) {
+            final List<String> params = paramSplitter.splitToList(extension);
+            if (!EXTENSION_NAME.equalsIgnoreCase(params.get(0))) {
+                continue;
+            }
+            checkArgument(accepted == null, "%s is accepted more than once: %s", EXTENSION_NAME, extensions);
+            accepted = acceptResponse(params, config, extensions);
+        }
+        return accepted;
+    }
+
+    private static PerMessageDeflate acceptResponse(List<String> params, PerMessageDeflateConfig config,
+                                                    String extensions) {
+        boolean serverNoContextTakeover = false;
+        boolean clientNoContextTakeover = config.clientNoContextTakeover();
+        final Set<String> names = new HashSet<>();
+        for (int i = 1; i < params.size(); i++) {
+            final String param = params.get(i);
+            final String name = paramName(param);
+            final String value = paramValue(param);
+            checkArgument(names.add(name), "duplicate parameter '%s': %s", name, extensions);
+            switch (name) {
+                case SERVER_NO_CONTEXT_TAKEOVER:
+                    checkArgument(value == null, "unexpected value of '%s': %s", name, extensions);
+                    serverNoContextTakeover = true;
+                    break;
+                case CLIENT_NO_CONTEXT_TAKEOVER:
+                    checkArgument(value == null, "unexpected value of '%s': %s", name, extensions);
+                    clientNoContextTakeover = true;
+                    break;
+                case SERVER_MAX_WINDOW_BITS:
+                    // Inflater accepts any window size.
+                    checkArgument(parseWindowBits(value) > 0, "invalid '%s': %s", name, extensions);
+                    break;
+                default:
+                    // client_max_window_bits is not allowed because it was not offered.
+                    throw new IllegalArgumentException("unexpected parameter '" + name + "': " + extensions);
+            }
+        }
+        return new PerMessageDeflate(config, serverNoContextTakeover, clientNoContextTakeover);
+    }
+
+    private static String paramName(String param) {
+        final int equalsIndex = param.indexOf('=');
+        return Ascii.toLowerCase(equalsIndex < 0 ? param : param.substring(0, equalsIndex).trim());
+    }
+
+    @Nullable
+    private static String paramValue(String param) {
+        final int equalsIndex = param.indexOf('=');
+        if (equalsIndex < 0) {
+            return null;
+        }
+        final String value = param.substring(equalsIndex + 1).trim();
+        if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private static int parseWindowBits(@Nullable String value) {
+        if (value == null) {
+            return -1;
+        }
+        final Integer windowBits = Ints.tryParse(value);
+        if (windowBits == null || windowBits < MIN_WINDOW_BITS || windowBits > MAX_WINDOW_BITS) {
+            return -1;
+        }
+        return windowBits;
+    }
+
+    private final PerMessageDeflateConfig config;
+    private final boolean serverNoContextTakeover;
+    private final boolean clientNoContextTakeover;
+
+    private PerMessageDeflate(PerMessageDeflateConfig config, boolean serverNoContextTakeover,
+                              boolean clientNoContextTakeover) {
+        this.config = config;
+        this.serverNoContextTakeover = serverNoContextTakeover;
+        this.clientNoContextTakeover = clientNoContextTakeover;
+    }
+
+    public boolean serverNoContextTakeover() {
+        return serverNoContextTakeover;
+    }
+
+    public boolean clientNoContextTakeover() {
+        return clientNoContextTakeover;
+    }
+
+    /**
+     * Returns the {@code Sec-WebSocket-Extensions} header value that a server responds with.
+     */
+    public String toResponseHeaderValue() {
+        final StringBuilder buf = new StringBuilder(EXTENSION_NAME);
+        if (serverNoContextTakeover) {
+            buf.append("; ").append(SERVER_NO_CONTEXT_TAKEOVER);
+        }
+        if (clientNoContextTakeover) {
+            buf.append("; ").append(CLIENT_NO_CONTEXT_TAKEOVER);
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Returns a new {@link WebSocketFrameCompressor} for the outbound frames of a connection.
+     */
+    public WebSocketFrameCompressor newCompressor(boolean server) {
+        final boolean noContextTakeover = server ? serverNoContextTakeover : clientNoContextTakeover;
+        return new WebSocketFrameCompressor(WebSocketFrameEncoder.of(!server), config.compressionLevel(),
+                                            config.minCompressionLength(), noContextTakeover);
+    }
+
+    /**
+     * Returns a new {@link WebSocketFrameDecompressor} for the inbound frames of a connection.
+     */
+    public WebSocketFrameDecompressor newDecompressor(boolean server, ByteBufAllocator alloc) {
+        final boolean noContextTakeover = server ? clientNoContextTakeover : serverNoContextTakeover;
+        return new WebSocketFrameDecompressor(alloc, noContextTakeover);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("config", config)
+                          .add("serverNoContextTakeover", serverNoContextTakeover)
+                          .add("clientNoContextTakeover", clientNoContextTakeover)
+                          .toString();
+    }
+}
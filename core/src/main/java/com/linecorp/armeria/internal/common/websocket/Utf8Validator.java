@@ -51,15 +51,18 @@
 package com.linecorp.armeria.internal.common.websocket;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.util.ByteProcessor;
 
-final class Utf8Validator implements ByteProcessor {
+final class Utf8Validator {
 
     // Forked from Netty 4.1.92 https://github.com/netty/netty/blob/3cf83d5a2a601f033ddde7d43acab71ad1acf988/codec-http/src/main/java/io/netty/handler/codec/http/websocketx/Utf8Validator.java#L44
+    // - Skip 8 ASCII bytes at once between the multibyte sequences.
 
     private static final int UTF8_ACCEPT = 0;
     private static final int UTF8_REJECT = 12;
 
+    // The most significant bit of every byte, which is set only in a non-ASCII byte.
+    private static final long NON_ASCII_MASK = 0x8080808080808080L;
+
     private static final byte[] TYPES = { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
@@ -82,11 +85,25 @@ final class Utf8Validator implements ByteProcessor {
     private int codep;
 
     void check(ByteBuf buffer, int index, int length) {
-        buffer.forEachByte(index, length, this);
+        int i = index;
+        final int end = index + length;
+        while (i < end) {
+            if (state == UTF8_ACCEPT) {
+                // Not in the middle of a multibyte sequence; skip the ASCII words.
+                for (final int lim = end - 7; i < lim; i += 8) {
+                    if ((buffer.getLong(i) & NON_ASCII_MASK) != 0) {
+                        break;
+                    }
+                }
+            }
+            // Run the state machine until the next word boundary.
+            for (final int lim = Math.min(i + 8, end); i < lim; i++) {
+                process(buffer.getByte(i));
+            }
+        }
     }
 
-    @Override
-    public boolean process(byte b) throws Exception {
+    void process(byte b) {
         final byte type = TYPES[b & 0xFF];
 
         codep = state != UTF8_ACCEPT ? b & 0x3f | codep << 6 : 0xff >> type & b;
@@ -96,6 +113,12 @@ final class Utf8Validator implements ByteProcessor {
         if (state == UTF8_REJECT) {
             throw new IllegalArgumentException();
         }
-        return true;
+    }
+
+    /**
+     * Returns whether the last sequence was complete.
+     */
+    boolean isComplete() {
+        return state == UTF8_ACCEPT;
     }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package com.linecorp.armeria.internal.common.websocket;
+
+import java.util.zip.Deflater;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.websocket.WebSocketFrame;
+import com.linecorp.armeria.common.websocket.WebSocketFrameType;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * Compresses the payloads of the outbound messages of a connection as specified in
+ * <a href="https://datatracker.ietf.org/doc/html/rfc7692#section-7.2.1">Compression</a> and encodes
+ * them using {@link WebSocketFrameEncoder}. The frames must be given in order by a single thread.
+ */
+public final class WebSocketFrameCompressor {
+
+    // The RSV1 bit of the first frame of a compressed message.
+    static final int RSV1 = 0x4;
+
+    private static final int MIN_OUTPUT_BUFFER_SIZE = 64;
+
+    private final WebSocketFrameEncoder encoder;
+    private final int compressionLevel;
+    private final int minCompressionLength;
+    private final boolean noContextTakeover;
+
+    @Nullable
+    private Deflater deflater;
+    private boolean compressingFragments;
+
+    WebSocketFrameCompressor(WebSocketFrameEncoder encoder, int compressionLevel, int minCompressionLength,
+                             boolean noContextTakeover) {
+        this.encoder = encoder;
+        this.compressionLevel = compressionLevel;
+        this.minCompressionLength = minCompressionLength;
+        this.noContextTakeover = noContextTakeover;
+    }
+
+    /**
+     * Compresses the specified {@link WebSocketFrame} if necessary and encodes it. The specified
+     * {@link WebSocketFrame} is closed.
+     */
+    public ByteBuf encode(ByteBufAllocator alloc, WebSocketFrame frame) {
+        final WebSocketFrameType type = frame.type();
+        final boolean finalFragment = frame.isFinalFragment();
+        switch (type) {
+            case TEXT:
+            case BINARY:
+                // A fragmented message is always compressed because its length is unknown.
+                if (finalFragment && frame.length() < minCompressionLength) {
+                    return encoder.encode(alloc, frame);
+                }
+                compressingFragments = !finalFragment;
+                final ByteBuf compressed = compress(alloc, frame, finalFragment);
+                final WebSocketFrame compressedFrame;
+                if (type == WebSocketFrameType.TEXT) {
+                    compressedFrame = WebSocketFrame.ofPooledText(compressed, finalFragment);
+                } else {
+                    compressedFrame = WebSocketFrame.ofPooledBinary(compressed, finalFragment);
+                }
+                return encoder.encode(alloc, compressedFrame, RSV1);
+            case CONTINUATION:
+                if (!compressingFragments) {
+                    return encoder.encode(alloc, frame);
+                }
+                compressingFragments = !finalFragment;
+                return encoder.encode(alloc, WebSocketFrame.ofPooledContinuation(
+                        compress(alloc, frame, finalFragment), finalFragment));
+            default:
+                // Control frames are never compressed.
+                return encoder.encode(alloc, frame);
+        }
+    }
+
+    private ByteBuf compress(ByteBufAllocator alloc, WebSocketFrame frame, boolean finalFragment) {
+        Deflater deflater = this.deflater;
+        if (deflater == null) {
+            deflater = this.deflater = new Deflater(compressionLevel, true);
+        }
+
+        final int length = frame.length();
+        final ByteBuf out = alloc.heapBuffer(Math.max(MIN_OUTPUT_BUFFER_SIZE, length / 2));
+        try (WebSocketFrame ignored = frame) {
+            final ByteBuf in = frame.byteBuf();
+            if (in.hasArray()) {
+                deflater.setInput(in.array(), in.arrayOffset() + in.readerIndex(), length);
+            } else {
+                deflater.setInput(frame.array());
+            }
+            for (;;) {
+                out.ensureWritable(MIN_OUTPUT_BUFFER_SIZE);
+                final int writable = out.writableBytes();
+                final int written = deflater.deflate(out.array(), out.arrayOffset() + out.writerIndex(),
+                                                     writable, Deflater.SYNC_FLUSH);
+                out.writerIndex(out.writerIndex() + written);
+                if (written < writable) {
+                    break;
+                }
+            }
+        } catch (Throwable t) {
+            out.release();
+            close();
+            throw t;
+        }
+
+        if (finalFragment) {
+            // Remove the empty uncompressed block (0x00 0x00 0xff 0xff) appended by the sync flush.
+            out.writerIndex(out.writerIndex() - 4);
+            if (noContextTakeover) {
+                // Release the sliding window until the next message.
+                deflater.end();
+                this.deflater = null;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Releases the compression context. This method must be called after the last frame is encoded.
+     */
+    public void close() {
+        final Deflater deflater = this.deflater;
+        if (deflater != null) {
+            this.deflater = null;
+            deflater.end();
+        }
+    }
+}
@@ -33,6 +33,7 @@ package com.linecorp.armeria.internal.common.websocket;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.DataFormatException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -70,6 +71,8 @@ public abstract class WebSocketFrameDecoder implements HttpDecoder<WebSocketFram
     private final int maxFramePayloadLength;
     private final boolean allowMaskMismatch;
     private final boolean aggregateContinuation;
+    @Nullable
+    private final WebSocketFrameDecompressor decompressor;
     private final List<WebSocketFrame> aggregatingFrames = new ArrayList<>();
     private long aggregatingFramesLength;
     @Nullable
@@ -83,14 +86,22 @@ public abstract class WebSocketFrameDecoder implements HttpDecoder<WebSocketFram
     private long framePayloadLength;
     private int mask;
     private int framePayloadLen1;
+    private boolean compressedMessage;
     private boolean receivedClosingHandshake;
     private State state = State.READING_FIRST;
 
     protected WebSocketFrameDecoder(int maxFramePayloadLength, boolean allowMaskMismatch,
                                     boolean aggregateContinuation) {
+        this(maxFramePayloadLength, allowMaskMismatch, aggregateContinuation, null);
+    }
+
+    protected WebSocketFrameDecoder(int maxFramePayloadLength, boolean allowMaskMismatch,
+                                    boolean aggregateContinuation,
+                                    @Nullable WebSocketFrameDecompressor decompressor) {
         this.maxFramePayloadLength = maxFramePayloadLength;
         this.allowMaskMismatch = allowMaskMismatch;
         this.aggregateContinuation = aggregateContinuation;
+        this.decompressor = decompressor;
     }
 
     public void setOutboundWebSocket(WebSocket outboundFrames) {
@@ -114,7 +125,6 @@ public abstract class WebSocketFrameDecoder implements HttpDecoder<WebSocketFram
                     //noinspection LocalVariableUsedAndDeclaredInDifferentSwitchBranches
                     byte b = in.readByte();
                     finalFragment = (b & 0x80) != 0;
-                    // TODO(minwoox): support rsv
                     frameRsv = (b & 0x70) >> 4;
                     frameOpcode = b & 0x0F;
 
@@ -132,8 +142,15 @@ public abstract class WebSocketFrameDecoder implements HttpDecoder<WebSocketFram
                     frameMasked = (b & 0x80) != 0;
                     framePayloadLen1 = b & 0x7F;
 
-                    if (frameRsv != 0) { // TODO(minwoox): support extension
-                        throw protocolViolation("RSV != 0 and no extension negotiated, RSV:" + frameRsv);
+                    if (frameRsv != 0) {
+                        if (frameRsv != WebSocketFrameCompressor.RSV1 || decompressor == null) {
+                            throw protocolViolation("RSV != 0 and no extension negotiated, RSV:" + frameRsv);
+                        }
+                        // Only the first frame of a message may have the RSV1 bit set.
+                        if (frameOpcode != WebSocketFrameType.TEXT.opcode() &&
+                            frameOpcode != WebSocketFrameType.BINARY.opcode()) {
+                            throw protocolViolation("RSV1 set in a frame with opcode " + frameOpcode);
+                        }
                     }
 
                     if (!allowMaskMismatch && expectMaskedFrames() != frameMasked) {
@@ -181,6 +198,10 @@ public abstract class WebSocketFrameDecoder implements HttpDecoder<WebSocketFram
                             throw protocolViolation(
                                     "received non-continuation data frame while inside fragmented message");
                         }
+
+                        if (frameOpcode != WebSocketFrameType.CONTINUATION.opcode()) {
+                            compressedMessage = frameRsv != 0;
+                        }
                     }
 
                     state = State.READING_SIZE;
@@ -249,7 +270,7 @@ public abstract class WebSocketFrameDecoder implements HttpDecoder<WebSocketFram
 
                     // Unmask data if needed
                     if (frameMasked & framePayloadLength > 0) {
-                        unmask(payloadBuffer);
+                        WebSocketUtil.unmask(payloadBuffer, mask);
                     }
 
                     // Processing ping/pong/close frames because they cannot be
@@ -285,6 +306,10 @@ public abstract class WebSocketFrameDecoder implements HttpDecoder<WebSocketFram
                                                 "Cannot decode a web socket frame with opcode: " + frameOpcode);
                     }
 
+                    if (compressedMessage) {
+                        payloadBuffer = decompress(payloadBuffer);
+                    }
+
                     final WebSocketFrame decodedFrame;
                     if (frameOpcode == WebSocketFrameType.TEXT.opcode()) {
                         decodedFrame = WebSocketFrame.ofPooledText(payloadBuffer, finalFragment);
@@ -316,7 +341,7 @@ public abstract class WebSocketFrameDecoder implements HttpDecoder<WebSocketFram
                     } else {
                         fragmentedFramesCount++;
                         if (aggregateContinuation) {
-                            aggregatingFramesLength += framePayloadLength;
+                            aggregatingFramesLength += decodedFrame.length();
                             aggregatingFrames.add(decodedFrame);
                             if (aggregatingFramesLength > maxFramePayloadLength) {
                                 // decodedFrame is release in processOnError.
@@ -341,25 +366,24 @@ public abstract class WebSocketFrameDecoder implements HttpDecoder<WebSocketFram
 
     protected abstract void onCloseFrameRead();
 
-    private void unmask(ByteBuf frame) {
-        long longMask = mask & 0xFFFFFFFFL;
-        longMask |= longMask << 32;
-
-        int i = frame.readerIndex();
-        final int end = frame.writerIndex();
-        for (final int lim = end - 7; i < lim; i += 8) {
-            frame.setLong(i, frame.getLong(i) ^ longMask);
+    private ByteBuf decompress(ByteBuf payloadBuffer) {
+        assert decompressor != null;
+        final ByteBuf decompressed;
+        try {
+            decompressed = decompressor.decompress(payloadBuffer, finalFragment, maxFramePayloadLength);
+        } catch (DataFormatException e) {
+            throw protocolViolation(WebSocketCloseStatus.INVALID_PAYLOAD_DATA,
+                                    "Failed to decompress a frame: " + e.getMessage());
         }
-
-        if (i < end - 3) {
-            frame.setInt(i, frame.getInt(i) ^ (int) longMask);
-            i += 4;
+        if (decompressed == null) {
+            throw protocolViolation(WebSocketCloseStatus.MESSAGE_TOO_BIG,
+                                    "Max frame length of " + maxFramePayloadLength +
+                                    " has been exceeded after decompression.");
         }
-
-        int maskOffset = 0;
-        for (; i < end; i++) {
-            frame.setByte(i, frame.getByte(i) ^ WebSocketUtil.byteAtIndex(mask, maskOffset++ & 3));
+        if (finalFragment) {
+            compressedMessage = false;
         }
+        return decompressed;
     }
 
     private WebSocketProtocolViolationException protocolViolation(String message) {
@@ -391,11 +415,15 @@ public abstract class WebSocketFrameDecoder implements HttpDecoder<WebSocketFram
 
             // May have UTF-8 message
             if (buffer.readableBytes() > 2) {
+                final Utf8Validator validator = new Utf8Validator();
                 try {
-                    new Utf8Validator().check(buffer, buffer.readerIndex() + 2, buffer.readableBytes() - 2);
+                    validator.check(buffer, buffer.readerIndex() + 2, buffer.readableBytes() - 2);
                 } catch (IllegalArgumentException ex) {
                     throw protocolViolation(WebSocketCloseStatus.INVALID_PAYLOAD_DATA, "bytes are not UTF-8");
                 }
+                if (!validator.isComplete()) {
+                    throw protocolViolation(WebSocketCloseStatus.INVALID_PAYLOAD_DATA, "bytes are not UTF-8");
+                }
             }
         } catch (Exception e) {
             buffer.release();
@@ -425,6 +453,9 @@ public abstract class WebSocketFrameDecoder implements HttpDecoder<WebSocketFram
     protected void onProcessOnError(Throwable cause) {}
 
     private void cleanup() {
+        if (decompressor != null) {
+            decompressor.close();
+        }
         if (!aggregatingFrames.isEmpty()) {
             for (WebSocketFrame frame : aggregatingFrames) {
                 frame.close();
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package com.linecorp.armeria.internal.common.websocket;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * Decompresses the payloads of the inbound messages of a connection as specified in
+ * <a href="https://datatracker.ietf.org/doc/html/rfc7692#section-7.2.2">Decompression</a>.
+ */
+public final class WebSocketFrameDecompressor {
+
+    private static final byte[] TAIL = { 0x00, 0x00, (byte) 0xff, (byte) 0xff };
+
+    private static final int MIN_OUTPUT_BUFFER_SIZE = 256;
+
+    private final ByteBufAllocator alloc;
+    private final boolean noContextTakeover;
+
+    @Nullable
+    private Inflater inflater;
+
+    WebSocketFrameDecompressor(ByteBufAllocator alloc, boolean noContextTakeover) {
+        this.alloc = alloc;
+        this.noContextTakeover = noContextTakeover;
+    }
+
+    /**
+     * Decompresses the specified payload of a frame. The specified {@link ByteBuf} is released.
+     *
+     * @param maxLength the maximum length of the decompressed payload
+     * @return the decompressed payload or {@code null} if it is longer than {@code maxLength}
+     */
+    @Nullable
+    ByteBuf decompress(ByteBuf payload, boolean finalFragment, int maxLength) throws DataFormatException {
+        Inflater inflater = this.inflater;
+        if (inflater == null) {
+            inflater = this.inflater = new Inflater(true);
+        }
+
+        final int length = payload.readableBytes();
+        final byte[] input = new byte[finalFragment ? length + TAIL.length : length];
+        payload.readBytes(input, 0, length);
+        payload.release();
+        if (finalFragment) {
+            // Append the tail which was removed by the compressor.
+            System.arraycopy(TAIL, 0, input, length, TAIL.length);
+        }
+        inflater.setInput(input);
+
+        final ByteBuf out = alloc.heapBuffer(Math.max(MIN_OUTPUT_BUFFER_SIZE, length * 2));
+        boolean success = false;
+        try {
+            for (;;) {
+                out.ensureWritable(MIN_OUTPUT_BUFFER_SIZE);
+                final int read = inflater.inflate(out.array(), out.arrayOffset() + out.writerIndex(),
+                                                  out.writableBytes());
+                out.writerIndex(out.writerIndex() + read);
+                if (out.readableBytes() > maxLength) {
+                    return null;
+                }
+                if (read == 0) {
+                    if (inflater.needsDictionary()) {
+                        throw new DataFormatException("unexpected preset dictionary");
+                    }
+                    // Either all input was consumed or the stream was finished.
+                    break;
+                }
+            }
+            success = true;
+        } finally {
+            if (!success) {
+                out.release();
+            }
+        }
+
+        if (finalFragment && noContextTakeover) {
+            // Release the sliding window until the next message.
+            inflater.end();
+            this.inflater = null;
+        }
+        return out;
+    }
+
+    /**
+     * Releases the decompression context.
+     */
+    void close() {
+        final Inflater inflater = this.inflater;
+        if (inflater != null) {
+            this.inflater = null;
+            inflater.end();
+        }
+    }
+}
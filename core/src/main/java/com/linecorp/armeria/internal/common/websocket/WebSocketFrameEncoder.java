@@ -79,6 +79,7 @@ import com.linecorp.armeria.common.websocket.WebSocketFrame;
 import com.linecorp.armeria.common.websocket.WebSocketFrameType;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.TooLongFrameException;
 import io.netty.util.internal.ThreadLocalRandom;
@@ -121,12 +122,32 @@ public final class WebSocketFrameEncoder {
     }
 
     public ByteBuf encode(RequestContext ctx, WebSocketFrame msg) {
+        return encode(ctx.alloc(), msg);
+    }
+
+    /**
+     * Encodes the specified {@link WebSocketFrame} into a {@link ByteBuf} allocated by the specified
+     * {@link ByteBufAllocator}. The specified {@link WebSocketFrame} is closed.
+     */
+    public ByteBuf encode(ByteBufAllocator alloc, WebSocketFrame msg) {
+        return encode(alloc, msg, 0);
+    }
+
+    /**
+     * Encodes the specified {@link WebSocketFrame} with the specified RSV bits which are set by
+     * an extension. The specified {@link WebSocketFrame} is closed.
+     */
+    public ByteBuf encode(ByteBufAllocator alloc, WebSocketFrame msg, int rsv) {
         try (WebSocketFrame msg0 = msg) {
-            return encode0(ctx, msg0);
+            if (!maskPayload && rsv == 0 && msg0 instanceof EncodedWebSocketFrame) {
+                // The frame was encoded once and is shared by multiple connections.
+                return ((EncodedWebSocketFrame) msg0).encoded().retainedDuplicate();
+            }
+            return encode0(alloc, msg0, rsv);
         }
     }
 
-    private ByteBuf encode0(RequestContext ctx, WebSocketFrame msg) {
+    private ByteBuf encode0(ByteBufAllocator alloc, WebSocketFrame msg, int rsv) {
         final WebSocketFrameType type = msg.type();
         final int length = msg.length();
         if (type.isControlFrame() && length > 125) {
@@ -141,7 +162,7 @@ public final class WebSocketFrameEncoder {
         if (msg.isFinalFragment()) {
             b0 |= 1 << 7;
         }
-        // b0 |= msg.rsv() << 4; // TODO(minwoox): Support rsv when we introduce the extension.
+        b0 |= rsv << 4;
         b0 |= type.opcode();
 
         boolean release = true;
@@ -150,7 +171,7 @@ public final class WebSocketFrameEncoder {
             final int maskLength = maskPayload ? 4 : 0;
             if (length <= 125) {
                 final int size = 2 + maskLength + length;
-                buf = ctx.alloc().buffer(size);
+                buf = alloc.buffer(size);
                 buf.writeByte(b0);
                 // maskPayload + payload length (<= 125)
                 final byte b = (byte) (maskPayload ? 0x80 | (byte) length : (byte) length);
@@ -160,7 +181,7 @@ public final class WebSocketFrameEncoder {
                 if (maskPayload || length <= GATHERING_WRITE_THRESHOLD) {
                     size += length;
                 }
-                buf = ctx.alloc().buffer(size);
+                buf = alloc.buffer(size);
                 buf.writeByte(b0);
                 // maskPayload + payload length (== 126). When payload length is 126, following two bytes
                 // are the payload length.
@@ -172,7 +193,7 @@ public final class WebSocketFrameEncoder {
                 if (maskPayload) {
                     size += length;
                 }
-                buf = ctx.alloc().buffer(size);
+                buf = alloc.buffer(size);
                 buf.writeByte(b0);
                 // maskPayload + payload length (== 127). When payload length is 127, following 8 bytes
                 // are the payload length.
@@ -21,6 +21,7 @@ import static io.netty.util.AsciiString.contentEqualsIgnoreCase;
 import static io.netty.util.AsciiString.trim;
 import static java.util.Objects.requireNonNull;
 
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Iterator;
@@ -36,8 +37,10 @@ import com.linecorp.armeria.common.websocket.WebSocketCloseStatus;
 import com.linecorp.armeria.common.websocket.WebSocketFrame;
 import com.linecorp.armeria.server.websocket.WebSocketProtocolViolationException;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.util.AsciiString;
+import io.netty.util.internal.PlatformDependent;
 
 public final class WebSocketUtil {
 
@@ -46,6 +49,10 @@ public final class WebSocketUtil {
     public static final long DEFAULT_MAX_REQUEST_RESPONSE_LENGTH = 0;
     public static final long DEFAULT_REQUEST_AUTO_ABORT_DELAY_MILLIS = 5000;
 
+    private static final boolean UNALIGNED_ACCESS = PlatformDependent.hasUnsafe() &&
+                                                    PlatformDependent.isUnaligned();
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
     public static boolean isHttp1WebSocketUpgradeRequest(RequestHeaders headers) {
         requireNonNull(headers, "headers");
         // GET /chat HTTP/1.1
@@ -140,6 +147,55 @@ public final class WebSocketUtil {
         return (mask >> 8 * (3 - index)) & 0xFF;
     }
 
+    /**
+     * XORs the readable bytes of the specified {@link ByteBuf} with the specified masking key in place.
+     *
+     * @see <a href="https://datatracker.ietf.org/doc/html/rfc6455#section-5.3">Client-to-Server Masking</a>
+     */
+    static void unmask(ByteBuf frame, int mask) {
+        int i = frame.readerIndex();
+        final int end = frame.writerIndex();
+        if (UNALIGNED_ACCESS && end - i >= 8) {
+            // Access the memory directly, 8 bytes at a time, without the bounds and reference count checks
+            // of ByteBuf.getLong() and setLong().
+            final long nativeMask = longMask(LITTLE_ENDIAN ? Integer.reverseBytes(mask) : mask);
+            if (frame.hasMemoryAddress()) {
+                final long address = frame.memoryAddress();
+                for (final int lim = end - 7; i < lim; i += 8) {
+                    PlatformDependent.putLong(address + i, PlatformDependent.getLong(address + i) ^ nativeMask);
+                }
+            } else if (frame.hasArray()) {
+                final byte[] array = frame.array();
+                final int offset = frame.arrayOffset();
+                for (final int lim = end - 7; i < lim; i += 8) {
+                    PlatformDependent.putLong(array, offset + i,
+                                              PlatformDependent.getLong(array, offset + i) ^ nativeMask);
+                }
+            }
+        }
+
+        // The number of the unmasked bytes is a multiple of 4, so the masking key starts from its first byte.
+        final long longMask = longMask(mask);
+        for (final int lim = end - 7; i < lim; i += 8) {
+            frame.setLong(i, frame.getLong(i) ^ longMask);
+        }
+
+        if (i < end - 3) {
+            frame.setInt(i, frame.getInt(i) ^ mask);
+            i += 4;
+        }
+
+        int maskOffset = 0;
+        for (; i < end; i++) {
+            frame.setByte(i, frame.getByte(i) ^ byteAtIndex(mask, maskOffset++ & 3));
+        }
+    }
+
+    private static long longMask(int mask) {
+        final long longMask = mask & 0xFFFFFFFFL;
+        return longMask | longMask << 32;
+    }
+
     //TODO(minwoox): provide an exception handler that converts a cause into a CloseWebSocketFrame.
     public static CloseWebSocketFrame newCloseWebSocketFrame(Throwable cause) {
         final WebSocketCloseStatus closeStatus;
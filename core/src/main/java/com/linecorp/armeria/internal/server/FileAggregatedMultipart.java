@@ -25,6 +25,7 @@ import java.util.Map.Entry;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,8 +34,11 @@ import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Maps;
 
+import com.linecorp.armeria.common.ContentTooLargeException;
+import com.linecorp.armeria.common.Flags;
 import com.linecorp.armeria.common.HttpData;
 import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.multipart.BodyPart;
 import com.linecorp.armeria.common.multipart.Multipart;
 import com.linecorp.armeria.common.multipart.MultipartFile;
 import com.linecorp.armeria.server.ServiceRequestContext;
@@ -63,8 +67,25 @@ public final class FileAggregatedMultipart {
 
     public static CompletableFuture<FileAggregatedMultipart> aggregateMultipart(ServiceRequestContext ctx,
                                                                                 HttpRequest req) {
+        return aggregateMultipart(ctx, req, Flags.defaultMaxMultipartPartLength(),
+                                  Flags.defaultMaxMultipartLength());
+    }
+
+    /**
+     * Aggregates the specified {@code multipart/form-data} {@link HttpRequest}. The file parts are written
+     * to the disk as they arrive instead of being buffered in the memory. The returned future fails with
+     * a {@link ContentTooLargeException} if a part is longer than {@code maxPartLength} or the parts are
+     * longer than {@code maxLength} in total. {@code 0} disables each limit.
+     */
+    static CompletableFuture<FileAggregatedMultipart> aggregateMultipart(ServiceRequestContext ctx,
+                                                                         HttpRequest req,
+                                                                         long maxPartLength,
+                                                                         long maxLength) {
         final Path destination = ctx.config().multipartUploadsLocation();
-        return Multipart.from(req).collect(bodyPart -> {
+        // The parts are collected one by one, so the budget is never accessed concurrently.
+        final LengthBudget budget = new LengthBudget(maxPartLength, maxLength);
+        return Multipart.from(req).collect(bodyPart0 -> {
+            final BodyPart bodyPart = budget.limit(bodyPart0);
             final String name = bodyPart.name();
             assert name != null;
             final String filename = bodyPart.filename();
@@ -75,7 +96,12 @@ public final class FileAggregatedMultipart {
                 final ScheduledExecutorService executor = ctx.blockingTaskExecutor().withoutContext();
 
                 return resolveTmpFile(incompleteDir, filename, executor).thenCompose(path -> {
-                    return bodyPart.writeTo(path, eventLoop, executor).thenCompose(ignore -> {
+                    return bodyPart.writeTo(path, eventLoop, executor).whenComplete((ignore, cause) -> {
+                        if (cause != null) {
+                            // Do not leave the partially written file behind.
+                            deleteFile(path, executor);
+                        }
+                    }).thenCompose(ignore -> {
                         final Path completeDir = destination.resolve("complete");
                         return moveFile(path, completeDir, executor, ctx);
                     }).thenApply(completePath -> MultipartFile.of(name, filename, completePath.toFile(),
@@ -106,6 +132,16 @@ public final class FileAggregatedMultipart {
         });
     }
 
+    private static void deleteFile(Path file, ExecutorService blockingExecutorService) {
+        blockingExecutorService.execute(() -> {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Failed to delete an incomplete file: {}", file, e);
+            }
+        });
+    }
+
     private static CompletableFuture<Path> moveFile(Path file, Path targetDirectory,
                                                     ExecutorService blockingExecutorService,
                                                     ServiceRequestContext ctx) {
@@ -153,4 +189,51 @@ public final class FileAggregatedMultipart {
             }
         }, blockingExecutorService);
     }
+
+    /**
+     * Limits the length of each part and the total length of the parts of a multipart request.
+     */
+    private static final class LengthBudget {
+
+        private final long maxPartLength;
+        private final long maxLength;
+        private long transferred;
+
+        LengthBudget(long maxPartLength, long maxLength) {
+            this.maxPartLength = maxPartLength;
+            this.maxLength = maxLength;
+        }
+
+        BodyPart limit(BodyPart bodyPart) {
+            if (maxPartLength == 0 && maxLength == 0) {
+                return bodyPart;
+            }
+            return BodyPart.of(bodyPart.headers(), bodyPart.content().map(new PartLengthLimiter()));
+        }
+
+        private final class PartLengthLimiter implements Function<HttpData, HttpData> {
+
+            private long partTransferred;
+
+            @Override
+            public HttpData apply(HttpData data) {
+                final int length = data.length();
+                partTransferred += length;
+                transferred += length;
+                if (maxPartLength > 0 && partTransferred > maxPartLength) {
+                    throw ContentTooLargeException.builder()
+                                                  .maxContentLength(maxPartLength)
+                                                  .transferred(partTransferred)
+                                                  .build();
+                }
+                if (maxLength > 0 && transferred > maxLength) {
+                    throw ContentTooLargeException.builder()
+                                                  .maxContentLength(maxLength)
+                                                  .transferred(transferred)
+                                                  .build();
+                }
+                return data;
+            }
+        }
+    }
 }
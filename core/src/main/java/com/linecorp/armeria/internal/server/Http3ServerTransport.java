@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.server;
+
+import java.net.InetSocketAddress;
+
+import javax.net.ssl.SSLSession;
+
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.TlsProvider;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.internal.common.util.ChannelUtil;
+import com.linecorp.armeria.server.ServerConfig;
+import com.linecorp.armeria.server.ServerPort;
+import com.linecorp.armeria.server.ServerTlsConfig;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+
+/**
+ * Creates the QUIC codecs of a {@link ServerPort} of {@link SessionProtocol#H3}.
+ * The implementation is provided by the {@code armeria-http3} module and loaded via Java SPI.
+ */
+public interface Http3ServerTransport {
+
+    /**
+     * Returns a new {@link CodecFactory} for a {@link ServerPort}.
+     *
+     * @param tlsProvider the {@link TlsProvider} which provides the key pairs of the TLS handshake
+     * @param tlsConfig the {@link ServerTlsConfig} of the {@link TlsProvider}
+     * @param streamInitializer the {@link ChannelHandler} that initializes the pipeline of a request stream.
+     *                          It must be added after the handler which converts HTTP/3 frames into
+     *                          HTTP/1 objects, and after the connection information is set via
+     *                          {@link ChannelUtil#setConnectionInfo(Channel, InetSocketAddress,
+     *                          InetSocketAddress, SSLSession)}.
+     */
+    CodecFactory newCodecFactory(ServerConfig config, TlsProvider tlsProvider,
+                                 @Nullable ServerTlsConfig tlsConfig, ChannelHandler streamInitializer);
+
+    /**
+     * Creates the QUIC codecs of the UDP sockets bound to a {@link ServerPort}. The sockets share
+     * the TLS contexts of the {@link CodecFactory}, which are released when the {@link CodecFactory}
+     * is closed.
+     */
+    interface CodecFactory extends SafeCloseable {
+
+        /**
+         * Returns a new {@link ChannelHandler} which must be added to the pipeline of a UDP socket.
+         * The QUIC connections accepted from the socket and their streams are handled by
+         * the event loop of the socket.
+         */
+        ChannelHandler newCodec();
+    }
+}
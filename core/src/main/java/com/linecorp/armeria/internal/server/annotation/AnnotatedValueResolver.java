@@ -56,9 +56,12 @@ import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.JavaType;
+
 import com.google.common.base.Ascii;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Splitter;
@@ -81,6 +84,7 @@ import com.linecorp.armeria.common.RequestHeaders;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.multipart.Multipart;
 import com.linecorp.armeria.common.multipart.MultipartFile;
+import com.linecorp.armeria.common.stream.StreamMessage;
 import com.linecorp.armeria.common.util.Exceptions;
 import com.linecorp.armeria.internal.server.FileAggregatedMultipart;
 import com.linecorp.armeria.internal.server.annotation.AnnotatedBeanFactoryRegistry.BeanFactoryId;
@@ -480,6 +484,11 @@ final class AnnotatedValueResolver {
             // Find more request converters from a field or parameter.
             final List<RequestConverter> converters =
                     AnnotationUtil.findDeclared(typeElement, RequestConverter.class);
+            if (type == StreamMessage.class || type == Publisher.class) {
+                return ofJsonStream(name, annotatedElement, type, pathParams,
+                                    addToFirstIfExists(objectResolvers, converters, dependencyInjector),
+                                    dependencyInjector, description);
+            }
             return ofRequestObject(name, annotatedElement, type, pathParams,
                                    addToFirstIfExists(objectResolvers, converters, dependencyInjector),
                                    dependencyInjector, description);
@@ -633,6 +642,58 @@ final class AnnotatedValueResolver {
                 .build();
     }
 
+    /**
+     * Returns an {@link AnnotatedValueResolver} for a {@link StreamMessage} or {@link Publisher} parameter
+     * annotated with {@link RequestObject}, which publishes the elements of a JSON array or JSON Lines.
+     * If no request converter is configured, the elements are published as they arrive without aggregating
+     * the request. Otherwise, the request is aggregated and decoded as a JSON stream only when all
+     * the configured request converters fall through.
+     */
+    private static AnnotatedValueResolver ofJsonStream(String name, AnnotatedElement annotatedElement,
+                                                       Class<?> type, Set<String> pathParams,
+                                                       List<RequestObjectResolver> objectResolvers,
+                                                       DependencyInjector dependencyInjector,
+                                                       DescriptionInfo description) {
+        final Type parameterizedType = parameterizedTypeOf(annotatedElement);
+        if (!(parameterizedType instanceof ParameterizedType)) {
+            throw new IllegalArgumentException("The element type of " + type.getSimpleName() +
+                                               " should be specified: " + annotatedElement);
+        }
+        final JavaType elementType = JsonStreamDecoder.toJavaType(
+                ((ParameterizedType) parameterizedType).getActualTypeArguments()[0]);
+
+        // The default request object resolvers are always at the end.
+        int numConfiguredResolvers = objectResolvers.size();
+        while (numConfiguredResolvers > 0 &&
+               defaultRequestObjectResolvers.contains(objectResolvers.get(numConfiguredResolvers - 1))) {
+            numConfiguredResolvers--;
+        }
+        if (numConfiguredResolvers == 0) {
+            return new Builder(annotatedElement, type, name)
+                    .annotationType(RequestObject.class)
+                    .description(description)
+                    .resolver((unused, ctx) -> JsonStreamDecoder.decode(ctx.request(), elementType))
+                    .build();
+        }
+
+        final RequestObjectResolver jsonStreamResolver = (resolverContext, unused1, unused2, unused3) -> {
+            final AggregatedHttpRequest request = resolverContext.aggregatedRequest();
+            if (request == null) {
+                throw new IllegalArgumentException(
+                        "Cannot convert this request to an object because it is not aggregated.");
+            }
+            return JsonStreamDecoder.decode(request.toHttpRequest(), elementType);
+        };
+        final List<RequestObjectResolver> resolvers =
+                ImmutableList.<RequestObjectResolver>builder()
+                             .addAll(objectResolvers.subList(0, numConfiguredResolvers))
+                             .add(jsonStreamResolver)
+                             .addAll(objectResolvers.subList(numConfiguredResolvers, objectResolvers.size()))
+                             .build();
+        return ofRequestObject(name, annotatedElement, type, pathParams, resolvers, dependencyInjector,
+                               description);
+    }
+
     private static AnnotatedValueResolver ofAttribute(String name,
                                                       Attribute attr,
                                                       AnnotatedElement annotatedElement,
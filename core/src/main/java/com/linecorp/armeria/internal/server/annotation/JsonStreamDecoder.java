@@ -0,0 +1,211 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.server.annotation;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.stream.HttpDecoder;
+import com.linecorp.armeria.common.stream.StreamDecoderInput;
+import com.linecorp.armeria.common.stream.StreamDecoderOutput;
+import com.linecorp.armeria.common.stream.StreamMessage;
+import com.linecorp.armeria.internal.common.JacksonUtil;
+
+/**
+ * An {@link HttpDecoder} which incrementally decodes the elements of a top-level JSON array, or the values
+ * of JSON Lines or JSON Text Sequences, using the non-blocking parser of Jackson. An element is published
+ * as soon as its last byte arrives, so the request is never aggregated.
+ */
+final class JsonStreamDecoder implements HttpDecoder<Object> {
+
+    private static final ObjectMapper defaultObjectMapper = JacksonUtil.newDefaultObjectMapper();
+
+    // The record separator which precedes each JSON text of 'application/json-seq'.
+    private static final byte RECORD_SEPARATOR = 0x1E;
+
+    /**
+     * Returns a {@link StreamMessage} which publishes the elements of the specified {@link HttpRequest}
+     * converted into the specified {@link JavaType}.
+     *
+     * @throws IllegalArgumentException if the {@code content-type} of the {@link HttpRequest} is neither
+     *                                  JSON, JSON Lines nor JSON Text Sequences.
+     */
+    static StreamMessage<Object> decode(HttpRequest request, JavaType elementType) {
+        final MediaType contentType = request.contentType();
+        final boolean sequence;
+        if (contentType == null || contentType.isJson()) {
+            sequence = false;
+        } else if (contentType.is(MediaType.JSON_LINES) || contentType.is(MediaType.JSON_SEQ)) {
+            sequence = true;
+        } else {
+            throw new IllegalArgumentException("Unsupported content type for a JSON stream: " + contentType);
+        }
+        return request.decode(new JsonStreamDecoder(defaultObjectMapper, elementType, sequence));
+    }
+
+    static JavaType toJavaType(Type elementType) {
+        return defaultObjectMapper.constructType(elementType);
+    }
+
+    private final ObjectMapper mapper;
+    private final JavaType elementType;
+    private final boolean sequence;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    @Nullable
+    private TokenBuffer buffer;
+    private int depth;
+    private boolean arrayStarted;
+    private boolean arrayEnded;
+
+    JsonStreamDecoder(ObjectMapper mapper, JavaType elementType, boolean sequence) {
+        this.mapper = mapper;
+        this.elementType = elementType;
+        this.sequence = sequence;
+        try {
+            parser = mapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("failed to create a non-blocking JSON parser", e);
+        }
+        feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    @Override
+    public void process(StreamDecoderInput in, StreamDecoderOutput<Object> out) throws Exception {
+        final int readableBytes = in.readableBytes();
+        if (readableBytes == 0) {
+            return;
+        }
+        final byte[] bytes = new byte[readableBytes];
+        in.readBytes(bytes);
+        final int length = sequence ? stripRecordSeparators(bytes) : bytes.length;
+        if (length == 0) {
+            return;
+        }
+        try {
+            feeder.feedInput(bytes, 0, length);
+        } catch (JsonProcessingException e) {
+            throw newConversionException(e);
+        }
+        parse(out);
+    }
+
+    @Override
+    public void processOnComplete(StreamDecoderInput in, StreamDecoderOutput<Object> out) throws Exception {
+        feeder.endOfInput();
+        try {
+            parse(out);
+        } finally {
+            parser.close();
+        }
+        if (depth > 0 || buffer != null || (arrayStarted && !arrayEnded)) {
+            throw new IllegalArgumentException("failed to parse a JSON document: unexpected end of input");
+        }
+    }
+
+    @Override
+    public void processOnError(Throwable cause) {
+        try {
+            parser.close();
+        } catch (IOException ignored) {
+            // Nothing to clean up.
+        }
+    }
+
+    private void parse(StreamDecoderOutput<Object> out) throws IOException {
+        try {
+            for (;;) {
+                final JsonToken token = parser.nextToken();
+                if (token == null || token == JsonToken.NOT_AVAILABLE) {
+                    return;
+                }
+
+                if (!sequence && depth == 0) {
+                    if (arrayEnded) {
+                        throw new IllegalArgumentException(
+                                "failed to parse a JSON document: unexpected content after a JSON array");
+                    }
+                    if (!arrayStarted) {
+                        if (token != JsonToken.START_ARRAY) {
+                            throw new IllegalArgumentException(
+                                    "failed to parse a JSON document: expected a JSON array but got " + token);
+                        }
+                        arrayStarted = true;
+                        continue;
+                    }
+                    if (token == JsonToken.END_ARRAY) {
+                        arrayEnded = true;
+                        continue;
+                    }
+                }
+
+                TokenBuffer buffer = this.buffer;
+                if (buffer == null) {
+                    buffer = this.buffer = new TokenBuffer(parser);
+                }
+                buffer.copyCurrentEvent(parser);
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+
+                if (depth == 0) {
+                    // A whole element has been buffered.
+                    this.buffer = null;
+                    final Object value;
+                    try (JsonParser elementParser = buffer.asParser()) {
+                        value = mapper.readValue(elementParser, elementType);
+                    }
+                    if (value == null) {
+                        throw new IllegalArgumentException(
+                                "failed to parse a JSON document: a null element is not allowed");
+                    }
+                    out.add(value);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw newConversionException(e);
+        }
+    }
+
+    private static int stripRecordSeparators(byte[] bytes) {
+        int length = 0;
+        for (byte b : bytes) {
+            if (b != RECORD_SEPARATOR) {
+                bytes[length++] = b;
+            }
+        }
+        return length;
+    }
+
+    private static IllegalArgumentException newConversionException(JsonProcessingException e) {
+        return new IllegalArgumentException("failed to parse a JSON document: " + e, e);
+    }
+}
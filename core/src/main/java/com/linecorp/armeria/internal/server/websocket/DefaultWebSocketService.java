@@ -21,6 +21,7 @@ import static com.linecorp.armeria.internal.common.websocket.WebSocketUtil.isHtt
 import static com.linecorp.armeria.internal.common.websocket.WebSocketUtil.newCloseWebSocketFrame;
 
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -46,7 +47,11 @@ import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.stream.ClosedStreamException;
 import com.linecorp.armeria.common.stream.StreamMessage;
 import com.linecorp.armeria.common.util.TimeoutMode;
+import com.linecorp.armeria.common.websocket.PerMessageDeflateConfig;
 import com.linecorp.armeria.common.websocket.WebSocket;
+import com.linecorp.armeria.common.websocket.WebSocketFrame;
+import com.linecorp.armeria.internal.common.websocket.PerMessageDeflate;
+import com.linecorp.armeria.internal.common.websocket.WebSocketFrameCompressor;
 import com.linecorp.armeria.internal.common.websocket.WebSocketFrameEncoder;
 import com.linecorp.armeria.internal.common.websocket.WebSocketWrapper;
 import com.linecorp.armeria.server.HttpService;
@@ -99,13 +104,17 @@ public final class DefaultWebSocketService implements WebSocketService, WebSocke
     @Nullable
     private final Predicate<? super String> originPredicate;
     private final boolean aggregateContinuation;
+    @Nullable
+    private final PerMessageDeflateConfig perMessageDeflateConfig;
     private final ServiceOptions serviceOptions;
 
     public DefaultWebSocketService(WebSocketServiceHandler handler, @Nullable HttpService fallbackService,
                                    int maxFramePayloadLength, boolean allowMaskMismatch,
                                    Set<String> subprotocols, boolean allowAnyOrigin,
                                    @Nullable Predicate<? super String> originPredicate,
-                                   boolean aggregateContinuation, ServiceOptions serviceOptions) {
+                                   boolean aggregateContinuation,
+                                   @Nullable PerMessageDeflateConfig perMessageDeflateConfig,
+                                   ServiceOptions serviceOptions) {
         this.handler = handler;
         this.fallbackService = fallbackService;
         this.maxFramePayloadLength = maxFramePayloadLength;
@@ -114,6 +123,7 @@ public final class DefaultWebSocketService implements WebSocketService, WebSocke
         this.allowAnyOrigin = allowAnyOrigin;
         this.originPredicate = originPredicate;
         this.aggregateContinuation = aggregateContinuation;
+        this.perMessageDeflateConfig = perMessageDeflateConfig;
         this.serviceOptions = serviceOptions;
     }
 
@@ -377,9 +387,14 @@ public final class DefaultWebSocketService implements WebSocketService, WebSocke
 
     @Override
     public WebSocket decode(ServiceRequestContext ctx, HttpRequest req) {
+        PerMessageDeflate perMessageDeflate = null;
+        if (perMessageDeflateConfig != null) {
+            perMessageDeflate = PerMessageDeflate.negotiate(
+                    req.headers().get(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS), perMessageDeflateConfig);
+        }
         final WebSocketServiceFrameDecoder decoder =
                 new WebSocketServiceFrameDecoder(ctx, maxFramePayloadLength, allowMaskMismatch,
-                                                 aggregateContinuation);
+                                                 aggregateContinuation, perMessageDeflate);
         ctx.setAttr(DECODER, decoder);
         return new WebSocketWrapper(req.decode(decoder, ctx.alloc()));
     }
@@ -406,6 +421,19 @@ public final class DefaultWebSocketService implements WebSocketService, WebSocke
         final WebSocketServiceFrameDecoder decoder = ctx.attr(DECODER);
         assert decoder != null;
         decoder.setOutboundWebSocket(out);
+
+        final PerMessageDeflate perMessageDeflate = decoder.perMessageDeflate();
+        final Function<WebSocketFrame, HttpData> frameEncoder;
+        if (perMessageDeflate != null) {
+            responseHeadersBuilder.add(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS,
+                                       perMessageDeflate.toResponseHeaderValue());
+            final WebSocketFrameCompressor compressor = perMessageDeflate.newCompressor(true);
+            // Release the compression context after the last frame is written.
+            ctx.log().whenComplete().thenRun(compressor::close);
+            frameEncoder = frame -> HttpData.wrap(compressor.encode(ctx.alloc(), frame));
+        } else {
+            frameEncoder = frame -> HttpData.wrap(encoder.encode(ctx, frame));
+        }
         final StreamMessage<HttpData> data =
                 out.recoverAndResume(cause -> {
                        if (cause instanceof ClosedStreamException) {
@@ -414,7 +442,7 @@ public final class DefaultWebSocketService implements WebSocketService, WebSocke
                        ctx.logBuilder().responseCause(cause);
                        return StreamMessage.of(newCloseWebSocketFrame(cause));
                    })
-                   .map(frame -> HttpData.wrap(encoder.encode(ctx, frame)));
+                   .map(frameEncoder);
         return HttpResponse.of(responseHeadersBuilder.build(), data);
     }
 
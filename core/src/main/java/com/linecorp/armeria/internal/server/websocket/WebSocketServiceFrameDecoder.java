@@ -17,18 +17,30 @@ package com.linecorp.armeria.internal.server.websocket;
 
 import com.linecorp.armeria.common.HttpRequestWriter;
 import com.linecorp.armeria.common.Request;
+import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.internal.common.RequestContextExtension;
+import com.linecorp.armeria.internal.common.websocket.PerMessageDeflate;
 import com.linecorp.armeria.internal.common.websocket.WebSocketFrameDecoder;
 import com.linecorp.armeria.server.ServiceRequestContext;
 
 final class WebSocketServiceFrameDecoder extends WebSocketFrameDecoder {
 
     private final ServiceRequestContext ctx;
+    @Nullable
+    private final PerMessageDeflate perMessageDeflate;
 
     WebSocketServiceFrameDecoder(ServiceRequestContext ctx, int maxFramePayloadLength,
-                                 boolean allowMaskMismatch, boolean aggregateContinuation) {
-        super(maxFramePayloadLength, allowMaskMismatch, aggregateContinuation);
+                                 boolean allowMaskMismatch, boolean aggregateContinuation,
+                                 @Nullable PerMessageDeflate perMessageDeflate) {
+        super(maxFramePayloadLength, allowMaskMismatch, aggregateContinuation,
+              perMessageDeflate != null ? perMessageDeflate.newDecompressor(true, ctx.alloc()) : null);
         this.ctx = ctx;
+        this.perMessageDeflate = perMessageDeflate;
+    }
+
+    @Nullable
+    PerMessageDeflate perMessageDeflate() {
+        return perMessageDeflate;
     }
 
     @Override
@@ -95,9 +95,15 @@ final class Http1RequestDecoder extends ChannelDuplexHandler {
 
     Http1RequestDecoder(ServerConfig cfg, Channel channel, AsciiString scheme,
                         ServerHttp1ObjectEncoder encoder, HttpServer httpServer) {
+        this(cfg, channel, scheme, scheme == SCHEME_HTTP ? SessionProtocol.H1C : SessionProtocol.H1,
+             encoder, httpServer);
+    }
+
+    Http1RequestDecoder(ServerConfig cfg, Channel channel, AsciiString scheme, SessionProtocol sessionProtocol,
+                        ServerHttp1ObjectEncoder encoder, HttpServer httpServer) {
         this.cfg = cfg;
         this.scheme = scheme;
-        sessionProtocol = scheme == SCHEME_HTTP ? SessionProtocol.H1C : SessionProtocol.H1;
+        this.sessionProtocol = sessionProtocol;
         inboundTrafficController = InboundTrafficController.ofHttp1(channel);
         this.encoder = encoder;
         this.httpServer = httpServer;
@@ -280,7 +286,11 @@ final class Http1RequestDecoder extends ChannelDuplexHandler {
                     final boolean endOfStream = contentEmpty && !transferEncodingChunked;
                     this.req = req = DecodedHttpRequest.of(endOfStream, eventLoop, id, 1, headers,
                                                            keepAlive, inboundTrafficController, routingCtx);
-                    cfg.serverMetrics().increasePendingHttp1Requests();
+                    if (sessionProtocol == SessionProtocol.H3) {
+                        cfg.serverMetrics().increasePendingHttp3Requests();
+                    } else {
+                        cfg.serverMetrics().increasePendingHttp1Requests();
+                    }
                     ctx.fireChannelRead(req);
                 } else {
                     fail(id, null, HttpStatus.BAD_REQUEST, "Invalid decoder state", null);
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.AsciiString;
+
+/**
+ * Converts an {@link HttpRequest} decoded from the frames of an HTTP/3 request stream into
+ * a {@link NettyHttp1Request}, so that {@link Http1RequestDecoder} can handle it in the same way as
+ * an HTTP/1 request.
+ */
+@Sharable
+final class Http3RequestConverter extends ChannelInboundHandlerAdapter {
+
+    static final Http3RequestConverter INSTANCE = new Http3RequestConverter();
+
+    /**
+     * The prefix of the extension headers which carry the HTTP/3 pseudo headers with no HTTP/1 equivalent,
+     * such as {@code x-http3-scheme} and {@code x-http3-stream-id}.
+     */
+    private static final AsciiString EXTENSION_HEADER_PREFIX = AsciiString.cached("x-http3-");
+
+    private Http3RequestConverter() {}
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (!(msg instanceof HttpRequest) || msg instanceof NettyHttp1Request) {
+            ctx.fireChannelRead(msg);
+            return;
+        }
+
+        final HttpRequest req = (HttpRequest) msg;
+        final NettyHttp1Request converted =
+                new NettyHttp1Request(req.protocolVersion(), req.method(), req.uri());
+        converted.setDecoderResult(req.decoderResult());
+        copyHeaders(req.headers(), converted.headers());
+
+        if (msg instanceof FullHttpRequest) {
+            // The request stream was closed before its headers were read. Split the full request
+            // because Http1RequestDecoder expects the content to follow the headers.
+            final FullHttpRequest fullReq = (FullHttpRequest) msg;
+            if (!HttpUtil.isContentLengthSet(converted)) {
+                HttpUtil.setContentLength(converted, fullReq.content().readableBytes());
+            }
+            final LastHttpContent last = new DefaultLastHttpContent(fullReq.content());
+            copyHeaders(fullReq.trailingHeaders(), last.trailingHeaders());
+            ctx.fireChannelRead(converted);
+            ctx.fireChannelRead(last);
+            return;
+        }
+
+        if (!HttpUtil.isContentLengthSet(converted) && !HttpUtil.isTransferEncodingChunked(converted)) {
+            // The content of an HTTP/3 request is delimited by the end of the stream,
+            // which is what the chunked transfer encoding means to Http1RequestDecoder.
+            converted.headers().add(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED);
+        }
+        ctx.fireChannelRead(converted);
+    }
+
+    private static void copyHeaders(HttpHeaders from, HttpHeaders to) {
+        final Iterator<Entry<CharSequence, CharSequence>> it = from.iteratorCharSequence();
+        while (it.hasNext()) {
+            final Entry<CharSequence, CharSequence> e = it.next();
+            final CharSequence name = e.getKey();
+            if (AsciiString.regionMatches(name, true, 0, EXTENSION_HEADER_PREFIX, 0,
+                                          EXTENSION_HEADER_PREFIX.length())) {
+                continue;
+            }
+            to.add(name, e.getValue());
+        }
+    }
+}
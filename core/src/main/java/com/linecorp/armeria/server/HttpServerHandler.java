@@ -21,6 +21,7 @@ import static com.linecorp.armeria.common.SessionProtocol.H1;
 import static com.linecorp.armeria.common.SessionProtocol.H1C;
 import static com.linecorp.armeria.common.SessionProtocol.H2;
 import static com.linecorp.armeria.common.SessionProtocol.H2C;
+import static com.linecorp.armeria.common.SessionProtocol.H3;
 import static com.linecorp.armeria.internal.common.HttpHeadersUtil.CLOSE_STRING;
 import static com.linecorp.armeria.internal.common.RequestContextUtil.NOOP_CONTEXT_HOOK;
 import static com.linecorp.armeria.server.AccessLogWriterUtil.maybeWriteAccessLog;
@@ -207,7 +208,7 @@ final class HttpServerHandler extends ChannelInboundHandlerAdapter implements Ht
                       SessionProtocol protocol,
                       @Nullable ProxiedAddresses proxiedAddresses) {
 
-        assert protocol == H1 || protocol == H1C || protocol == H2;
+        assert protocol == H1 || protocol == H1C || protocol == H2 || protocol == H3;
 
         this.config = requireNonNull(config, "config");
         this.gracefulShutdownSupport = requireNonNull(gracefulShutdownSupport, "gracefulShutdownSupport");
@@ -228,6 +229,15 @@ final class HttpServerHandler extends ChannelInboundHandlerAdapter implements Ht
         return unfinishedRequests.size();
     }
 
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        if (protocol == H3) {
+            // The TLS handshake of a QUIC connection is done before its request streams are opened.
+            sslSession = ChannelUtil.findSslSession(ctx.channel());
+        }
+        super.handlerAdded(ctx);
+    }
+
     @Override
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
         if (responseEncoder != null) {
@@ -266,7 +276,8 @@ final class HttpServerHandler extends ChannelInboundHandlerAdapter implements Ht
             final ClosedSessionException cause = ClosedSessionException.get();
             unfinishedRequests.forEach((req, res) -> {
                 // An HTTP2 request is cancelled by Http2RequestDecoder.onRstStreamRead()
-                final boolean cancel = !protocol.isMultiplex();
+                // An HTTP/3 request is decoded from its own stream, so it has to be cancelled here.
+                final boolean cancel = !protocol.isExplicitHttp2();
                 // Mark the request stream as closed due to disconnection.
                 req.abortResponse(cause, cancel);
             });
@@ -466,6 +477,8 @@ final class HttpServerHandler extends ChannelInboundHandlerAdapter implements Ht
     private void decreasePendingRequests() {
         if (protocol.isExplicitHttp1()) {
             config.serverMetrics().decreasePendingHttp1Requests();
+        } else if (protocol.isExplicitHttp3()) {
+            config.serverMetrics().decreasePendingHttp3Requests();
         } else {
             assert protocol.isExplicitHttp2();
             config.serverMetrics().decreasePendingHttp2Requests();
@@ -477,6 +490,8 @@ final class HttpServerHandler extends ChannelInboundHandlerAdapter implements Ht
             config.serverMetrics().increaseActiveHttp1WebSocketRequests();
         } else if (protocol.isExplicitHttp1()) {
             config.serverMetrics().increaseActiveHttp1Requests();
+        } else if (protocol.isExplicitHttp3()) {
+            config.serverMetrics().increaseActiveHttp3Requests();
         } else {
             assert protocol.isExplicitHttp2();
             config.serverMetrics().increaseActiveHttp2Requests();
@@ -797,6 +812,8 @@ final class HttpServerHandler extends ChannelInboundHandlerAdapter implements Ht
                     config.serverMetrics().decreaseActiveHttp1Requests();
                 } else if (protocol.isExplicitHttp2()) {
                     config.serverMetrics().decreaseActiveHttp2Requests();
+                } else if (protocol.isExplicitHttp3()) {
+                    config.serverMetrics().decreaseActiveHttp3Requests();
                 }
 
                 // NB: logBuilder.endResponse() is called by HttpResponseSubscriber.
@@ -21,6 +21,7 @@ import static com.linecorp.armeria.common.SessionProtocol.H1;
 import static com.linecorp.armeria.common.SessionProtocol.H1C;
 import static com.linecorp.armeria.common.SessionProtocol.H2;
 import static com.linecorp.armeria.common.SessionProtocol.H2C;
+import static com.linecorp.armeria.common.SessionProtocol.H3;
 import static com.linecorp.armeria.common.SessionProtocol.HTTP;
 import static com.linecorp.armeria.common.SessionProtocol.HTTPS;
 import static com.linecorp.armeria.common.SessionProtocol.PROXY;
@@ -46,6 +47,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.collect.ImmutableList;
 
 import com.linecorp.armeria.common.Flags;
+import com.linecorp.armeria.common.Http1HeaderNaming;
 import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.metric.MoreMeters;
@@ -98,12 +100,13 @@ import io.netty.handler.ssl.SniHandler;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.util.AsciiString;
+import io.netty.util.AsyncMapping;
 import io.netty.util.Mapping;
 import io.netty.util.NetUtil;
 import io.netty.util.concurrent.ScheduledFuture;
 
 /**
- * Configures Netty {@link ChannelPipeline} to serve HTTP/1 and 2 requests.
+ * Configures Netty {@link ChannelPipeline} to serve HTTP/1, 2 and 3 requests.
  */
 final class HttpServerPipelineConfigurator extends ChannelInitializer<Channel> {
 
@@ -171,6 +174,9 @@ final class HttpServerPipelineConfigurator extends ChannelInitializer<Channel> {
                 case HTTPS:
                     configureHttps(p, proxiedAddresses);
                     break;
+                case H3:
+                    configureHttp3(p);
+                    break;
                 default:
                     // Should never reach here.
                     throw new Error();
@@ -224,6 +230,22 @@ final class HttpServerPipelineConfigurator extends ChannelInitializer<Channel> {
         p.addLast(httpServerHandler);
     }
 
+    private void configureHttp3(ChannelPipeline p) {
+        // A request stream of an HTTP/3 connection carries exactly one exchange, which has been converted
+        // into HTTP/1 objects by the HTTP/3 transport. Handle it in the same way as an HTTP/1 connection.
+        // The idle timeout and the graceful shutdown of the connection are managed by the transport.
+        final Channel ch = p.channel();
+        final ServerHttp1ObjectEncoder responseEncoder = new ServerHttp1ObjectEncoder(
+                ch, H3, new NoopKeepAliveHandler(), Http1HeaderNaming.ofDefault());
+        final HttpServerHandler httpServerHandler = new HttpServerHandler(config,
+                                                                          gracefulShutdownSupport,
+                                                                          responseEncoder,
+                                                                          H3, null);
+        p.addLast(Http3RequestConverter.INSTANCE);
+        p.addLast(new Http1RequestDecoder(config, ch, SCHEME_HTTPS, H3, responseEncoder, httpServerHandler));
+        p.addLast(httpServerHandler);
+    }
+
     private Timer newKeepAliveTimer(SessionProtocol protocol) {
         return MoreMeters.newTimer(config.meterRegistry(), "armeria.server.connections.lifespan",
                                    ImmutableList.of(Tag.of("protocol", protocol.uriText())));
@@ -238,16 +260,32 @@ final class HttpServerPipelineConfigurator extends ChannelInitializer<Channel> {
     private SniHandler newSniHandler(ChannelPipeline p) {
         final Mapping<String, SslContext> sslContexts =
                 requireNonNull(config.sslContextMapping(), "config.sslContextMapping() returned null");
-        final SniHandler sniHandler = new SniHandler(sslContexts, Flags.defaultMaxClientHelloLength(),
-                                                     config.idleTimeoutMillis());
-        if (sslContexts instanceof TlsProviderMapping) {
-            p.channel().closeFuture().addListener(future -> {
-                final SslContext sslContext = sniHandler.sslContext();
-                if (sslContext != null) {
-                    ((TlsProviderMapping) sslContexts).release(sslContext);
+        if (!(sslContexts instanceof TlsProviderMapping)) {
+            return new SniHandler(sslContexts, Flags.defaultMaxClientHelloLength(),
+                                  config.idleTimeoutMillis());
+        }
+
+        // Look up the SslContext asynchronously so that loading a TlsKeyPair or building a new SslContext
+        // does not block the event loop.
+        final TlsProviderMapping tlsProviderMapping = (TlsProviderMapping) sslContexts;
+        final Channel ch = p.channel();
+        final AsyncMapping<String, SslContext> asyncMapping = (hostname, promise) -> {
+            promise.addListener(future -> {
+                if (future.isSuccess() && !ch.isOpen()) {
+                    // The channel was closed before the lookup is done.
+                    tlsProviderMapping.release((SslContext) future.getNow());
                 }
             });
-        }
+            return tlsProviderMapping.map(hostname, promise);
+        };
+        final SniHandler sniHandler = new SniHandler(asyncMapping, Flags.defaultMaxClientHelloLength(),
+                                                     config.idleTimeoutMillis());
+        ch.closeFuture().addListener(future -> {
+            final SslContext sslContext = sniHandler.sslContext();
+            if (sslContext != null) {
+                tlsProviderMapping.release(sslContext);
+            }
+        });
         return sniHandler;
     }
 
@@ -31,10 +31,12 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
@@ -46,6 +48,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.net.ssl.SSLSession;
 
@@ -59,16 +62,15 @@ import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.errorprone.annotations.concurrent.GuardedBy;
 import com.spotify.futures.CompletableFutures;
 
-import com.linecorp.armeria.common.Flags;
 import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.metric.MeterIdPrefix;
 import com.linecorp.armeria.common.metric.MoreMeterBinders;
 import com.linecorp.armeria.common.util.DomainSocketAddress;
-import com.linecorp.armeria.common.util.EventLoopGroups;
 import com.linecorp.armeria.common.util.Exceptions;
 import com.linecorp.armeria.common.util.ListenableAsyncCloseable;
 import com.linecorp.armeria.common.util.ShutdownHooks;
@@ -79,19 +81,23 @@ import com.linecorp.armeria.common.util.Version;
 import com.linecorp.armeria.internal.common.RequestTargetCache;
 import com.linecorp.armeria.internal.common.util.ChannelUtil;
 import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
+import com.linecorp.armeria.internal.server.Http3ServerTransport;
 import com.linecorp.armeria.server.websocket.WebSocketService;
 
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
+import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPromise;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.ServerChannel;
+import io.netty.channel.socket.DatagramChannel;
 import io.netty.channel.socket.ServerSocketChannel;
 import io.netty.handler.ssl.SslContext;
 import io.netty.util.concurrent.FastThreadLocalThread;
@@ -107,6 +113,11 @@ public final class Server implements ListenableAsyncCloseable {
 
     static final Logger logger = LoggerFactory.getLogger(Server.class);
 
+    @Nullable
+    private static final Http3ServerTransport http3ServerTransport =
+            Iterables.getFirst(ServiceLoader.load(Http3ServerTransport.class, Server.class.getClassLoader()),
+                               null);
+
     /**
      * Creates a new {@link ServerBuilder}.
      */
@@ -116,10 +127,14 @@ public final class Server implements ListenableAsyncCloseable {
 
     private final UpdatableServerConfig config;
     private final StartStopSupport<Void, Void, Void, ServerListener> startStop;
-    private final Set<ServerChannel> serverChannels = new NonBlockingHashSet<>();
+    private final Set<Channel> serverChannels = new NonBlockingHashSet<>();
     private final ReentrantLock lock = new ReentrantShortLock();
     @GuardedBy("lock")
     private final Map<InetSocketAddress, ServerPort> activePorts = new LinkedHashMap<>();
+    // HTTP/3 ports are kept separately because they may have the same address with a TCP port.
+    @GuardedBy("lock")
+    private final Map<InetSocketAddress, ServerPort> activeHttp3Ports = new LinkedHashMap<>();
+    private final List<Http3ServerTransport.CodecFactory> http3CodecFactories = new CopyOnWriteArrayList<>();
     private final ConnectionLimitingHandler connectionLimitingHandler;
     private boolean hasWebSocketService;
 
@@ -176,7 +191,9 @@ public final class Server implements ListenableAsyncCloseable {
     }
 
     /**
-     * Returns all {@link ServerPort}s that this {@link Server} is listening to.
+     * Returns all {@link ServerPort}s that this {@link Server} is listening to. Note that an HTTP/3
+     * {@link ServerPort} is not returned if it has the same bind address with a TCP {@link ServerPort}.
+     * Use {@link #activePort(SessionProtocol)} with {@link SessionProtocol#H3} to get it.
      *
      * @return a {@link Map} whose key is the bind address and value is {@link ServerPort}.
      *         an empty {@link Map} if this {@link Server} did not start.
@@ -186,7 +203,9 @@ public final class Server implements ListenableAsyncCloseable {
     public Map<InetSocketAddress, ServerPort> activePorts() {
         lock.lock();
         try {
-            return Collections.unmodifiableMap(new LinkedHashMap<>(activePorts));
+            final Map<InetSocketAddress, ServerPort> ports = new LinkedHashMap<>(activePorts);
+            activeHttp3Ports.forEach(ports::putIfAbsent);
+            return Collections.unmodifiableMap(ports);
         } finally {
             lock.unlock();
         }
@@ -221,7 +240,7 @@ public final class Server implements ListenableAsyncCloseable {
         ServerPort candidate = null;
         lock.lock();
         try {
-            for (ServerPort serverPort : activePorts.values()) {
+            for (ServerPort serverPort : Iterables.concat(activePorts.values(), activeHttp3Ports.values())) {
                 if (protocol == null || serverPort.hasProtocol(protocol)) {
                     if (!isLocalPort(serverPort)) {
                         return serverPort;
@@ -259,16 +278,16 @@ public final class Server implements ListenableAsyncCloseable {
     private int activeLocalPort0(@Nullable SessionProtocol protocol) {
         lock.lock();
         try {
-            return activePorts.values().stream()
-                              .filter(activePort -> (protocol == null || activePort.hasProtocol(protocol)) &&
-                                                    isLocalPort(activePort))
-                              .findFirst()
-                              .orElseThrow(() -> new IllegalStateException(
-                                      (protocol == null ? "no active local ports: "
-                                                        : ("no active local ports for " + protocol + ": ")) +
-                                      activePorts.values()))
-                              .localAddress()
-                              .getPort();
+            return Stream.concat(activePorts.values().stream(), activeHttp3Ports.values().stream())
+                         .filter(activePort -> (protocol == null || activePort.hasProtocol(protocol)) &&
+                                               isLocalPort(activePort))
+                         .findFirst()
+                         .orElseThrow(() -> new IllegalStateException(
+                                 (protocol == null ? "no active local ports: "
+                                                   : ("no active local ports for " + protocol + ": ")) +
+                                 activePorts().values()))
+                         .localAddress()
+                         .getPort();
         } finally {
             lock.unlock();
         }
@@ -529,6 +548,10 @@ public final class Server implements ListenableAsyncCloseable {
         }
 
         private ChannelFuture doStart(ServerPort port) {
+            if (port.hasHttp3()) {
+                return doStartHttp3(port);
+            }
+
             final ServerBootstrap b = new ServerBootstrap();
             serverBootstrap = b;
             config.channelOptions().forEach((k, v) -> {
@@ -544,7 +567,10 @@ public final class Server implements ListenableAsyncCloseable {
                 }
             });
 
-            final EventLoopGroup bossGroup = EventLoopGroups.newEventLoopGroup(1, r -> {
+            // Use the transport of the worker group so that the transport can be chosen per server
+            // via ServerBuilder.workerGroup().
+            final TransportType transportType = ChannelUtil.transportType(config.workerGroup());
+            final EventLoopGroup bossGroup = transportType.newEventLoopGroup(1, unused -> r -> {
                 final FastThreadLocalThread thread = new FastThreadLocalThread(r, bossThreadName(port));
                 thread.setDaemon(false);
                 return thread;
@@ -560,7 +586,6 @@ public final class Server implements ListenableAsyncCloseable {
 
             final SocketAddress localAddress;
             final Class<? extends ServerChannel> channelType;
-            final TransportType transportType = Flags.transportType();
             if (port.isDomainSocket()) {
                 if (transportType.supportsDomainSockets()) {
                     // Convert to Netty's DomainSocketAddress type.
@@ -580,6 +605,86 @@ public final class Server implements ListenableAsyncCloseable {
             return b.bind(localAddress);
         }
 
+        private ChannelFuture doStartHttp3(ServerPort port) {
+            final Http3ServerTransport transport = http3ServerTransport;
+            if (transport == null) {
+                throw new IllegalStateException(
+                        "HTTP/3 transport is not available. Add the 'com.linecorp.armeria:armeria-http3' " +
+                        "module to the class path to serve " + port);
+            }
+
+            // Validated by ServerBuilder.
+            assert config.sslContextMapping() instanceof TlsProviderMapping;
+            final TlsProviderMapping tlsProviderMapping = (TlsProviderMapping) config.sslContextMapping();
+            final GracefulShutdownSupport gracefulShutdownSupport = this.gracefulShutdownSupport;
+            assert gracefulShutdownSupport != null;
+
+            final Http3ServerTransport.CodecFactory codecFactory = transport.newCodecFactory(
+                    config, tlsProviderMapping.tlsProvider(), tlsProviderMapping.tlsConfig(),
+                    new HttpServerPipelineConfigurator(config, port, gracefulShutdownSupport, false));
+            http3CodecFactories.add(codecFactory);
+
+            // All QUIC connections of a UDP socket and their streams are handled by the event loop of
+            // the socket. Bind a socket per worker event loop with SO_REUSEPORT, so that the kernel
+            // distributes the connections across the worker event loops. Without SO_REUSEPORT, only one
+            // socket can be bound to the port.
+            final EventLoopGroup workerGroup = config.workerGroup();
+            final ChannelOption<Boolean> reusePortOption =
+                    ChannelUtil.reusePortOption(ChannelUtil.transportType(workerGroup));
+            final List<EventLoop> eventLoops;
+            if (reusePortOption != null) {
+                eventLoops = ImmutableList.copyOf(Iterables.transform(workerGroup, EventLoop.class::cast));
+            } else {
+                eventLoops = ImmutableList.of(workerGroup.next());
+            }
+
+            final ChannelFuture primaryFuture =
+                    bindHttp3(codecFactory, eventLoops.get(0), port.localAddress(), reusePortOption);
+            if (eventLoops.size() == 1) {
+                return primaryFuture;
+            }
+
+            final ChannelPromise promise = primaryFuture.channel().newPromise();
+            primaryFuture.addListener((ChannelFutureListener) f -> {
+                if (!f.isSuccess()) {
+                    promise.setFailure(f.cause());
+                    return;
+                }
+
+                // Bind the other sockets to the actual port of the primary socket, which differs from
+                // the requested one if it is an ephemeral port.
+                final SocketAddress localAddress = f.channel().localAddress();
+                final List<EventLoop> otherEventLoops = eventLoops.subList(1, eventLoops.size());
+                final AtomicInteger remaining = new AtomicInteger(otherEventLoops.size());
+                for (EventLoop eventLoop : otherEventLoops) {
+                    final ChannelFuture future =
+                            bindHttp3(codecFactory, eventLoop, localAddress, reusePortOption);
+                    serverChannels.add(future.channel());
+                    future.addListener((ChannelFutureListener) f2 -> {
+                        if (!f2.isSuccess()) {
+                            promise.tryFailure(f2.cause());
+                        } else if (remaining.decrementAndGet() == 0) {
+                            promise.trySuccess();
+                        }
+                    });
+                }
+            });
+            return promise;
+        }
+
+        private ChannelFuture bindHttp3(Http3ServerTransport.CodecFactory codecFactory, EventLoop eventLoop,
+                                        SocketAddress localAddress,
+                                        @Nullable ChannelOption<Boolean> reusePortOption) {
+            final Bootstrap b = new Bootstrap();
+            b.group(eventLoop);
+            b.channel(TransportType.datagramChannelType(eventLoop));
+            if (reusePortOption != null) {
+                b.option(reusePortOption, true);
+            }
+            b.handler(codecFactory.newCodec());
+            return b.bind(localAddress);
+        }
+
         private void setupServerMetrics() {
             final MeterRegistry meterRegistry = config.meterRegistry();
             final GracefulShutdownSupport gracefulShutdownSupport = this.gracefulShutdownSupport;
@@ -651,6 +756,7 @@ public final class Server implements ListenableAsyncCloseable {
                 lock.lock();
                 try {
                     activePorts.clear();
+                    activeHttp3Ports.clear();
                 } finally {
                     lock.unlock();
                 }
@@ -666,8 +772,10 @@ public final class Server implements ListenableAsyncCloseable {
                     }
 
                     workerShutdownFuture.addListener(unused5 -> {
+                        // The UDP sockets of HTTP/3 ports are registered to the worker group.
                         final Set<EventLoopGroup> bossGroups =
                                 Server.this.serverChannels.stream()
+                                                          .filter(ch -> !(ch instanceof DatagramChannel))
                                                           .map(ch -> ch.eventLoop().parent())
                                                           .collect(toImmutableSet());
 
@@ -703,6 +811,8 @@ public final class Server implements ListenableAsyncCloseable {
 
         private void finishDoStop(CompletableFuture<Void> future) {
             serverChannels.clear();
+            http3CodecFactories.forEach(Http3ServerTransport.CodecFactory::close);
+            http3CodecFactories.clear();
 
             final Builder<ShutdownSupport> builder = ImmutableList.builder();
             builder.addAll(config.delegate().shutdownSupports());
@@ -777,7 +887,7 @@ public final class Server implements ListenableAsyncCloseable {
 
         @Override
         public void operationComplete(ChannelFuture f) {
-            final ServerChannel ch = (ServerChannel) f.channel();
+            final Channel ch = f.channel();
             assert ch.eventLoop().inEventLoop();
             serverChannels.add(ch);
 
@@ -800,13 +910,20 @@ public final class Server implements ListenableAsyncCloseable {
                     return;
                 }
 
-                // Update the boss thread so its name contains the actual port.
-                Thread.currentThread().setName(bossThreadName(actualPort));
+                if (!actualPort.hasHttp3()) {
+                    // Update the boss thread so its name contains the actual port.
+                    // An HTTP/3 port has no boss thread because it is bound to the worker group.
+                    Thread.currentThread().setName(bossThreadName(actualPort));
+                }
 
                 lock.lock();
                 try {
                     // Update the map of active ports.
-                    activePorts.put(actualPort.localAddress(), actualPort);
+                    if (actualPort.hasHttp3()) {
+                        activeHttp3Ports.put(actualPort.localAddress(), actualPort);
+                    } else {
+                        activePorts.put(actualPort.localAddress(), actualPort);
+                    }
                 } finally {
                     lock.unlock();
                 }
@@ -20,6 +20,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.linecorp.armeria.common.SessionProtocol.H3;
 import static com.linecorp.armeria.common.SessionProtocol.HTTP;
 import static com.linecorp.armeria.common.SessionProtocol.HTTPS;
 import static com.linecorp.armeria.common.SessionProtocol.PROXY;
@@ -352,6 +353,9 @@ public final class ServerBuilder implements TlsSetters, ServiceConfigsBuilder<Se
      * sb.port(8443,
      *         SessionProtocol.PROXY,
      *         SessionProtocol.HTTPS);
+     * // Serve HTTP/3 at UDP port 8443. Requires the 'armeria-http3' module and
+     * // a TlsProvider set via tlsProvider().
+     * sb.port(8443, SessionProtocol.H3);
      * }</pre>
      */
     public ServerBuilder port(int port, SessionProtocol... protocols) {
@@ -2367,6 +2371,14 @@ public final class ServerBuilder implements TlsSetters, ServiceConfigsBuilder<Se
                 ports = ImmutableList.of(new ServerPort(0, HTTPS));
             }
 
+            for (final ServerPort p : ports) {
+                if (p.hasHttp3()) {
+                    // A QUIC TLS context is built from the key pairs of a TlsProvider.
+                    checkState(tlsProvider != null, "%s requires a %s; cannot serve %s at %s",
+                               H3, TlsProvider.class.getSimpleName(), H3, p.localAddress());
+                }
+            }
+
             if (defaultSslContext != null) {
                 final DomainMappingBuilder<SslContext>
                         mappingBuilder = new DomainMappingBuilder<>(defaultSslContext);
@@ -2386,7 +2398,8 @@ public final class ServerBuilder implements TlsSetters, ServiceConfigsBuilder<Se
                 final TlsEngineType tlsEngineType = defaultVirtualHost.tlsEngineType();
                 assert tlsEngineType != null;
                 assert tlsProvider != null;
-                sslContexts = new TlsProviderMapping(tlsProvider, tlsEngineType, tlsConfig, meterRegistry);
+                sslContexts = new TlsProviderMapping(tlsProvider, tlsEngineType, tlsConfig, meterRegistry,
+                                                     defaultVirtualHost.blockingTaskExecutor());
             }
         }
         if (pingIntervalMillis > 0) {
@@ -2405,7 +2418,8 @@ public final class ServerBuilder implements TlsSetters, ServiceConfigsBuilder<Se
 
         final Map<ChannelOption<?>, Object> newChildChannelOptions =
                 ChannelUtil.applyDefaultChannelOptions(
-                        childChannelOptions, idleTimeoutMillis, pingIntervalMillis);
+                        ChannelUtil.transportType(workerGroup), childChannelOptions,
+                        idleTimeoutMillis, pingIntervalMillis);
         final BlockingTaskExecutor blockingTaskExecutor = defaultVirtualHost.blockingTaskExecutor();
 
         return new DefaultServerConfig(
@@ -2460,7 +2474,8 @@ public final class ServerBuilder implements TlsSetters, ServiceConfigsBuilder<Se
                     }
 
                     // Merge two `ServerPort`s into one if their addresses are equal.
-                    if (hasSameAddress) {
+                    // An HTTP/3 port is never merged because it is bound to a UDP socket.
+                    if (hasSameAddress && !port.hasHttp3() && !distinctPort.hasHttp3()) {
                         final ServerPort merged =
                                 new ServerPort(distinctPort.localAddress(),
                                                Sets.union(distinctPort.protocols(), port.protocols()));
@@ -36,9 +36,11 @@ public final class ServerMetrics implements MeterBinder {
 
     private final LongAdder pendingHttp1Requests = new LongAdder();
     private final LongAdder pendingHttp2Requests = new LongAdder();
+    private final LongAdder pendingHttp3Requests = new LongAdder();
     private final LongAdder activeHttp1WebSocketRequests = new LongAdder();
     private final LongAdder activeHttp1Requests = new LongAdder();
     private final LongAdder activeHttp2Requests = new LongAdder();
+    private final LongAdder activeHttp3Requests = new LongAdder();
 
     /**
      * AtomicInteger is used to read the number of active connections frequently.
@@ -51,7 +53,7 @@ public final class ServerMetrics implements MeterBinder {
      * Returns the number of all pending requests.
      */
     public long pendingRequests() {
-        return pendingHttp1Requests() + pendingHttp2Requests();
+        return pendingHttp1Requests() + pendingHttp2Requests() + pendingHttp3Requests();
     }
 
     /**
@@ -68,13 +70,21 @@ public final class ServerMetrics implements MeterBinder {
         return pendingHttp2Requests.longValue();
     }
 
+    /**
+     * Returns the number of pending http3 requests.
+     */
+    public long pendingHttp3Requests() {
+        return pendingHttp3Requests.longValue();
+    }
+
     /**
      * Returns the number of all active requests.
      */
     public long activeRequests() {
         return activeHttp1WebSocketRequests() +
                activeHttp1Requests() +
-               activeHttp2Requests();
+               activeHttp2Requests() +
+               activeHttp3Requests();
     }
 
     /**
@@ -98,6 +108,13 @@ public final class ServerMetrics implements MeterBinder {
         return activeHttp2Requests.longValue();
     }
 
+    /**
+     * Returns the number of active http3 requests.
+     */
+    public long activeHttp3Requests() {
+        return activeHttp3Requests.longValue();
+    }
+
     /**
      * Returns the number of open connections.
      */
@@ -121,6 +138,14 @@ public final class ServerMetrics implements MeterBinder {
         pendingHttp2Requests.decrement();
     }
 
+    void increasePendingHttp3Requests() {
+        pendingHttp3Requests.increment();
+    }
+
+    void decreasePendingHttp3Requests() {
+        pendingHttp3Requests.decrement();
+    }
+
     void increaseActiveHttp1Requests() {
         activeHttp1Requests.increment();
     }
@@ -145,6 +170,14 @@ public final class ServerMetrics implements MeterBinder {
         activeHttp2Requests.decrement();
     }
 
+    void increaseActiveHttp3Requests() {
+        activeHttp3Requests.increment();
+    }
+
+    void decreaseActiveHttp3Requests() {
+        activeHttp3Requests.decrement();
+    }
+
     int increaseActiveConnectionsAndGet() {
         return activeConnections.incrementAndGet();
     }
@@ -164,6 +197,9 @@ public final class ServerMetrics implements MeterBinder {
         meterRegistry.gauge(allRequestsMeterName,
                             ImmutableList.of(Tag.of("protocol", "http2"), Tag.of("state", "pending")),
                             pendingHttp2Requests);
+        meterRegistry.gauge(allRequestsMeterName,
+                            ImmutableList.of(Tag.of("protocol", "http3"), Tag.of("state", "pending")),
+                            pendingHttp3Requests);
         // Active requests
         meterRegistry.gauge(allRequestsMeterName,
                             ImmutableList.of(Tag.of("protocol", "http1"), Tag.of("state", "active")),
@@ -171,6 +207,9 @@ public final class ServerMetrics implements MeterBinder {
         meterRegistry.gauge(allRequestsMeterName,
                             ImmutableList.of(Tag.of("protocol", "http2"), Tag.of("state", "active")),
                             activeHttp2Requests);
+        meterRegistry.gauge(allRequestsMeterName,
+                            ImmutableList.of(Tag.of("protocol", "http3"), Tag.of("state", "active")),
+                            activeHttp3Requests);
         meterRegistry.gauge(allRequestsMeterName,
                             ImmutableList.of(Tag.of("protocol", "http1.websocket"), Tag.of("state", "active")),
                             activeHttp1WebSocketRequests);
@@ -184,6 +223,8 @@ public final class ServerMetrics implements MeterBinder {
                           .add("activeHttp1Requests", activeHttp1Requests)
                           .add("pendingHttp2Requests", pendingHttp2Requests)
                           .add("activeHttp2Requests", activeHttp2Requests)
+                          .add("pendingHttp3Requests", pendingHttp3Requests)
+                          .add("activeHttp3Requests", activeHttp3Requests)
                           .add("activeConnections", activeConnections)
                           .toString();
     }
@@ -17,6 +17,7 @@
 package com.linecorp.armeria.server;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.linecorp.armeria.common.SessionProtocol.H3;
 import static com.linecorp.armeria.common.SessionProtocol.HTTP;
 import static com.linecorp.armeria.common.SessionProtocol.HTTPS;
 import static com.linecorp.armeria.common.SessionProtocol.PROXY;
@@ -125,6 +126,8 @@ public final class ServerPort implements Comparable<ServerPort> {
         this.localAddress = localAddress;
         this.protocols = checkProtocols(protocols);
         this.portGroup = portGroup;
+        checkArgument(!(localAddress instanceof DomainSocketAddress) || !this.protocols.contains(H3),
+                      "localAddress: %s (%s cannot be served via a Unix domain socket)", localAddress, H3);
 
         if (localAddress instanceof DomainSocketAddress) {
             comparisonStr = ((DomainSocketAddress) localAddress).authority() + '/' + protocols;
@@ -138,6 +141,12 @@ public final class ServerPort implements Comparable<ServerPort> {
         final Set<SessionProtocol> copy = Sets.immutableEnumSet(requireNonNull(protocols, "protocols"));
         checkArgument(!copy.isEmpty(),
                       "protocols: %s (must not be empty)", copy);
+        if (copy.contains(H3)) {
+            // HTTP/3 is served over UDP, so it cannot share a port with the TCP-based protocols.
+            checkArgument(copy.size() == 1,
+                          "protocols: %s (%s must not be mixed with other protocols)", copy, H3);
+            return copy;
+        }
         checkArgument(copy.contains(HTTP) || copy.contains(HTTPS),
                       "protocols: %s (must contain HTTP or HTTPS)", copy);
         checkArgument(copy.stream().allMatch(p -> p == HTTP || p == HTTPS || p == PROXY),
@@ -197,6 +206,15 @@ public final class ServerPort implements Comparable<ServerPort> {
         return hasExactProtocol(PROXY);
     }
 
+    /**
+     * Returns whether the {@link SessionProtocol#H3} is in the list of {@link SessionProtocol}s.
+     * A {@link ServerPort} with {@link SessionProtocol#H3} is bound to a UDP socket.
+     */
+    @UnstableApi
+    public boolean hasHttp3() {
+        return hasExactProtocol(H3);
+    }
+
     /**
      * Returns whether the specified {@code protocol} is in the list of {@link SessionProtocol}s.
      */
@@ -27,6 +27,7 @@ import com.linecorp.armeria.common.annotation.UnstableApi;
 import com.linecorp.armeria.common.metric.MeterIdPrefix;
 
 import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 
 /**
@@ -43,11 +44,14 @@ public final class ServerTlsConfig extends AbstractTlsConfig {
     }
 
     private final ClientAuth clientAuth;
+    private final int maxIdleSslContexts;
 
     ServerTlsConfig(boolean allowsUnsafeCiphers, @Nullable MeterIdPrefix meterIdPrefix,
-                    ClientAuth clientAuth, Consumer<SslContextBuilder> tlsCustomizer) {
+                    ClientAuth clientAuth, Consumer<SslContextBuilder> tlsCustomizer,
+                    int maxIdleSslContexts) {
         super(allowsUnsafeCiphers, meterIdPrefix, tlsCustomizer);
         this.clientAuth = clientAuth;
+        this.maxIdleSslContexts = maxIdleSslContexts;
     }
 
     /**
@@ -57,6 +61,14 @@ public final class ServerTlsConfig extends AbstractTlsConfig {
         return clientAuth;
     }
 
+    /**
+     * Returns the maximum number of {@link SslContext}s which are kept in the cache after all connections
+     * using them are closed.
+     */
+    public int maxIdleSslContexts() {
+        return maxIdleSslContexts;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
@@ -64,6 +76,7 @@ public final class ServerTlsConfig extends AbstractTlsConfig {
                           .add("allowsUnsafeCiphers", allowsUnsafeCiphers())
                           .add("meterIdPrefix", meterIdPrefix())
                           .add("clientAuth", clientAuth)
+                          .add("maxIdleSslContexts", maxIdleSslContexts)
                           .add("tlsCustomizer", tlsCustomizer())
                           .toString();
     }
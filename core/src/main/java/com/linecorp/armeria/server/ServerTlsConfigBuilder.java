@@ -16,6 +16,7 @@
 
 package com.linecorp.armeria.server;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 import com.linecorp.armeria.common.AbstractTlsConfigBuilder;
@@ -23,6 +24,7 @@ import com.linecorp.armeria.common.TlsProvider;
 import com.linecorp.armeria.common.annotation.UnstableApi;
 
 import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.SslContext;
 
 /**
  * A builder class for creating a {@link TlsProvider} that provides server-side TLS.
@@ -31,6 +33,7 @@ import io.netty.handler.ssl.ClientAuth;
 public final class ServerTlsConfigBuilder extends AbstractTlsConfigBuilder<ServerTlsConfigBuilder> {
 
     private ClientAuth clientAuth = ClientAuth.NONE;
+    private int maxIdleSslContexts;
 
     ServerTlsConfigBuilder() {}
 
@@ -42,10 +45,25 @@ public final class ServerTlsConfigBuilder extends AbstractTlsConfigBuilder<Serve
         return this;
     }
 
+    /**
+     * Sets the maximum number of {@link SslContext}s which are kept in the cache after all connections
+     * using them are closed. When the limit is exceeded, the least recently used {@link SslContext} is
+     * evicted. Caching idle {@link SslContext}s avoids rebuilding them for a hostname whose connections
+     * come and go, which is useful when a {@link TlsProvider} serves many hostnames.
+     * {@code 0} disables the cache, which is the default.
+     */
+    public ServerTlsConfigBuilder maxIdleSslContexts(int maxIdleSslContexts) {
+        checkArgument(maxIdleSslContexts >= 0, "maxIdleSslContexts: %s (expected: >= 0)",
+                      maxIdleSslContexts);
+        this.maxIdleSslContexts = maxIdleSslContexts;
+        return this;
+    }
+
     /**
      * Returns a newly-created {@link ServerTlsConfig} based on the properties of this builder.
      */
     public ServerTlsConfig build() {
-        return new ServerTlsConfig(allowsUnsafeCiphers(), meterIdPrefix(), clientAuth, tlsCustomizer());
+        return new ServerTlsConfig(allowsUnsafeCiphers(), meterIdPrefix(), clientAuth, tlsCustomizer(),
+                                   maxIdleSslContexts);
     }
 }
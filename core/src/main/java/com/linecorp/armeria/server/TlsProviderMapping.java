@@ -16,33 +16,75 @@
 
 package com.linecorp.armeria.server;
 
+import java.util.concurrent.Executor;
+
 import com.linecorp.armeria.common.TlsProvider;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.util.TlsEngineType;
 import com.linecorp.armeria.internal.common.SslContextFactory;
+import com.linecorp.armeria.internal.common.SslContextFactory.SslContextMode;
 import com.linecorp.armeria.internal.common.TlsProviderUtil;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.handler.ssl.SslContext;
+import io.netty.util.AsyncMapping;
 import io.netty.util.Mapping;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
 
-final class TlsProviderMapping implements Mapping<String, SslContext> {
+final class TlsProviderMapping implements Mapping<String, SslContext>, AsyncMapping<String, SslContext> {
 
+    private final TlsProvider tlsProvider;
+    @Nullable
+    private final ServerTlsConfig tlsConfig;
     private final SslContextFactory sslContextFactory;
+    private final Executor blockingTaskExecutor;
 
     TlsProviderMapping(TlsProvider tlsProvider, TlsEngineType tlsEngineType,
-                       @Nullable ServerTlsConfig tlsConfig, MeterRegistry meterRegistry) {
-        sslContextFactory = new SslContextFactory(tlsProvider, tlsEngineType, tlsConfig, meterRegistry);
+                       @Nullable ServerTlsConfig tlsConfig, MeterRegistry meterRegistry,
+                       Executor blockingTaskExecutor) {
+        this.tlsProvider = tlsProvider;
+        this.tlsConfig = tlsConfig;
+        final int maxIdleSslContexts = tlsConfig != null ? tlsConfig.maxIdleSslContexts() : 0;
+        sslContextFactory = new SslContextFactory(tlsProvider, tlsEngineType, tlsConfig, meterRegistry,
+                                                  maxIdleSslContexts);
+        this.blockingTaskExecutor = blockingTaskExecutor;
+    }
+
+    TlsProvider tlsProvider() {
+        return tlsProvider;
+    }
+
+    @Nullable
+    ServerTlsConfig tlsConfig() {
+        return tlsConfig;
     }
 
     @Override
     public SslContext map(@Nullable String hostname) {
+        return sslContextFactory.getOrCreate(SslContextMode.SERVER, normalize(hostname));
+    }
+
+    @Override
+    public Future<SslContext> map(@Nullable String hostname, Promise<SslContext> promise) {
+        sslContextFactory.getOrCreateAsync(SslContextMode.SERVER, normalize(hostname), blockingTaskExecutor)
+                         .handle((sslContext, cause) -> {
+                             if (cause != null) {
+                                 promise.tryFailure(cause);
+                             } else if (!promise.trySuccess(sslContext)) {
+                                 // The promise has been cancelled.
+                                 release(sslContext);
+                             }
+                             return null;
+                         });
+        return promise;
+    }
+
+    private static String normalize(@Nullable String hostname) {
         if (hostname == null) {
-            hostname = "*";
-        } else {
-            hostname = TlsProviderUtil.normalizeHostname(hostname);
+            return "*";
         }
-        return sslContextFactory.getOrCreate(SslContextFactory.SslContextMode.SERVER, hostname);
+        return TlsProviderUtil.normalizeHostname(hostname);
     }
 
     void release(SslContext sslContext) {
@@ -0,0 +1,423 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.streaming;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpResponseWriter;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.sse.ServerSentEvent;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+
+/**
+ * A hub which broadcasts <a href="https://www.w3.org/TR/eventsource/">Server-Sent Events</a> to many
+ * clients. Unlike {@link ServerSentEvents#fromPublisher(org.reactivestreams.Publisher)}, a published
+ * {@link ServerSentEvent} is encoded only once into a reference-counted {@link ByteBuf} which is shared by
+ * the responses of all subscribers.
+ * <pre>{@code
+ * ServerSentEventHub hub = ServerSentEventHub.builder()
+ *                                            .maxQueuedEvents(256)
+ *                                            .replayBufferSize(1024)
+ *                                            .build();
+ * Server.builder()
+ *       .service("/events", (ctx, req) -> {
+ *           // Keep the connection open as long as the client wants.
+ *           ctx.clearRequestTimeout();
+ *           return hub.newResponse(req.headers());
+ *       })
+ *       ...
+ *
+ * // Broadcast an event to all subscribers.
+ * hub.publish(ServerSentEvent.builder().id("1").data("foo").build());
+ * }</pre>
+ *
+ * <p>Each subscriber has its own bounded queue. A subscriber which does not consume the events fast enough
+ * to keep its queue under {@link ServerSentEventHubBuilder#maxQueuedEvents(int)} is evicted by closing its
+ * response. The recently published events are kept in a ring buffer, so that a reconnecting client
+ * that sends a {@code Last-Event-ID} header receives the events it missed.
+ */
+@UnstableApi
+public final class ServerSentEventHub implements SafeCloseable {
+
+    private static final ResponseHeaders defaultHttpHeaders =
+            ResponseHeaders.builder(HttpStatus.OK)
+                           .contentType(MediaType.EVENT_STREAM)
+                           .build();
+
+    private static final Subscriber[] EMPTY_SUBSCRIBERS = new Subscriber[0];
+
+    /**
+     * Returns a new {@link ServerSentEventHub} with the default options.
+     */
+    public static ServerSentEventHub of() {
+        return builder().build();
+    }
+
+    /**
+     * Returns a new {@link ServerSentEventHubBuilder}.
+     */
+    public static ServerSentEventHubBuilder builder() {
+        return new ServerSentEventHubBuilder();
+    }
+
+    private final ReentrantLock lock = new ReentrantShortLock();
+    private final int maxQueuedEvents;
+    private final int replayBufferSize;
+    private final ByteBufAllocator alloc;
+
+    // Guarded by 'lock'.
+    private final Set<Subscriber> subscribers = new HashSet<>();
+    private final ArrayDeque<EncodedEvent> replayBuffer = new ArrayDeque<>();
+    private boolean closed;
+
+    ServerSentEventHub(int maxQueuedEvents, int replayBufferSize, ByteBufAllocator alloc) {
+        this.maxQueuedEvents = maxQueuedEvents;
+        this.replayBufferSize = replayBufferSize;
+        this.alloc = alloc;
+    }
+
+    /**
+     * Publishes the specified {@link ServerSentEvent} to all subscribers. The {@link ServerSentEvent} is
+     * dropped if this hub is closed. The events published by a single thread are received in the order of
+     * publication, but the events published concurrently by different threads may be received in any order.
+     */
+    public void publish(ServerSentEvent event) {
+        requireNonNull(event, "event");
+        final String encoded = ServerSentEvents.encode(event);
+        if (encoded.isEmpty()) {
+            return;
+        }
+
+        final ByteBuf content = ByteBufUtil.writeUtf8(alloc, encoded);
+        final Subscriber[] targets;
+        lock.lock();
+        try {
+            if (closed) {
+                content.release();
+                return;
+            }
+
+            // Offer the event outside the lock so that a subscriber does not block the publishers.
+            targets = subscribers.toArray(EMPTY_SUBSCRIBERS);
+            if (targets.length > 0) {
+                content.retain(targets.length);
+            }
+
+            if (replayBufferSize > 0) {
+                if (replayBuffer.size() == replayBufferSize) {
+                    replayBuffer.removeFirst().content.release();
+                }
+                replayBuffer.addLast(new EncodedEvent(event.id(), content));
+            } else {
+                content.release();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        List<Subscriber> evicted = null;
+        for (Subscriber subscriber : targets) {
+            if (!subscriber.offer(content.duplicate(), false)) {
+                if (evicted == null) {
+                    evicted = new ArrayList<>();
+                }
+                evicted.add(subscriber);
+            }
+        }
+
+        if (evicted != null) {
+            lock.lock();
+            try {
+                evicted.forEach(subscribers::remove);
+            } finally {
+                lock.unlock();
+            }
+            for (Subscriber subscriber : evicted) {
+                subscriber.close();
+            }
+        }
+    }
+
+    /**
+     * Returns a new {@link HttpResponse} which streams the {@link ServerSentEvent}s published after this
+     * method is invoked. If the specified {@link RequestHeaders} contain a {@code Last-Event-ID} header,
+     * the events published after the event with the ID are replayed first.
+     */
+    public HttpResponse newResponse(RequestHeaders headers) {
+        requireNonNull(headers, "headers");
+        return newResponse(headers.get(HttpHeaderNames.LAST_EVENT_ID));
+    }
+
+    /**
+     * Returns a new {@link HttpResponse} which streams the {@link ServerSentEvent}s published after this
+     * method is invoked. If {@code lastEventId} is not {@code null}, the events published after the event
+     * with the ID are replayed first. All events in the replay buffer are replayed if the event with
+     * the ID has been evicted from the replay buffer already.
+     */
+    public HttpResponse newResponse(@Nullable String lastEventId) {
+        final HttpResponseWriter writer = HttpResponse.streaming();
+        writer.write(defaultHttpHeaders);
+        final Subscriber subscriber = new Subscriber(writer, maxQueuedEvents);
+
+        lock.lock();
+        try {
+            if (closed) {
+                writer.close();
+                return writer;
+            }
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        // Write the replayed events, which were queued before the published ones.
+        subscriber.start();
+
+        writer.whenComplete().handle((unused, cause) -> {
+            lock.lock();
+            try {
+                subscribers.remove(subscriber);
+            } finally {
+                lock.unlock();
+            }
+            subscriber.close();
+            return null;
+        });
+        return writer;
+    }
+
+    private void replay(Subscriber subscriber, String lastEventId) {
+        boolean found = false;
+        for (EncodedEvent event : replayBuffer) {
+            if (lastEventId.equals(event.id)) {
+                found = true;
+                break;
+            }
+        }
+
+        boolean replaying = !found;
+        for (EncodedEvent event : replayBuffer) {
+            if (replaying) {
+                // The replayed events are bounded by the replay buffer, so do not evict the subscriber.
+                subscriber.offer(event.content.retainedDuplicate(), true);
+            } else if (lastEventId.equals(event.id)) {
+                replaying = true;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of the subscribers that currently receive the events from this hub.
+     */
+    public int numSubscribers() {
+        lock.lock();
+        try {
+            return subscribers.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes this hub and the responses of all subscribers. The events queued for the subscribers are
+     * written before the responses are closed.
+     */
+    @Override
+    public void close() {
+        final List<Subscriber> subscribers;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers = new ArrayList<>(this.subscribers);
+            this.subscribers.clear();
+            for (EncodedEvent event : replayBuffer) {
+                event.content.release();
+            }
+            replayBuffer.clear();
+        } finally {
+            lock.unlock();
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            subscriber.closeGracefully();
+        }
+    }
+
+    private static final class EncodedEvent {
+        @Nullable
+        private final String id;
+        private final ByteBuf content;
+
+        EncodedEvent(@Nullable String id, ByteBuf content) {
+            this.id = id;
+            this.content = content;
+        }
+    }
+
+    /**
+     * Writes the shared events to the response of a client. Only one event is written to
+     * the {@link HttpResponseWriter} at a time and the rest is kept in a bounded queue, so that
+     * the number of the events kept for a slow client is limited.
+     */
+    private static final class Subscriber {
+
+        private final ReentrantLock lock = new ReentrantShortLock();
+        private final HttpResponseWriter writer;
+        private final int maxQueuedEvents;
+
+        // Guarded by 'lock'.
+        private final ArrayDeque<ByteBuf> queue = new ArrayDeque<>();
+        // 'true' until 'start()' is invoked, so that the offered events are queued.
+        private boolean writing = true;
+        private boolean closed;
+
+        Subscriber(HttpResponseWriter writer, int maxQueuedEvents) {
+            this.writer = writer;
+            this.maxQueuedEvents = maxQueuedEvents;
+        }
+
+        /**
+         * Writes or enqueues the specified {@link ByteBuf}. Returns {@code false} if the queue is full and
+         * thus this subscriber has to be evicted.
+         */
+        boolean offer(ByteBuf content, boolean force) {
+            lock.lock();
+            try {
+                if (closed) {
+                    content.release();
+                    return true;
+                }
+                if (!writing) {
+                    write(content);
+                    return true;
+                }
+                if (!force && queue.size() >= maxQueuedEvents) {
+                    content.release();
+                    return false;
+                }
+                queue.addLast(content);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void write(ByteBuf content) {
+            if (!writer.tryWrite(HttpData.wrap(content))) {
+                // 'tryWrite()' released the content already.
+                return;
+            }
+            writing = true;
+            writer.whenConsumed().thenRun(this::onConsumed);
+        }
+
+        /**
+         * Starts to write the queued events.
+         */
+        void start() {
+            onConsumed();
+        }
+
+        private void onConsumed() {
+            lock.lock();
+            try {
+                writing = false;
+                if (closed) {
+                    return;
+                }
+                final ByteBuf next = queue.pollFirst();
+                if (next != null) {
+                    write(next);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Closes the response after writing the queued events.
+         */
+        void closeGracefully() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                for (;;) {
+                    final ByteBuf content = queue.pollFirst();
+                    if (content == null) {
+                        break;
+                    }
+                    // 'tryWrite()' releases the content if the response is closed already.
+                    final boolean ignored = writer.tryWrite(HttpData.wrap(content));
+                }
+            } finally {
+                lock.unlock();
+            }
+            writer.close();
+        }
+
+        /**
+         * Closes the response discarding the queued events.
+         */
+        void close() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                for (;;) {
+                    final ByteBuf content = queue.pollFirst();
+                    if (content == null) {
+                        break;
+                    }
+                    content.release();
+                }
+            } finally {
+                lock.unlock();
+            }
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.streaming;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.sse.ServerSentEvent;
+
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * A builder which creates a {@link ServerSentEventHub}.
+ */
+@UnstableApi
+public final class ServerSentEventHubBuilder {
+
+    static final int DEFAULT_MAX_QUEUED_EVENTS = 1024;
+    static final int DEFAULT_REPLAY_BUFFER_SIZE = 128;
+
+    private int maxQueuedEvents = DEFAULT_MAX_QUEUED_EVENTS;
+    private int replayBufferSize = DEFAULT_REPLAY_BUFFER_SIZE;
+    private ByteBufAllocator alloc = ByteBufAllocator.DEFAULT;
+
+    ServerSentEventHubBuilder() {}
+
+    /**
+     * Sets the maximum number of the {@link ServerSentEvent}s which are queued for a subscriber that
+     * has not consumed the previous events yet. A subscriber whose queue is full is evicted by closing
+     * its response. {@value #DEFAULT_MAX_QUEUED_EVENTS} is used by default.
+     */
+    public ServerSentEventHubBuilder maxQueuedEvents(int maxQueuedEvents) {
+        checkArgument(maxQueuedEvents > 0, "maxQueuedEvents: %s (expected: > 0)", maxQueuedEvents);
+        this.maxQueuedEvents = maxQueuedEvents;
+        return this;
+    }
+
+    /**
+     * Sets the number of the recently published {@link ServerSentEvent}s which are kept to be replayed to
+     * the clients which reconnect with a {@code Last-Event-ID} header. {@code 0} disables the replay.
+     * {@value #DEFAULT_REPLAY_BUFFER_SIZE} is used by default.
+     */
+    public ServerSentEventHubBuilder replayBufferSize(int replayBufferSize) {
+        checkArgument(replayBufferSize >= 0, "replayBufferSize: %s (expected: >= 0)", replayBufferSize);
+        this.replayBufferSize = replayBufferSize;
+        return this;
+    }
+
+    /**
+     * Sets the {@link ByteBufAllocator} which allocates the buffers of the encoded
+     * {@link ServerSentEvent}s. {@link ByteBufAllocator#DEFAULT} is used by default.
+     */
+    public ServerSentEventHubBuilder alloc(ByteBufAllocator alloc) {
+        this.alloc = requireNonNull(alloc, "alloc");
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link ServerSentEventHub} based on the properties of this builder.
+     */
+    public ServerSentEventHub build() {
+        return new ServerSentEventHub(maxQueuedEvents, replayBufferSize, alloc);
+    }
+}
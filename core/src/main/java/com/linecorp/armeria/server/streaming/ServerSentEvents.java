@@ -339,6 +339,15 @@ public final class ServerSentEvents {
     }
 
     private static HttpData toHttpData(ServerSentEvent sse) {
+        final String encoded = encode(sse);
+        return encoded.isEmpty() ? HttpData.empty() : HttpData.ofUtf8(encoded);
+    }
+
+    /**
+     * Encodes the specified {@link ServerSentEvent} into the wire format. An empty string is returned if
+     * the {@link ServerSentEvent} has no fields.
+     */
+    static String encode(ServerSentEvent sse) {
         final StringBuilder sb = new StringBuilder();
 
         // Write a comment first because a user might want to explain his or her event at first line.
@@ -368,8 +377,7 @@ public final class ServerSentEvents {
             sb.append("retry:").append(retry.toMillis()).append(LINE_FEED);
         }
 
-        return sb.length() == 0 ? HttpData.empty()
-                                : HttpData.ofUtf8(sb.append(LINE_FEED).toString());
+        return sb.length() == 0 ? "" : sb.append(LINE_FEED).toString();
     }
 
     private static <T> HttpData toHttpData(
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import java.net.InetAddress;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.stream.StreamRateLimiter;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.SimpleDecoratingHttpService;
+
+/**
+ * Decorates an {@link HttpService} to limit the egress bandwidth of its responses. The
+ * {@link com.linecorp.armeria.common.HttpData}s of a response are delayed without blocking when they exceed
+ * the configured bytes per second. The limit is shared by all responses of the decorated
+ * {@link HttpService}, or by the responses to the same client IP address, or both.
+ *
+ * <p>For example:<pre>{@code
+ * Server.builder()
+ *       .route().pathPrefix("/files")
+ *       .decorator(BandwidthLimitingService.builder()
+ *                                          .maxBytesPerSecond(100 * 1024 * 1024)
+ *                                          .maxBytesPerSecondPerClient(10 * 1024 * 1024)
+ *                                          .newDecorator())
+ *       .build(FileService.of(rootDir));
+ * }</pre>
+ *
+ * <p>Note that a response may take longer than the request timeout when it is large. Adjust the request
+ * timeout of the decorated {@link HttpService} accordingly.
+ */
+@UnstableApi
+public final class BandwidthLimitingService extends SimpleDecoratingHttpService {
+
+    /**
+     * Returns a new {@link BandwidthLimitingServiceBuilder}.
+     */
+    public static BandwidthLimitingServiceBuilder builder() {
+        return new BandwidthLimitingServiceBuilder();
+    }
+
+    /**
+     * Returns a new {@link HttpService} decorator which limits the total egress bandwidth of the decorated
+     * {@link HttpService} to the specified bytes per second.
+     */
+    public static Function<? super HttpService, BandwidthLimitingService>
+    newDecorator(long maxBytesPerSecond) {
+        return builder().maxBytesPerSecond(maxBytesPerSecond).newDecorator();
+    }
+
+    @Nullable
+    private final StreamRateLimiter rateLimiter;
+    @Nullable
+    private final Cache<InetAddress, StreamRateLimiter> clientRateLimiters;
+    @Nullable
+    private final Function<InetAddress, StreamRateLimiter> clientRateLimiterFactory;
+
+    BandwidthLimitingService(HttpService delegate, @Nullable StreamRateLimiter rateLimiter,
+                             @Nullable Cache<InetAddress, StreamRateLimiter> clientRateLimiters,
+                             @Nullable Function<InetAddress, StreamRateLimiter> clientRateLimiterFactory) {
+        super(delegate);
+        assert rateLimiter != null || clientRateLimiters != null;
+        assert (clientRateLimiters == null) == (clientRateLimiterFactory == null);
+        this.rateLimiter = rateLimiter;
+        this.clientRateLimiters = clientRateLimiters;
+        this.clientRateLimiterFactory = clientRateLimiterFactory;
+    }
+
+    @Override
+    public HttpResponse serve(ServiceRequestContext ctx, HttpRequest req) throws Exception {
+        HttpResponse res = unwrap().serve(ctx, req);
+        if (clientRateLimiters != null) {
+            assert clientRateLimiterFactory != null;
+            res = res.throttle(clientRateLimiters.get(ctx.clientAddress(), clientRateLimiterFactory));
+        }
+        if (rateLimiter != null) {
+            res = res.throttle(rateLimiter);
+        }
+        return res;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.stream.StreamRateLimiter;
+import com.linecorp.armeria.server.HttpService;
+
+/**
+ * Builds a new {@link BandwidthLimitingService}.
+ */
+@UnstableApi
+public final class BandwidthLimitingServiceBuilder {
+
+    private static final Duration DEFAULT_CLIENT_IDLE_TIMEOUT = Duration.ofMinutes(1);
+
+    private long maxBytesPerSecond;
+    private long maxBurstBytes;
+    private long maxBytesPerSecondPerClient;
+    private long maxBurstBytesPerClient;
+    private Duration clientIdleTimeout = DEFAULT_CLIENT_IDLE_TIMEOUT;
+
+    BandwidthLimitingServiceBuilder() {}
+
+    /**
+     * Sets the maximum number of bytes per second sent by all responses of the decorated
+     * {@link HttpService}. Bursts of up to the bytes of one second are allowed.
+     */
+    public BandwidthLimitingServiceBuilder maxBytesPerSecond(long maxBytesPerSecond) {
+        return maxBytesPerSecond(maxBytesPerSecond, maxBytesPerSecond);
+    }
+
+    /**
+     * Sets the maximum number of bytes per second sent by all responses of the decorated
+     * {@link HttpService} and the maximum number of bytes which may be sent at once after idling.
+     */
+    public BandwidthLimitingServiceBuilder maxBytesPerSecond(long maxBytesPerSecond, long maxBurstBytes) {
+        checkArgument(maxBytesPerSecond > 0, "maxBytesPerSecond: %s (expected: > 0)", maxBytesPerSecond);
+        checkArgument(maxBurstBytes > 0, "maxBurstBytes: %s (expected: > 0)", maxBurstBytes);
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        this.maxBurstBytes = maxBurstBytes;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of bytes per second sent by the responses to the same client IP address.
+     * Bursts of up to the bytes of one second are allowed.
+     */
+    public BandwidthLimitingServiceBuilder maxBytesPerSecondPerClient(long maxBytesPerSecondPerClient) {
+        return maxBytesPerSecondPerClient(maxBytesPerSecondPerClient, maxBytesPerSecondPerClient);
+    }
+
+    /**
+     * Sets the maximum number of bytes per second sent by the responses to the same client IP address and
+     * the maximum number of bytes which may be sent at once after idling.
+     */
+    public BandwidthLimitingServiceBuilder maxBytesPerSecondPerClient(long maxBytesPerSecondPerClient,
+                                                                      long maxBurstBytesPerClient) {
+        checkArgument(maxBytesPerSecondPerClient > 0,
+                      "maxBytesPerSecondPerClient: %s (expected: > 0)", maxBytesPerSecondPerClient);
+        checkArgument(maxBurstBytesPerClient > 0,
+                      "maxBurstBytesPerClient: %s (expected: > 0)", maxBurstBytesPerClient);
+        this.maxBytesPerSecondPerClient = maxBytesPerSecondPerClient;
+        this.maxBurstBytesPerClient = maxBurstBytesPerClient;
+        return this;
+    }
+
+    /**
+     * Sets how long the bandwidth limit of a client IP address is kept after its last request.
+     * The default is 1 minute.
+     */
+    public BandwidthLimitingServiceBuilder clientIdleTimeout(Duration clientIdleTimeout) {
+        requireNonNull(clientIdleTimeout, "clientIdleTimeout");
+        checkArgument(!clientIdleTimeout.isNegative() && !clientIdleTimeout.isZero(),
+                      "clientIdleTimeout: %s (expected: > 0)", clientIdleTimeout);
+        this.clientIdleTimeout = clientIdleTimeout;
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link BandwidthLimitingService} based on the properties of this builder.
+     * The returned {@link BandwidthLimitingService} has its own bandwidth limits which are not shared with
+     * the other {@link BandwidthLimitingService}s created by this builder.
+     */
+    public BandwidthLimitingService build(HttpService delegate) {
+        requireNonNull(delegate, "delegate");
+        checkState(maxBytesPerSecond > 0 || maxBytesPerSecondPerClient > 0,
+                   "maxBytesPerSecond() or maxBytesPerSecondPerClient() must be set.");
+
+        @Nullable
+        final StreamRateLimiter rateLimiter =
+                maxBytesPerSecond > 0 ? StreamRateLimiter.of(maxBytesPerSecond, maxBurstBytes) : null;
+        @Nullable
+        Cache<InetAddress, StreamRateLimiter> clientRateLimiters = null;
+        @Nullable
+        Function<InetAddress, StreamRateLimiter> clientRateLimiterFactory = null;
+        if (maxBytesPerSecondPerClient > 0) {
+            final long maxBytesPerSecondPerClient = this.maxBytesPerSecondPerClient;
+            final long maxBurstBytesPerClient = this.maxBurstBytesPerClient;
+            clientRateLimiters = Caffeine.newBuilder()
+                                         .expireAfterAccess(clientIdleTimeout)
+                                         .build();
+            clientRateLimiterFactory =
+                    unused -> StreamRateLimiter.of(maxBytesPerSecondPerClient, maxBurstBytesPerClient);
+        }
+        return new BandwidthLimitingService(delegate, rateLimiter, clientRateLimiters,
+                                            clientRateLimiterFactory);
+    }
+
+    /**
+     * Returns a newly-created decorator that decorates an {@link HttpService} with a new
+     * {@link BandwidthLimitingService} based on the properties of this builder.
+     */
+    public Function<? super HttpService, BandwidthLimitingService> newDecorator() {
+        return this::build;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.websocket;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.websocket.WebSocketCloseStatus;
+import com.linecorp.armeria.common.websocket.WebSocketFrame;
+import com.linecorp.armeria.common.websocket.WebSocketWriter;
+import com.linecorp.armeria.internal.common.websocket.EncodedWebSocketFrame;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * A group of {@link WebSocketWriter}s which broadcasts {@link WebSocketFrame}s to all of its members.
+ * A broadcast {@link WebSocketFrame} is encoded only once into a {@link ByteBuf} and the retained duplicates
+ * of the {@link ByteBuf} are written to the members.
+ * <pre>{@code
+ * WebSocketBroadcastGroup group = WebSocketBroadcastGroup.builder()
+ *                                                        .maxPendingFrames(64)
+ *                                                        .build();
+ * WebSocketService.of((ctx, in) -> {
+ *     WebSocketWriter out = WebSocket.streaming();
+ *     group.add(out);
+ *     return out;
+ * });
+ *
+ * // Send a message to all members.
+ * group.broadcast(WebSocketFrame.ofText("Hello, world!"));
+ * }</pre>
+ *
+ * <p>A member which has not consumed {@link WebSocketBroadcastGroupBuilder#maxPendingFrames(int)} frames
+ * yet is considered slow. The frames broadcast to a slow member are dropped, or the slow member is closed
+ * with {@link WebSocketCloseStatus#TRY_AGAIN_LATER} if
+ * {@link WebSocketBroadcastGroupBuilder#closeSlowMembers(boolean)} is enabled.
+ * A member is removed from the group automatically when it is closed.
+ */
+@UnstableApi
+public final class WebSocketBroadcastGroup {
+
+    /**
+     * Returns a new {@link WebSocketBroadcastGroup} with the default options.
+     */
+    public static WebSocketBroadcastGroup of() {
+        return builder().build();
+    }
+
+    /**
+     * Returns a new {@link WebSocketBroadcastGroupBuilder}.
+     */
+    public static WebSocketBroadcastGroupBuilder builder() {
+        return new WebSocketBroadcastGroupBuilder();
+    }
+
+    private final Map<WebSocketWriter, Member> members = new ConcurrentHashMap<>();
+    private final int maxPendingFrames;
+    private final boolean closeSlowMembers;
+    private final ByteBufAllocator alloc;
+
+    private final LongAdder writtenFrames = new LongAdder();
+    private final LongAdder droppedFrames = new LongAdder();
+    private final LongAdder closedSlowMembers = new LongAdder();
+
+    WebSocketBroadcastGroup(int maxPendingFrames, boolean closeSlowMembers, ByteBufAllocator alloc,
+                            @Nullable MeterRegistry meterRegistry, MeterIdPrefix meterIdPrefix) {
+        this.maxPendingFrames = maxPendingFrames;
+        this.closeSlowMembers = closeSlowMembers;
+        this.alloc = alloc;
+        if (meterRegistry != null) {
+            bindTo(meterRegistry, meterIdPrefix);
+        }
+    }
+
+    private void bindTo(MeterRegistry registry, MeterIdPrefix idPrefix) {
+        Gauge.builder(idPrefix.name("members"), this, WebSocketBroadcastGroup::size)
+             .tags(idPrefix.tags())
+             .description("The number of the members in the WebSocket broadcast group")
+             .register(registry);
+        FunctionCounter.builder(idPrefix.name("frames"), writtenFrames, LongAdder::sum)
+                       .tags(idPrefix.tags())
+                       .tag("result", "written")
+                       .description("The number of the frames written to the members")
+                       .register(registry);
+        FunctionCounter.builder(idPrefix.name("frames"), droppedFrames, LongAdder::sum)
+                       .tags(idPrefix.tags())
+                       .tag("result", "dropped")
+                       .description("The number of the frames dropped for the slow members")
+                       .register(registry);
+        FunctionCounter.builder(idPrefix.name("slow.members.closed"), closedSlowMembers, LongAdder::sum)
+                       .tags(idPrefix.tags())
+                       .description("The number of the slow members closed by the group")
+                       .register(registry);
+    }
+
+    /**
+     * Adds the specified {@link WebSocketWriter} to this group. The {@link WebSocketWriter} is removed from
+     * this group when it is closed.
+     *
+     * @return {@code true} if the {@link WebSocketWriter} was added. {@code false} if it is a member already
+     *         or closed already.
+     */
+    public boolean add(WebSocketWriter writer) {
+        requireNonNull(writer, "writer");
+        if (!writer.isOpen()) {
+            return false;
+        }
+        final Member member = new Member(writer);
+        if (members.putIfAbsent(writer, member) != null) {
+            return false;
+        }
+        writer.whenComplete().handle((unused, cause) -> {
+            members.remove(writer, member);
+            return null;
+        });
+        return true;
+    }
+
+    /**
+     * Removes the specified {@link WebSocketWriter} from this group. The {@link WebSocketWriter} is
+     * not closed.
+     *
+     * @return {@code true} if the {@link WebSocketWriter} was a member of this group.
+     */
+    public boolean remove(WebSocketWriter writer) {
+        requireNonNull(writer, "writer");
+        return members.remove(writer) != null;
+    }
+
+    /**
+     * Returns the number of the members in this group.
+     */
+    public int size() {
+        return members.size();
+    }
+
+    /**
+     * Broadcasts a text {@link WebSocketFrame} to all members.
+     *
+     * @return the number of the members the frame was written to
+     */
+    public int broadcast(String text) {
+        requireNonNull(text, "text");
+        return broadcast(WebSocketFrame.ofText(text));
+    }
+
+    /**
+     * Broadcasts the specified {@link WebSocketFrame} to all members. The specified {@link WebSocketFrame}
+     * is closed when this method returns.
+     *
+     * @return the number of the members the frame was written to
+     */
+    public int broadcast(WebSocketFrame frame) {
+        requireNonNull(frame, "frame");
+        int written = 0;
+        try (EncodedWebSocketFrame encoded = EncodedWebSocketFrame.encode(alloc, frame)) {
+            for (Member member : members.values()) {
+                if (member.write(encoded)) {
+                    written++;
+                }
+            }
+        }
+        return written;
+    }
+
+    private final class Member {
+
+        private final WebSocketWriter writer;
+        private final AtomicInteger pendingFrames = new AtomicInteger();
+
+        Member(WebSocketWriter writer) {
+            this.writer = writer;
+        }
+
+        boolean write(EncodedWebSocketFrame encoded) {
+            if (pendingFrames.get() >= maxPendingFrames) {
+                droppedFrames.increment();
+                if (closeSlowMembers && members.remove(writer, this)) {
+                    closedSlowMembers.increment();
+                    writer.close(WebSocketCloseStatus.TRY_AGAIN_LATER,
+                                 "too slow to receive the broadcast messages");
+                }
+                return false;
+            }
+
+            // 'tryWrite()' releases the duplicate if the writer is closed already.
+            if (!writer.tryWrite(encoded.retainedDuplicate())) {
+                members.remove(writer, this);
+                return false;
+            }
+            pendingFrames.incrementAndGet();
+            writer.whenConsumed().handle((unused, cause) -> pendingFrames.decrementAndGet());
+            writtenFrames.increment();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.websocket;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.websocket.WebSocketCloseStatus;
+import com.linecorp.armeria.common.websocket.WebSocketFrame;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * A builder which creates a {@link WebSocketBroadcastGroup}.
+ */
+@UnstableApi
+public final class WebSocketBroadcastGroupBuilder {
+
+    static final int DEFAULT_MAX_PENDING_FRAMES = 1024;
+    private static final MeterIdPrefix DEFAULT_METER_ID_PREFIX =
+            new MeterIdPrefix("armeria.server.websocket.broadcast");
+
+    private int maxPendingFrames = DEFAULT_MAX_PENDING_FRAMES;
+    private boolean closeSlowMembers;
+    private ByteBufAllocator alloc = ByteBufAllocator.DEFAULT;
+    @Nullable
+    private MeterRegistry meterRegistry;
+    private MeterIdPrefix meterIdPrefix = DEFAULT_METER_ID_PREFIX;
+
+    WebSocketBroadcastGroupBuilder() {}
+
+    /**
+     * Sets the maximum number of the broadcast {@link WebSocketFrame}s which have been written to a member
+     * but not consumed yet. The frames exceeding the limit are dropped for the member.
+     * {@value #DEFAULT_MAX_PENDING_FRAMES} is used by default.
+     */
+    public WebSocketBroadcastGroupBuilder maxPendingFrames(int maxPendingFrames) {
+        checkArgument(maxPendingFrames > 0, "maxPendingFrames: %s (expected: > 0)", maxPendingFrames);
+        this.maxPendingFrames = maxPendingFrames;
+        return this;
+    }
+
+    /**
+     * Sets whether to close a member with {@link WebSocketCloseStatus#TRY_AGAIN_LATER} instead of
+     * dropping the frames when the member exceeds {@link #maxPendingFrames(int)}.
+     * Slow members are not closed by default.
+     */
+    public WebSocketBroadcastGroupBuilder closeSlowMembers(boolean closeSlowMembers) {
+        this.closeSlowMembers = closeSlowMembers;
+        return this;
+    }
+
+    /**
+     * Sets the {@link ByteBufAllocator} which allocates the buffers of the encoded
+     * {@link WebSocketFrame}s. {@link ByteBufAllocator#DEFAULT} is used by default.
+     */
+    public WebSocketBroadcastGroupBuilder alloc(ByteBufAllocator alloc) {
+        this.alloc = requireNonNull(alloc, "alloc");
+        return this;
+    }
+
+    /**
+     * Sets the {@link MeterRegistry} which collects the number of the members and the written and dropped
+     * frames of the {@link WebSocketBroadcastGroup}. No metrics are collected by default.
+     */
+    public WebSocketBroadcastGroupBuilder meterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry");
+        return this;
+    }
+
+    /**
+     * Sets the {@link MeterIdPrefix} of the metrics of the {@link WebSocketBroadcastGroup}.
+     * {@code "armeria.server.websocket.broadcast"} is used by default.
+     */
+    public WebSocketBroadcastGroupBuilder meterIdPrefix(MeterIdPrefix meterIdPrefix) {
+        this.meterIdPrefix = requireNonNull(meterIdPrefix, "meterIdPrefix");
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link WebSocketBroadcastGroup} based on the properties of this builder.
+     */
+    public WebSocketBroadcastGroup build() {
+        return new WebSocketBroadcastGroup(maxPendingFrames, closeSlowMembers, alloc,
+                                           meterRegistry, meterIdPrefix);
+    }
+}
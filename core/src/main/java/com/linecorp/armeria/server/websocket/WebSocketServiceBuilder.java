@@ -33,6 +33,7 @@ import com.google.common.collect.ImmutableSet;
 
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.websocket.PerMessageDeflateConfig;
 import com.linecorp.armeria.common.websocket.WebSocketCloseStatus;
 import com.linecorp.armeria.common.websocket.WebSocketFrameType;
 import com.linecorp.armeria.internal.common.websocket.WebSocketUtil;
@@ -80,6 +81,8 @@ public final class WebSocketServiceBuilder {
     private Predicate<? super String> originPredicate;
     private boolean aggregateContinuation;
     @Nullable
+    private PerMessageDeflateConfig perMessageDeflateConfig;
+    @Nullable
     private HttpService fallbackService;
     private ServiceOptions serviceOptions = DEFAULT_OPTIONS;
 
@@ -142,6 +145,17 @@ public final class WebSocketServiceBuilder {
         return this;
     }
 
+    /**
+     * Enables the <a href="https://datatracker.ietf.org/doc/html/rfc7692">permessage-deflate</a> extension
+     * with the specified {@link PerMessageDeflateConfig}. The extension is used only when a client offers it.
+     * The {@link #maxFramePayloadLength(int)} limits the length of a decompressed payload as well.
+     * It's disabled by default.
+     */
+    public WebSocketServiceBuilder perMessageDeflate(PerMessageDeflateConfig perMessageDeflateConfig) {
+        this.perMessageDeflateConfig = requireNonNull(perMessageDeflateConfig, "perMessageDeflateConfig");
+        return this;
+    }
+
     /**
      * Sets the allowed origins. The same-origin is allowed by default.
      * Specify {@value ANY_ORIGIN} to allow any origins.
@@ -247,6 +261,6 @@ public final class WebSocketServiceBuilder {
         }
         return new DefaultWebSocketService(handler, fallbackService, maxFramePayloadLength, allowMaskMismatch,
                                            subprotocols, allowAnyOrigin, originPredicate, aggregateContinuation,
-                                           serviceOptions);
+                                           perMessageDeflateConfig, serviceOptions);
     }
 }
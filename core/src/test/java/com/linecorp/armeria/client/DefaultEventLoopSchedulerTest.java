@@ -23,6 +23,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadLocalRandom;
 
 import org.junit.jupiter.api.Test;
@@ -30,9 +31,13 @@ import org.junit.jupiter.api.Test;
 import com.google.common.collect.ImmutableList;
 
 import com.linecorp.armeria.client.endpoint.EndpointGroup;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.util.ReleasableHolder;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.server.ServiceRequestContext;
 
 import io.netty.channel.DefaultEventLoopGroup;
 import io.netty.channel.EventLoop;
@@ -314,6 +319,80 @@ class DefaultEventLoopSchedulerTest {
         }
     }
 
+    @Test
+    void preferServiceEventLoop() {
+        final DefaultEventLoopScheduler s = new DefaultEventLoopScheduler(group, 1, 1, ImmutableList.of(),
+                                                                          true, false);
+        for (EventLoop serviceEventLoop : ImmutableList.of(group.next(), group.next(), group.next())) {
+            final ServiceRequestContext sctx =
+                    ServiceRequestContext.builder(HttpRequest.of(HttpMethod.GET, "/"))
+                                         .eventLoop(serviceEventLoop)
+                                         .build();
+            try (SafeCloseable ignored = sctx.push()) {
+                final ReleasableHolder<EventLoop> acquired = s.acquire(SessionProtocol.HTTP, endpoint,
+                                                                       endpoint);
+                assertThat(acquired.get()).isSameAs(serviceEventLoop);
+                acquired.release();
+            }
+        }
+        assertThat(s.sameEventLoopAcquisitions()).isEqualTo(3);
+        assertThat(s.crossEventLoopAcquisitions()).isZero();
+
+        // Should fall back to the default strategy without a ServiceRequestContext.
+        acquireEntry(s, endpoint).release();
+        assertThat(s.sameEventLoopAcquisitions()).isEqualTo(3);
+
+        // Should not prefer an event loop which does not belong to the scheduler.
+        final EventLoopGroup otherGroup = new DefaultEventLoopGroup(1);
+        try {
+            final ServiceRequestContext sctx =
+                    ServiceRequestContext.builder(HttpRequest.of(HttpMethod.GET, "/"))
+                                         .eventLoop(otherGroup.next())
+                                         .build();
+            try (SafeCloseable ignored = sctx.push()) {
+                final AbstractEventLoopEntry e = acquireEntry(s, endpoint);
+                assertThat(e.get()).isNotSameAs(otherGroup.next());
+                e.release();
+            }
+        } finally {
+            otherGroup.shutdownGracefully();
+        }
+    }
+
+    @Test
+    void loadAwareAvoidsBusyEventLoop() throws Exception {
+        final DefaultEventLoopScheduler s = new DefaultEventLoopScheduler(group, 2, 2, ImmutableList.of(),
+                                                                          false, true);
+        assertThat(s.isLoadAware()).isTrue();
+
+        final AbstractEventLoopEntry first = acquireEntry(s, endpoint);
+        final EventLoop busyEventLoop = first.get();
+        first.release();
+
+        // Keep the event loop busy so that its pending tasks pile up.
+        final CountDownLatch latch = new CountDownLatch(1);
+        busyEventLoop.execute(() -> {
+            try {
+                latch.await();
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        for (int i = 0; i < 16; i++) {
+            busyEventLoop.execute(() -> {});
+        }
+        try {
+            assertThat(s.load(busyEventLoop)).isGreaterThanOrEqualTo(16);
+            for (int i = 0; i < 4; i++) {
+                final AbstractEventLoopEntry e = acquireEntry(s, endpoint);
+                assertThat(e.get()).isNotSameAs(busyEventLoop);
+                e.release();
+            }
+        } finally {
+            latch.countDown();
+        }
+    }
+
     private static DefaultEventLoopScheduler defaultEventLoopScheduler() {
         return new DefaultEventLoopScheduler(group, GROUP_SIZE, GROUP_SIZE, ImmutableList.of());
     }
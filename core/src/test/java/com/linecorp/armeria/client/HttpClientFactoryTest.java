@@ -166,6 +166,15 @@ class HttpClientFactoryTest {
         }
     }
 
+    @Test
+    void http3RequiresModule() {
+        final WebClient client = WebClient.of("h3://127.0.0.1:1");
+        assertThatThrownBy(() -> client.get("/").aggregate().join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(UnprocessedRequestException.class)
+                .hasRootCauseMessage("armeria-http3 module is required to send a request over h3");
+    }
+
     private static DnsResolverGroupBuilder dnsTimeoutBuilder(TestDnsServer... servers) {
         final DnsServerAddressStreamProvider dnsServerAddressStreamProvider =
                 hostname -> DnsServerAddresses.sequential(
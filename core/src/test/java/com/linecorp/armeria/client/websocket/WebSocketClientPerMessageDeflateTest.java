@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package com.linecorp.armeria.client.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.google.common.base.Strings;
+
+import com.linecorp.armeria.client.websocket.WebSocketClientAggregateContinuationTest.WebSocketEchoHandler;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.websocket.PerMessageDeflateConfig;
+import com.linecorp.armeria.common.websocket.WebSocketCloseStatus;
+import com.linecorp.armeria.common.websocket.WebSocketFrame;
+import com.linecorp.armeria.common.websocket.WebSocketWriter;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.websocket.WebSocketService;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+class WebSocketClientPerMessageDeflateTest {
+
+    private static final String JSON =
+            Strings.repeat("{\"id\":1234,\"name\":\"armeria\",\"tags\":[\"a\",\"b\"]}", 500);
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.route()
+              .get("/")
+              .connect("/")
+              .build(WebSocketService.builder(new WebSocketEchoHandler())
+                                     .perMessageDeflate(PerMessageDeflateConfig.of())
+                                     .maxFramePayloadLength(1024 * 1024)
+                                     .build());
+            sb.route()
+              .get("/no-context-takeover")
+              .connect("/no-context-takeover")
+              .build(WebSocketService.builder(new WebSocketEchoHandler())
+                                     .perMessageDeflate(PerMessageDeflateConfig.builder()
+                                                                               .serverNoContextTakeover(true)
+                                                                               .clientNoContextTakeover(true)
+                                                                               .build())
+                                     .maxFramePayloadLength(1024 * 1024)
+                                     .build());
+            sb.route()
+              .get("/plain")
+              .connect("/plain")
+              .build(WebSocketService.of(new WebSocketEchoHandler()));
+        }
+    };
+
+    @CsvSource({
+            "H1C, /",
+            "H2C, /",
+            "H1C, /no-context-takeover",
+            "H2C, /no-context-takeover"
+    })
+    @ParameterizedTest
+    void compressMessages(SessionProtocol protocol, String path) throws Exception {
+        final WebSocketClient client =
+                WebSocketClient.builder(server.uri(protocol))
+                               .perMessageDeflate(PerMessageDeflateConfig.of())
+                               .maxFramePayloadLength(1024 * 1024)
+                               .build();
+        final WebSocketSession session = client.connect(path).join();
+        final String extensions = session.responseHeaders().get(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS);
+        if ("/".equals(path)) {
+            assertThat(extensions).isEqualTo("permessage-deflate");
+        } else {
+            assertThat(extensions).isEqualTo(
+                    "permessage-deflate; server_no_context_takeover; client_no_context_takeover");
+        }
+
+        final WebSocketInboundTestHandler inboundHandler =
+                new WebSocketInboundTestHandler(session.inbound(), protocol);
+        final WebSocketWriter outbound = session.outbound();
+        for (int i = 0; i < 3; i++) {
+            outbound.write(WebSocketFrame.ofText(JSON));
+            assertThat(inboundHandler.inboundQueue().take()).isEqualTo(WebSocketFrame.ofText(JSON));
+        }
+
+        // A short message is not compressed.
+        outbound.write(WebSocketFrame.ofText("foo"));
+        assertThat(inboundHandler.inboundQueue().take()).isEqualTo(WebSocketFrame.ofText("foo"));
+
+        // A fragmented message is compressed as a whole.
+        outbound.write(WebSocketFrame.ofBinary(JSON.getBytes(), false));
+        outbound.write(WebSocketFrame.ofContinuation(JSON.getBytes(), false));
+        outbound.write(WebSocketFrame.ofContinuation(new byte[0], true));
+        assertThat(inboundHandler.inboundQueue().take())
+                .isEqualTo(WebSocketFrame.ofBinary(JSON.getBytes(), false));
+        assertThat(inboundHandler.inboundQueue().take())
+                .isEqualTo(WebSocketFrame.ofContinuation(JSON.getBytes(), false));
+        assertThat(inboundHandler.inboundQueue().take())
+                .isEqualTo(WebSocketFrame.ofContinuation(new byte[0], true));
+
+        outbound.close(WebSocketCloseStatus.NORMAL_CLOSURE);
+        assertThat(inboundHandler.inboundQueue().take())
+                .isEqualTo(WebSocketFrame.ofClose(WebSocketCloseStatus.NORMAL_CLOSURE));
+        inboundHandler.completionFuture().join();
+
+        final RequestLog log = session.context().log().whenComplete().join();
+        // The JSON was sent and received 5 times, but the compressed frames are shorter than one JSON.
+        assertThat(log.requestLength()).isLessThan(JSON.length());
+        assertThat(log.responseLength()).isLessThan(JSON.length());
+    }
+
+    @Test
+    void serverWithoutExtension() throws Exception {
+        final WebSocketClient client =
+                WebSocketClient.builder(server.uri(SessionProtocol.H1C))
+                               .perMessageDeflate(PerMessageDeflateConfig.of())
+                               .maxFramePayloadLength(1024 * 1024)
+                               .build();
+        final WebSocketSession session = client.connect("/plain").join();
+        assertThat(session.responseHeaders().contains(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS)).isFalse();
+
+        final WebSocketInboundTestHandler inboundHandler =
+                new WebSocketInboundTestHandler(session.inbound(), SessionProtocol.H1C);
+        final WebSocketWriter outbound = session.outbound();
+        outbound.write(WebSocketFrame.ofText(JSON));
+        assertThat(inboundHandler.inboundQueue().take()).isEqualTo(WebSocketFrame.ofText(JSON));
+        outbound.close();
+        inboundHandler.completionFuture().join();
+    }
+
+    @Test
+    void clientWithoutExtension() throws Exception {
+        final WebSocketClient client =
+                WebSocketClient.builder(server.uri(SessionProtocol.H1C))
+                               .maxFramePayloadLength(1024 * 1024)
+                               .build();
+        final WebSocketSession session = client.connect("/").join();
+        assertThat(session.responseHeaders().contains(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS)).isFalse();
+
+        final WebSocketInboundTestHandler inboundHandler =
+                new WebSocketInboundTestHandler(session.inbound(), SessionProtocol.H1C);
+        final WebSocketWriter outbound = session.outbound();
+        outbound.write(WebSocketFrame.ofText(JSON));
+        assertThat(inboundHandler.inboundQueue().take()).isEqualTo(WebSocketFrame.ofText(JSON));
+        outbound.close();
+        inboundHandler.completionFuture().join();
+    }
+}
@@ -20,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.awaitility.Awaitility.await;
 
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
@@ -39,7 +40,9 @@ import com.google.common.collect.ImmutableList;
 import com.linecorp.armeria.common.stream.StreamMessage;
 import com.linecorp.armeria.internal.common.HeaderOverridingHttpRequest;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import reactor.core.publisher.Flux;
 
 class AggregationOptionsTest {
@@ -57,6 +60,45 @@ class AggregationOptionsTest {
           .hasMessageContaining("Can't cache pooled objects");
     }
 
+    @Test
+    void compositeContentRequiresPooledObjects() {
+        assertThatThrownBy(() -> AggregationOptions.builder().compositeContent(true).build())
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void compositeContent() {
+        final ByteBuf[] bufs = {
+                Unpooled.copiedBuffer("foo", StandardCharsets.UTF_8),
+                Unpooled.copiedBuffer("bar", StandardCharsets.UTF_8),
+                Unpooled.copiedBuffer("baz", StandardCharsets.UTF_8)
+        };
+        final HttpResponse response = HttpResponse.of(ResponseHeaders.of(HttpStatus.OK),
+                                                      HttpData.wrap(bufs[0]),
+                                                      HttpData.wrap(bufs[1]),
+                                                      HttpData.wrap(bufs[2]));
+        final AggregatedHttpResponse agg =
+                response.aggregate(AggregationOptions.builder()
+                                                     .usePooledObjects()
+                                                     .compositeContent(true)
+                                                     .build())
+                        .join();
+        final HttpData content = agg.content();
+        assertThat(content.isPooled()).isTrue();
+        // The content references the received buffers without copying them.
+        for (ByteBuf buf : bufs) {
+            assertThat(buf.refCnt()).isOne();
+        }
+        assertThat(content.toStringUtf8()).isEqualTo("foobarbaz");
+        // A contiguous array is created on demand.
+        assertThat(content.array()).isEqualTo("foobarbaz".getBytes(StandardCharsets.UTF_8));
+
+        content.close();
+        for (ByteBuf buf : bufs) {
+            assertThat(buf.refCnt()).isZero();
+        }
+    }
+
     @ArgumentsSource(HttpRequestProvider.class)
     @ParameterizedTest
     void httpRequest_cached(HttpRequest request) {
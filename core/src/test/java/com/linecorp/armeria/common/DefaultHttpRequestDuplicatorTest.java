@@ -27,6 +27,8 @@ import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import com.google.common.base.Strings;
+
 import com.linecorp.armeria.client.WebClient;
 import com.linecorp.armeria.client.retry.Backoff;
 import com.linecorp.armeria.client.retry.RetryRule;
@@ -35,6 +37,8 @@ import com.linecorp.armeria.server.ServerBuilder;
 import com.linecorp.armeria.testing.junit5.common.EventLoopExtension;
 import com.linecorp.armeria.testing.junit5.server.ServerExtension;
 
+import io.netty.buffer.PooledByteBufAllocator;
+
 class DefaultHttpRequestDuplicatorTest {
 
     @RegisterExtension
@@ -105,6 +109,32 @@ class DefaultHttpRequestDuplicatorTest {
         assertThat(res.contentUtf8()).isEqualTo("Hello");
     }
 
+    @Test
+    void spillContentToFile() {
+        final HttpRequestWriter req = HttpRequest.streaming(HttpMethod.POST, "/upload");
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            final String chunk = Strings.repeat(String.valueOf(i), 1024);
+            req.write(HttpData.ofUtf8(chunk));
+            expected.append(chunk);
+        }
+        req.close();
+
+        // Keep only 2 chunks in memory.
+        final HttpRequestDuplicator reqDuplicator = req.toDuplicator(eventLoop.get(), 0, 2048);
+        final AggregatedHttpRequest req1 = reqDuplicator.duplicate().aggregate().join();
+        final AggregatedHttpRequest req2 = reqDuplicator.duplicate()
+                                                        .aggregate(AggregationOptions.usePooledObjects(
+                                                                PooledByteBufAllocator.DEFAULT))
+                                                        .join();
+        reqDuplicator.close();
+
+        assertThat(req1.contentUtf8()).isEqualTo(expected.toString());
+        try (HttpData content = req2.content()) {
+            assertThat(content.toStringUtf8()).isEqualTo(expected.toString());
+        }
+    }
+
     private static void writeStreamingRequest(HttpRequestWriter req, int index) {
         if (index == 10) {
             req.close();
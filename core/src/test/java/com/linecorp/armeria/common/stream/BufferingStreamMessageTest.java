@@ -0,0 +1,204 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.notNullValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.common.CommonPools;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpHeaders;
+import com.linecorp.armeria.common.HttpObject;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpResponseWriter;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.ResponseHeaders;
+
+import io.netty.channel.EventLoop;
+import reactor.test.StepVerifier;
+
+class BufferingStreamMessageTest {
+
+    @Test
+    void bufferByCount() {
+        final StreamMessage<List<Integer>> buffered = StreamMessage.of(1, 2, 3, 4, 5).buffer(2);
+        assertThat(buffered.collect().join()).containsExactly(ImmutableList.of(1, 2),
+                                                              ImmutableList.of(3, 4),
+                                                              ImmutableList.of(5));
+    }
+
+    @Test
+    void bufferWithBackpressure() {
+        final StreamMessage<List<Integer>> buffered = StreamMessage.of(1, 2, 3, 4, 5).buffer(2);
+        StepVerifier.create(buffered, 1)
+                    .expectNext(ImmutableList.of(1, 2))
+                    .thenRequest(1)
+                    .expectNext(ImmutableList.of(3, 4))
+                    .thenRequest(1)
+                    .expectNext(ImmutableList.of(5))
+                    .verifyComplete();
+    }
+
+    @Test
+    void bufferByDelay() {
+        final StreamWriter<Integer> writer = StreamMessage.streaming();
+        final StreamMessage<List<Integer>> buffered = writer.buffer(100, Duration.ofMillis(100));
+        StepVerifier.create(buffered)
+                    .then(() -> {
+                        writer.write(1);
+                        writer.write(2);
+                    })
+                    // Should be emitted without waiting for the 100 elements.
+                    .expectNext(ImmutableList.of(1, 2))
+                    .then(() -> {
+                        writer.write(3);
+                        writer.close();
+                    })
+                    .expectNext(ImmutableList.of(3))
+                    .verifyComplete();
+    }
+
+    @Test
+    void bufferByDelayShouldRequestBoundedDemand() {
+        final StreamWriter<Integer> writer = StreamMessage.streaming();
+        // Group the elements by a time window only.
+        final CompletableFuture<List<List<Integer>>> future =
+                writer.buffer(Integer.MAX_VALUE, Duration.ofSeconds(10)).collect();
+        await().untilAsserted(() -> assertThat(writer.demand()).isEqualTo(256));
+
+        final ImmutableList.Builder<Integer> expected = ImmutableList.builder();
+        for (int i = 0; i < 200; i++) {
+            writer.write(i);
+            expected.add(i);
+        }
+        // Replenished when half of the requested elements are received.
+        await().untilAsserted(() -> assertThat(writer.demand()).isEqualTo(184));
+
+        writer.close();
+        assertThat(future.join()).containsExactly(expected.build());
+    }
+
+    @Test
+    void invalidRequestShouldBeSignaledByExecutor() {
+        final StreamWriter<Integer> writer = StreamMessage.streaming();
+        final EventLoop executor = CommonPools.workerGroup().next();
+        final AtomicReference<Subscription> subscriptionRef = new AtomicReference<>();
+        final CompletableFuture<Boolean> onErrorInEventLoop = new CompletableFuture<>();
+        writer.buffer(2).subscribe(new Subscriber<List<Integer>>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscriptionRef.set(s);
+            }
+
+            @Override
+            public void onNext(List<Integer> integers) {}
+
+            @Override
+            public void onError(Throwable t) {
+                if (t instanceof IllegalArgumentException) {
+                    onErrorInEventLoop.complete(executor.inEventLoop());
+                } else {
+                    onErrorInEventLoop.completeExceptionally(t);
+                }
+            }
+
+            @Override
+            public void onComplete() {}
+        }, executor);
+
+        await().untilAtomic(subscriptionRef, notNullValue());
+        subscriptionRef.get().request(0);
+        assertThat(onErrorInEventLoop.join()).isTrue();
+        assertThatThrownBy(() -> writer.whenComplete().join())
+                .hasCauseInstanceOf(CancelledSubscriptionException.class);
+    }
+
+    @Test
+    void bufferShouldPropagateError() {
+        final StreamWriter<Integer> writer = StreamMessage.streaming();
+        final StreamMessage<List<Integer>> buffered = writer.buffer(2);
+        StepVerifier.create(buffered)
+                    .then(() -> {
+                        writer.write(1);
+                        writer.write(2);
+                        writer.write(3);
+                        writer.abort(new IllegalStateException("aborted"));
+                    })
+                    .expectNext(ImmutableList.of(1, 2))
+                    .expectError(IllegalStateException.class)
+                    .verify();
+    }
+
+    @Test
+    void invalidArguments() {
+        final StreamMessage<Integer> stream = StreamMessage.of(1);
+        assertThatThrownBy(() -> stream.buffer(0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> stream.buffer(1, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void coalesceData() {
+        final ResponseHeaders headers = ResponseHeaders.of(HttpStatus.OK);
+        final HttpHeaders trailers = HttpHeaders.of("grpc-status", "0");
+        final HttpResponse response = HttpResponse.of(headers,
+                                                      HttpData.ofUtf8("foo"),
+                                                      HttpData.ofUtf8("bar"),
+                                                      HttpData.ofUtf8("baz"),
+                                                      trailers);
+        final List<HttpObject> objects = response.coalesceData(1024, Duration.ofSeconds(10))
+                                                 .collect().join();
+        assertThat(objects).containsExactly(headers, HttpData.ofUtf8("foobarbaz"), trailers);
+    }
+
+    @Test
+    void coalesceDataByMaxBytes() {
+        final HttpResponseWriter response = HttpResponse.streaming();
+        response.write(ResponseHeaders.of(HttpStatus.OK));
+        for (int i = 0; i < 5; i++) {
+            response.write(HttpData.ofUtf8("abcd"));
+        }
+        response.close();
+
+        final List<HttpObject> objects = response.coalesceData(8, Duration.ofSeconds(10))
+                                                 .collect(SubscriptionOption.WITH_POOLED_OBJECTS).join();
+        assertThat(objects).hasSize(4);
+        assertThat(objects.get(0)).isEqualTo(ResponseHeaders.of(HttpStatus.OK));
+        assertThat(((HttpData) objects.get(1)).toStringUtf8()).isEqualTo("abcdabcd");
+        assertThat(((HttpData) objects.get(2)).toStringUtf8()).isEqualTo("abcdabcd");
+        assertThat(((HttpData) objects.get(3)).toStringUtf8()).isEqualTo("abcd");
+        for (HttpObject object : objects) {
+            if (object instanceof HttpData) {
+                ((HttpData) object).close();
+            }
+        }
+    }
+}
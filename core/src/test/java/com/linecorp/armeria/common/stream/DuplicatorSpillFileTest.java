@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.stream.DuplicatorSpillFile.SpilledData;
+import com.linecorp.armeria.testing.junit5.common.EventLoopExtension;
+
+class DuplicatorSpillFileTest {
+
+    @RegisterExtension
+    static final EventLoopExtension eventLoop = new EventLoopExtension();
+
+    @Test
+    void writesQueuedUntilFileIsOpened() throws Exception {
+        final DuplicatorSpillFile file = new DuplicatorSpillFile();
+        // Spill from the event loop; the file is opened by the blocking task executor.
+        final List<SpilledData> spilled = eventLoop.get().submit(() -> {
+            final List<SpilledData> list = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                list.add(file.spill(HttpData.ofUtf8("chunk-" + i)));
+            }
+            list.add(file.spill(HttpData.ofUtf8("last").withEndOfStream()));
+            return list;
+        }).get();
+
+        for (int i = 0; i < 3; i++) {
+            final HttpData data = spilled.get(i).read(false).join();
+            assertThat(data.toStringUtf8()).isEqualTo("chunk-" + i);
+            assertThat(data.isEndOfStream()).isFalse();
+        }
+        final HttpData last = spilled.get(3).read(true).join();
+        assertThat(last.toStringUtf8()).isEqualTo("last");
+        assertThat(last.isEndOfStream()).isTrue();
+        last.close();
+        file.close();
+    }
+
+    @Test
+    void closeWhileOpening() throws Exception {
+        final DuplicatorSpillFile file = new DuplicatorSpillFile();
+        final SpilledData spilled = eventLoop.get().submit(() -> {
+            final SpilledData data = file.spill(HttpData.ofUtf8("foo"));
+            file.close();
+            return data;
+        }).get();
+
+        assertThatThrownBy(() -> spilled.read(false).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IOException.class);
+        assertThatThrownBy(() -> file.spill(HttpData.ofUtf8("bar")))
+                .isInstanceOf(IOException.class);
+    }
+}
@@ -25,12 +25,14 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
 import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.testing.junit5.common.EventLoopExtension;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -38,6 +40,9 @@ import reactor.test.StepVerifier;
 
 class FuseableStreamMessageTest {
 
+    @RegisterExtension
+    static final EventLoopExtension eventLoop = new EventLoopExtension();
+
     @Test
     void composedFilter() {
         final StreamMessage<Integer> streamMessage = StreamMessage.of(1, 2, 3, 4, 5, 6, 7, 8);
@@ -298,4 +303,97 @@ class FuseableStreamMessageTest {
             assertThat(byteBuf.refCnt()).isZero();
         }
     }
+
+    @Test
+    void cancelFusedFixedStream() {
+        final StreamMessage<Integer> fixed = StreamMessage.of(1, 2, 3);
+        final StreamMessage<Integer> transformed = fixed.map(x -> x + 1);
+        StepVerifier.create(transformed, 1)
+                    .expectNext(2)
+                    .thenCancel()
+                    .verify();
+        assertThat(fixed.whenComplete()).isCompletedExceptionally();
+    }
+
+    @Test
+    void transformFixedStreamOnlyWhenRequested() throws Exception {
+        final StreamMessage<Integer> fixed = StreamMessage.of(1, 2, 3);
+        final AtomicInteger numInvocations = new AtomicInteger();
+        final AtomicReference<Thread> invokedThread = new AtomicReference<>();
+        final StreamMessage<Integer> transformed = fixed.map(x -> {
+            numInvocations.incrementAndGet();
+            invokedThread.set(Thread.currentThread());
+            return x + 1;
+        }).peek(x -> numInvocations.incrementAndGet());
+
+        final AtomicReference<Subscription> subscriptionRef = new AtomicReference<>();
+        final AtomicBoolean completed = new AtomicBoolean();
+        transformed.subscribe(new Subscriber<Integer>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscriptionRef.set(s);
+            }
+
+            @Override
+            public void onNext(Integer integer) {}
+
+            @Override
+            public void onError(Throwable t) {}
+
+            @Override
+            public void onComplete() {
+                completed.set(true);
+            }
+        }, eventLoop.get());
+
+        await().until(() -> subscriptionRef.get() != null);
+        // Wait for a while to make sure that no function runs without demand.
+        Thread.sleep(200);
+        assertThat(numInvocations).hasValue(0);
+
+        subscriptionRef.get().request(Long.MAX_VALUE);
+        await().untilTrue(completed);
+        assertThat(numInvocations).hasValue(6);
+        // The functions run on the executor of the subscriber.
+        final Thread eventLoopThread = eventLoop.get().submit(Thread::currentThread).get();
+        assertThat(invokedThread).hasValue(eventLoopThread);
+    }
+
+    @Test
+    void noTransformationAfterEarlyCancellation() {
+        final ByteBuf buf1 = Unpooled.buffer().writeByte(1);
+        final ByteBuf buf2 = Unpooled.buffer().writeByte(2);
+        final StreamMessage<HttpData> fixed = StreamMessage.of(HttpData.wrap(buf1), HttpData.wrap(buf2));
+        final AtomicInteger numInvocations = new AtomicInteger();
+        final StreamMessage<HttpData> transformed = fixed.peek(x -> numInvocations.incrementAndGet())
+                                                         .filter(x -> numInvocations.incrementAndGet() > 0);
+        final AtomicReference<Throwable> causeRef = new AtomicReference<>();
+        transformed.subscribe(new Subscriber<HttpData>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.cancel();
+                // Should be ignored after the cancellation.
+                s.request(1);
+            }
+
+            @Override
+            public void onNext(HttpData data) {}
+
+            @Override
+            public void onError(Throwable t) {
+                causeRef.set(t);
+            }
+
+            @Override
+            public void onComplete() {}
+        }, eventLoop.get(), SubscriptionOption.NOTIFY_CANCELLATION);
+
+        await().untilAsserted(() -> assertThat(causeRef.get())
+                .isInstanceOf(CancelledSubscriptionException.class));
+        assertThat(numInvocations).hasValue(0);
+        // The drained objects are released without being transformed.
+        assertThat(buf1.refCnt()).isZero();
+        assertThat(buf2.refCnt()).isZero();
+        assertThat(fixed.whenComplete()).isCompletedExceptionally();
+    }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.test.StepVerifier;
+
+class MergeStreamMessageTest {
+
+    @Test
+    void mergeAll() {
+        final StreamMessage<Integer> merged =
+                StreamMessage.merge(StreamMessage.of(1, 2, 3), StreamMessage.of(4, 5), StreamMessage.of(6));
+        assertThat(merged.collect().join()).containsExactlyInAnyOrder(1, 2, 3, 4, 5, 6);
+        assertThat(merged.whenComplete()).isDone();
+    }
+
+    @Test
+    void roundRobin() {
+        final StreamMessage<Integer> merged = StreamMessage.merge(
+                ImmutableList.of(StreamMessage.of(1, 2, 3), StreamMessage.of(10, 20, 30)), 4);
+        // Request after all sources prefetched their elements so that they are interleaved.
+        StepVerifier.create(merged, 0)
+                    .expectSubscription()
+                    .thenAwait(Duration.ofMillis(100))
+                    .thenRequest(6)
+                    .expectNext(1, 10, 2, 20, 3, 30)
+                    .verifyComplete();
+    }
+
+    @Test
+    void interleaveLiveStreams() {
+        final StreamWriter<String> first = StreamMessage.streaming();
+        final StreamWriter<String> second = StreamMessage.streaming();
+        final StreamMessage<String> merged = StreamMessage.merge(first, second);
+        StepVerifier.create(merged)
+                    .then(() -> second.write("b1"))
+                    .expectNext("b1")
+                    .then(() -> first.write("a1"))
+                    .expectNext("a1")
+                    .then(() -> {
+                        first.close();
+                        second.write("b2");
+                        second.close();
+                    })
+                    .expectNext("b2")
+                    .verifyComplete();
+    }
+
+    @Test
+    void backpressure() {
+        final StreamMessage<Integer> merged = StreamMessage.merge(
+                ImmutableList.of(StreamMessage.of(1, 2, 3), StreamMessage.of(4, 5, 6)), 1);
+        StepVerifier.create(merged, 1)
+                    .expectNextCount(1)
+                    .thenRequest(2)
+                    .expectNextCount(2)
+                    .thenRequest(Long.MAX_VALUE)
+                    .expectNextCount(3)
+                    .verifyComplete();
+    }
+
+    @Test
+    void failWhenOneSourceFails() {
+        final StreamWriter<Integer> live = StreamMessage.streaming();
+        final StreamMessage<Integer> merged =
+                StreamMessage.merge(live, StreamMessage.aborted(new IllegalStateException("failed")));
+        assertThatThrownBy(() -> merged.collect().join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        // The other sources should be cancelled.
+        assertThat(live.whenComplete()).isCompletedExceptionally();
+    }
+
+    @Test
+    void invalidPrefetch() {
+        assertThatThrownBy(() -> StreamMessage.merge(ImmutableList.of(StreamMessage.of(1)), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
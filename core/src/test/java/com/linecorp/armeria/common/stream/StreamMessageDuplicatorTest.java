@@ -45,6 +45,7 @@ import org.reactivestreams.Subscription;
 
 import com.google.common.base.Charsets;
 
+import com.linecorp.armeria.common.ContentTooLargeException;
 import com.linecorp.armeria.common.HttpData;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.stream.DefaultStreamMessageDuplicator.DownstreamSubscription;
@@ -323,7 +324,7 @@ class StreamMessageDuplicatorTest {
         queue.requestRemovalAheadOf(8);
         assertThat(queue.size()).isEqualTo(10); // removing elements happens when adding a element
 
-        int removedLength = queue.addAndRemoveIfRequested(httpData(10));
+        long removedLength = queue.addAndRemoveIfRequested(httpData(10));
         assertThat(removedLength).isEqualTo(8 * 4);
         assertThat(queue.size()).isEqualTo(3); // 11 - 8 elements
         assertRefCnt(0, 8, 0);
@@ -585,6 +586,30 @@ class StreamMessageDuplicatorTest {
         duplicator.close();
     }
 
+    @Test
+    void signalLengthBeyondIntegerMaxValue() {
+        final long oneGiB = 1L << 30;
+        // Pretend that each signal is 1 GiB long.
+        final DefaultStreamMessageDuplicator<String> unlimited =
+                new DefaultStreamMessageDuplicator<>(StreamMessage.of("a", "b", "c"), obj -> (int) oneGiB,
+                                                     ImmediateEventExecutor.INSTANCE, 0);
+        assertThat(unlimited.duplicate().collect().join()).containsExactly("a", "b", "c");
+        unlimited.close();
+
+        final DefaultStreamMessageDuplicator<String> limited =
+                new DefaultStreamMessageDuplicator<>(StreamMessage.of("a", "b", "c", "d"), obj -> (int) oneGiB,
+                                                     ImmediateEventExecutor.INSTANCE, 3 * oneGiB);
+        assertThatThrownBy(() -> limited.duplicate().collect().join())
+                .hasCauseInstanceOf(ContentTooLargeException.class)
+                .cause()
+                .satisfies(cause -> {
+                    final ContentTooLargeException tooLarge = (ContentTooLargeException) cause;
+                    assertThat(tooLarge.maxContentLength()).isEqualTo(3 * oneGiB);
+                    assertThat(tooLarge.transferred()).isEqualTo(4 * oneGiB);
+                });
+        limited.close();
+    }
+
     private static void add(SignalQueue queue, int from, int to) {
         for (int i = from; i < to; i++) {
             queue.addAndRemoveIfRequested(httpData(i));
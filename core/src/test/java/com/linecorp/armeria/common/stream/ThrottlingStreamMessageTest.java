@@ -0,0 +1,115 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Ticker;
+
+import reactor.test.StepVerifier;
+
+class ThrottlingStreamMessageTest {
+
+    @Test
+    void reserve() {
+        final AtomicLong nanos = new AtomicLong();
+        final Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        };
+        // 1000 permits per second, i.e. 1 millisecond per permit.
+        final StreamRateLimiter limiter = new StreamRateLimiter(1000, 100, ticker);
+
+        // A full bucket allows the burst.
+        assertThat(limiter.reserve(100)).isZero();
+        assertThat(limiter.reserve(10)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(limiter.reserve(10)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+
+        // The debt is paid off as time passes.
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(limiter.reserve(0)).isZero();
+        assertThat(limiter.reserve(1)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(1));
+
+        // An idle bucket does not hold more than the max burst.
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThat(limiter.reserve(100)).isZero();
+        assertThat(limiter.reserve(1)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @Test
+    void throttle() {
+        final StreamMessage<byte[]> stream = StreamMessage.of(new byte[1000], new byte[1000],
+                                                              new byte[1000], new byte[1000]);
+        // The first 1000 bytes are sent immediately and the next 3000 bytes take 300 milliseconds.
+        final StreamRateLimiter limiter = StreamRateLimiter.of(10_000, 1000);
+        final Stopwatch stopwatch = Stopwatch.createStarted();
+        final List<byte[]> collected = stream.throttle(limiter, bytes -> bytes.length).collect().join();
+        assertThat(collected).hasSize(4);
+        assertThat(stopwatch.elapsed(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(250);
+    }
+
+    @Test
+    void throttleWithBackpressure() {
+        final StreamMessage<Integer> stream = StreamMessage.of(1, 2, 3);
+        final StreamMessage<Integer> throttled = stream.throttle(StreamRateLimiter.of(100, 1), unused -> 1);
+        StepVerifier.create(throttled, 1)
+                    .expectNext(1)
+                    .thenRequest(1)
+                    .expectNext(2)
+                    .thenRequest(1)
+                    .expectNext(3)
+                    .verifyComplete();
+    }
+
+    @Test
+    void cancelWhileDelayed() {
+        final StreamWriter<Integer> writer = StreamMessage.streaming();
+        final StreamMessage<Integer> throttled =
+                writer.throttle(StreamRateLimiter.of(1, 1), unused -> 1);
+        StepVerifier.create(throttled)
+                    .then(() -> {
+                        writer.write(1);
+                        // Delayed for a second.
+                        writer.write(2);
+                    })
+                    .expectNext(1)
+                    .thenCancel()
+                    .verify();
+        assertThat(writer.whenComplete()).isCompletedExceptionally();
+    }
+
+    @Test
+    void propagateErrorAfterDelayedElement() {
+        final StreamMessage<Integer> stream =
+                StreamMessage.concat(StreamMessage.of(1, 2),
+                                     StreamMessage.aborted(new IllegalStateException()));
+        final StreamMessage<Integer> throttled = stream.throttle(StreamRateLimiter.of(10, 1), unused -> 1);
+        StepVerifier.create(throttled)
+                    .expectNext(1, 2)
+                    .expectError(IllegalStateException.class)
+                    .verify();
+    }
+}
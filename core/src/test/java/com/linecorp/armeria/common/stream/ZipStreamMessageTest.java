@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import reactor.test.StepVerifier;
+
+class ZipStreamMessageTest {
+
+    @Test
+    void zipTwo() {
+        final StreamMessage<String> zipped = StreamMessage.zip(StreamMessage.of(1, 2, 3),
+                                                               StreamMessage.of("a", "b"),
+                                                               (num, str) -> num + str);
+        assertThat(zipped.collect().join()).containsExactly("1a", "2b");
+    }
+
+    @Test
+    void zipMany() {
+        final StreamMessage<Integer> zipped = StreamMessage.zip(
+                ImmutableList.of(StreamMessage.of(1, 2), StreamMessage.of(10, 20), StreamMessage.of(100, 200)),
+                items -> items.stream().mapToInt(Integer::intValue).sum());
+        assertThat(zipped.collect().join()).containsExactly(111, 222);
+    }
+
+    @Test
+    void zipLiveStreams() {
+        final StreamWriter<Integer> first = StreamMessage.streaming();
+        final StreamWriter<Integer> second = StreamMessage.streaming();
+        final StreamMessage<Integer> zipped = StreamMessage.zip(first, second, Integer::sum);
+        StepVerifier.create(zipped)
+                    .then(() -> {
+                        first.write(1);
+                        first.write(2);
+                    })
+                    .expectNoEvent(Duration.ofMillis(100))
+                    .then(() -> second.write(10))
+                    .expectNext(11)
+                    .then(second::close)
+                    .verifyComplete();
+        // The remaining source should be cancelled.
+        assertThat(first.whenComplete()).isCompletedExceptionally();
+    }
+
+    @Test
+    void combinerFailure() {
+        final StreamMessage<Integer> zipped = StreamMessage.zip(StreamMessage.of(1), StreamMessage.of(2),
+                                                                (a, b) -> {
+                                                                    throw new IllegalStateException();
+                                                                });
+        assertThatThrownBy(() -> zipped.collect().join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.common.TlsKeyPair;
+import com.linecorp.armeria.common.TlsProvider;
+import com.linecorp.armeria.common.util.TlsEngineType;
+import com.linecorp.armeria.internal.common.SslContextFactory.SslContextMode;
+import com.linecorp.armeria.testing.junit5.server.SelfSignedCertificateExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.ssl.SslContext;
+
+class SslContextFactoryTest {
+
+    @RegisterExtension
+    static final SelfSignedCertificateExtension fooCert = new SelfSignedCertificateExtension("foo.com");
+
+    @RegisterExtension
+    static final SelfSignedCertificateExtension barCert = new SelfSignedCertificateExtension("bar.com");
+
+    @RegisterExtension
+    static final SelfSignedCertificateExtension bazCert = new SelfSignedCertificateExtension("baz.com");
+
+    private static TlsProvider tlsProvider() {
+        return TlsProvider.builder()
+                          .keyPair("foo.com", fooCert.tlsKeyPair())
+                          .keyPair("bar.com", barCert.tlsKeyPair())
+                          .keyPair("baz.com", bazCert.tlsKeyPair())
+                          .build();
+    }
+
+    @Test
+    void shouldKeepIdleContextsUpToLimit() {
+        final SslContextFactory factory = new SslContextFactory(tlsProvider(), TlsEngineType.JDK, null,
+                                                                new SimpleMeterRegistry(), 2);
+        final SslContext foo = factory.getOrCreate(SslContextMode.SERVER, "foo.com");
+        final SslContext bar = factory.getOrCreate(SslContextMode.SERVER, "bar.com");
+        final SslContext baz = factory.getOrCreate(SslContextMode.SERVER, "baz.com");
+        assertThat(factory.numCachedContexts()).isEqualTo(3);
+
+        factory.release(foo);
+        factory.release(bar);
+        assertThat(factory.numIdleContexts()).isEqualTo(2);
+        assertThat(factory.numCachedContexts()).isEqualTo(3);
+
+        // The least recently released one should be evicted.
+        factory.release(baz);
+        assertThat(factory.numIdleContexts()).isEqualTo(2);
+        assertThat(factory.numCachedContexts()).isEqualTo(2);
+
+        // An idle context should be reused.
+        assertThat(factory.getOrCreate(SslContextMode.SERVER, "bar.com")).isSameAs(bar);
+        assertThat(factory.numIdleContexts()).isOne();
+        assertThat(factory.getOrCreate(SslContextMode.SERVER, "foo.com")).isNotSameAs(foo);
+    }
+
+    @Test
+    void shouldDestroyContextsWithoutIdleCache() {
+        final SslContextFactory factory = new SslContextFactory(tlsProvider(), TlsEngineType.JDK, null,
+                                                                new SimpleMeterRegistry());
+        final SslContext foo = factory.getOrCreate(SslContextMode.SERVER, "foo.com");
+        factory.release(foo);
+        assertThat(factory.numCachedContexts()).isZero();
+        assertThat(factory.numIdleContexts()).isZero();
+    }
+
+    @Test
+    void shouldLoadKeyPairAsynchronously() {
+        final AtomicInteger asyncLookups = new AtomicInteger();
+        final TlsProvider delegate = tlsProvider();
+        final TlsProvider tlsProvider = new TlsProvider() {
+            @Override
+            public TlsKeyPair keyPair(String hostname) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<TlsKeyPair> keyPairAsync(String hostname) {
+                asyncLookups.incrementAndGet();
+                return CompletableFuture.supplyAsync(() -> delegate.keyPair(hostname));
+            }
+        };
+        final SslContextFactory factory = new SslContextFactory(tlsProvider, TlsEngineType.JDK, null,
+                                                                new SimpleMeterRegistry());
+        final SslContext foo1 = factory.getOrCreateAsync(SslContextMode.SERVER, "foo.com",
+                                                         Runnable::run).join();
+        final SslContext foo2 = factory.getOrCreateAsync(SslContextMode.SERVER, "foo.com",
+                                                         Runnable::run).join();
+        assertThat(foo1).isSameAs(foo2);
+        assertThat(asyncLookups).hasValue(2);
+        assertThat(factory.numCachedContexts()).isOne();
+
+        factory.release(foo1);
+        factory.release(foo2);
+        assertThat(factory.numCachedContexts()).isZero();
+
+        assertThatThrownBy(() -> factory.getOrCreateAsync(SslContextMode.SERVER, "qux.com",
+                                                          Runnable::run).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+}
@@ -29,10 +29,14 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import com.google.common.collect.ImmutableMap;
 
+import com.linecorp.armeria.common.Flags;
 import com.linecorp.armeria.common.util.TransportType;
 
 import io.netty.channel.ChannelOption;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.incubator.channel.uring.IOUringChannelOption;
 
 public class ChannelUtilTest {
@@ -157,4 +161,19 @@ public class ChannelUtilTest {
                 true, type, userDefinedOptions, 0, pingIntervalMillis);
         assertThat(newOptions).containsExactlyInAnyOrderEntriesOf(userDefinedOptions);
     }
+
+    @Test
+    void transportTypeOfEventLoopGroup() {
+        final EventLoopGroup nioGroup = new NioEventLoopGroup(1);
+        final EventLoopGroup defaultGroup = new DefaultEventLoopGroup(1);
+        try {
+            assertThat(ChannelUtil.transportType(nioGroup)).isSameAs(TransportType.NIO);
+            assertThat(ChannelUtil.transportType(nioGroup.next())).isSameAs(TransportType.NIO);
+            // Fall back to the default transport type for an unknown EventLoopGroup.
+            assertThat(ChannelUtil.transportType(defaultGroup)).isSameAs(Flags.transportType());
+        } finally {
+            nioGroup.shutdownGracefully();
+            defaultGroup.shutdownGracefully();
+        }
+    }
 }
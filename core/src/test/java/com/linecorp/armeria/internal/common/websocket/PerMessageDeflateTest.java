@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package com.linecorp.armeria.internal.common.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.linecorp.armeria.common.websocket.PerMessageDeflateConfig;
+
+class PerMessageDeflateTest {
+
+    private static final PerMessageDeflateConfig config = PerMessageDeflateConfig.of();
+
+    @Test
+    void negotiate() {
+        assertThat(PerMessageDeflate.negotiate(null, config)).isNull();
+        assertThat(PerMessageDeflate.negotiate("x-webkit-deflate-frame", config)).isNull();
+
+        PerMessageDeflate negotiated = PerMessageDeflate.negotiate("permessage-deflate", config);
+        assertThat(negotiated).isNotNull();
+        assertThat(negotiated.toResponseHeaderValue()).isEqualTo("permessage-deflate");
+
+        negotiated = PerMessageDeflate.negotiate(
+                "permessage-deflate; client_max_window_bits; server_max_window_bits=15", config);
+        assertThat(negotiated).isNotNull();
+        assertThat(negotiated.toResponseHeaderValue()).isEqualTo("permessage-deflate");
+
+        negotiated = PerMessageDeflate.negotiate("permessage-deflate; server_no_context_takeover", config);
+        assertThat(negotiated).isNotNull();
+        assertThat(negotiated.serverNoContextTakeover()).isTrue();
+        assertThat(negotiated.clientNoContextTakeover()).isFalse();
+        assertThat(negotiated.toResponseHeaderValue())
+                .isEqualTo("permessage-deflate; server_no_context_takeover");
+    }
+
+    @Test
+    void negotiateFallbackOffer() {
+        // Deflater cannot limit its window, so the first offer is declined.
+        final PerMessageDeflate negotiated = PerMessageDeflate.negotiate(
+                "permessage-deflate; server_max_window_bits=10, permessage-deflate", config);
+        assertThat(negotiated).isNotNull();
+        assertThat(negotiated.toResponseHeaderValue()).isEqualTo("permessage-deflate");
+    }
+
+    @ValueSource(strings = {
+            "permessage-deflate; server_max_window_bits=10",
+            "permessage-deflate; client_max_window_bits=16",
+            "permessage-deflate; server_no_context_takeover=true",
+            "permessage-deflate; server_no_context_takeover; server_no_context_takeover",
+            "permessage-deflate; unknown"
+    })
+    @ParameterizedTest
+    void declineOffer(String offer) {
+        assertThat(PerMessageDeflate.negotiate(offer, config)).isNull();
+    }
+
+    @Test
+    void negotiateWithConfig() {
+        final PerMessageDeflateConfig config = PerMessageDeflateConfig.builder()
+                                                                      .serverNoContextTakeover(true)
+                                                                      .clientNoContextTakeover(true)
+                                                                      .build();
+        final PerMessageDeflate negotiated = PerMessageDeflate.negotiate("permessage-deflate", config);
+        assertThat(negotiated).isNotNull();
+        assertThat(negotiated.toResponseHeaderValue()).isEqualTo(
+                "permessage-deflate; server_no_context_takeover; client_no_context_takeover");
+        assertThat(PerMessageDeflate.offer(config)).isEqualTo(
+                "permessage-deflate; server_no_context_takeover; client_no_context_takeover");
+        assertThat(PerMessageDeflate.offer(PerMessageDeflateConfig.of())).isEqualTo("permessage-deflate");
+    }
+
+    @Test
+    void accept() {
+        assertThat(PerMessageDeflate.accept(null, config)).isNull();
+        assertThat(PerMessageDeflate.accept("foo", config)).isNull();
+
+        final PerMessageDeflate accepted = PerMessageDeflate.accept(
+                "permessage-deflate; server_max_window_bits=\"12\"; client_no_context_takeover", config);
+        assertThat(accepted).isNotNull();
+        assertThat(accepted.serverNoContextTakeover()).isFalse();
+        assertThat(accepted.clientNoContextTakeover()).isTrue();
+    }
+
+    @ValueSource(strings = {
+            "permessage-deflate; client_max_window_bits=10",
+            "permessage-deflate; server_max_window_bits=7",
+            "permessage-deflate; server_no_context_takeover; server_no_context_takeover",
+            "permessage-deflate, permessage-deflate"
+    })
+    @ParameterizedTest
+    void rejectInvalidResponse(String response) {
+        assertThatThrownBy(() -> PerMessageDeflate.accept(response, config))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
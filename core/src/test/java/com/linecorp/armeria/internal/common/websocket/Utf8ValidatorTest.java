@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package com.linecorp.armeria.internal.common.websocket;
+package com.linecorp.armeria.internal.common.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.google.common.base.Strings;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+class Utf8ValidatorTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "", "a", "0123456", "01234567", "012345678",
+            "Hello, Armeria! Hello, Armeria! Hello, Armeria!",
+            "안녕하세요", "ASCII 앞에 한글", "한글 after ASCII",
+            "1234567가", "12345678가나다 12345678",
+            "emoji 😀 in the middle of ASCII bytes 😀😀", "¢€𐍈 mixed 2, 3 and 4 bytes"
+    })
+    void validUtf8(String text) {
+        for (int offset = 0; offset < 8; offset++) {
+            // Move the multibyte sequences across the word boundaries.
+            final String shifted = Strings.repeat("x", offset) + text;
+            final ByteBuf buf = Unpooled.copiedBuffer(shifted, StandardCharsets.UTF_8);
+            try {
+                final Utf8Validator validator = new Utf8Validator();
+                validator.check(buf, buf.readerIndex(), buf.readableBytes());
+                assertThat(validator.isComplete()).isTrue();
+            } finally {
+                buf.release();
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "ff", "c0af", "e080af", "eda080", "f4908080",
+            // A continuation byte after 8 ASCII bytes.
+            "303132333435363780",
+            // A truncated sequence followed by ASCII bytes.
+            "e282303132333435363738",
+    })
+    void invalidUtf8(String hex) {
+        for (int offset = 0; offset < 8; offset++) {
+            final ByteBuf buf = Unpooled.buffer();
+            buf.writeCharSequence(Strings.repeat("x", offset), StandardCharsets.US_ASCII);
+            buf.writeBytes(ByteBufUtil.decodeHexDump(hex));
+            try {
+                assertThatThrownBy(() -> new Utf8Validator().check(buf, 0, buf.readableBytes()))
+                        .isInstanceOf(IllegalArgumentException.class);
+            } finally {
+                buf.release();
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "c2", "e282", "f09f98", "3031323334353637e282" })
+    void incompleteUtf8(String hex) {
+        final ByteBuf buf = Unpooled.wrappedBuffer(ByteBufUtil.decodeHexDump(hex));
+        final Utf8Validator validator = new Utf8Validator();
+        validator.check(buf, 0, buf.readableBytes());
+        assertThat(validator.isComplete()).isFalse();
+    }
+}
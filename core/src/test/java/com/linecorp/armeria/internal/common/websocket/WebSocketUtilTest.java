@@ -17,11 +17,16 @@ package com.linecorp.armeria.internal.common.websocket;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 import org.junit.jupiter.api.Test;
 
 import com.linecorp.armeria.common.websocket.CloseWebSocketFrame;
 import com.linecorp.armeria.server.websocket.WebSocketProtocolViolationException;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import joptsimple.internal.Strings;
 
 class WebSocketUtilTest {
@@ -35,4 +40,42 @@ class WebSocketUtilTest {
         assertThat(closeWebSocketFrame.reasonPhrase()).isEqualTo(
                 reasonPhrase.substring(0, 111) + "...(truncated)");
     }
+
+    @Test
+    void unmask() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int length = 0; length <= 72; length++) {
+            final byte[] payload = new byte[length];
+            random.nextBytes(payload);
+            final int mask = random.nextInt();
+            final byte[] expected = new byte[length];
+            for (int i = 0; i < length; i++) {
+                expected[i] = (byte) (payload[i] ^ WebSocketUtil.byteAtIndex(mask, i & 3));
+            }
+
+            assertUnmasked(Unpooled.buffer(length).writeBytes(payload), mask, expected);
+            assertUnmasked(Unpooled.directBuffer(length).writeBytes(payload), mask, expected);
+            // The payload does not start from the beginning of the memory.
+            for (int offset = 1; offset < 8; offset++) {
+                final ByteBuf heap = Unpooled.buffer(offset + length).writerIndex(offset).writeBytes(payload);
+                assertUnmasked(heap.skipBytes(offset), mask, expected);
+                final ByteBuf direct = Unpooled.directBuffer(offset + length).writeZero(offset)
+                                               .writeBytes(payload);
+                assertUnmasked(direct.slice(offset, length), mask, expected);
+            }
+            assertUnmasked(Unpooled.wrappedBuffer(Unpooled.wrappedBuffer(payload, 0, length / 2),
+                                                  Unpooled.wrappedBuffer(payload.clone(), length / 2,
+                                                                         length - length / 2)),
+                           mask, expected);
+        }
+    }
+
+    private static void assertUnmasked(ByteBuf buf, int mask, byte[] expected) {
+        try {
+            WebSocketUtil.unmask(buf, mask);
+            assertThat(ByteBufUtil.getBytes(buf)).isEqualTo(expected);
+        } finally {
+            buf.release();
+        }
+    }
 }
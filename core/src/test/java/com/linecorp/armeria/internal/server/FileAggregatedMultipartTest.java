@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Strings;
+
+import com.linecorp.armeria.common.ContentDisposition;
+import com.linecorp.armeria.common.ContentTooLargeException;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.multipart.BodyPart;
+import com.linecorp.armeria.common.multipart.Multipart;
+import com.linecorp.armeria.common.multipart.MultipartFile;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+class FileAggregatedMultipartTest {
+
+    @Test
+    void aggregateWithinBudget() throws Exception {
+        final HttpRequest req = newRequest("foo", "bar");
+        final ServiceRequestContext ctx = ServiceRequestContext.of(req);
+        final FileAggregatedMultipart aggregated =
+                FileAggregatedMultipart.aggregateMultipart(ctx, req, 3, 6).join();
+        assertThat(aggregated.params().get("param")).containsExactly("foo");
+        final MultipartFile file = aggregated.files().get("file").get(0);
+        assertThat(Files.readAllBytes(file.path())).isEqualTo("bar".getBytes());
+        Files.delete(file.path());
+    }
+
+    @Test
+    void partLengthExceeded() {
+        final HttpRequest req = newRequest("foo", Strings.repeat("a", 1024));
+        final ServiceRequestContext ctx = ServiceRequestContext.of(req);
+        assertThatThrownBy(() -> FileAggregatedMultipart.aggregateMultipart(ctx, req, 512, 0).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(ContentTooLargeException.class)
+                .satisfies(cause -> {
+                    final ContentTooLargeException tooLarge = (ContentTooLargeException) cause.getCause();
+                    assertThat(tooLarge.maxContentLength()).isEqualTo(512);
+                });
+    }
+
+    @Test
+    void totalLengthExceeded() {
+        final HttpRequest req = newRequest(Strings.repeat("a", 6), Strings.repeat("b", 6));
+        final ServiceRequestContext ctx = ServiceRequestContext.of(req);
+        // Each part is within the part limit, but the parts exceed the total limit together.
+        assertThatThrownBy(() -> FileAggregatedMultipart.aggregateMultipart(ctx, req, 8, 10).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(ContentTooLargeException.class)
+                .satisfies(cause -> {
+                    final ContentTooLargeException tooLarge = (ContentTooLargeException) cause.getCause();
+                    assertThat(tooLarge.maxContentLength()).isEqualTo(10);
+                });
+    }
+
+    private static HttpRequest newRequest(String param, String fileContent) {
+        final Multipart multipart = Multipart.of(
+                BodyPart.of(ContentDisposition.of("form-data", "param"), param),
+                BodyPart.of(ContentDisposition.of("form-data", "file", "file.txt"), fileContent));
+        return multipart.toHttpRequest("/upload");
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.server.annotation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.ParameterizedType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.reactivestreams.Publisher;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import com.linecorp.armeria.common.AggregatedHttpRequest;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpRequestWriter;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.stream.StreamMessage;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.annotation.Post;
+import com.linecorp.armeria.server.annotation.RequestConverter;
+import com.linecorp.armeria.server.annotation.RequestConverterFunction;
+import com.linecorp.armeria.server.annotation.RequestObject;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+class AnnotatedServiceJsonStreamTest {
+
+    private static final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.annotatedService(new JsonStreamService());
+            sb.annotatedService("/converted", new ConvertedStreamService());
+        }
+    };
+
+    @Test
+    void jsonArray() {
+        final String content = "[{\"name\":\"foo\"}, {\"name\":\"bar\"}, {\"name\":\"baz\"}]";
+        final AggregatedHttpResponse response =
+                server.blockingWebClient().execute(newRequest("/items", MediaType.JSON), content);
+        assertThat(response.status()).isEqualTo(HttpStatus.OK);
+        assertThat(response.contentUtf8()).isEqualTo("foo,bar,baz");
+    }
+
+    @Test
+    void jsonLines() {
+        final AggregatedHttpResponse response =
+                server.blockingWebClient().execute(newRequest("/nodes", MediaType.JSON_LINES),
+                                                   "{\"name\":\"foo\"}\n1\n\"bar\"\n[true]\n");
+        assertThat(response.status()).isEqualTo(HttpStatus.OK);
+        assertThat(response.contentUtf8()).isEqualTo("{\"name\":\"foo\"},1,\"bar\",[true]");
+    }
+
+    @Test
+    void jsonTextSequences() {
+        final AggregatedHttpResponse response =
+                server.blockingWebClient().execute(newRequest("/items", MediaType.JSON_SEQ),
+                                                   "\u001e{\"name\":\"foo\"}\n\u001e{\"name\":\"bar\"}\n");
+        assertThat(response.status()).isEqualTo(HttpStatus.OK);
+        assertThat(response.contentUtf8()).isEqualTo("foo,bar");
+    }
+
+    @Test
+    void elementsArePublishedAsTheyArrive() throws Exception {
+        received.clear();
+        final HttpRequestWriter request = HttpRequest.streaming(newRequest("/incremental", MediaType.JSON));
+        final CompletableFuture<AggregatedHttpResponse> response =
+                server.webClient().execute(request).aggregate();
+
+        // Split an element across two chunks.
+        request.write(HttpData.ofUtf8("[{\"name\":\"foo\"}, {\"na"));
+        assertThat(received.poll(10, TimeUnit.SECONDS)).isEqualTo("foo");
+        request.write(HttpData.ofUtf8("me\":\"bar\"}"));
+        assertThat(received.poll(10, TimeUnit.SECONDS)).isEqualTo("bar");
+        request.write(HttpData.ofUtf8("]"));
+        request.close();
+
+        assertThat(response.join().contentUtf8()).isEqualTo("2");
+    }
+
+    @Test
+    void malformedJson() {
+        final AggregatedHttpResponse response =
+                server.blockingWebClient().execute(newRequest("/items", MediaType.JSON),
+                                                   "[{\"name\":\"foo\"}, {\"name\":");
+        assertThat(response.status()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void notAnArray() {
+        final AggregatedHttpResponse response =
+                server.blockingWebClient().execute(newRequest("/items", MediaType.JSON),
+                                                   "{\"name\":\"foo\"}");
+        assertThat(response.status()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void unsupportedContentType() {
+        final AggregatedHttpResponse response =
+                server.blockingWebClient().execute(newRequest("/items", MediaType.PLAIN_TEXT), "foo");
+        assertThat(response.status()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void classLevelConverterTakesPrecedence() {
+        final AggregatedHttpResponse response =
+                server.blockingWebClient().execute(newRequest("/converted/names", MediaType.PLAIN_TEXT),
+                                                   "foo;bar");
+        assertThat(response.status()).isEqualTo(HttpStatus.OK);
+        assertThat(response.contentUtf8()).isEqualTo("converted:foo,converted:bar");
+    }
+
+    @Test
+    void fallBackToJsonStreamWhenConvertersFallThrough() {
+        final AggregatedHttpResponse response =
+                server.blockingWebClient().execute(newRequest("/converted/names", MediaType.JSON),
+                                                   "[\"foo\", \"bar\"]");
+        assertThat(response.status()).isEqualTo(HttpStatus.OK);
+        assertThat(response.contentUtf8()).isEqualTo("foo,bar");
+    }
+
+    private static RequestHeaders newRequest(String path, MediaType contentType) {
+        return RequestHeaders.builder(HttpMethod.POST, path)
+                             .contentType(contentType)
+                             .build();
+    }
+
+    private static final class Item {
+        private final String name;
+
+        @JsonCreator
+        Item(@JsonProperty("name") String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class JsonStreamService {
+
+        @Post("/items")
+        public CompletableFuture<String> items(@RequestObject StreamMessage<Item> items) {
+            return items.collect().thenApply(list -> list.stream()
+                                                         .map(item -> item.name)
+                                                         .collect(Collectors.joining(",")));
+        }
+
+        @Post("/nodes")
+        public CompletableFuture<String> nodes(@RequestObject Publisher<JsonNode> nodes) {
+            return StreamMessage.of(nodes).collect().thenApply(list -> list.stream()
+                                                                           .map(JsonNode::toString)
+                                                                           .collect(Collectors.joining(",")));
+        }
+
+        @Post("/incremental")
+        public CompletableFuture<String> incremental(@RequestObject StreamMessage<Item> items) {
+            return items.peek(item -> received.add(item.name))
+                        .collect()
+                        .thenApply(List::size)
+                        .thenApply(String::valueOf);
+        }
+    }
+
+    /**
+     * Converts a plain text request into the names separated by semicolons.
+     */
+    private static final class SemicolonSeparatedConverter implements RequestConverterFunction {
+        @Override
+        public Object convertRequest(ServiceRequestContext ctx, AggregatedHttpRequest request,
+                                     Class<?> expectedResultType,
+                                     @Nullable ParameterizedType expectedParameterizedResultType) {
+            final MediaType contentType = request.contentType();
+            if (expectedResultType == Publisher.class && contentType != null &&
+                contentType.is(MediaType.PLAIN_TEXT)) {
+                return StreamMessage.of(Arrays.stream(request.contentUtf8().split(";"))
+                                              .map(name -> "converted:" + name)
+                                              .toArray(String[]::new));
+            }
+            return RequestConverterFunction.fallthrough();
+        }
+    }
+
+    @RequestConverter(SemicolonSeparatedConverter.class)
+    private static final class ConvertedStreamService {
+
+        @Post("/names")
+        public CompletableFuture<String> names(@RequestObject Publisher<String> names) {
+            return StreamMessage.of(names).collect().thenApply(list -> String.join(",", list));
+        }
+    }
+}
@@ -817,4 +817,15 @@ class ServerBuilderTest {
         assertThat(config.http2MaxResetFramesPerWindow()).isEqualTo(99);
         assertThat(config.http2MaxResetFramesWindowSeconds()).isEqualTo(2);
     }
+
+    @Test
+    void http3RequiresTlsProvider() {
+        assertThatThrownBy(() -> Server.builder()
+                                       .port(0, SessionProtocol.H3)
+                                       .tlsSelfSigned()
+                                       .service("/", (ctx, req) -> HttpResponse.of(HttpStatus.OK))
+                                       .build())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("TlsProvider");
+    }
 }
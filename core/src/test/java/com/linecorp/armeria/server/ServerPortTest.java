@@ -19,6 +19,7 @@ import static com.linecorp.armeria.common.SessionProtocol.H1;
 import static com.linecorp.armeria.common.SessionProtocol.H1C;
 import static com.linecorp.armeria.common.SessionProtocol.H2;
 import static com.linecorp.armeria.common.SessionProtocol.H2C;
+import static com.linecorp.armeria.common.SessionProtocol.H3;
 import static com.linecorp.armeria.common.SessionProtocol.HTTP;
 import static com.linecorp.armeria.common.SessionProtocol.HTTPS;
 import static com.linecorp.armeria.common.SessionProtocol.PROXY;
@@ -39,6 +40,7 @@ class ServerPortTest {
         new ServerPort(0, PROXY, HTTP);
         new ServerPort(0, PROXY, HTTPS);
         new ServerPort(0, PROXY, HTTP, HTTPS);
+        assertThat(new ServerPort(0, H3).hasHttp3()).isTrue();
     }
 
     @Test
@@ -48,6 +50,10 @@ class ServerPortTest {
         assertThatThrownBy(() -> new ServerPort(0, H1C)).isInstanceOf(IllegalArgumentException.class);
         assertThatThrownBy(() -> new ServerPort(0, H2)).isInstanceOf(IllegalArgumentException.class);
         assertThatThrownBy(() -> new ServerPort(0, H2C)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ServerPort(0, H3, HTTPS)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ServerPort(0, PROXY, H3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ServerPort(DomainSocketAddress.of("a"), H3))
+                .isInstanceOf(IllegalArgumentException.class);
     }
 
     @Test
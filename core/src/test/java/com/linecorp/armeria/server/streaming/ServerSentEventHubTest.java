@@ -0,0 +1,183 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.streaming;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpObject;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.sse.ServerSentEvent;
+
+import io.netty.util.concurrent.ImmediateEventExecutor;
+
+class ServerSentEventHubTest {
+
+    @Test
+    void broadcast() {
+        final ServerSentEventHub hub = ServerSentEventHub.of();
+        final CompletableFuture<AggregatedHttpResponse> res1 = hub.newResponse((String) null).aggregate();
+        final CompletableFuture<AggregatedHttpResponse> res2 = hub.newResponse((String) null).aggregate();
+        assertThat(hub.numSubscribers()).isEqualTo(2);
+
+        hub.publish(ServerSentEvent.builder().id("1").data("foo").build());
+        hub.publish(ServerSentEvent.ofData("bar"));
+        hub.close();
+
+        for (CompletableFuture<AggregatedHttpResponse> res : ImmutableList.of(res1, res2)) {
+            final AggregatedHttpResponse response = res.join();
+            assertThat(response.headers().contentType()).isEqualTo(MediaType.EVENT_STREAM);
+            assertThat(response.contentUtf8()).isEqualTo("id:1\ndata:foo\n\ndata:bar\n\n");
+        }
+        assertThat(hub.numSubscribers()).isZero();
+    }
+
+    @Test
+    void replayFromLastEventId() {
+        final ServerSentEventHub hub = ServerSentEventHub.of();
+        for (int i = 1; i <= 3; i++) {
+            hub.publish(ServerSentEvent.builder().id(String.valueOf(i)).data("data" + i).build());
+        }
+
+        final RequestHeaders headers = RequestHeaders.builder(HttpMethod.GET, "/events")
+                                                     .add(HttpHeaderNames.LAST_EVENT_ID, "1")
+                                                     .build();
+        final CompletableFuture<AggregatedHttpResponse> res = hub.newResponse(headers).aggregate();
+        // Replay all events if the last event is unknown.
+        final CompletableFuture<AggregatedHttpResponse> unknown = hub.newResponse("unknown").aggregate();
+        hub.publish(ServerSentEvent.builder().id("4").data("data4").build());
+        hub.close();
+
+        assertThat(res.join().contentUtf8())
+                .isEqualTo("id:2\ndata:data2\n\nid:3\ndata:data3\n\nid:4\ndata:data4\n\n");
+        assertThat(unknown.join().contentUtf8())
+                .isEqualTo("id:1\ndata:data1\n\nid:2\ndata:data2\n\n" +
+                           "id:3\ndata:data3\n\nid:4\ndata:data4\n\n");
+    }
+
+    @Test
+    void replayBufferIsBounded() {
+        final ServerSentEventHub hub = ServerSentEventHub.builder().replayBufferSize(1).build();
+        hub.publish(ServerSentEvent.builder().id("1").data("data1").build());
+        hub.publish(ServerSentEvent.builder().id("2").data("data2").build());
+        final CompletableFuture<AggregatedHttpResponse> res = hub.newResponse("0").aggregate();
+        hub.close();
+        assertThat(res.join().contentUtf8()).isEqualTo("id:2\ndata:data2\n\n");
+    }
+
+    @Test
+    void evictSlowSubscriber() {
+        final ServerSentEventHub hub = ServerSentEventHub.builder().maxQueuedEvents(1).build();
+        final HttpResponse slow = hub.newResponse((String) null);
+        // Consume only the headers.
+        slow.subscribe(new Subscriber<HttpObject>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(1);
+            }
+
+            @Override
+            public void onNext(HttpObject obj) {}
+
+            @Override
+            public void onError(Throwable t) {}
+
+            @Override
+            public void onComplete() {}
+        });
+        assertThat(hub.numSubscribers()).isOne();
+
+        // The first event is in flight, the second one is queued and the third one overflows.
+        for (int i = 0; i < 3; i++) {
+            hub.publish(ServerSentEvent.ofData(String.valueOf(i)));
+        }
+        assertThat(hub.numSubscribers()).isZero();
+        hub.close();
+    }
+
+    @Test
+    void publishWithoutHoldingLockWhileWriting() {
+        final ServerSentEventHub hub = ServerSentEventHub.of();
+        final HttpResponse res = hub.newResponse((String) null);
+        final CompletableFuture<Integer> numSubscribers = new CompletableFuture<>();
+        // Receive the events in the publishing thread.
+        res.subscribe(new Subscriber<HttpObject>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(HttpObject obj) {
+                if (obj instanceof HttpData) {
+                    // Another thread can access the hub while an event is being written.
+                    try {
+                        numSubscribers.complete(CompletableFuture.supplyAsync(hub::numSubscribers)
+                                                                 .get(10, TimeUnit.SECONDS));
+                    } catch (Exception e) {
+                        numSubscribers.completeExceptionally(e);
+                    }
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                numSubscribers.completeExceptionally(t);
+            }
+
+            @Override
+            public void onComplete() {}
+        }, ImmediateEventExecutor.INSTANCE);
+
+        hub.publish(ServerSentEvent.ofData("foo"));
+        assertThat(numSubscribers.join()).isOne();
+        hub.close();
+    }
+
+    @Test
+    void removeCancelledSubscriber() {
+        final ServerSentEventHub hub = ServerSentEventHub.of();
+        final HttpResponse res = hub.newResponse((String) null);
+        assertThat(hub.numSubscribers()).isOne();
+        res.abort();
+        await().untilAsserted(() -> assertThat(hub.numSubscribers()).isZero());
+        hub.close();
+    }
+
+    @Test
+    void publishAfterClose() {
+        final ServerSentEventHub hub = ServerSentEventHub.of();
+        hub.close();
+        hub.publish(ServerSentEvent.ofData("foo"));
+        assertThat(hub.newResponse((String) null).aggregate().join().contentUtf8()).isEmpty();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.google.common.base.Stopwatch;
+
+import com.linecorp.armeria.client.BlockingWebClient;
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+class BandwidthLimitingServiceTest {
+
+    // 4 chunks of 1000 bytes.
+    private static final HttpService SERVICE = (ctx, req) -> {
+        final byte[] chunk = new byte[1000];
+        return HttpResponse.of(ResponseHeaders.of(HttpStatus.OK),
+                               HttpData.wrap(chunk), HttpData.wrap(chunk),
+                               HttpData.wrap(chunk), HttpData.wrap(chunk));
+    };
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.route().path("/unlimited").build(SERVICE);
+            sb.route().path("/limited")
+              .decorator(BandwidthLimitingService.newDecorator(10_000))
+              .build(SERVICE);
+            sb.route().path("/limited-per-client")
+              .decorator(BandwidthLimitingService.builder()
+                                                 .maxBytesPerSecondPerClient(10_000, 1000)
+                                                 .newDecorator())
+              .build(SERVICE);
+        }
+    };
+
+    @Test
+    void unlimited() {
+        final AggregatedHttpResponse res = server.blockingWebClient().get("/unlimited");
+        assertThat(res.status()).isEqualTo(HttpStatus.OK);
+        assertThat(res.content().length()).isEqualTo(4000);
+    }
+
+    @Test
+    void burstWithinLimit() {
+        // The bucket holds the bytes of one second, so the response is not delayed.
+        final BlockingWebClient client = server.blockingWebClient();
+        final AggregatedHttpResponse res = client.get("/limited");
+        assertThat(res.status()).isEqualTo(HttpStatus.OK);
+        assertThat(res.content().length()).isEqualTo(4000);
+    }
+
+    @Test
+    void limitPerClient() {
+        final WebClient client = server.webClient();
+        final Stopwatch stopwatch = Stopwatch.createStarted();
+        // The two responses share the limit of the client.
+        final CompletableFuture<AggregatedHttpResponse> res1 = client.get("/limited-per-client").aggregate();
+        final CompletableFuture<AggregatedHttpResponse> res2 = client.get("/limited-per-client").aggregate();
+        assertThat(res1.join().content().length()).isEqualTo(4000);
+        assertThat(res2.join().content().length()).isEqualTo(4000);
+        // 1000 bytes are sent immediately and the other 7000 bytes take 700 milliseconds.
+        assertThat(stopwatch.elapsed(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(600);
+    }
+
+    @Test
+    void noLimit() {
+        assertThatThrownBy(() -> BandwidthLimitingService.builder().build(SERVICE))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.common.metric.MoreMeters;
+import com.linecorp.armeria.common.websocket.WebSocket;
+import com.linecorp.armeria.common.websocket.WebSocketFrame;
+import com.linecorp.armeria.common.websocket.WebSocketFrameType;
+import com.linecorp.armeria.common.websocket.WebSocketWriter;
+import com.linecorp.armeria.internal.common.websocket.EncodedWebSocketFrame;
+import com.linecorp.armeria.internal.common.websocket.WebSocketFrameEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+
+class WebSocketBroadcastGroupTest {
+
+    @Test
+    void broadcast() {
+        final WebSocketBroadcastGroup group = WebSocketBroadcastGroup.of();
+        final WebSocketWriter writer1 = WebSocket.streaming();
+        final WebSocketWriter writer2 = WebSocket.streaming();
+        assertThat(group.add(writer1)).isTrue();
+        assertThat(group.add(writer2)).isTrue();
+        assertThat(group.add(writer1)).isFalse();
+        assertThat(group.size()).isEqualTo(2);
+        final CompletableFuture<List<WebSocketFrame>> frames1 = writer1.collect();
+        final CompletableFuture<List<WebSocketFrame>> frames2 = writer2.collect();
+
+        assertThat(group.broadcast("foo")).isEqualTo(2);
+        assertThat(group.broadcast(WebSocketFrame.ofBinary(new byte[] { 1, 2, 3 }))).isEqualTo(2);
+        writer1.close();
+        writer2.close();
+
+        for (CompletableFuture<List<WebSocketFrame>> frames : ImmutableList.of(frames1, frames2)) {
+            final List<WebSocketFrame> received = frames.join();
+            assertThat(received).hasSize(3);
+            assertThat(received.get(0)).isEqualTo(WebSocketFrame.ofText("foo"));
+            assertThat(received.get(1)).isEqualTo(WebSocketFrame.ofBinary(new byte[] { 1, 2, 3 }));
+            assertThat(received.get(2).type()).isEqualTo(WebSocketFrameType.CLOSE);
+        }
+        await().untilAsserted(() -> assertThat(group.size()).isZero());
+    }
+
+    @Test
+    void encodedFrameIsWrittenAsIs() {
+        final ByteBufAllocator alloc = ByteBufAllocator.DEFAULT;
+        final WebSocketFrameEncoder encoder = WebSocketFrameEncoder.of(false);
+        for (int length : new int[] { 10, 1000, 70000 }) {
+            final byte[] data = new byte[length];
+            data[length - 1] = 42;
+            final ByteBuf expected = encoder.encode(alloc, WebSocketFrame.ofBinary(data));
+            final EncodedWebSocketFrame encoded =
+                    EncodedWebSocketFrame.encode(alloc, WebSocketFrame.ofBinary(data));
+            final EncodedWebSocketFrame duplicate = encoded.retainedDuplicate();
+            encoded.close();
+
+            assertThat(duplicate.array()).isEqualTo(data);
+            final ByteBuf actual = encoder.encode(alloc, duplicate);
+            assertThat(ByteBufUtil.equals(expected, actual)).isTrue();
+            expected.release();
+            assertThat(actual.release()).isTrue();
+        }
+    }
+
+    @Test
+    void dropFramesForSlowMember() {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final WebSocketBroadcastGroup group = WebSocketBroadcastGroup.builder()
+                                                                     .maxPendingFrames(1)
+                                                                     .meterRegistry(registry)
+                                                                     .build();
+        // Not subscribed, so nothing is consumed.
+        final WebSocketWriter slow = WebSocket.streaming();
+        group.add(slow);
+
+        assertThat(group.broadcast("foo")).isOne();
+        assertThat(group.broadcast("bar")).isZero();
+        assertThat(group.size()).isOne();
+        assertThat(MoreMeters.measureAll(registry))
+                .containsEntry("armeria.server.websocket.broadcast.members#value", 1.0)
+                .containsEntry("armeria.server.websocket.broadcast.frames#count{result=written}", 1.0)
+                .containsEntry("armeria.server.websocket.broadcast.frames#count{result=dropped}", 1.0);
+        slow.abort();
+    }
+
+    @Test
+    void closeSlowMember() {
+        final WebSocketBroadcastGroup group = WebSocketBroadcastGroup.builder()
+                                                                     .maxPendingFrames(1)
+                                                                     .closeSlowMembers(true)
+                                                                     .build();
+        final WebSocketWriter slow = WebSocket.streaming();
+        group.add(slow);
+
+        assertThat(group.broadcast("foo")).isOne();
+        assertThat(group.broadcast("bar")).isZero();
+        assertThat(group.size()).isZero();
+        assertThat(slow.isOpen()).isFalse();
+        slow.abort();
+    }
+
+    @Test
+    void removeMember() {
+        final WebSocketBroadcastGroup group = WebSocketBroadcastGroup.of();
+        final WebSocketWriter writer = WebSocket.streaming();
+        group.add(writer);
+        assertThat(group.remove(writer)).isTrue();
+        assertThat(group.remove(writer)).isFalse();
+        assertThat(group.broadcast("foo")).isZero();
+        writer.abort();
+        assertThat(group.add(writer)).isFalse();
+    }
+}
@@ -46,6 +46,7 @@
 
 package com.linecorp.armeria.common.grpc.protocol;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.Objects.requireNonNull;
 
@@ -81,7 +82,11 @@ public class ArmeriaMessageFramer implements AutoCloseable {
 
     public static final int NO_MAX_OUTBOUND_MESSAGE_SIZE = -1;
 
-    private static final int HEADER_LENGTH = 5;
+    /**
+     * The length of the header which precedes a message in a gRPC frame.
+     */
+    public static final int HEADER_LENGTH = 5;
+
     private static final byte UNCOMPRESSED = 0;
     private static final byte COMPRESSED = 1;
     @VisibleForTesting
@@ -165,6 +170,50 @@ public class ArmeriaMessageFramer implements AutoCloseable {
         }
     }
 
+    /**
+     * Returns whether the messages written by this framer are neither compressed nor encoded with Base64.
+     * If {@code true}, a caller may serialize a message right after the {@link #HEADER_LENGTH} bytes
+     * reserved at the beginning of a buffer and frame it with {@link #writeReservedPayload(ByteBuf)},
+     * which neither copies nor composes the message.
+     */
+    public boolean isWritingInPlace() {
+        return !encodeBase64 && !(messageCompression && compressor != null);
+    }
+
+    /**
+     * Writes out a payload message whose header is filled in place.
+     *
+     * @param frame the {@link ByteBuf} whose readable bytes are the {@link #HEADER_LENGTH} bytes reserved
+     *              for the header followed by the message. Ownership is taken by
+     *              {@link ArmeriaMessageFramer}.
+     *
+     * @return an {@link HttpData} with the framed payload. Ownership is passed to caller.
+     *
+     * @throws IllegalStateException if {@link #isWritingInPlace()} returns {@code false}
+     */
+    public HttpData writeReservedPayload(ByteBuf frame) {
+        requireNonNull(frame, "frame");
+        try {
+            verifyNotClosed();
+            checkState(isWritingInPlace(), "Cannot write a message in place when it is compressed or encoded");
+            checkArgument(frame.readableBytes() >= HEADER_LENGTH,
+                          "frame.readableBytes(): %s (expected: >= %s)", frame.readableBytes(), HEADER_LENGTH);
+        } catch (Throwable t) {
+            frame.release();
+            throw t;
+        }
+
+        final int messageLength = frame.readableBytes() - HEADER_LENGTH;
+        if (maxMessageLength >= 0 && messageLength > maxMessageLength) {
+            frame.release();
+            throw newMessageTooLargeException(messageLength);
+        }
+        final int headerIndex = frame.readerIndex();
+        frame.setByte(headerIndex, UNCOMPRESSED);
+        frame.setInt(headerIndex + 1, messageLength);
+        return HttpData.wrap(frame);
+    }
+
     /**
      * Enables or disables message compression.
      *
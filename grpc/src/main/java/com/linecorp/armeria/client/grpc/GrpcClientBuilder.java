@@ -28,6 +28,7 @@ import static com.linecorp.armeria.client.grpc.GrpcClientOptions.MAX_INBOUND_MES
 import static com.linecorp.armeria.client.grpc.GrpcClientOptions.MAX_OUTBOUND_MESSAGE_SIZE_BYTES;
 import static com.linecorp.armeria.client.grpc.GrpcClientOptions.UNSAFE_WRAP_RESPONSE_BUFFERS;
 import static com.linecorp.armeria.client.grpc.GrpcClientOptions.USE_METHOD_MARSHALLER;
+import static com.linecorp.armeria.client.grpc.GrpcClientOptions.USE_UNARY_FAST_PATH;
 import static java.util.Objects.requireNonNull;
 
 import java.net.URI;
@@ -312,6 +313,20 @@ public final class GrpcClientBuilder extends AbstractClientOptionsBuilder {
         return option(USE_METHOD_MARSHALLER.newValue(useMethodMarshaller));
     }
 
+    /**
+     * Sets whether to send a unary call as a single aggregated request and to receive its response as
+     * a whole, instead of streaming the messages. It saves most of the allocations made for each call,
+     * which matters for a client that makes a large number of small unary calls.
+     * The {@link ClientInterceptor}s, decorators and request logs work in the same way.
+     * This option has no effect if the {@link SerializationFormat} is gRPC-Web or
+     * {@link #enableUnsafeWrapResponseBuffers(boolean)} is enabled.
+     * This property is disabled by default.
+     */
+    @UnstableApi
+    public GrpcClientBuilder useUnaryFastPath(boolean useUnaryFastPath) {
+        return option(USE_UNARY_FAST_PATH.newValue(useUnaryFastPath));
+    }
+
     /**
      * Sets the factory that creates a {@link GrpcJsonMarshaller} that serializes and deserializes request or
      * response messages to and from JSON depending on the {@link SerializationFormat}. The returned
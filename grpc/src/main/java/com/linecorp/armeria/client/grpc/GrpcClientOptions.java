@@ -29,6 +29,7 @@ import com.linecorp.armeria.client.ClientOption;
 import com.linecorp.armeria.client.ClientOptions;
 import com.linecorp.armeria.common.RequestContext;
 import com.linecorp.armeria.common.SerializationFormat;
+import com.linecorp.armeria.common.annotation.UnstableApi;
 import com.linecorp.armeria.common.grpc.GrpcExceptionHandlerFunction;
 import com.linecorp.armeria.common.grpc.GrpcJsonMarshaller;
 import com.linecorp.armeria.common.grpc.GrpcJsonMarshallerBuilder;
@@ -183,5 +184,17 @@ public final class GrpcClientOptions {
     public static final ClientOption<Boolean> USE_METHOD_MARSHALLER =
             ClientOption.define("USE_METHOD_MARSHALLER", false);
 
+    /**
+     * Sets whether to send a unary call as a single aggregated request and to receive its response as
+     * a whole, instead of streaming the messages. It saves most of the allocations made for each call,
+     * which matters for a client that makes a large number of small unary calls.
+     * This option has no effect if the {@link SerializationFormat} is gRPC-Web or
+     * {@link #UNSAFE_WRAP_RESPONSE_BUFFERS} is enabled.
+     * This option is disabled by default.
+     */
+    @UnstableApi
+    public static final ClientOption<Boolean> USE_UNARY_FAST_PATH =
+            ClientOption.define("GRPC_USE_UNARY_FAST_PATH", false);
+
     private GrpcClientOptions() {}
 }
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.grpc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.endpoint.AbstractEndpointSelector;
+import com.linecorp.armeria.client.endpoint.EndpointGroup;
+import com.linecorp.armeria.client.endpoint.EndpointSelectionStrategy;
+import com.linecorp.armeria.client.endpoint.EndpointSelector;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.util.Ticker;
+import com.linecorp.armeria.internal.client.endpoint.WeightedRandomDistributionSelector;
+import com.linecorp.armeria.internal.client.endpoint.WeightedRandomDistributionSelector.AbstractEntry;
+import com.linecorp.armeria.internal.common.grpc.OrcaLoadReport;
+import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
+
+/**
+ * An {@link EndpointSelectionStrategy} which weights {@link Endpoint}s with the backend metrics reported
+ * in the {@code endpoint-load-metrics-bin} trailer of their responses, as defined by the Open Request Cost
+ * Aggregation (ORCA) protocol. Decorate the server with
+ * {@link com.linecorp.armeria.server.grpc.OrcaLoadReportingService} to send the metrics.
+ *
+ * <p>The load of an {@link Endpoint} is computed as
+ * {@code qps / (utilization + eps / qps * errorUtilizationPenalty)} where {@code utilization} is
+ * the application utilization if reported or the CPU utilization otherwise, just like the
+ * {@code weighted_round_robin} policy of gRPC. The result is scaled by {@link Endpoint#weight()} so that
+ * the weights assigned by a control plane, e.g. the locality and endpoint weights of xDS, are still
+ * respected. An {@link Endpoint} without a valid report gets the mean weight of the others, and
+ * the {@link Endpoint}s are selected only by {@link Endpoint#weight()} until any report becomes valid.
+ *
+ * <p>For example:<pre>{@code
+ * EndpointGroup group = EndpointGroup.of(OrcaEndpointSelectionStrategy.of(),
+ *                                        Endpoint.of("a.com"), Endpoint.of("b.com"));
+ * GrpcClients.newClient(SessionProtocol.HTTP, group, MyServiceBlockingStub.class);
+ * }</pre>
+ */
+@UnstableApi
+public final class OrcaEndpointSelectionStrategy implements EndpointSelectionStrategy {
+
+    private static final OrcaEndpointSelectionStrategy DEFAULT =
+            new OrcaEndpointSelectionStrategyBuilder().build();
+
+    /**
+     * Returns the {@link OrcaEndpointSelectionStrategy} with the default settings.
+     */
+    public static OrcaEndpointSelectionStrategy of() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns a new {@link OrcaEndpointSelectionStrategyBuilder}.
+     */
+    public static OrcaEndpointSelectionStrategyBuilder builder() {
+        return new OrcaEndpointSelectionStrategyBuilder();
+    }
+
+    private final long blackoutPeriodNanos;
+    private final long weightExpirationPeriodNanos;
+    private final long weightUpdatePeriodNanos;
+    private final double errorUtilizationPenalty;
+    private final Ticker ticker;
+
+    OrcaEndpointSelectionStrategy(long blackoutPeriodNanos, long weightExpirationPeriodNanos,
+                                  long weightUpdatePeriodNanos, double errorUtilizationPenalty,
+                                  Ticker ticker) {
+        this.blackoutPeriodNanos = blackoutPeriodNanos;
+        this.weightExpirationPeriodNanos = weightExpirationPeriodNanos;
+        this.weightUpdatePeriodNanos = weightUpdatePeriodNanos;
+        this.errorUtilizationPenalty = errorUtilizationPenalty;
+        this.ticker = ticker;
+    }
+
+    @Override
+    public EndpointSelector newSelector(EndpointGroup endpointGroup) {
+        return new OrcaEndpointSelector(endpointGroup);
+    }
+
+    @VisibleForTesting
+    final class OrcaEndpointSelector extends AbstractEndpointSelector {
+
+        private final ReentrantShortLock lock = new ReentrantShortLock();
+        private final Map<Endpoint, EndpointWeight> weights = new ConcurrentHashMap<>();
+        private volatile List<Endpoint> endpoints = ImmutableList.of();
+        @Nullable
+        private volatile WeightedRandomDistributionSelector<Entry> selector;
+        private volatile long nextUpdateNanos;
+
+        OrcaEndpointSelector(EndpointGroup endpointGroup) {
+            super(endpointGroup);
+            initialize();
+        }
+
+        @Override
+        protected void updateNewEndpoints(List<Endpoint> endpoints) {
+            lock.lock();
+            try {
+                this.endpoints = endpoints;
+                // Keep the weights of the remaining endpoints.
+                weights.keySet().retainAll(ImmutableSet.copyOf(endpoints));
+                for (Endpoint endpoint : endpoints) {
+                    weights.computeIfAbsent(endpoint, unused -> new EndpointWeight());
+                }
+                updateSelector(ticker.read());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Nullable
+        @Override
+        public Endpoint selectNow(ClientRequestContext ctx) {
+            final long now = ticker.read();
+            if (now - nextUpdateNanos >= 0 && lock.tryLock()) {
+                try {
+                    if (now - nextUpdateNanos >= 0) {
+                        updateSelector(now);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            final WeightedRandomDistributionSelector<Entry> selector = this.selector;
+            if (selector == null) {
+                return null;
+            }
+            final Entry entry = selector.select();
+            if (entry == null) {
+                return null;
+            }
+            final Endpoint endpoint = entry.endpoint;
+            ctx.log().whenComplete().thenAccept(log -> onResponse(endpoint, log));
+            return endpoint;
+        }
+
+        private void onResponse(Endpoint endpoint, RequestLog log) {
+            final EndpointWeight weight = weights.get(endpoint);
+            if (weight == null) {
+                // Removed from the group already.
+                return;
+            }
+            OrcaLoadReport report = OrcaLoadReport.fromHeaders(log.responseTrailers());
+            if (report == null) {
+                // A trailers-only response.
+                report = OrcaLoadReport.fromHeaders(log.responseHeaders());
+                if (report == null) {
+                    return;
+                }
+            }
+            final double qps = report.rpsFractional();
+            final double utilization = report.applicationUtilization() > 0 ? report.applicationUtilization()
+                                                                            : report.cpuUtilization();
+            if (qps <= 0 || utilization <= 0) {
+                return;
+            }
+            final double errorUtilization = report.eps() / qps * errorUtilizationPenalty;
+            weight.update(qps / (utilization + errorUtilization), ticker.read());
+        }
+
+        private void updateSelector(long now) {
+            nextUpdateNanos = now + weightUpdatePeriodNanos;
+            final List<Endpoint> endpoints = this.endpoints;
+            final int numEndpoints = endpoints.size();
+            final double[] loadWeights = new double[numEndpoints];
+            double sum = 0;
+            int numValidWeights = 0;
+            for (int i = 0; i < numEndpoints; i++) {
+                final EndpointWeight weight = weights.get(endpoints.get(i));
+                final double loadWeight = weight != null ? weight.weight(now) : 0;
+                if (loadWeight > 0) {
+                    loadWeights[i] = loadWeight;
+                    sum += loadWeight;
+                    numValidWeights++;
+                }
+            }
+
+            final ImmutableList.Builder<Entry> entries = ImmutableList.builderWithExpectedSize(numEndpoints);
+            final double mean = numValidWeights > 0 ? sum / numValidWeights : 0;
+            for (int i = 0; i < numEndpoints; i++) {
+                final Endpoint endpoint = endpoints.get(i);
+                if (mean == 0) {
+                    entries.add(new Entry(endpoint, endpoint.weight()));
+                    continue;
+                }
+                final double loadWeight = loadWeights[i] > 0 ? loadWeights[i] : mean;
+                entries.add(new Entry(endpoint, scale(endpoint.weight(), loadWeight / mean)));
+            }
+            selector = new WeightedRandomDistributionSelector<>(entries.build());
+        }
+    }
+
+    /**
+     * Scales the specified {@link Endpoint#weight()} by the ratio of the load-based weight of
+     * the {@link Endpoint} to the mean of all load-based weights.
+     */
+    private static int scale(int endpointWeight, double ratio) {
+        if (endpointWeight <= 0) {
+            return endpointWeight;
+        }
+        return Math.max(1, Ints.saturatedCast(Math.round(endpointWeight * ratio)));
+    }
+
+    private final class EndpointWeight {
+
+        private double weight;
+        private long nonEmptySinceNanos;
+        private long lastUpdatedNanos;
+        private boolean nonEmpty;
+
+        synchronized void update(double weight, long now) {
+            if (!nonEmpty) {
+                nonEmpty = true;
+                nonEmptySinceNanos = now;
+            }
+            lastUpdatedNanos = now;
+            this.weight = weight;
+        }
+
+        synchronized double weight(long now) {
+            if (!nonEmpty) {
+                return 0;
+            }
+            if (now - lastUpdatedNanos >= weightExpirationPeriodNanos) {
+                // Start a new blackout period when the reports are resumed.
+                nonEmpty = false;
+                return 0;
+            }
+            if (now - nonEmptySinceNanos < blackoutPeriodNanos) {
+                return 0;
+            }
+            return weight;
+        }
+    }
+
+    @VisibleForTesting
+    static final class Entry extends AbstractEntry {
+
+        final Endpoint endpoint;
+        private final int weight;
+
+        Entry(Endpoint endpoint, int weight) {
+            this.endpoint = endpoint;
+            this.weight = weight;
+        }
+
+        @Override
+        public int weight() {
+            return weight;
+        }
+    }
+}
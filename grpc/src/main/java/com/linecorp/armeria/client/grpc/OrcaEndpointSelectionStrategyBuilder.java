@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.grpc;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.util.Ticker;
+
+/**
+ * A builder for creating a new {@link OrcaEndpointSelectionStrategy}.
+ */
+@UnstableApi
+public final class OrcaEndpointSelectionStrategyBuilder {
+
+    private static final long DEFAULT_BLACKOUT_PERIOD_NANOS = Duration.ofSeconds(10).toNanos();
+    private static final long DEFAULT_WEIGHT_EXPIRATION_PERIOD_NANOS = Duration.ofMinutes(3).toNanos();
+    private static final long DEFAULT_WEIGHT_UPDATE_PERIOD_NANOS = Duration.ofSeconds(1).toNanos();
+    private static final double DEFAULT_ERROR_UTILIZATION_PENALTY = 1.0;
+
+    private long blackoutPeriodNanos = DEFAULT_BLACKOUT_PERIOD_NANOS;
+    private long weightExpirationPeriodNanos = DEFAULT_WEIGHT_EXPIRATION_PERIOD_NANOS;
+    private long weightUpdatePeriodNanos = DEFAULT_WEIGHT_UPDATE_PERIOD_NANOS;
+    private double errorUtilizationPenalty = DEFAULT_ERROR_UTILIZATION_PENALTY;
+    private Ticker ticker = Ticker.systemTicker();
+
+    OrcaEndpointSelectionStrategyBuilder() {}
+
+    /**
+     * Sets the period after the first report of an {@link com.linecorp.armeria.client.Endpoint} during
+     * which its reports are not used yet, so that the weight is not skewed by a server which has just
+     * started. If unspecified, 10 seconds is used.
+     */
+    public OrcaEndpointSelectionStrategyBuilder blackoutPeriod(Duration blackoutPeriod) {
+        requireNonNull(blackoutPeriod, "blackoutPeriod");
+        checkArgument(!blackoutPeriod.isNegative(), "blackoutPeriod: %s (expected: >= 0)", blackoutPeriod);
+        blackoutPeriodNanos = blackoutPeriod.toNanos();
+        return this;
+    }
+
+    /**
+     * Sets the period after the last report of an {@link com.linecorp.armeria.client.Endpoint} after which
+     * its weight is considered stale. If unspecified, 3 minutes is used.
+     */
+    public OrcaEndpointSelectionStrategyBuilder weightExpirationPeriod(Duration weightExpirationPeriod) {
+        requireNonNull(weightExpirationPeriod, "weightExpirationPeriod");
+        checkArgument(!weightExpirationPeriod.isNegative() && !weightExpirationPeriod.isZero(),
+                      "weightExpirationPeriod: %s (expected: > 0)", weightExpirationPeriod);
+        weightExpirationPeriodNanos = weightExpirationPeriod.toNanos();
+        return this;
+    }
+
+    /**
+     * Sets how often the weights are recomputed from the latest reports. If unspecified, 1 second is used.
+     */
+    public OrcaEndpointSelectionStrategyBuilder weightUpdatePeriod(Duration weightUpdatePeriod) {
+        requireNonNull(weightUpdatePeriod, "weightUpdatePeriod");
+        checkArgument(!weightUpdatePeriod.isNegative() && !weightUpdatePeriod.isZero(),
+                      "weightUpdatePeriod: %s (expected: > 0)", weightUpdatePeriod);
+        weightUpdatePeriodNanos = weightUpdatePeriod.toNanos();
+        return this;
+    }
+
+    /**
+     * Sets the multiplier of the error rate which is added to the utilization of an
+     * {@link com.linecorp.armeria.client.Endpoint}, so that an {@link com.linecorp.armeria.client.Endpoint}
+     * which fails fast does not attract more requests. If unspecified, {@code 1.0} is used.
+     */
+    public OrcaEndpointSelectionStrategyBuilder errorUtilizationPenalty(double errorUtilizationPenalty) {
+        checkArgument(errorUtilizationPenalty >= 0,
+                      "errorUtilizationPenalty: %s (expected: >= 0)", errorUtilizationPenalty);
+        this.errorUtilizationPenalty = errorUtilizationPenalty;
+        return this;
+    }
+
+    @VisibleForTesting
+    OrcaEndpointSelectionStrategyBuilder ticker(Ticker ticker) {
+        this.ticker = requireNonNull(ticker, "ticker");
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link OrcaEndpointSelectionStrategy} based on the properties set so far.
+     */
+    public OrcaEndpointSelectionStrategy build() {
+        return new OrcaEndpointSelectionStrategy(blackoutPeriodNanos, weightExpirationPeriodNanos,
+                                                 weightUpdatePeriodNanos, errorUtilizationPenalty, ticker);
+    }
+}
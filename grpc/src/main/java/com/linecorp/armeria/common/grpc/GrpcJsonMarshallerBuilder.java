@@ -16,19 +16,26 @@
 
 package com.linecorp.armeria.common.grpc;
 
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
 
+import java.util.List;
 import java.util.function.Consumer;
 
 import org.curioswitch.common.protobuf.json.MessageMarshaller;
 import org.curioswitch.common.protobuf.json.MessageMarshaller.Builder;
 
 import com.google.common.collect.ImmutableList;
+import com.google.protobuf.Descriptors.Descriptor;
 import com.google.protobuf.Message;
 
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
 import com.linecorp.armeria.internal.common.grpc.DefaultJsonMarshaller;
+import com.linecorp.armeria.internal.common.grpc.GeneratedJsonMarshaller;
 
+import io.grpc.MethodDescriptor;
 import io.grpc.ServiceDescriptor;
 
 /**
@@ -40,6 +47,8 @@ public final class GrpcJsonMarshallerBuilder {
     @Nullable
     private Consumer<MessageMarshaller.Builder> jsonMarshallerCustomizer;
 
+    private boolean useGeneratedCodecs;
+
     GrpcJsonMarshallerBuilder() {}
 
     /**
@@ -61,13 +70,39 @@ public final class GrpcJsonMarshallerBuilder {
         return this;
     }
 
+    /**
+     * Sets whether to generate a JSON codec specialized for each request and response {@link Message} type
+     * from its {@link Descriptor} when {@link #build(ServiceDescriptor)} is called. The generated codecs
+     * read and write JSON with the Jackson streaming API without looking up the type and the name of
+     * each field at runtime. A {@link Message} type which refers to a well-known type such as
+     * {@code google.protobuf.Timestamp} is still converted with the {@link MessageMarshaller}.
+     * This option cannot be used with {@link #jsonMarshallerCustomizer(Consumer)}.
+     * It is disabled by default.
+     */
+    @UnstableApi
+    public GrpcJsonMarshallerBuilder useGeneratedCodecs(boolean useGeneratedCodecs) {
+        this.useGeneratedCodecs = useGeneratedCodecs;
+        return this;
+    }
+
     /**
      * Returns a newly-created {@link GrpcJsonMarshaller} with the specified {@link ServiceDescriptor}.
      */
     public GrpcJsonMarshaller build(ServiceDescriptor serviceDescriptor) {
         requireNonNull(serviceDescriptor, "serviceDescriptor");
-        return new DefaultJsonMarshaller(
-                GrpcJsonUtil.jsonMarshaller(ImmutableList.copyOf(serviceDescriptor.getMethods()),
-                                            jsonMarshallerCustomizer));
+        final List<MethodDescriptor<?, ?>> methods = ImmutableList.copyOf(serviceDescriptor.getMethods());
+        final MessageMarshaller jsonMarshaller = GrpcJsonUtil.jsonMarshaller(methods, jsonMarshallerCustomizer);
+        if (!useGeneratedCodecs) {
+            return new DefaultJsonMarshaller(jsonMarshaller);
+        }
+
+        checkState(jsonMarshallerCustomizer == null,
+                   "Cannot use the generated codecs with a jsonMarshallerCustomizer");
+        final List<Descriptor> descriptors = GrpcJsonUtil.messagePrototypes(methods)
+                                                         .stream()
+                                                         .map(Message::getDescriptorForType)
+                                                         .distinct()
+                                                         .collect(toImmutableList());
+        return new GeneratedJsonMarshaller(descriptors, jsonMarshaller);
     }
 }
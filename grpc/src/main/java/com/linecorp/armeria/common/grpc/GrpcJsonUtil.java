@@ -21,6 +21,7 @@ import java.util.function.Consumer;
 
 import org.curioswitch.common.protobuf.json.MessageMarshaller;
 
+import com.google.common.collect.ImmutableList;
 import com.google.protobuf.Message;
 
 import com.linecorp.armeria.common.annotation.Nullable;
@@ -44,22 +45,33 @@ final class GrpcJsonUtil {
         final MessageMarshaller.Builder builder = MessageMarshaller.builder()
                                                                    .omittingInsignificantWhitespace(true)
                                                                    .ignoringUnknownFields(true);
+        for (Message prototype : messagePrototypes(methods)) {
+            builder.register(prototype);
+        }
+
+        if (jsonMarshallerCustomizer != null) {
+            jsonMarshallerCustomizer.accept(builder);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the prototypes of the request/response {@link Message}s of all the {@code methods}.
+     */
+    static List<Message> messagePrototypes(List<MethodDescriptor<?, ?>> methods) {
+        final ImmutableList.Builder<Message> prototypes = ImmutableList.builder();
         for (MethodDescriptor<?, ?> method : methods) {
             final Message reqPrototype = marshallerPrototype(method.getRequestMarshaller());
             final Message resPrototype = marshallerPrototype(method.getResponseMarshaller());
             if (reqPrototype != null) {
-                builder.register(reqPrototype);
+                prototypes.add(reqPrototype);
             }
             if (resPrototype != null) {
-                builder.register(resPrototype);
+                prototypes.add(resPrototype);
             }
         }
-
-        if (jsonMarshallerCustomizer != null) {
-            jsonMarshallerCustomizer.accept(builder);
-        }
-
-        return builder.build();
+        return prototypes.build();
     }
 
     @Nullable
@@ -45,6 +45,7 @@ import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.grpc.GrpcCallOptions;
 import com.linecorp.armeria.common.grpc.GrpcJsonMarshaller;
+import com.linecorp.armeria.common.grpc.GrpcSerializationFormats;
 import com.linecorp.armeria.common.logging.RequestLogProperty;
 import com.linecorp.armeria.common.util.SystemInfo;
 import com.linecorp.armeria.common.util.Unwrappable;
@@ -100,6 +101,7 @@ final class ArmeriaChannel extends Channel implements ClientBuilderParams, Unwra
     private final CallCredentials credentials0;
     private final InternalGrpcExceptionHandler exceptionHandler;
     private final boolean useMethodMarshaller;
+    private final boolean useUnaryFastPath;
 
     ArmeriaChannel(ClientBuilderParams params,
                    HttpClient httpClient,
@@ -125,6 +127,9 @@ final class ArmeriaChannel extends Channel implements ClientBuilderParams, Unwra
         decompressorRegistry = options.get(GrpcClientOptions.DECOMPRESSOR_REGISTRY);
         credentials0 = options.get(GrpcClientOptions.CALL_CREDENTIALS);
         exceptionHandler = new InternalGrpcExceptionHandler(options.get(GrpcClientOptions.EXCEPTION_HANDLER));
+        // gRPC-Web responses carry the trailers in the content and the unsafe buffers outlive the call.
+        useUnaryFastPath = options.get(GrpcClientOptions.USE_UNARY_FAST_PATH) && !unsafeWrapResponseBuffers &&
+                           !GrpcSerializationFormats.isGrpcWeb(serializationFormat);
     }
 
     @Override
@@ -138,7 +143,10 @@ final class ArmeriaChannel extends Channel implements ClientBuilderParams, Unwra
             headersBuilder.authority(callAuthority);
         }
 
-        final HttpRequestWriter req = HttpRequest.streaming(headersBuilder.build());
+        final RequestHeaders headers = headersBuilder.build();
+        final boolean unary = useUnaryFastPath && method.getType() == MethodType.UNARY;
+        // The request of a unary call is replaced with the one with the message when it is half-closed.
+        final HttpRequest req = unary ? HttpRequest.of(headers) : HttpRequest.streaming(headers);
         final DefaultClientRequestContext ctx = newContext(HttpMethod.POST, req, method);
 
         GrpcCallOptions.set(ctx, callOptions);
@@ -166,11 +174,31 @@ final class ArmeriaChannel extends Channel implements ClientBuilderParams, Unwra
             client = httpClient;
         }
 
+        if (unary) {
+            return new ArmeriaUnaryClientCall<>(
+                    ctx,
+                    params.endpointGroup(),
+                    client,
+                    headers,
+                    method,
+                    simpleMethodNames,
+                    maxOutboundMessageSizeBytes,
+                    maxInboundMessageSizeBytes,
+                    callOptions,
+                    compressor,
+                    CompressorRegistry.getDefaultInstance(),
+                    decompressorRegistry,
+                    serializationFormat,
+                    jsonMarshaller,
+                    exceptionHandler,
+                    useMethodMarshaller);
+        }
+
         return new ArmeriaClientCall<>(
                 ctx,
                 params.endpointGroup(),
                 client,
-                req,
+                (HttpRequestWriter) req,
                 method,
                 simpleMethodNames,
                 maxOutboundMessageSizeBytes,
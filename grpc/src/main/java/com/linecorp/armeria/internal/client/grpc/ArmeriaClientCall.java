@@ -20,6 +20,7 @@ import static com.linecorp.armeria.internal.client.grpc.protocol.InternalGrpcWeb
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Map;
@@ -41,6 +42,7 @@ import com.google.common.util.concurrent.MoreExecutors;
 import com.linecorp.armeria.client.ClientRequestContext;
 import com.linecorp.armeria.client.HttpClient;
 import com.linecorp.armeria.client.endpoint.EndpointGroup;
+import com.linecorp.armeria.common.HttpData;
 import com.linecorp.armeria.common.HttpHeaders;
 import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.HttpRequestWriter;
@@ -374,8 +376,7 @@ final class ArmeriaClientCall<I, O> extends ClientCall<I, O>
                 ctx.logBuilder().requestContent(GrpcLogUtil.rpcRequest(method, simpleMethodName(), message),
                                                 null);
             }
-            final ByteBuf serialized = marshaller.serializeRequest(message);
-            req.write(requestFramer.writePayload(serialized));
+            req.write(toPayload(message));
             req.whenConsumed().thenRun(() -> {
                 if (pendingMessagesUpdater.decrementAndGet(this) == 0) {
                     executor.execute(() -> {
@@ -393,6 +394,16 @@ final class ArmeriaClientCall<I, O> extends ClientCall<I, O>
         }
     }
 
+    private HttpData toPayload(I message) throws IOException {
+        if (requestFramer.isWritingInPlace()) {
+            final ByteBuf frame = marshaller.serializeRequest(message, ArmeriaMessageFramer.HEADER_LENGTH);
+            if (frame != null) {
+                return requestFramer.writeReservedPayload(frame);
+            }
+        }
+        return requestFramer.writePayload(marshaller.serializeRequest(message));
+    }
+
     @Override
     public synchronized void setMessageCompression(boolean enabled) {
         requestFramer.setMessageCompression(enabled);
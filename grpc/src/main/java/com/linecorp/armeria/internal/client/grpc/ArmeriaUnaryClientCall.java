@@ -0,0 +1,569 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.client.grpc;
+
+import static com.linecorp.armeria.internal.client.ClientUtil.initContextAndExecuteWithFallback;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.BiFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.math.IntMath;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.HttpClient;
+import com.linecorp.armeria.client.endpoint.EndpointGroup;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.AggregationOptions;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpHeaders;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.RequestHeadersBuilder;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.SerializationFormat;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.grpc.GrpcJsonMarshaller;
+import com.linecorp.armeria.common.grpc.protocol.ArmeriaMessageDeframer;
+import com.linecorp.armeria.common.grpc.protocol.ArmeriaMessageFramer;
+import com.linecorp.armeria.common.grpc.protocol.DeframedMessage;
+import com.linecorp.armeria.common.grpc.protocol.GrpcHeaderNames;
+import com.linecorp.armeria.common.logging.RequestLogBuilder;
+import com.linecorp.armeria.common.logging.RequestLogProperty;
+import com.linecorp.armeria.common.util.Exceptions;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.common.util.TimeoutMode;
+import com.linecorp.armeria.internal.client.DefaultClientRequestContext;
+import com.linecorp.armeria.internal.common.grpc.ForwardingCompressor;
+import com.linecorp.armeria.internal.common.grpc.ForwardingDecompressor;
+import com.linecorp.armeria.internal.common.grpc.GrpcLogUtil;
+import com.linecorp.armeria.internal.common.grpc.GrpcMessageMarshaller;
+import com.linecorp.armeria.internal.common.grpc.GrpcStatus;
+import com.linecorp.armeria.internal.common.grpc.InternalGrpcExceptionHandler;
+import com.linecorp.armeria.internal.common.grpc.MetadataUtil;
+import com.linecorp.armeria.internal.common.grpc.StatusAndMetadata;
+import com.linecorp.armeria.internal.common.grpc.TimeoutHeaderUtil;
+import com.linecorp.armeria.internal.common.grpc.TransportStatusListener;
+import com.linecorp.armeria.internal.common.stream.ByteBufsDecoderInput;
+import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.Codec.Identity;
+import io.grpc.Compressor;
+import io.grpc.CompressorRegistry;
+import io.grpc.Deadline;
+import io.grpc.DecompressorRegistry;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.Status.Code;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A {@link ClientCall} of a unary method which sends the request message and receives the response
+ * as a whole. Unlike {@link ArmeriaClientCall}, it does not create a streaming request and
+ * does not subscribe to the deframed response, which saves most of the allocations of a unary call.
+ */
+final class ArmeriaUnaryClientCall<I, O> extends ClientCall<I, O> implements TransportStatusListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArmeriaUnaryClientCall.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<ArmeriaUnaryClientCall> closedUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(ArmeriaUnaryClientCall.class, "closed");
+
+    private final DefaultClientRequestContext ctx;
+    private final EndpointGroup endpointGroup;
+    private final HttpClient httpClient;
+    private final RequestHeaders headers;
+    private final MethodDescriptor<I, O> method;
+    private final Map<MethodDescriptor<?, ?>, String> simpleMethodNames;
+    private final CallOptions callOptions;
+    private final ArmeriaMessageFramer requestFramer;
+    private final GrpcMessageMarshaller<I, O> marshaller;
+    private final CompressorRegistry compressorRegistry;
+    private final DecompressorRegistry decompressorRegistry;
+    private final int maxInboundMessageSizeBytes;
+    private final Compressor compressor;
+    private final InternalGrpcExceptionHandler exceptionHandler;
+    private final Executor executor;
+    private final ReentrantShortLock lock = new ReentrantShortLock();
+
+    // Effectively final, only set once during start()
+    @Nullable
+    private Listener<O> listener;
+    @Nullable
+    private RequestHeaders newHeaders;
+    @Nullable
+    private HttpData payload;
+    @Nullable
+    private volatile HttpResponse res;
+
+    @Nullable
+    private DeframedMessage deframedMessage;
+    @Nullable
+    private O response;
+    private volatile int closed;
+
+    // Guarded by 'lock'
+    private int pendingRequests;
+    @Nullable
+    private Runnable pendingDelivery;
+
+    ArmeriaUnaryClientCall(
+            DefaultClientRequestContext ctx,
+            EndpointGroup endpointGroup,
+            HttpClient httpClient,
+            RequestHeaders headers,
+            MethodDescriptor<I, O> method,
+            Map<MethodDescriptor<?, ?>, String> simpleMethodNames,
+            int maxOutboundMessageSizeBytes,
+            int maxInboundMessageSizeBytes,
+            CallOptions callOptions,
+            Compressor compressor,
+            CompressorRegistry compressorRegistry,
+            DecompressorRegistry decompressorRegistry,
+            SerializationFormat serializationFormat,
+            @Nullable GrpcJsonMarshaller jsonMarshaller,
+            InternalGrpcExceptionHandler exceptionHandler,
+            boolean useMethodMarshaller) {
+        this.ctx = ctx;
+        this.endpointGroup = endpointGroup;
+        this.httpClient = httpClient;
+        this.headers = headers;
+        this.method = method;
+        this.simpleMethodNames = simpleMethodNames;
+        this.callOptions = callOptions;
+        this.compressor = compressor;
+        this.compressorRegistry = compressorRegistry;
+        this.decompressorRegistry = decompressorRegistry;
+        this.maxInboundMessageSizeBytes = maxInboundMessageSizeBytes;
+        this.exceptionHandler = exceptionHandler;
+
+        requestFramer = new ArmeriaMessageFramer(ctx.alloc(), maxOutboundMessageSizeBytes, false);
+        marshaller = new GrpcMessageMarshaller<>(ctx.alloc(), serializationFormat, method, jsonMarshaller,
+                                                 false, useMethodMarshaller);
+
+        if (callOptions.getExecutor() == null) {
+            executor = MoreExecutors.directExecutor();
+        } else {
+            executor = MoreExecutors.newSequentialExecutor(callOptions.getExecutor());
+        }
+    }
+
+    @Override
+    public void start(Listener<O> responseListener, Metadata metadata) {
+        requireNonNull(responseListener, "responseListener");
+        requireNonNull(metadata, "metadata");
+        listener = responseListener;
+
+        final Compressor compressor;
+        if (callOptions.getCompressor() != null) {
+            compressor = compressorRegistry.lookupCompressor(callOptions.getCompressor());
+            if (compressor == null) {
+                final Status status = Status.INTERNAL
+                        .withDescription("Unable to find compressor by name " + callOptions.getCompressor());
+                close(status, new Metadata());
+                return;
+            }
+        } else {
+            compressor = this.compressor;
+        }
+
+        requestFramer.setCompressor(ForwardingCompressor.forGrpc(compressor));
+
+        final long remainingNanos;
+        if (callOptions.getDeadline() != null) {
+            remainingNanos = callOptions.getDeadline().timeRemaining(TimeUnit.NANOSECONDS);
+            if (remainingNanos <= 0) {
+                final Status status = Status.DEADLINE_EXCEEDED
+                        .augmentDescription("ClientCall started after deadline exceeded: " +
+                                            callOptions.getDeadline());
+                close(status, new Metadata());
+                return;
+            } else {
+                ctx.setResponseTimeout(TimeoutMode.SET_FROM_NOW, Duration.ofNanos(remainingNanos));
+            }
+        } else {
+            remainingNanos = MILLISECONDS.toNanos(ctx.responseTimeoutMillis());
+        }
+
+        // Must come after handling deadline.
+        newHeaders = prepareHeaders(compressor, metadata, remainingNanos);
+
+        executor.execute(() -> {
+            try (SafeCloseable ignored = ctx.push()) {
+                assert listener != null;
+                listener.onReady();
+            } catch (Throwable t) {
+                closeWhenListenerThrows(t);
+            }
+        });
+    }
+
+    @Override
+    public void request(int numMessages) {
+        final Runnable pendingDelivery;
+        lock.lock();
+        try {
+            pendingDelivery = this.pendingDelivery;
+            if (pendingDelivery == null) {
+                pendingRequests = IntMath.saturatedAdd(pendingRequests, numMessages);
+                return;
+            }
+            this.pendingDelivery = null;
+        } finally {
+            lock.unlock();
+        }
+        executor.execute(pendingDelivery);
+    }
+
+    @Override
+    public void cancel(@Nullable String message, @Nullable Throwable cause) {
+        if (message == null && cause == null) {
+            cause = new CancellationException("Cancelled without a message or cause");
+            logger.warn("Cancelling without a message or cause is suboptimal", cause);
+        }
+
+        Status status = Status.CANCELLED;
+        if (message != null) {
+            status = status.withDescription(message);
+        }
+        if (cause != null) {
+            status = status.withCause(cause);
+        }
+        close(status, new Metadata());
+    }
+
+    @Override
+    public void sendMessage(I message) {
+        if (closed != 0) {
+            return;
+        }
+        if (payload != null) {
+            close(Status.INTERNAL.withDescription("More than one message sent for a unary call"),
+                  new Metadata());
+            return;
+        }
+
+        try {
+            if (!ctx.log().isAvailable(RequestLogProperty.REQUEST_CONTENT)) {
+                ctx.logBuilder().requestContent(GrpcLogUtil.rpcRequest(method, simpleMethodName(), message),
+                                                null);
+            }
+            payload = toPayload(message);
+        } catch (Throwable t) {
+            cancel(null, t);
+        }
+    }
+
+    private HttpData toPayload(I message) throws IOException {
+        if (requestFramer.isWritingInPlace()) {
+            final ByteBuf frame = marshaller.serializeRequest(message, ArmeriaMessageFramer.HEADER_LENGTH);
+            if (frame != null) {
+                return requestFramer.writeReservedPayload(frame);
+            }
+        }
+        return requestFramer.writePayload(marshaller.serializeRequest(message));
+    }
+
+    @Override
+    public boolean isReady() {
+        return closed == 0;
+    }
+
+    @Override
+    public void setMessageCompression(boolean enabled) {
+        requestFramer.setMessageCompression(enabled);
+    }
+
+    @Override
+    public void halfClose() {
+        final HttpData payload = this.payload;
+        this.payload = null;
+        if (closed != 0) {
+            if (payload != null) {
+                payload.close();
+            }
+            return;
+        }
+
+        assert newHeaders != null;
+        final HttpRequest req;
+        if (payload != null) {
+            req = HttpRequest.of(newHeaders, payload);
+        } else {
+            req = HttpRequest.of(newHeaders);
+            if (!ctx.log().isAvailable(RequestLogProperty.REQUEST_CONTENT)) {
+                // Can reach here if the request stream was empty.
+                ctx.logBuilder().requestContent(GrpcLogUtil.rpcRequest(method, simpleMethodName()), null);
+            }
+        }
+        ctx.updateRequest(req);
+
+        final BiFunction<ClientRequestContext, Throwable, HttpResponse> errorResponseFactory =
+                (unused, cause) -> {
+                    final StatusAndMetadata statusAndMetadata = exceptionHandler.handle(ctx, cause);
+                    Status status = statusAndMetadata.status();
+                    if (status.getDescription() == null) {
+                        status = status.withDescription(cause.getMessage());
+                    }
+                    return HttpResponse.ofFailure(status.asRuntimeException());
+                };
+        final HttpResponse res = initContextAndExecuteWithFallback(
+                httpClient, ctx, endpointGroup, HttpResponse::of, errorResponseFactory);
+        this.res = res;
+        if (closed != 0) {
+            // Cancelled while sending the request.
+            res.abort();
+            return;
+        }
+
+        res.aggregate(AggregationOptions.usePooledObjects(ctx.alloc())).handle((aggregated, cause) -> {
+            if (cause != null) {
+                final StatusAndMetadata statusAndMetadata =
+                        exceptionHandler.handle(ctx, Exceptions.peel(cause));
+                close(statusAndMetadata.status(), statusAndMetadata.metadata());
+            } else {
+                onResponse(aggregated);
+            }
+            return null;
+        });
+    }
+
+    private void onResponse(AggregatedHttpResponse aggregated) {
+        final HttpData content = aggregated.content();
+        try {
+            final ResponseHeaders headers = aggregated.headers();
+            final HttpStatus status = headers.status();
+            if (!status.equals(HttpStatus.OK)) {
+                transportReportStatus(GrpcStatus.httpStatusToGrpcStatus(status.code()));
+                return;
+            }
+            if (headers.contains(GrpcHeaderNames.GRPC_STATUS)) {
+                // A trailers-only response.
+                GrpcStatus.reportStatus(headers, this);
+                return;
+            }
+
+            final ArmeriaMessageDeframer deframer = new ArmeriaMessageDeframer(maxInboundMessageSizeBytes);
+            final String grpcEncoding = headers.get(GrpcHeaderNames.GRPC_ENCODING);
+            if (grpcEncoding != null) {
+                final io.grpc.Decompressor decompressor =
+                        decompressorRegistry.lookupDecompressor(grpcEncoding);
+                if (decompressor == null) {
+                    transportReportStatus(Status.INTERNAL.withDescription(
+                            "Can't find decompressor for " + grpcEncoding));
+                    return;
+                }
+                deframer.decompressor(ForwardingDecompressor.forGrpc(decompressor));
+            }
+            transportReportHeaders(MetadataUtil.copyFromHeaders(headers));
+
+            if (!content.isEmpty()) {
+                response = deserialize(deframer, content);
+            }
+
+            final HttpHeaders trailers = aggregated.trailers();
+            if (trailers.contains(GrpcHeaderNames.GRPC_STATUS)) {
+                GrpcStatus.reportStatus(trailers, this);
+            } else {
+                // A gRPC response should contain grpc-status in trailers if HTTP status is OK.
+                transportReportStatus(Status.INTERNAL.withDescription("Missing gRPC status code"));
+            }
+        } catch (Throwable t) {
+            final StatusAndMetadata statusAndMetadata = exceptionHandler.handle(ctx, t);
+            close(statusAndMetadata.status(), statusAndMetadata.metadata());
+        } finally {
+            content.close();
+        }
+    }
+
+    private O deserialize(ArmeriaMessageDeframer deframer, HttpData content) throws Exception {
+        final ByteBufsDecoderInput in = new ByteBufsDecoderInput(ctx.alloc());
+        try {
+            // The input releases the buffer when closed.
+            in.add(content.byteBuf().retain());
+            deframer.process(in, this::addDeframedMessage);
+            final DeframedMessage message = deframedMessage;
+            if (message == null || in.readableBytes() > 0) {
+                throw Status.INTERNAL.withDescription("Incomplete gRPC message").asRuntimeException();
+            }
+            deframedMessage = null;
+            return marshaller.deserializeResponse(message, false);
+        } finally {
+            in.close();
+            if (deframedMessage != null) {
+                deframedMessage.close();
+                deframedMessage = null;
+            }
+        }
+    }
+
+    private void addDeframedMessage(DeframedMessage message) {
+        if (deframedMessage != null) {
+            message.close();
+            throw Status.INTERNAL.withDescription("More than one message received for a unary call")
+                                 .asRuntimeException();
+        }
+        deframedMessage = message;
+    }
+
+    @Override
+    public void transportReportStatus(Status status, @Nullable Metadata metadata) {
+        close(status, metadata);
+    }
+
+    @Override
+    public void transportReportHeaders(Metadata metadata) {
+        executor.execute(() -> {
+            try (SafeCloseable ignored = ctx.push()) {
+                assert listener != null;
+                listener.onHeaders(metadata);
+            } catch (Throwable t) {
+                closeWhenListenerThrows(t);
+            }
+        });
+    }
+
+    private RequestHeaders prepareHeaders(Compressor compressor, Metadata metadata, long remainingNanos) {
+        final RequestHeadersBuilder newHeaders = headers.toBuilder();
+        if (compressor != Identity.NONE) {
+            newHeaders.set(GrpcHeaderNames.GRPC_ENCODING, compressor.getMessageEncoding());
+        }
+
+        final Set<String> availableEncodings = decompressorRegistry.getAdvertisedMessageEncodings();
+        if (!availableEncodings.isEmpty()) {
+            newHeaders.add(GrpcHeaderNames.GRPC_ACCEPT_ENCODING, String.join(",", availableEncodings));
+        }
+
+        if (remainingNanos > 0) {
+            newHeaders.add(GrpcHeaderNames.GRPC_TIMEOUT, TimeoutHeaderUtil.toHeaderValue(remainingNanos));
+        }
+
+        MetadataUtil.fillHeaders(metadata, newHeaders);
+        return newHeaders.build();
+    }
+
+    private void closeWhenListenerThrows(Throwable t) {
+        final StatusAndMetadata statusAndMetadata = exceptionHandler.handle(ctx, t);
+        close(statusAndMetadata.status(), statusAndMetadata.metadata());
+    }
+
+    private void close(Status status, @Nullable Metadata metadata) {
+        if (!closedUpdater.compareAndSet(this, 0, 1)) {
+            return;
+        }
+
+        final Deadline deadline = callOptions.getDeadline();
+        if (status.getCode() == Code.CANCELLED && deadline != null && deadline.isExpired()) {
+            status = Status.DEADLINE_EXCEEDED;
+            // Replace trailers to prevent mixing sources of status and trailers.
+            metadata = new Metadata();
+        } else if (metadata == null) {
+            metadata = new Metadata();
+        }
+
+        if (status.getCode() == Code.DEADLINE_EXCEEDED) {
+            status = status.augmentDescription("deadline exceeded after " +
+                                               MILLISECONDS.toNanos(ctx.responseTimeoutMillis()) + "ns.");
+        }
+
+        final StatusAndMetadata statusAndMetadata = new StatusAndMetadata(status, metadata);
+        final O response = status.isOk() ? this.response : null;
+
+        final RequestLogBuilder logBuilder = ctx.logBuilder();
+        logBuilder.responseContent(GrpcLogUtil.rpcResponse(statusAndMetadata, response), null);
+
+        final HttpResponse res = this.res;
+        if (res == null) {
+            // The call was closed before sending the request.
+            final HttpData payload = this.payload;
+            if (payload != null) {
+                this.payload = null;
+                payload.close();
+            }
+            if (!ctx.log().isAvailable(RequestLogProperty.REQUEST_CONTENT)) {
+                logBuilder.requestContent(GrpcLogUtil.rpcRequest(method, simpleMethodName()), null);
+            }
+            final Throwable cause = statusAndMetadata.asRuntimeException();
+            logBuilder.endRequest(cause);
+            logBuilder.endResponse(cause);
+        } else if (!status.isOk()) {
+            res.abort(statusAndMetadata.asRuntimeException());
+        }
+
+        deliver(statusAndMetadata, response);
+    }
+
+    private void deliver(StatusAndMetadata statusAndMetadata, @Nullable O response) {
+        final Runnable delivery = () -> {
+            try (SafeCloseable ignored = ctx.push()) {
+                assert listener != null;
+                StatusAndMetadata closeStatus = statusAndMetadata;
+                if (response != null) {
+                    try {
+                        listener.onMessage(response);
+                    } catch (Throwable t) {
+                        closeStatus = exceptionHandler.handle(ctx, t);
+                    }
+                }
+                listener.onClose(closeStatus.status(), closeStatus.metadata());
+            } catch (Throwable t) {
+                logger.warn("Unexpected exception while closing {}", listener, t);
+            }
+        };
+
+        if (response != null) {
+            // Deliver the response only after it is requested by the listener.
+            lock.lock();
+            try {
+                if (pendingRequests == 0) {
+                    pendingDelivery = delivery;
+                    return;
+                }
+                pendingRequests--;
+            } finally {
+                lock.unlock();
+            }
+        }
+        executor.execute(delivery);
+    }
+
+    private String simpleMethodName() {
+        String simpleMethodName = simpleMethodNames.get(method);
+        if (simpleMethodName == null) {
+            simpleMethodName = method.getBareMethodName();
+        }
+        return simpleMethodName;
+    }
+}
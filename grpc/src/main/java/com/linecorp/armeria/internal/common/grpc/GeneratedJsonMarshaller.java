@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.grpc;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+import org.curioswitch.common.protobuf.json.MessageMarshaller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+
+import com.linecorp.armeria.common.grpc.GrpcJsonMarshaller;
+
+import io.grpc.MethodDescriptor.Marshaller;
+import io.grpc.MethodDescriptor.PrototypeMarshaller;
+
+/**
+ * A {@link GrpcJsonMarshaller} which converts a {@link Message} with the {@link MessageJsonCodec}
+ * generated from the {@link Descriptor} of its type. The message types which have no generated codec are
+ * converted with the {@link MessageMarshaller}.
+ */
+public final class GeneratedJsonMarshaller implements GrpcJsonMarshaller {
+
+    private static final JsonFactory jsonFactory =
+            JsonFactory.builder()
+                       // The caller closes the streams.
+                       .disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+                       .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                       .build();
+
+    private final Map<Descriptor, MessageJsonCodec> codecs;
+    private final MessageMarshaller delegate;
+
+    /**
+     * Creates a new instance which generates the codecs of the specified message types.
+     */
+    public GeneratedJsonMarshaller(Iterable<Descriptor> descriptors, MessageMarshaller delegate) {
+        codecs = MessageJsonCodec.generate(requireNonNull(descriptors, "descriptors"));
+        this.delegate = requireNonNull(delegate, "delegate");
+    }
+
+    /**
+     * Returns whether a codec is generated for the specified message type.
+     */
+    boolean hasCodec(Descriptor descriptor) {
+        return codecs.containsKey(descriptor);
+    }
+
+    @Override
+    public <T> void serializeMessage(Marshaller<T> marshaller, T message, OutputStream os) throws IOException {
+        final Message msg = (Message) message;
+        final MessageJsonCodec codec = codecs.get(msg.getDescriptorForType());
+        if (codec == null) {
+            delegate.writeValue(msg, os);
+            return;
+        }
+        try (JsonGenerator gen = jsonFactory.createGenerator(os)) {
+            codec.write(msg, gen);
+        }
+    }
+
+    @Override
+    public <T> T deserializeMessage(Marshaller<T> marshaller, InputStream is) throws IOException {
+        final PrototypeMarshaller<T> prototypeMarshaller = (PrototypeMarshaller<T>) marshaller;
+        final Message prototype = (Message) prototypeMarshaller.getMessagePrototype();
+        final Message.Builder builder = prototype.newBuilderForType();
+        final MessageJsonCodec codec = codecs.get(prototype.getDescriptorForType());
+        if (codec == null) {
+            delegate.mergeValue(is, builder);
+        } else {
+            try (JsonParser parser = jsonFactory.createParser(is)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new InvalidProtocolBufferException("Expected a JSON object");
+                }
+                codec.merge(parser, builder);
+            }
+        }
+        @SuppressWarnings("unchecked")
+        final T cast = (T) builder.build();
+        return cast;
+    }
+}
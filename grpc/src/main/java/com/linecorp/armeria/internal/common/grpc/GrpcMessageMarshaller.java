@@ -111,6 +111,19 @@ public final class GrpcMessageMarshaller<I, O> {
         }
     }
 
+    /**
+     * Serializes the specified request message right after the {@code headerLength} bytes reserved at
+     * the beginning of a new buffer. Returns {@code null} if the size of the message cannot be computed in
+     * advance, so that the message has to be serialized with {@link #serializeRequest(Object)}.
+     */
+    @Nullable
+    public ByteBuf serializeRequest(I message, int headerLength) throws IOException {
+        if (requestType != MessageType.PROTOBUF) {
+            return null;
+        }
+        return serializeProtoAfterHeader((Message) message, headerLength);
+    }
+
     public I deserializeRequest(DeframedMessage message, boolean grpcWebText) throws IOException {
         InputStream messageStream = message.stream();
         final ByteBuf buf = message.buf();
@@ -169,6 +182,19 @@ public final class GrpcMessageMarshaller<I, O> {
         }
     }
 
+    /**
+     * Serializes the specified response message right after the {@code headerLength} bytes reserved at
+     * the beginning of a new buffer. Returns {@code null} if the size of the message cannot be computed in
+     * advance, so that the message has to be serialized with {@link #serializeResponse(Object)}.
+     */
+    @Nullable
+    public ByteBuf serializeResponse(O message, int headerLength) throws IOException {
+        if (responseType != MessageType.PROTOBUF) {
+            return null;
+        }
+        return serializeProtoAfterHeader((Message) message, headerLength);
+    }
+
     public O deserializeResponse(DeframedMessage message, boolean grpcWebText) throws IOException {
         InputStream messageStream = message.stream();
         final ByteBuf buf = message.buf();
@@ -251,6 +277,29 @@ public final class GrpcMessageMarshaller<I, O> {
         }
     }
 
+    @Nullable
+    private ByteBuf serializeProtoAfterHeader(Message message, int headerLength) throws IOException {
+        if (!isProto || useMethodMarshaller) {
+            return null;
+        }
+        final int serializedSize = message.getSerializedSize();
+        // The frame goes to the socket as it is, so a direct buffer saves the copy made by the transport.
+        final ByteBuf buf = alloc.directBuffer(headerLength + serializedSize);
+        boolean success = false;
+        try {
+            if (serializedSize > 0) {
+                message.writeTo(CodedOutputStream.newInstance(buf.nioBuffer(headerLength, serializedSize)));
+            }
+            buf.writerIndex(headerLength + serializedSize);
+            success = true;
+        } finally {
+            if (!success) {
+                buf.release();
+            }
+        }
+        return buf;
+    }
+
     private <T> Message deserializeProto(PrototypeMarshaller<T> marshaller, ByteBuf buf) throws IOException {
         final Message prototype = (Message) marshaller.getMessagePrototype();
         if (isProto) {
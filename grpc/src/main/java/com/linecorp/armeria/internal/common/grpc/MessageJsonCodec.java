@@ -0,0 +1,814 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.grpc;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumDescriptor;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor.JavaType;
+import com.google.protobuf.Descriptors.FieldDescriptor.Type;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+
+/**
+ * A JSON codec of a protobuf {@link Message} type, which is generated from its {@link Descriptor}.
+ * Every field is bound to a {@link ValueCodec} specialized for its type and to its pre-encoded JSON name
+ * when the codec is generated, so that neither the type nor the name of a field is looked up for
+ * each message. The codec follows the
+ * <a href="https://protobuf.dev/programming-guides/proto3/#json">proto3 JSON mapping</a> with the options
+ * used by {@link DefaultJsonMarshaller}, i.e. the fields with the default values are omitted and
+ * the unknown fields are ignored.
+ */
+final class MessageJsonCodec {
+
+    private static final String WELL_KNOWN_TYPES_PACKAGE = "google.protobuf";
+
+    /**
+     * Generates the {@link MessageJsonCodec}s of the specified message types and the message types they
+     * refer to. A message type is skipped if it refers to a well-known type, such as
+     * {@code google.protobuf.Timestamp}, which has a special JSON representation.
+     */
+    static Map<Descriptor, MessageJsonCodec> generate(Iterable<Descriptor> descriptors) {
+        final Map<Descriptor, MessageJsonCodec> codecs = new HashMap<>();
+        for (Descriptor descriptor : descriptors) {
+            if (isSupported(descriptor)) {
+                generate(descriptor, codecs);
+            }
+        }
+        return ImmutableMap.copyOf(codecs);
+    }
+
+    private static boolean isSupported(Descriptor root) {
+        // Visit all message types reachable from the root because a single unsupported field makes
+        // the root unsupported.
+        final Set<Descriptor> visited = new HashSet<>();
+        final ArrayDeque<Descriptor> queue = new ArrayDeque<>();
+        queue.add(root);
+        visited.add(root);
+        while (!queue.isEmpty()) {
+            final Descriptor descriptor = queue.poll();
+            if (WELL_KNOWN_TYPES_PACKAGE.equals(descriptor.getFile().getPackage())) {
+                return false;
+            }
+            for (FieldDescriptor field : descriptor.getFields()) {
+                if (field.getType() == Type.GROUP) {
+                    return false;
+                }
+                if (field.getJavaType() == JavaType.ENUM &&
+                    WELL_KNOWN_TYPES_PACKAGE.equals(field.getEnumType().getFile().getPackage())) {
+                    // e.g. google.protobuf.NullValue
+                    return false;
+                }
+                if (field.getJavaType() == JavaType.MESSAGE && visited.add(field.getMessageType())) {
+                    queue.add(field.getMessageType());
+                }
+            }
+        }
+        return true;
+    }
+
+    private static MessageJsonCodec generate(Descriptor descriptor, Map<Descriptor, MessageJsonCodec> codecs) {
+        MessageJsonCodec codec = codecs.get(descriptor);
+        if (codec != null) {
+            return codec;
+        }
+
+        // Register the codec before generating its fields so that a recursive field refers to it.
+        codec = new MessageJsonCodec();
+        codecs.put(descriptor, codec);
+
+        final ImmutableList.Builder<FieldCodec> fields = ImmutableList.builder();
+        final Map<String, FieldCodec> fieldsByName = new HashMap<>();
+        for (FieldDescriptor field : descriptor.getFields()) {
+            final FieldCodec fieldCodec;
+            if (field.isMapField()) {
+                final FieldDescriptor keyField = field.getMessageType().findFieldByNumber(1);
+                final FieldDescriptor valueField = field.getMessageType().findFieldByNumber(2);
+                fieldCodec = new MapFieldCodec(field, keyField, valueField, valueCodec(keyField, codecs),
+                                               valueCodec(valueField, codecs));
+            } else if (field.isRepeated()) {
+                fieldCodec = new RepeatedFieldCodec(field, valueCodec(field, codecs));
+            } else {
+                fieldCodec = new SingularFieldCodec(field, valueCodec(field, codecs));
+            }
+            fields.add(fieldCodec);
+            // A parser accepts both the lowerCamelCase name and the original name.
+            fieldsByName.put(field.getJsonName(), fieldCodec);
+            fieldsByName.put(field.getName(), fieldCodec);
+        }
+        codec.fields = fields.build();
+        codec.fieldsByName = ImmutableMap.copyOf(fieldsByName);
+        return codec;
+    }
+
+    private static ValueCodec valueCodec(FieldDescriptor field, Map<Descriptor, MessageJsonCodec> codecs) {
+        switch (field.getType()) {
+            case INT32:
+            case SINT32:
+            case SFIXED32:
+                return Int32Codec.INSTANCE;
+            case UINT32:
+            case FIXED32:
+                return Uint32Codec.INSTANCE;
+            case INT64:
+            case SINT64:
+            case SFIXED64:
+                return Int64Codec.INSTANCE;
+            case UINT64:
+            case FIXED64:
+                return Uint64Codec.INSTANCE;
+            case FLOAT:
+                return FloatCodec.INSTANCE;
+            case DOUBLE:
+                return DoubleCodec.INSTANCE;
+            case BOOL:
+                return BoolCodec.INSTANCE;
+            case STRING:
+                return StringCodec.INSTANCE;
+            case BYTES:
+                return BytesCodec.INSTANCE;
+            case ENUM:
+                return new EnumCodec(field.getEnumType());
+            case MESSAGE:
+                return new MessageCodec(generate(field.getMessageType(), codecs));
+            default:
+                throw new IllegalArgumentException("Unsupported field type: " + field.getType() +
+                                                   " (field: " + field.getFullName() + ')');
+        }
+    }
+
+    // Set only once when generated, before this codec is published.
+    private List<FieldCodec> fields = ImmutableList.of();
+    private Map<String, FieldCodec> fieldsByName = ImmutableMap.of();
+
+    private MessageJsonCodec() {}
+
+    /**
+     * Writes the specified {@link Message} as a JSON object.
+     */
+    void write(Message message, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        for (FieldCodec field : fields) {
+            field.write(message, gen);
+        }
+        gen.writeEndObject();
+    }
+
+    /**
+     * Merges the JSON object into the specified {@link Message.Builder}. The current token of
+     * the specified {@link JsonParser} must be {@link JsonToken#START_OBJECT}.
+     */
+    void merge(JsonParser parser, Message.Builder builder) throws IOException {
+        for (;;) {
+            if (nextToken(parser) == JsonToken.END_OBJECT) {
+                return;
+            }
+            final FieldCodec field = fieldsByName.get(parser.currentName());
+            nextToken(parser);
+            if (field == null) {
+                // Ignore an unknown field.
+                parser.skipChildren();
+                continue;
+            }
+            field.read(parser, builder);
+        }
+    }
+
+    private static JsonToken nextToken(JsonParser parser) throws IOException {
+        final JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new InvalidProtocolBufferException("Unexpected end of JSON input");
+        }
+        return token;
+    }
+
+    private static InvalidProtocolBufferException invalidValue(JsonParser parser, String expected)
+            throws IOException {
+        return new InvalidProtocolBufferException(
+                "Invalid JSON value: " + parser.getText() + " (expected: " + expected + ')');
+    }
+
+    private abstract static class FieldCodec {
+
+        final FieldDescriptor field;
+        final SerializedString jsonName;
+
+        FieldCodec(FieldDescriptor field) {
+            this.field = field;
+            jsonName = new SerializedString(field.getJsonName());
+        }
+
+        abstract void write(Message message, JsonGenerator gen) throws IOException;
+
+        /**
+         * Reads the value of this field. The current token of the specified {@link JsonParser} is the first
+         * token of the value.
+         */
+        abstract void read(JsonParser parser, Message.Builder builder) throws IOException;
+    }
+
+    private static final class SingularFieldCodec extends FieldCodec {
+
+        private final ValueCodec valueCodec;
+        private final boolean hasPresence;
+        @Nullable
+        private final Object defaultValue;
+
+        SingularFieldCodec(FieldDescriptor field, ValueCodec valueCodec) {
+            super(field);
+            this.valueCodec = valueCodec;
+            hasPresence = field.hasPresence();
+            defaultValue = hasPresence ? null : field.getDefaultValue();
+        }
+
+        @Override
+        void write(Message message, JsonGenerator gen) throws IOException {
+            final Object value;
+            if (hasPresence) {
+                if (!message.hasField(field)) {
+                    return;
+                }
+                value = message.getField(field);
+            } else {
+                value = message.getField(field);
+                if (value.equals(defaultValue)) {
+                    return;
+                }
+            }
+            gen.writeFieldName(jsonName);
+            valueCodec.write(value, gen);
+        }
+
+        @Override
+        void read(JsonParser parser, Message.Builder builder) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                // null is the same as the default value.
+                return;
+            }
+            final Object value = valueCodec.read(parser, builder, field);
+            if (value != null) {
+                builder.setField(field, value);
+            }
+        }
+    }
+
+    private static final class RepeatedFieldCodec extends FieldCodec {
+
+        private final ValueCodec valueCodec;
+
+        RepeatedFieldCodec(FieldDescriptor field, ValueCodec valueCodec) {
+            super(field);
+            this.valueCodec = valueCodec;
+        }
+
+        @Override
+        void write(Message message, JsonGenerator gen) throws IOException {
+            final int count = message.getRepeatedFieldCount(field);
+            if (count == 0) {
+                return;
+            }
+            gen.writeFieldName(jsonName);
+            gen.writeStartArray();
+            for (int i = 0; i < count; i++) {
+                valueCodec.write(message.getRepeatedField(field, i), gen);
+            }
+            gen.writeEndArray();
+        }
+
+        @Override
+        void read(JsonParser parser, Message.Builder builder) throws IOException {
+            final JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NULL) {
+                return;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw invalidValue(parser, "an array");
+            }
+            while (nextToken(parser) != JsonToken.END_ARRAY) {
+                if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                    throw invalidValue(parser, "a non-null element");
+                }
+                final Object value = valueCodec.read(parser, builder, field);
+                if (value != null) {
+                    builder.addRepeatedField(field, value);
+                }
+            }
+        }
+    }
+
+    private static final class MapFieldCodec extends FieldCodec {
+
+        private final FieldDescriptor keyField;
+        private final FieldDescriptor valueField;
+        private final ValueCodec keyCodec;
+        private final ValueCodec valueCodec;
+
+        MapFieldCodec(FieldDescriptor field, FieldDescriptor keyField, FieldDescriptor valueField,
+                      ValueCodec keyCodec, ValueCodec valueCodec) {
+            super(field);
+            this.keyField = keyField;
+            this.valueField = valueField;
+            this.keyCodec = keyCodec;
+            this.valueCodec = valueCodec;
+        }
+
+        @Override
+        void write(Message message, JsonGenerator gen) throws IOException {
+            final int count = message.getRepeatedFieldCount(field);
+            if (count == 0) {
+                return;
+            }
+            gen.writeFieldName(jsonName);
+            gen.writeStartObject();
+            for (int i = 0; i < count; i++) {
+                final Message entry = (Message) message.getRepeatedField(field, i);
+                gen.writeFieldName(keyCodec.keyToString(entry.getField(keyField)));
+                valueCodec.write(entry.getField(valueField), gen);
+            }
+            gen.writeEndObject();
+        }
+
+        @Override
+        void read(JsonParser parser, Message.Builder builder) throws IOException {
+            final JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NULL) {
+                return;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw invalidValue(parser, "an object");
+            }
+            while (nextToken(parser) != JsonToken.END_OBJECT) {
+                final Object key = keyCodec.parseKey(parser.currentName());
+                if (nextToken(parser) == JsonToken.VALUE_NULL) {
+                    throw invalidValue(parser, "a non-null map value");
+                }
+                final Message.Builder entry = builder.newBuilderForField(field);
+                final Object value = valueCodec.read(parser, entry, valueField);
+                if (value != null) {
+                    entry.setField(keyField, key);
+                    entry.setField(valueField, value);
+                    builder.addRepeatedField(field, entry.build());
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts a value of a specific type to and from JSON.
+     */
+    private interface ValueCodec {
+
+        void write(Object value, JsonGenerator gen) throws IOException;
+
+        /**
+         * Reads a value whose first token is the current token of the specified {@link JsonParser}.
+         * Returns {@code null} if the value is unknown and should be ignored.
+         */
+        @Nullable
+        Object read(JsonParser parser, Message.Builder parent, FieldDescriptor field) throws IOException;
+
+        default Object parseKey(String key) throws InvalidProtocolBufferException {
+            throw new InvalidProtocolBufferException("Unsupported map key: " + key);
+        }
+
+        default String keyToString(Object key) {
+            return key.toString();
+        }
+    }
+
+    private static long readLong(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT:
+                if (parser.getNumberType() == NumberType.BIG_INTEGER) {
+                    throw invalidValue(parser, "a 64-bit integer");
+                }
+                return parser.getLongValue();
+            case VALUE_NUMBER_FLOAT:
+                // An integer may be written in the exponent notation, e.g. 1e3.
+                final double doubleValue = parser.getDoubleValue();
+                final long longValue = (long) doubleValue;
+                if (longValue != doubleValue) {
+                    throw invalidValue(parser, "an integer");
+                }
+                return longValue;
+            case VALUE_STRING:
+                return parseLong(parser.getText());
+            default:
+                throw invalidValue(parser, "an integer");
+        }
+    }
+
+    private static long parseLong(String text) throws InvalidProtocolBufferException {
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new InvalidProtocolBufferException("Invalid integer: " + text);
+        }
+    }
+
+    private static double readDouble(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            case VALUE_STRING:
+                final String text = parser.getText();
+                switch (text) {
+                    case "NaN":
+                        return Double.NaN;
+                    case "Infinity":
+                        return Double.POSITIVE_INFINITY;
+                    case "-Infinity":
+                        return Double.NEGATIVE_INFINITY;
+                    default:
+                        try {
+                            return Double.parseDouble(text);
+                        } catch (NumberFormatException e) {
+                            throw invalidValue(parser, "a number");
+                        }
+                }
+            default:
+                throw invalidValue(parser, "a number");
+        }
+    }
+
+    private static void writeDouble(double value, JsonGenerator gen) throws IOException {
+        if (Double.isNaN(value)) {
+            gen.writeString("NaN");
+        } else if (Double.isInfinite(value)) {
+            gen.writeString(value > 0 ? "Infinity" : "-Infinity");
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private static final class Int32Codec implements ValueCodec {
+
+        static final Int32Codec INSTANCE = new Int32Codec();
+
+        @Override
+        public void write(Object value, JsonGenerator gen) throws IOException {
+            gen.writeNumber((int) value);
+        }
+
+        @Override
+        public Object read(JsonParser parser, Message.Builder parent, FieldDescriptor field)
+                throws IOException {
+            final long value = readLong(parser);
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw invalidValue(parser, "a 32-bit integer");
+            }
+            return (int) value;
+        }
+
+        @Override
+        public Object parseKey(String key) throws InvalidProtocolBufferException {
+            try {
+                return Integer.parseInt(key);
+            } catch (NumberFormatException e) {
+                throw new InvalidProtocolBufferException("Invalid map key: " + key);
+            }
+        }
+    }
+
+    private static final class Uint32Codec implements ValueCodec {
+
+        static final Uint32Codec INSTANCE = new Uint32Codec();
+
+        @Override
+        public void write(Object value, JsonGenerator gen) throws IOException {
+            gen.writeNumber(Integer.toUnsignedLong((int) value));
+        }
+
+        @Override
+        public Object read(JsonParser parser, Message.Builder parent, FieldDescriptor field)
+                throws IOException {
+            final long value = readLong(parser);
+            if (value < 0 || value > 0xFFFFFFFFL) {
+                throw invalidValue(parser, "an unsigned 32-bit integer");
+            }
+            return (int) value;
+        }
+
+        @Override
+        public Object parseKey(String key) throws InvalidProtocolBufferException {
+            try {
+                return Integer.parseUnsignedInt(key);
+            } catch (NumberFormatException e) {
+                throw new InvalidProtocolBufferException("Invalid map key: " + key);
+            }
+        }
+
+        @Override
+        public String keyToString(Object key) {
+            return Integer.toUnsignedString((int) key);
+        }
+    }
+
+    private static final class Int64Codec implements ValueCodec {
+
+        static final Int64Codec INSTANCE = new Int64Codec();
+
+        @Override
+        public void write(Object value, JsonGenerator gen) throws IOException {
+            // A 64-bit integer is written as a string because JavaScript cannot represent it precisely.
+            gen.writeString(Long.toString((long) value));
+        }
+
+        @Override
+        public Object read(JsonParser parser, Message.Builder parent, FieldDescriptor field)
+                throws IOException {
+            return readLong(parser);
+        }
+
+        @Override
+        public Object parseKey(String key) throws InvalidProtocolBufferException {
+            return parseLong(key);
+        }
+    }
+
+    private static final class Uint64Codec implements ValueCodec {
+
+        static final Uint64Codec INSTANCE = new Uint64Codec();
+
+        private static final BigInteger MAX_UINT64 = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+        @Override
+        public void write(Object value, JsonGenerator gen) throws IOException {
+            gen.writeString(Long.toUnsignedString((long) value));
+        }
+
+        @Override
+        public Object read(JsonParser parser, Message.Builder parent, FieldDescriptor field)
+                throws IOException {
+            final BigInteger value;
+            switch (parser.currentToken()) {
+                case VALUE_NUMBER_INT:
+                    value = parser.getBigIntegerValue();
+                    break;
+                case VALUE_STRING:
+                    try {
+                        value = new BigInteger(parser.getText());
+                    } catch (NumberFormatException e) {
+                        throw invalidValue(parser, "an unsigned 64-bit integer");
+                    }
+                    break;
+                default:
+                    // Reuse the validation of the signed integers for the exponent notation.
+                    final long longValue = readLong(parser);
+                    if (longValue < 0) {
+                        throw invalidValue(parser, "an unsigned 64-bit integer");
+                    }
+                    return longValue;
+            }
+            if (value.signum() < 0 || value.compareTo(MAX_UINT64) > 0) {
+                throw invalidValue(parser, "an unsigned 64-bit integer");
+            }
+            return value.longValue();
+        }
+
+        @Override
+        public Object parseKey(String key) throws InvalidProtocolBufferException {
+            try {
+                return Long.parseUnsignedLong(key);
+            } catch (NumberFormatException e) {
+                throw new InvalidProtocolBufferException("Invalid map key: " + key);
+            }
+        }
+
+        @Override
+        public String keyToString(Object key) {
+            return Long.toUnsignedString((long) key);
+        }
+    }
+
+    private static final class FloatCodec implements ValueCodec {
+
+        static final FloatCodec INSTANCE = new FloatCodec();
+
+        @Override
+        public void write(Object value, JsonGenerator gen) throws IOException {
+            final float floatValue = (float) value;
+            if (Float.isNaN(floatValue) || Float.isInfinite(floatValue)) {
+                writeDouble(floatValue, gen);
+            } else {
+                gen.writeNumber(floatValue);
+            }
+        }
+
+        @Override
+        public Object read(JsonParser parser, Message.Builder parent, FieldDescriptor field)
+                throws IOException {
+            final double value = readDouble(parser);
+            final float floatValue = (float) value;
+            if (Float.isInfinite(floatValue) && !Double.isInfinite(value)) {
+                throw invalidValue(parser, "a 32-bit floating point number");
+            }
+            return floatValue;
+        }
+    }
+
+    private static final class DoubleCodec implements ValueCodec {
+
+        static final DoubleCodec INSTANCE = new DoubleCodec();
+
+        @Override
+        public void write(Object value, JsonGenerator gen) throws IOException {
+            writeDouble((double) value, gen);
+        }
+
+        @Override
+        public Object read(JsonParser parser, Message.Builder parent, FieldDescriptor field)
+                throws IOException {
+            return readDouble(parser);
+        }
+    }
+
+    private static final class BoolCodec implements ValueCodec {
+
+        static final BoolCodec INSTANCE = new BoolCodec();
+
+        @Override
+        public void write(Object value, JsonGenerator gen) throws IOException {
+            gen.writeBoolean((boolean) value);
+        }
+
+        @Override
+        public Object read(JsonParser parser, Message.Builder parent, FieldDescriptor field)
+                throws IOException {
+            switch (parser.currentToken()) {
+                case VALUE_TRUE:
+                    return Boolean.TRUE;
+                case VALUE_FALSE:
+                    return Boolean.FALSE;
+                default:
+                    throw invalidValue(parser, "a boolean");
+            }
+        }
+
+        @Override
+        public Object parseKey(String key) throws InvalidProtocolBufferException {
+            switch (key) {
+                case "true":
+                    return Boolean.TRUE;
+                case "false":
+                    return Boolean.FALSE;
+                default:
+                    throw new InvalidProtocolBufferException("Invalid map key: " + key);
+            }
+        }
+    }
+
+    private static final class StringCodec implements ValueCodec {
+
+        static final StringCodec INSTANCE = new StringCodec();
+
+        @Override
+        public void write(Object value, JsonGenerator gen) throws IOException {
+            gen.writeString((String) value);
+        }
+
+        @Override
+        public Object read(JsonParser parser, Message.Builder parent, FieldDescriptor field)
+                throws IOException {
+            if (parser.currentToken() != JsonToken.VALUE_STRING) {
+                throw invalidValue(parser, "a string");
+            }
+            return parser.getText();
+        }
+
+        @Override
+        public Object parseKey(String key) {
+            return key;
+        }
+    }
+
+    private static final class BytesCodec implements ValueCodec {
+
+        static final BytesCodec INSTANCE = new BytesCodec();
+
+        @Override
+        public void write(Object value, JsonGenerator gen) throws IOException {
+            final byte[] bytes = ((ByteString) value).toByteArray();
+            // The standard Base64 encoding with paddings.
+            gen.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, bytes, 0, bytes.length);
+        }
+
+        @Override
+        public Object read(JsonParser parser, Message.Builder parent, FieldDescriptor field)
+                throws IOException {
+            if (parser.currentToken() != JsonToken.VALUE_STRING) {
+                throw invalidValue(parser, "a Base64 string");
+            }
+            // Both the standard and the URL-safe Base64 encodings are accepted with or without paddings.
+            final String text = parser.getText();
+            try {
+                if (text.indexOf('-') >= 0 || text.indexOf('_') >= 0) {
+                    return ByteString.copyFrom(Base64.getUrlDecoder().decode(text));
+                }
+                return ByteString.copyFrom(Base64.getDecoder().decode(text));
+            } catch (IllegalArgumentException e) {
+                throw invalidValue(parser, "a Base64 string");
+            }
+        }
+    }
+
+    private static final class EnumCodec implements ValueCodec {
+
+        private final EnumDescriptor enumType;
+
+        EnumCodec(EnumDescriptor enumType) {
+            this.enumType = enumType;
+        }
+
+        @Override
+        public void write(Object value, JsonGenerator gen) throws IOException {
+            final EnumValueDescriptor enumValue = (EnumValueDescriptor) value;
+            if (enumValue.getIndex() == -1) {
+                // An unknown value of an open enum.
+                gen.writeNumber(enumValue.getNumber());
+            } else {
+                gen.writeString(enumValue.getName());
+            }
+        }
+
+        @Nullable
+        @Override
+        public Object read(JsonParser parser, Message.Builder parent, FieldDescriptor field)
+                throws IOException {
+            switch (parser.currentToken()) {
+                case VALUE_STRING:
+                    return enumType.findValueByName(parser.getText());
+                case VALUE_NUMBER_INT:
+                    final long number = readLong(parser);
+                    if (number < Integer.MIN_VALUE || number > Integer.MAX_VALUE) {
+                        throw invalidValue(parser, "an enum number");
+                    }
+                    return enumType.findValueByNumber((int) number);
+                default:
+                    throw invalidValue(parser, "an enum name or number");
+            }
+        }
+    }
+
+    private static final class MessageCodec implements ValueCodec {
+
+        private final MessageJsonCodec codec;
+
+        MessageCodec(MessageJsonCodec codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public void write(Object value, JsonGenerator gen) throws IOException {
+            codec.write((Message) value, gen);
+        }
+
+        @Override
+        public Object read(JsonParser parser, Message.Builder parent, FieldDescriptor field)
+                throws IOException {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                throw invalidValue(parser, "an object");
+            }
+            final Message.Builder builder = parent.newBuilderForField(field);
+            codec.merge(parser, builder);
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,403 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.grpc;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpHeaders;
+import com.linecorp.armeria.common.annotation.Nullable;
+
+import io.netty.util.AsciiString;
+
+/**
+ * A backend load report of the Open Request Cost Aggregation (ORCA) protocol, which is
+ * {@code xds.data.orca.v3.OrcaLoadReport} on the wire. The message is encoded and decoded by hand so that
+ * the generated xDS classes are not required.
+ */
+public final class OrcaLoadReport {
+
+    /**
+     * The header which carries an {@link OrcaLoadReport} in the trailers of a gRPC response.
+     */
+    public static final AsciiString ENDPOINT_LOAD_METRICS_BIN = HttpHeaderNames.of("endpoint-load-metrics-bin");
+
+    private static final int CPU_UTILIZATION = 1;
+    private static final int MEM_UTILIZATION = 2;
+    private static final int RPS = 3;
+    private static final int REQUEST_COST = 4;
+    private static final int UTILIZATION = 5;
+    private static final int RPS_FRACTIONAL = 6;
+    private static final int EPS = 7;
+    private static final int NAMED_METRICS = 8;
+    private static final int APPLICATION_UTILIZATION = 9;
+
+    private static final int MAP_KEY = 1;
+    private static final int MAP_VALUE = 2;
+
+    private static final Base64.Encoder base64Encoder = Base64.getEncoder().withoutPadding();
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Decodes the {@link OrcaLoadReport} in the {@link #ENDPOINT_LOAD_METRICS_BIN} header of the specified
+     * {@link HttpHeaders}. {@code null} is returned if the header is absent or malformed.
+     */
+    @Nullable
+    public static OrcaLoadReport fromHeaders(HttpHeaders headers) {
+        final String value = headers.get(ENDPOINT_LOAD_METRICS_BIN);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parse(Base64.getDecoder().decode(value));
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Decodes the specified serialized {@code xds.data.orca.v3.OrcaLoadReport}.
+     */
+    public static OrcaLoadReport parse(byte[] bytes) throws IOException {
+        final Builder builder = builder();
+        double rps = 0;
+        final CodedInputStream in = CodedInputStream.newInstance(bytes);
+        for (;;) {
+            final int tag = in.readTag();
+            if (tag == 0) {
+                break;
+            }
+            final int wireType = WireFormat.getTagWireType(tag);
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case CPU_UTILIZATION:
+                    if (wireType == WireFormat.WIRETYPE_FIXED64) {
+                        builder.cpuUtilization(in.readDouble());
+                        continue;
+                    }
+                    break;
+                case MEM_UTILIZATION:
+                    if (wireType == WireFormat.WIRETYPE_FIXED64) {
+                        builder.memUtilization(in.readDouble());
+                        continue;
+                    }
+                    break;
+                case RPS:
+                    if (wireType == WireFormat.WIRETYPE_VARINT) {
+                        rps = in.readUInt64();
+                        continue;
+                    }
+                    break;
+                case RPS_FRACTIONAL:
+                    if (wireType == WireFormat.WIRETYPE_FIXED64) {
+                        builder.rpsFractional(in.readDouble());
+                        continue;
+                    }
+                    break;
+                case EPS:
+                    if (wireType == WireFormat.WIRETYPE_FIXED64) {
+                        builder.eps(in.readDouble());
+                        continue;
+                    }
+                    break;
+                case APPLICATION_UTILIZATION:
+                    if (wireType == WireFormat.WIRETYPE_FIXED64) {
+                        builder.applicationUtilization(in.readDouble());
+                        continue;
+                    }
+                    break;
+                case REQUEST_COST:
+                    if (wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                        readMapEntry(in, builder.requestCost);
+                        continue;
+                    }
+                    break;
+                case UTILIZATION:
+                    if (wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                        readMapEntry(in, builder.utilization);
+                        continue;
+                    }
+                    break;
+                case NAMED_METRICS:
+                    if (wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                        readMapEntry(in, builder.namedMetrics);
+                        continue;
+                    }
+                    break;
+            }
+            if (!in.skipField(tag)) {
+                break;
+            }
+        }
+        if (builder.rpsFractional == 0) {
+            // Fall back to the deprecated integral field sent by old servers.
+            builder.rpsFractional(rps);
+        }
+        return builder.build();
+    }
+
+    private static void readMapEntry(CodedInputStream in, Map<String, Double> map) throws IOException {
+        final int oldLimit = in.pushLimit(in.readRawVarint32());
+        String key = "";
+        double value = 0;
+        for (;;) {
+            final int tag = in.readTag();
+            if (tag == 0) {
+                break;
+            }
+            final int fieldNumber = WireFormat.getTagFieldNumber(tag);
+            final int wireType = WireFormat.getTagWireType(tag);
+            if (fieldNumber == MAP_KEY && wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                key = in.readStringRequireUtf8();
+            } else if (fieldNumber == MAP_VALUE && wireType == WireFormat.WIRETYPE_FIXED64) {
+                value = in.readDouble();
+            } else if (!in.skipField(tag)) {
+                break;
+            }
+        }
+        in.checkLastTagWas(0);
+        in.popLimit(oldLimit);
+        map.put(key, value);
+    }
+
+    private final double cpuUtilization;
+    private final double memUtilization;
+    private final double applicationUtilization;
+    private final double rpsFractional;
+    private final double eps;
+    private final Map<String, Double> requestCost;
+    private final Map<String, Double> utilization;
+    private final Map<String, Double> namedMetrics;
+
+    private OrcaLoadReport(Builder builder) {
+        cpuUtilization = builder.cpuUtilization;
+        memUtilization = builder.memUtilization;
+        applicationUtilization = builder.applicationUtilization;
+        rpsFractional = builder.rpsFractional;
+        eps = builder.eps;
+        requestCost = ImmutableMap.copyOf(builder.requestCost);
+        utilization = ImmutableMap.copyOf(builder.utilization);
+        namedMetrics = ImmutableMap.copyOf(builder.namedMetrics);
+    }
+
+    public double cpuUtilization() {
+        return cpuUtilization;
+    }
+
+    public double memUtilization() {
+        return memUtilization;
+    }
+
+    public double applicationUtilization() {
+        return applicationUtilization;
+    }
+
+    public double rpsFractional() {
+        return rpsFractional;
+    }
+
+    public double eps() {
+        return eps;
+    }
+
+    public Map<String, Double> requestCost() {
+        return requestCost;
+    }
+
+    public Map<String, Double> utilization() {
+        return utilization;
+    }
+
+    public Map<String, Double> namedMetrics() {
+        return namedMetrics;
+    }
+
+    /**
+     * Returns whether this report has no metrics, i.e. it is encoded into zero bytes.
+     */
+    public boolean isEmpty() {
+        return cpuUtilization == 0 && memUtilization == 0 && applicationUtilization == 0 &&
+               rpsFractional == 0 && eps == 0 &&
+               requestCost.isEmpty() && utilization.isEmpty() && namedMetrics.isEmpty();
+    }
+
+    /**
+     * Encodes this report into a serialized {@code xds.data.orca.v3.OrcaLoadReport}.
+     */
+    public byte[] toByteArray() {
+        final byte[] bytes = new byte[serializedSize()];
+        final CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        try {
+            writeDouble(out, CPU_UTILIZATION, cpuUtilization);
+            writeDouble(out, MEM_UTILIZATION, memUtilization);
+            writeMap(out, REQUEST_COST, requestCost);
+            writeMap(out, UTILIZATION, utilization);
+            writeDouble(out, RPS_FRACTIONAL, rpsFractional);
+            writeDouble(out, EPS, eps);
+            writeMap(out, NAMED_METRICS, namedMetrics);
+            writeDouble(out, APPLICATION_UTILIZATION, applicationUtilization);
+            out.checkNoSpaceLeft();
+        } catch (IOException e) {
+            // Never happens because the size was computed in advance.
+            throw new IllegalStateException(e);
+        }
+        return bytes;
+    }
+
+    /**
+     * Encodes this report into the value of the {@link #ENDPOINT_LOAD_METRICS_BIN} header.
+     */
+    public String toHeaderValue() {
+        return base64Encoder.encodeToString(toByteArray());
+    }
+
+    private int serializedSize() {
+        return doubleSize(CPU_UTILIZATION, cpuUtilization) +
+               doubleSize(MEM_UTILIZATION, memUtilization) +
+               mapSize(REQUEST_COST, requestCost) +
+               mapSize(UTILIZATION, utilization) +
+               doubleSize(RPS_FRACTIONAL, rpsFractional) +
+               doubleSize(EPS, eps) +
+               mapSize(NAMED_METRICS, namedMetrics) +
+               doubleSize(APPLICATION_UTILIZATION, applicationUtilization);
+    }
+
+    private static int doubleSize(int fieldNumber, double value) {
+        // A field with the default value is not encoded in proto3.
+        return value != 0 ? CodedOutputStream.computeDoubleSize(fieldNumber, value) : 0;
+    }
+
+    private static int mapSize(int fieldNumber, Map<String, Double> map) {
+        int size = 0;
+        for (Entry<String, Double> e : map.entrySet()) {
+            final int entrySize = mapEntrySize(e);
+            size += CodedOutputStream.computeTagSize(fieldNumber) +
+                    CodedOutputStream.computeUInt32SizeNoTag(entrySize) + entrySize;
+        }
+        return size;
+    }
+
+    private static int mapEntrySize(Entry<String, Double> e) {
+        return CodedOutputStream.computeStringSize(MAP_KEY, e.getKey()) +
+               CodedOutputStream.computeDoubleSize(MAP_VALUE, e.getValue());
+    }
+
+    private static void writeDouble(CodedOutputStream out, int fieldNumber, double value) throws IOException {
+        if (value != 0) {
+            out.writeDouble(fieldNumber, value);
+        }
+    }
+
+    private static void writeMap(CodedOutputStream out, int fieldNumber, Map<String, Double> map)
+            throws IOException {
+        for (Entry<String, Double> e : map.entrySet()) {
+            out.writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(mapEntrySize(e));
+            out.writeString(MAP_KEY, e.getKey());
+            out.writeDouble(MAP_VALUE, e.getValue());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("cpuUtilization", cpuUtilization)
+                          .add("memUtilization", memUtilization)
+                          .add("applicationUtilization", applicationUtilization)
+                          .add("rpsFractional", rpsFractional)
+                          .add("eps", eps)
+                          .add("requestCost", requestCost)
+                          .add("utilization", utilization)
+                          .add("namedMetrics", namedMetrics)
+                          .toString();
+    }
+
+    /**
+     * Builds a new {@link OrcaLoadReport}. The metrics set later override the ones set earlier.
+     */
+    public static final class Builder {
+
+        private double cpuUtilization;
+        private double memUtilization;
+        private double applicationUtilization;
+        private double rpsFractional;
+        private double eps;
+        private final Map<String, Double> requestCost = new LinkedHashMap<>();
+        private final Map<String, Double> utilization = new LinkedHashMap<>();
+        private final Map<String, Double> namedMetrics = new LinkedHashMap<>();
+
+        Builder() {}
+
+        public Builder cpuUtilization(double cpuUtilization) {
+            this.cpuUtilization = cpuUtilization;
+            return this;
+        }
+
+        public Builder memUtilization(double memUtilization) {
+            this.memUtilization = memUtilization;
+            return this;
+        }
+
+        public Builder applicationUtilization(double applicationUtilization) {
+            this.applicationUtilization = applicationUtilization;
+            return this;
+        }
+
+        public Builder rpsFractional(double rpsFractional) {
+            this.rpsFractional = rpsFractional;
+            return this;
+        }
+
+        public Builder eps(double eps) {
+            this.eps = eps;
+            return this;
+        }
+
+        public Builder requestCost(Map<String, Double> requestCost) {
+            this.requestCost.putAll(requireNonNull(requestCost, "requestCost"));
+            return this;
+        }
+
+        public Builder utilization(Map<String, Double> utilization) {
+            this.utilization.putAll(requireNonNull(utilization, "utilization"));
+            return this;
+        }
+
+        public Builder namedMetrics(Map<String, Double> namedMetrics) {
+            this.namedMetrics.putAll(requireNonNull(namedMetrics, "namedMetrics"));
+            return this;
+        }
+
+        public OrcaLoadReport build() {
+            return new OrcaLoadReport(this);
+        }
+    }
+}
@@ -532,6 +532,12 @@ public abstract class AbstractServerCall<I, O> extends ServerCall<I, O> {
     }
 
     protected final HttpData toPayload(O message) throws IOException {
+        if (responseFramer.isWritingInPlace()) {
+            final ByteBuf frame = marshaller.serializeResponse(message, ArmeriaMessageFramer.HEADER_LENGTH);
+            if (frame != null) {
+                return responseFramer.writeReservedPayload(frame);
+            }
+        }
         return responseFramer.writePayload(marshaller.serializeResponse(message));
     }
 
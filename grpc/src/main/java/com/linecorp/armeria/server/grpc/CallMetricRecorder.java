@@ -0,0 +1,219 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.grpc;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.internal.common.grpc.OrcaLoadReport;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.netty.util.AttributeKey;
+
+/**
+ * Records the backend metrics of the current call, which are sent to the client in the
+ * {@code endpoint-load-metrics-bin} trailer by {@link OrcaLoadReportingService}. The metrics recorded
+ * here override the ones recorded in {@link ServerMetricRecorder}. A metric whose value is {@code 0}
+ * is not reported.
+ *
+ * <p>For example:<pre>{@code
+ * public void hello(HelloRequest req, StreamObserver<HelloReply> responseObserver) {
+ *     CallMetricRecorder.current()
+ *                       .recordCpuUtilizationMetric(cpuUsage())
+ *                       .recordRequestCostMetric("db_queries", 3);
+ *     ...
+ * }
+ * }</pre>
+ */
+@UnstableApi
+public final class CallMetricRecorder {
+
+    private static final AttributeKey<CallMetricRecorder> RECORDER =
+            AttributeKey.valueOf(CallMetricRecorder.class, "RECORDER");
+
+    private static final CallMetricRecorder DISABLED = new CallMetricRecorder(false);
+
+    /**
+     * Returns the {@link CallMetricRecorder} of the current {@link ServiceRequestContext}. If there's no
+     * current {@link ServiceRequestContext} or the service is not decorated with
+     * {@link OrcaLoadReportingService}, the returned recorder discards all metrics.
+     */
+    public static CallMetricRecorder current() {
+        final ServiceRequestContext ctx = ServiceRequestContext.currentOrNull();
+        if (ctx == null) {
+            return DISABLED;
+        }
+        final CallMetricRecorder recorder = ctx.attr(RECORDER);
+        return recorder != null ? recorder : DISABLED;
+    }
+
+    static CallMetricRecorder install(ServiceRequestContext ctx) {
+        final CallMetricRecorder recorder = new CallMetricRecorder(true);
+        ctx.setAttr(RECORDER, recorder);
+        return recorder;
+    }
+
+    private final boolean enabled;
+    private volatile double cpuUtilization;
+    private volatile double memoryUtilization;
+    private volatile double applicationUtilization;
+    private volatile double qps;
+    private volatile double eps;
+    @Nullable
+    private final Map<String, Double> utilization;
+    @Nullable
+    private final Map<String, Double> requestCost;
+    @Nullable
+    private final Map<String, Double> namedMetrics;
+
+    private CallMetricRecorder(boolean enabled) {
+        this.enabled = enabled;
+        if (enabled) {
+            utilization = new ConcurrentHashMap<>();
+            requestCost = new ConcurrentHashMap<>();
+            namedMetrics = new ConcurrentHashMap<>();
+        } else {
+            utilization = null;
+            requestCost = null;
+            namedMetrics = null;
+        }
+    }
+
+    /**
+     * Returns whether the recorded metrics are sent to the client.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records the CPU utilization of the server while handling the current call.
+     */
+    public CallMetricRecorder recordCpuUtilizationMetric(double value) {
+        checkArgument(value >= 0, "value: %s (expected: >= 0)", value);
+        cpuUtilization = value;
+        return this;
+    }
+
+    /**
+     * Records the memory utilization of the server in {@code [0, 1]} while handling the current call.
+     */
+    public CallMetricRecorder recordMemoryUtilizationMetric(double value) {
+        checkArgument(value >= 0 && value <= 1, "value: %s (expected: 0 <= value <= 1)", value);
+        memoryUtilization = value;
+        return this;
+    }
+
+    /**
+     * Records the application specific utilization of the server while handling the current call.
+     */
+    public CallMetricRecorder recordApplicationUtilizationMetric(double value) {
+        checkArgument(value >= 0, "value: %s (expected: >= 0)", value);
+        applicationUtilization = value;
+        return this;
+    }
+
+    /**
+     * Records the number of queries per second handled by the server.
+     */
+    public CallMetricRecorder recordQpsMetric(double value) {
+        checkArgument(value >= 0, "value: %s (expected: >= 0)", value);
+        qps = value;
+        return this;
+    }
+
+    /**
+     * Records the number of errors per second returned by the server.
+     */
+    public CallMetricRecorder recordEpsMetric(double value) {
+        checkArgument(value >= 0, "value: %s (expected: >= 0)", value);
+        eps = value;
+        return this;
+    }
+
+    /**
+     * Records the utilization of the resource with the specified name in {@code [0, 1]}.
+     */
+    public CallMetricRecorder recordUtilizationMetric(String name, double value) {
+        requireNonNull(name, "name");
+        checkArgument(value >= 0 && value <= 1, "value: %s (expected: 0 <= value <= 1)", value);
+        if (utilization != null) {
+            utilization.put(name, value);
+        }
+        return this;
+    }
+
+    /**
+     * Records the cost of the current call with the specified name, e.g. the number of database queries.
+     */
+    public CallMetricRecorder recordRequestCostMetric(String name, double value) {
+        requireNonNull(name, "name");
+        if (requestCost != null) {
+            requestCost.put(name, value);
+        }
+        return this;
+    }
+
+    /**
+     * Records an arbitrary metric with the specified name.
+     */
+    public CallMetricRecorder recordNamedMetric(String name, double value) {
+        requireNonNull(name, "name");
+        if (namedMetrics != null) {
+            namedMetrics.put(name, value);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the {@link OrcaLoadReport} which consists of the metrics recorded by this recorder and
+     * the specified {@link ServerMetricRecorder}.
+     */
+    OrcaLoadReport toLoadReport(ServerMetricRecorder serverMetricRecorder) {
+        assert utilization != null && requestCost != null && namedMetrics != null;
+        final OrcaLoadReport.Builder builder = serverMetricRecorder.snapshot();
+        final double cpuUtilization = this.cpuUtilization;
+        if (cpuUtilization > 0) {
+            builder.cpuUtilization(cpuUtilization);
+        }
+        final double memoryUtilization = this.memoryUtilization;
+        if (memoryUtilization > 0) {
+            builder.memUtilization(memoryUtilization);
+        }
+        final double applicationUtilization = this.applicationUtilization;
+        if (applicationUtilization > 0) {
+            builder.applicationUtilization(applicationUtilization);
+        }
+        final double qps = this.qps;
+        if (qps > 0) {
+            builder.rpsFractional(qps);
+        }
+        final double eps = this.eps;
+        if (eps > 0) {
+            builder.eps(eps);
+        }
+        return builder.utilization(utilization)
+                      .requestCost(requestCost)
+                      .namedMetrics(namedMetrics)
+                      .build();
+    }
+}
@@ -144,6 +144,9 @@ final class FramedGrpcService extends AbstractHttpService implements GrpcService
     private int maxRequestMessageLength;
     private final boolean lookupMethodFromAttribute;
     private final boolean autoCompression;
+    private final int coalescingMaxBytes;
+    @Nullable
+    private final Duration coalescingMaxDelay;
 
     FramedGrpcService(HandlerRegistry registry,
                       DecompressorRegistry decompressorRegistry,
@@ -157,7 +160,8 @@ final class FramedGrpcService extends AbstractHttpService implements GrpcService
                       boolean useClientTimeoutHeader,
                       boolean lookupMethodFromAttribute,
                       @Nullable GrpcHealthCheckService grpcHealthCheckService,
-                      boolean autoCompression, boolean useMethodMarshaller) {
+                      boolean autoCompression, boolean useMethodMarshaller,
+                      int coalescingMaxBytes, @Nullable Duration coalescingMaxDelay) {
         this.registry = requireNonNull(registry, "registry");
         routes = ImmutableSet.copyOf(registry.methodsByRoute().keySet());
         exchangeTypes = registry.methods().entrySet().stream()
@@ -177,6 +181,8 @@ final class FramedGrpcService extends AbstractHttpService implements GrpcService
         this.lookupMethodFromAttribute = lookupMethodFromAttribute;
         this.autoCompression = autoCompression;
         this.useMethodMarshaller = useMethodMarshaller;
+        this.coalescingMaxBytes = coalescingMaxBytes;
+        this.coalescingMaxDelay = coalescingMaxDelay;
 
         advertisedEncodingsHeader = String.join(",", decompressorRegistry.getAdvertisedMessageEncodings());
 
@@ -274,9 +280,16 @@ final class FramedGrpcService extends AbstractHttpService implements GrpcService
             startCall(registry.simpleMethodName(method.getMethodDescriptor()), method, ctx, req, res,
                       resFuture, serializationFormat);
         } else {
-            res = HttpResponse.streaming();
-            startCall(registry.simpleMethodName(method.getMethodDescriptor()), method, ctx, req, res, null,
+            final HttpResponseWriter writer = HttpResponse.streaming();
+            startCall(registry.simpleMethodName(method.getMethodDescriptor()), method, ctx, req, writer, null,
                       serializationFormat);
+            if (coalescingMaxDelay != null &&
+                method.getMethodDescriptor().getType() == MethodType.SERVER_STREAMING) {
+                // Merge the small messages into fewer DATA frames. The call still writes to the writer.
+                res = writer.coalesceData(coalescingMaxBytes, coalescingMaxDelay);
+            } else {
+                res = writer;
+            }
         }
         return res;
     }
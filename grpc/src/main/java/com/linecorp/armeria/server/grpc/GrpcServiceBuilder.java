@@ -66,6 +66,7 @@ import io.grpc.CompressorRegistry;
 import io.grpc.DecompressorRegistry;
 import io.grpc.Metadata;
 import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
 import io.grpc.ServerInterceptor;
 import io.grpc.ServerInterceptors;
 import io.grpc.ServerServiceDefinition;
@@ -153,6 +154,11 @@ public final class GrpcServiceBuilder {
 
     private boolean autoCompression;
 
+    private int coalescingMaxBytes;
+
+    @Nullable
+    private Duration coalescingMaxDelay;
+
     @Nullable
     private GrpcHealthCheckService grpcHealthCheckService;
 
@@ -831,6 +837,25 @@ public final class GrpcServiceBuilder {
         return this;
     }
 
+    /**
+     * Merges the consecutive response messages of a server-streaming call into an HTTP/2 {@code DATA} frame
+     * of up to about {@code maxBytes}, so that a stream of many small messages is written with fewer frames
+     * and flushes. A message is not delayed for longer than {@code maxDelay} and is always written before
+     * the trailers. The messages are pulled from the call only as fast as the client consumes them, so
+     * {@link ServerCall#isReady()} still respects the flow control of the stream.
+     * This option is disabled by default.
+     */
+    @UnstableApi
+    public GrpcServiceBuilder coalesceStreamingResponses(int maxBytes, Duration maxDelay) {
+        checkArgument(maxBytes > 0, "maxBytes: %s (expected: > 0)", maxBytes);
+        requireNonNull(maxDelay, "maxDelay");
+        checkArgument(!maxDelay.isNegative() && !maxDelay.isZero(),
+                      "maxDelay: %s (expected: > 0)", maxDelay);
+        coalescingMaxBytes = maxBytes;
+        coalescingMaxDelay = maxDelay;
+        return this;
+    }
+
     /**
      * Sets whether to respect the marshaller specified in gRPC {@link MethodDescriptor}
      * If not set, will use the default(false), which use more efficient way that reduce copy operation.
@@ -1041,7 +1066,9 @@ public final class GrpcServiceBuilder {
                 enableHttpJsonTranscoding, // The method definition might be set when transcoding is enabled.
                 grpcHealthCheckService,
                 autoCompression,
-                useMethodMarshaller);
+                useMethodMarshaller,
+                coalescingMaxBytes,
+                coalescingMaxDelay);
         if (enableUnframedRequests) {
             grpcService = new UnframedGrpcService(
                     grpcService, handlerRegistry,
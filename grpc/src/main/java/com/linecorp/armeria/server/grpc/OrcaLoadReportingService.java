@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.grpc;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.Function;
+
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.internal.common.grpc.OrcaLoadReport;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.SimpleDecoratingHttpService;
+
+/**
+ * Decorates a {@link GrpcService} to send the backend metrics of each call to the client in the
+ * {@code endpoint-load-metrics-bin} trailer, as defined by the Open Request Cost Aggregation (ORCA)
+ * protocol. The metrics are recorded with {@link CallMetricRecorder#current()} during the call and
+ * merged with the server-wide metrics of the {@link ServerMetricRecorder} specified at construction time.
+ *
+ * <p>Note that the metrics are not sent if the response has no trailers, e.g. a trailers-only response
+ * of a failed call or a response of gRPC-Web which encodes the trailers into its content.
+ */
+@UnstableApi
+public final class OrcaLoadReportingService extends SimpleDecoratingHttpService {
+
+    /**
+     * Returns a new {@link HttpService} decorator which sends the metrics recorded with
+     * {@link CallMetricRecorder} in the response trailers.
+     */
+    public static Function<? super HttpService, OrcaLoadReportingService> newDecorator() {
+        return newDecorator(ServerMetricRecorder.of());
+    }
+
+    /**
+     * Returns a new {@link HttpService} decorator which sends the metrics recorded with
+     * {@link CallMetricRecorder} and the specified {@link ServerMetricRecorder} in the response trailers.
+     */
+    public static Function<? super HttpService, OrcaLoadReportingService> newDecorator(
+            ServerMetricRecorder serverMetricRecorder) {
+        requireNonNull(serverMetricRecorder, "serverMetricRecorder");
+        return delegate -> new OrcaLoadReportingService(delegate, serverMetricRecorder);
+    }
+
+    private final ServerMetricRecorder serverMetricRecorder;
+
+    private OrcaLoadReportingService(HttpService delegate, ServerMetricRecorder serverMetricRecorder) {
+        super(delegate);
+        this.serverMetricRecorder = serverMetricRecorder;
+    }
+
+    @Override
+    public HttpResponse serve(ServiceRequestContext ctx, HttpRequest req) throws Exception {
+        final CallMetricRecorder recorder = CallMetricRecorder.install(ctx);
+        return unwrap().serve(ctx, req).mapTrailers(trailers -> {
+            final OrcaLoadReport report = recorder.toLoadReport(serverMetricRecorder);
+            if (report.isEmpty()) {
+                return trailers;
+            }
+            return trailers.toBuilder()
+                           .set(OrcaLoadReport.ENDPOINT_LOAD_METRICS_BIN, report.toHeaderValue())
+                           .build();
+        });
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.grpc;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.ByteStreams;
+import com.google.common.math.LongMath;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.internal.common.grpc.OrcaLoadReport;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.grpc.BindableService;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.Marshaller;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * A gRPC service which implements {@code xds.service.orca.v3.OpenRcaService} of the Open Request Cost
+ * Aggregation (ORCA) protocol. A client opens a server-streaming call and receives the metrics of
+ * the specified {@link ServerMetricRecorder} periodically, out of band of its other requests.
+ *
+ * <p>For example:<pre>{@code
+ * ServerMetricRecorder recorder = ServerMetricRecorder.of();
+ * Server.builder()
+ *       .service(GrpcService.builder()
+ *                           .addService(OrcaService.of(recorder))
+ *                           .build())
+ *       ...
+ * }</pre>
+ */
+@UnstableApi
+public final class OrcaService implements BindableService {
+
+    static final String SERVICE_NAME = "xds.service.orca.v3.OpenRcaService";
+
+    private static final Duration DEFAULT_MIN_REPORT_INTERVAL = Duration.ofSeconds(30);
+
+    @VisibleForTesting
+    static final MethodDescriptor<Long, OrcaLoadReport> STREAM_CORE_METRICS =
+            MethodDescriptor.newBuilder(new ReportIntervalMarshaller(), new LoadReportMarshaller())
+                            .setType(MethodType.SERVER_STREAMING)
+                            .setFullMethodName(
+                                    MethodDescriptor.generateFullMethodName(SERVICE_NAME, "StreamCoreMetrics"))
+                            .build();
+
+    /**
+     * Returns a new {@link OrcaService} which reports the metrics of the specified
+     * {@link ServerMetricRecorder} at most every 30 seconds.
+     */
+    public static OrcaService of(ServerMetricRecorder serverMetricRecorder) {
+        return of(serverMetricRecorder, DEFAULT_MIN_REPORT_INTERVAL);
+    }
+
+    /**
+     * Returns a new {@link OrcaService} which reports the metrics of the specified
+     * {@link ServerMetricRecorder}. A client which requests a report interval shorter than
+     * the specified {@code minReportInterval} receives the reports every {@code minReportInterval}.
+     */
+    public static OrcaService of(ServerMetricRecorder serverMetricRecorder, Duration minReportInterval) {
+        requireNonNull(serverMetricRecorder, "serverMetricRecorder");
+        requireNonNull(minReportInterval, "minReportInterval");
+        checkArgument(!minReportInterval.isNegative() && !minReportInterval.isZero(),
+                      "minReportInterval: %s (expected: > 0)", minReportInterval);
+        return new OrcaService(serverMetricRecorder, minReportInterval.toMillis());
+    }
+
+    private final ServerMetricRecorder serverMetricRecorder;
+    private final long minReportIntervalMillis;
+
+    private OrcaService(ServerMetricRecorder serverMetricRecorder, long minReportIntervalMillis) {
+        this.serverMetricRecorder = serverMetricRecorder;
+        this.minReportIntervalMillis = Math.max(1, minReportIntervalMillis);
+    }
+
+    @Override
+    public ServerServiceDefinition bindService() {
+        return ServerServiceDefinition.builder(SERVICE_NAME)
+                                      .addMethod(STREAM_CORE_METRICS,
+                                                 ServerCalls.asyncServerStreamingCall(this::streamCoreMetrics))
+                                      .build();
+    }
+
+    private void streamCoreMetrics(Long reportIntervalMillis,
+                                   StreamObserver<OrcaLoadReport> responseObserver) {
+        final ServiceRequestContext ctx = ServiceRequestContext.current();
+        // The stream lasts until the client cancels it.
+        ctx.clearRequestTimeout();
+        final long intervalMillis = Math.max(reportIntervalMillis, minReportIntervalMillis);
+        final ServerCallStreamObserver<OrcaLoadReport> observer =
+                (ServerCallStreamObserver<OrcaLoadReport>) responseObserver;
+        final ScheduledFuture<?> reportFuture = ctx.eventLoop().scheduleAtFixedRate(() -> {
+            if (!observer.isCancelled()) {
+                observer.onNext(serverMetricRecorder.snapshot().build());
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        observer.setOnCancelHandler(() -> reportFuture.cancel(false));
+        ctx.log().whenComplete().thenRun(() -> reportFuture.cancel(false));
+    }
+
+    /**
+     * Encodes and decodes the {@code report_interval} of an {@code xds.service.orca.v3.OrcaLoadReportRequest}
+     * in milliseconds. The {@code request_cost_names} are ignored because the out-of-band reports do not
+     * contain request costs.
+     */
+    private static final class ReportIntervalMarshaller implements Marshaller<Long> {
+
+        private static final int REPORT_INTERVAL = 1;
+        private static final int SECONDS = 1;
+        private static final int NANOS = 2;
+
+        @Override
+        public InputStream stream(Long value) {
+            final long seconds = value / 1000;
+            final int nanos = (int) TimeUnit.MILLISECONDS.toNanos(value % 1000);
+            final int durationSize = (seconds != 0 ? CodedOutputStream.computeInt64Size(SECONDS, seconds) : 0) +
+                                     (nanos != 0 ? CodedOutputStream.computeInt32Size(NANOS, nanos) : 0);
+            final byte[] bytes = new byte[CodedOutputStream.computeTagSize(REPORT_INTERVAL) +
+                                          CodedOutputStream.computeUInt32SizeNoTag(durationSize) +
+                                          durationSize];
+            final CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+            try {
+                out.writeTag(REPORT_INTERVAL, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                out.writeUInt32NoTag(durationSize);
+                if (seconds != 0) {
+                    out.writeInt64(SECONDS, seconds);
+                }
+                if (nanos != 0) {
+                    out.writeInt32(NANOS, nanos);
+                }
+                out.checkNoSpaceLeft();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public Long parse(InputStream stream) {
+            try {
+                final CodedInputStream in = CodedInputStream.newInstance(stream);
+                long intervalMillis = 0;
+                for (;;) {
+                    final int tag = in.readTag();
+                    if (tag == 0) {
+                        break;
+                    }
+                    if (WireFormat.getTagFieldNumber(tag) == REPORT_INTERVAL &&
+                        WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                        intervalMillis = parseDurationMillis(in);
+                    } else if (!in.skipField(tag)) {
+                        break;
+                    }
+                }
+                return intervalMillis;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static long parseDurationMillis(CodedInputStream in) throws IOException {
+            final int oldLimit = in.pushLimit(in.readRawVarint32());
+            long seconds = 0;
+            int nanos = 0;
+            for (;;) {
+                final int tag = in.readTag();
+                if (tag == 0) {
+                    break;
+                }
+                final int wireType = WireFormat.getTagWireType(tag);
+                if (WireFormat.getTagFieldNumber(tag) == SECONDS && wireType == WireFormat.WIRETYPE_VARINT) {
+                    seconds = in.readInt64();
+                } else if (WireFormat.getTagFieldNumber(tag) == NANOS &&
+                           wireType == WireFormat.WIRETYPE_VARINT) {
+                    nanos = in.readInt32();
+                } else if (!in.skipField(tag)) {
+                    break;
+                }
+            }
+            in.popLimit(oldLimit);
+            return LongMath.saturatedAdd(LongMath.saturatedMultiply(seconds, 1000),
+                                         TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+
+    private static final class LoadReportMarshaller implements Marshaller<OrcaLoadReport> {
+
+        @Override
+        public InputStream stream(OrcaLoadReport value) {
+            return new ByteArrayInputStream(value.toByteArray());
+        }
+
+        @Override
+        public OrcaLoadReport parse(InputStream stream) {
+            try {
+                return OrcaLoadReport.parse(ByteStreams.toByteArray(stream));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.grpc;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.internal.common.grpc.OrcaLoadReport;
+
+/**
+ * Records the server-wide backend metrics which are reported to clients using the Open Request Cost
+ * Aggregation (ORCA) protocol, either in the trailers of every response via {@link OrcaLoadReportingService}
+ * or periodically via {@link OrcaService}. A metric whose value is {@code 0} is not reported.
+ * This class is thread-safe.
+ *
+ * <p>For example:<pre>{@code
+ * ServerMetricRecorder recorder = ServerMetricRecorder.of();
+ * Server.builder()
+ *       .service(GrpcService.builder()
+ *                           .addService(new MyService())
+ *                           .addService(OrcaService.of(recorder))
+ *                           .build(),
+ *                OrcaLoadReportingService.newDecorator(recorder))
+ *       ...
+ * // Update the metrics periodically.
+ * recorder.setCpuUtilizationMetric(cpuUsage());
+ * }</pre>
+ */
+@UnstableApi
+public final class ServerMetricRecorder {
+
+    /**
+     * Returns a new {@link ServerMetricRecorder}.
+     */
+    public static ServerMetricRecorder of() {
+        return new ServerMetricRecorder();
+    }
+
+    private volatile double cpuUtilization;
+    private volatile double memoryUtilization;
+    private volatile double applicationUtilization;
+    private volatile double qps;
+    private volatile double eps;
+    private final Map<String, Double> utilization = new ConcurrentHashMap<>();
+
+    private ServerMetricRecorder() {}
+
+    /**
+     * Sets the CPU utilization of the server. The value is usually in {@code [0, 1]} but may exceed
+     * {@code 1} if the server uses more CPU than its quota.
+     */
+    public void setCpuUtilizationMetric(double value) {
+        checkArgument(value >= 0, "value: %s (expected: >= 0)", value);
+        cpuUtilization = value;
+    }
+
+    /**
+     * Sets the memory utilization of the server in {@code [0, 1]}.
+     */
+    public void setMemoryUtilizationMetric(double value) {
+        checkArgument(value >= 0 && value <= 1, "value: %s (expected: 0 <= value <= 1)", value);
+        memoryUtilization = value;
+    }
+
+    /**
+     * Sets the application specific utilization of the server. Clients prefer this value to
+     * the CPU utilization when weighting the server.
+     */
+    public void setApplicationUtilizationMetric(double value) {
+        checkArgument(value >= 0, "value: %s (expected: >= 0)", value);
+        applicationUtilization = value;
+    }
+
+    /**
+     * Sets the number of queries per second handled by the server.
+     */
+    public void setQpsMetric(double value) {
+        checkArgument(value >= 0, "value: %s (expected: >= 0)", value);
+        qps = value;
+    }
+
+    /**
+     * Sets the number of errors per second returned by the server.
+     */
+    public void setEpsMetric(double value) {
+        checkArgument(value >= 0, "value: %s (expected: >= 0)", value);
+        eps = value;
+    }
+
+    /**
+     * Sets the utilization of the resource with the specified name in {@code [0, 1]}.
+     */
+    public void putUtilizationMetric(String name, double value) {
+        requireNonNull(name, "name");
+        checkArgument(value >= 0 && value <= 1, "value: %s (expected: 0 <= value <= 1)", value);
+        utilization.put(name, value);
+    }
+
+    /**
+     * Removes the utilization of the resource with the specified name.
+     */
+    public void removeUtilizationMetric(String name) {
+        requireNonNull(name, "name");
+        utilization.remove(name);
+    }
+
+    /**
+     * Returns a new {@link OrcaLoadReport.Builder} which contains the current metrics.
+     */
+    OrcaLoadReport.Builder snapshot() {
+        return OrcaLoadReport.builder()
+                             .cpuUtilization(cpuUtilization)
+                             .memUtilization(memoryUtilization)
+                             .applicationUtilization(applicationUtilization)
+                             .rpsFractional(qps)
+                             .eps(eps)
+                             .utilization(utilization);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.grpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.google.protobuf.ByteString;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.ClientRequestContextCaptor;
+import com.linecorp.armeria.client.Clients;
+import com.linecorp.armeria.common.RpcRequest;
+import com.linecorp.armeria.common.RpcResponse;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.grpc.GrpcService;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.Status.Code;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import testing.grpc.EmptyProtos.Empty;
+import testing.grpc.Messages.EchoStatus;
+import testing.grpc.Messages.Payload;
+import testing.grpc.Messages.ResponseParameters;
+import testing.grpc.Messages.SimpleRequest;
+import testing.grpc.Messages.SimpleResponse;
+import testing.grpc.Messages.StreamingOutputCallRequest;
+import testing.grpc.Messages.StreamingOutputCallResponse;
+import testing.grpc.TestServiceGrpc.TestServiceBlockingStub;
+import testing.grpc.TestServiceGrpc.TestServiceImplBase;
+
+class GrpcClientUnaryFastPathTest {
+
+    @RegisterExtension
+    static ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.service(GrpcService.builder()
+                                  .addService(new TestService())
+                                  .build());
+        }
+    };
+
+    private final AtomicInteger interceptedCalls = new AtomicInteger();
+
+    private final TestServiceBlockingStub client =
+            GrpcClients.builder(server.httpUri())
+                       .useUnaryFastPath(true)
+                       .intercept(new ClientInterceptor() {
+                           @Override
+                           public <I, O> ClientCall<I, O> interceptCall(MethodDescriptor<I, O> method,
+                                                                        CallOptions callOptions,
+                                                                        Channel next) {
+                               interceptedCalls.incrementAndGet();
+                               return next.newCall(method, callOptions);
+                           }
+                       })
+                       .build(TestServiceBlockingStub.class);
+
+    @Test
+    void unaryCall() {
+        final SimpleRequest request = newRequest(0);
+        final SimpleResponse response;
+        final ClientRequestContext ctx;
+        try (ClientRequestContextCaptor captor = Clients.newContextCaptor()) {
+            response = client.unaryCall(request);
+            ctx = captor.get();
+        }
+        assertThat(response.getPayload()).isEqualTo(request.getPayload());
+        assertThat(interceptedCalls).hasValue(1);
+
+        final RequestLog log = ctx.log().whenComplete().join();
+        assertThat(log.responseCause()).isNull();
+        assertThat(((RpcRequest) log.requestContent()).params()).containsExactly(request);
+        assertThat(((RpcResponse) log.responseContent()).join()).isEqualTo(response);
+    }
+
+    @Test
+    void compressedResponse() {
+        final SimpleRequest request = newRequest(0).toBuilder()
+                                                   .setResponseCompressionValue(1)
+                                                   .build();
+        assertThat(client.unaryCall(request).getPayload()).isEqualTo(request.getPayload());
+    }
+
+    @Test
+    void errorStatus() {
+        final ClientRequestContext ctx;
+        try (ClientRequestContextCaptor captor = Clients.newContextCaptor()) {
+            assertThatThrownBy(() -> client.unaryCall(newRequest(Code.INVALID_ARGUMENT.value())))
+                    .isInstanceOfSatisfying(StatusRuntimeException.class, e -> {
+                        assertThat(e.getStatus().getCode()).isEqualTo(Code.INVALID_ARGUMENT);
+                        assertThat(e.getStatus().getDescription()).isEqualTo("failed");
+                    });
+            ctx = captor.get();
+        }
+        final RequestLog log = ctx.log().whenComplete().join();
+        assertThat(log.responseCause()).isInstanceOf(StatusRuntimeException.class);
+    }
+
+    @Test
+    void deadlineExceeded() {
+        assertThatThrownBy(() -> client.withDeadlineAfter(100, TimeUnit.MILLISECONDS)
+                                       .emptyCall(Empty.getDefaultInstance()))
+                .isInstanceOfSatisfying(StatusRuntimeException.class, e -> {
+                    assertThat(e.getStatus().getCode()).isEqualTo(Code.DEADLINE_EXCEEDED);
+                });
+    }
+
+    @Test
+    void streamingCallIsNotAffected() {
+        final StreamingOutputCallRequest request =
+                StreamingOutputCallRequest.newBuilder()
+                                          .addResponseParameters(ResponseParameters.getDefaultInstance())
+                                          .addResponseParameters(ResponseParameters.getDefaultInstance())
+                                          .build();
+        final Iterator<StreamingOutputCallResponse> it = client.streamingOutputCall(request);
+        int numResponses = 0;
+        while (it.hasNext()) {
+            it.next();
+            numResponses++;
+        }
+        assertThat(numResponses).isEqualTo(2);
+    }
+
+    private static SimpleRequest newRequest(int statusCode) {
+        return SimpleRequest.newBuilder()
+                            .setPayload(Payload.newBuilder()
+                                               .setBody(ByteString.copyFromUtf8("armeria")))
+                            .setResponseStatus(EchoStatus.newBuilder()
+                                                         .setCode(statusCode)
+                                                         .setMessage("failed"))
+                            .build();
+    }
+
+    private static final class TestService extends TestServiceImplBase {
+        @Override
+        public void unaryCall(SimpleRequest request, StreamObserver<SimpleResponse> responseObserver) {
+            final EchoStatus status = request.getResponseStatus();
+            if (status.getCode() != 0) {
+                responseObserver.onError(
+                        Status.fromCodeValue(status.getCode())
+                              .withDescription(status.getMessage())
+                              .asRuntimeException());
+                return;
+            }
+            if (request.getResponseCompressionValue() != 0) {
+                ((ServerCallStreamObserver<?>) responseObserver).setCompression("gzip");
+            }
+            responseObserver.onNext(SimpleResponse.newBuilder().setPayload(request.getPayload()).build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void emptyCall(Empty request, StreamObserver<Empty> responseObserver) {
+            // Never respond.
+        }
+
+        @Override
+        public void streamingOutputCall(StreamingOutputCallRequest request,
+                                        StreamObserver<StreamingOutputCallResponse> responseObserver) {
+            for (int i = 0; i < request.getResponseParametersCount(); i++) {
+                responseObserver.onNext(StreamingOutputCallResponse.getDefaultInstance());
+            }
+            responseObserver.onCompleted();
+        }
+    }
+}
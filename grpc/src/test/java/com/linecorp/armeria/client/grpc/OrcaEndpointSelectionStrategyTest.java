@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.grpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.endpoint.EndpointGroup;
+import com.linecorp.armeria.client.endpoint.EndpointSelector;
+import com.linecorp.armeria.common.HttpHeaders;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.logging.RequestLogBuilder;
+import com.linecorp.armeria.internal.common.grpc.OrcaLoadReport;
+
+class OrcaEndpointSelectionStrategyTest {
+
+    private static final Endpoint a = Endpoint.of("a.com");
+    private static final Endpoint b = Endpoint.of("b.com");
+
+    private final AtomicLong ticker = new AtomicLong();
+    private final OrcaEndpointSelectionStrategy strategy =
+            OrcaEndpointSelectionStrategy.builder()
+                                         .blackoutPeriod(Duration.ofSeconds(10))
+                                         .weightExpirationPeriod(Duration.ofMinutes(3))
+                                         .weightUpdatePeriod(Duration.ofSeconds(1))
+                                         .ticker(ticker::get)
+                                         .build();
+
+    @Test
+    void endpointWeightsWithoutReports() {
+        final EndpointSelector selector = strategy.newSelector(EndpointGroup.of(a, b.withWeight(3000)));
+        assertThat(select(selector, 4000)).isEqualTo(ImmutableMap.of(a, 1000, b, 3000));
+    }
+
+    @Test
+    void weightByLoadReports() {
+        final EndpointSelector selector = strategy.newSelector(EndpointGroup.of(a, b));
+        // a: 100 / 0.2 = 500, b: 100 / 0.8 = 125
+        report(selector);
+
+        // Reports are not used during the blackout period.
+        advance(Duration.ofSeconds(2));
+        assertThat(select(selector, 2000)).isEqualTo(ImmutableMap.of(a, 1000, b, 1000));
+
+        advance(Duration.ofSeconds(10));
+        // Scaled by the mean weight, 312.5.
+        assertThat(select(selector, 2000)).isEqualTo(ImmutableMap.of(a, 1600, b, 400));
+
+        // Fall back to the endpoint weights once the reports are expired.
+        advance(Duration.ofMinutes(3));
+        assertThat(select(selector, 2000)).isEqualTo(ImmutableMap.of(a, 1000, b, 1000));
+    }
+
+    @Test
+    void respectEndpointWeights() {
+        // e.g. the weights assigned by an xDS control plane.
+        final EndpointSelector selector = strategy.newSelector(EndpointGroup.of(a, b.withWeight(4000)));
+        report(selector);
+        advance(Duration.ofSeconds(11));
+        // a: 1000 * 1.6, b: 4000 * 0.4
+        assertThat(select(selector, 3200)).isEqualTo(ImmutableMap.of(a, 1600, b, 1600));
+    }
+
+    private void advance(Duration duration) {
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(duration.toMillis()));
+    }
+
+    private static void report(EndpointSelector selector) {
+        for (int i = 0; i < 100; i++) {
+            final ClientRequestContext ctx = newContext();
+            final Endpoint endpoint = selector.selectNow(ctx);
+            assertThat(endpoint).isNotNull();
+            final double cpuUtilization = "a.com".equals(endpoint.host()) ? 0.2 : 0.8;
+            final OrcaLoadReport report = OrcaLoadReport.builder()
+                                                        .cpuUtilization(cpuUtilization)
+                                                        .rpsFractional(100)
+                                                        .build();
+            final RequestLogBuilder logBuilder = ctx.logBuilder();
+            logBuilder.endRequest();
+            logBuilder.responseTrailers(HttpHeaders.of(OrcaLoadReport.ENDPOINT_LOAD_METRICS_BIN,
+                                                       report.toHeaderValue()));
+            logBuilder.endResponse();
+        }
+    }
+
+    private static Map<Endpoint, Integer> select(EndpointSelector selector, int count) {
+        final Map<Endpoint, Integer> counts = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            final Endpoint endpoint = selector.selectNow(newContext());
+            assertThat(endpoint).isNotNull();
+            counts.merge(endpoint, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static ClientRequestContext newContext() {
+        return ClientRequestContext.of(HttpRequest.of(HttpMethod.GET, "/"));
+    }
+}
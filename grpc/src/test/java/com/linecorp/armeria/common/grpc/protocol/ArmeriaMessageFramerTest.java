@@ -75,6 +75,48 @@ class ArmeriaMessageFramerTest {
         }
     }
 
+    @Test
+    void writeReservedPayload() {
+        final ByteBuf message = GrpcTestUtil.requestByteBuf();
+        final ByteBuf buf = ByteBufAllocator.DEFAULT.buffer();
+        buf.writeZero(ArmeriaMessageFramer.HEADER_LENGTH);
+        buf.writeBytes(message);
+        message.release();
+        assertThat(framer.isWritingInPlace()).isTrue();
+        try (HttpData framed = framer.writeReservedPayload(buf)) {
+            assertThat(framed.array()).isEqualTo(GrpcTestUtil.uncompressedFrame(GrpcTestUtil.requestByteBuf()));
+        }
+        assertThat(buf.refCnt()).isEqualTo(0);
+    }
+
+    @Test
+    void writeReservedPayloadWithCompressor() {
+        framer.setCompressor(ForwardingCompressor.forGrpc(new Gzip()));
+        framer.setMessageCompression(true);
+        assertThat(framer.isWritingInPlace()).isFalse();
+        final ByteBuf buf = ByteBufAllocator.DEFAULT.buffer().writeZero(ArmeriaMessageFramer.HEADER_LENGTH);
+        assertThatThrownBy(() -> framer.writeReservedPayload(buf))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(buf.refCnt()).isEqualTo(0);
+
+        framer.setMessageCompression(false);
+        assertThat(framer.isWritingInPlace()).isTrue();
+    }
+
+    @Test
+    void tooLargeReservedPayload() {
+        final ByteBuf buf = ByteBufAllocator.DEFAULT.buffer();
+        buf.writeZero(ArmeriaMessageFramer.HEADER_LENGTH + 1025);
+        assertThatThrownBy(() -> framer.writeReservedPayload(buf))
+                .isInstanceOf(ArmeriaStatusException.class);
+        assertThat(buf.refCnt()).isEqualTo(0);
+    }
+
+    @Test
+    void encodeBase64_writeReservedPayload() {
+        assertThat(framer.isWritingInPlace()).isFalse();
+    }
+
     @Test
     void encodeBase64_writeUncompressedAnd() {
         final ByteBuf buf = GrpcTestUtil.requestByteBuf();
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2017 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.grpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.curioswitch.common.protobuf.json.MessageMarshaller;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Timestamp;
+
+import io.grpc.MethodDescriptor.Marshaller;
+import io.grpc.protobuf.ProtoUtils;
+import testing.grpc.Messages.ExtendedTestMessage;
+import testing.grpc.Messages.ExtendedTestMessage.Nested;
+import testing.grpc.Messages.ExtendedTestMessage.NestedSelf;
+import testing.grpc.Messages.TestEnum;
+import testing.grpc.Messages.TestMessage;
+import testing.grpc.Transcoding.EchoTimestampRequest;
+
+class GeneratedJsonMarshallerTest {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final MessageMarshaller messageMarshaller =
+            MessageMarshaller.builder()
+                             .omittingInsignificantWhitespace(true)
+                             .ignoringUnknownFields(true)
+                             .register(ExtendedTestMessage.getDefaultInstance())
+                             .register(EchoTimestampRequest.getDefaultInstance())
+                             .build();
+
+    private static final GeneratedJsonMarshaller generatedMarshaller =
+            new GeneratedJsonMarshaller(ImmutableList.of(ExtendedTestMessage.getDescriptor(),
+                                                         EchoTimestampRequest.getDescriptor()),
+                                        messageMarshaller);
+
+    private static final ExtendedTestMessage MESSAGE =
+            ExtendedTestMessage.newBuilder()
+                               .setBool(true)
+                               .setInt32(-32)
+                               .setInt64(Long.MIN_VALUE)
+                               .setUint32(-1)
+                               .setUint64(-1L)
+                               .setSint32(Integer.MIN_VALUE)
+                               .setSint64(64)
+                               .setFixed32(0x80000000)
+                               .setFixed64(Long.MAX_VALUE)
+                               .setFloat(Float.NaN)
+                               .setDouble(Double.NEGATIVE_INFINITY)
+                               .setString("안녕, \"Armeria\"\n")
+                               .setBytes(ByteString.copyFrom(new byte[] { 0, -1, 2, -3, 4 }))
+                               .setTestEnum(TestEnum.TWO)
+                               .setNested(Nested.newBuilder().setString("nested"))
+                               .setComplexOtherMessage(
+                                       TestMessage.newBuilder()
+                                                  .setDouble(0.5)
+                                                  .putMap("a", 1)
+                                                  .setSelf(TestMessage.newBuilder().addStrings("self")))
+                               .addStrings("foo")
+                               .addStrings("")
+                               .addNesteds(Nested.getDefaultInstance())
+                               .addNesteds(Nested.newBuilder().setString("bar"))
+                               .addSelves(ExtendedTestMessage.newBuilder().setInt32(1))
+                               .putStringToIntMap("zero", 0)
+                               .putStringToIntMap("one", 1)
+                               .putIntToStringMap(-1, "minus one")
+                               .putMessageMap("baz", Nested.newBuilder().setString("qux").build())
+                               .putSelfMap("self", ExtendedTestMessage.newBuilder().setUint64(1).build())
+                               .setNestedSelf(NestedSelf.newBuilder().setSelf(
+                                       ExtendedTestMessage.newBuilder().setString("recursive")))
+                               .build();
+
+    @Test
+    void generatesCodecsOnlyForSupportedTypes() {
+        assertThat(generatedMarshaller.hasCodec(ExtendedTestMessage.getDescriptor())).isTrue();
+        assertThat(generatedMarshaller.hasCodec(TestMessage.getDescriptor())).isTrue();
+        assertThat(generatedMarshaller.hasCodec(Nested.getDescriptor())).isTrue();
+        // Refers to google.protobuf.Timestamp.
+        assertThat(generatedMarshaller.hasCodec(EchoTimestampRequest.getDescriptor())).isFalse();
+    }
+
+    @Test
+    void serializeSameAsMessageMarshaller() throws Exception {
+        final String json = serialize(MESSAGE);
+        final String expected = messageMarshaller.writeValueAsString(MESSAGE);
+        assertThat(mapper.readTree(json)).isEqualTo(mapper.readTree(expected));
+        assertThat(json).contains("\"int64\":\"-9223372036854775808\"",
+                                  "\"uint32\":4294967295",
+                                  "\"uint64\":\"18446744073709551615\"",
+                                  "\"float\":\"NaN\"",
+                                  "\"double\":\"-Infinity\"",
+                                  "\"testEnum\":\"TWO\"",
+                                  "\"intToStringMap\":{\"-1\":\"minus one\"}");
+    }
+
+    @Test
+    void omitDefaultValues() throws Exception {
+        assertThat(serialize(ExtendedTestMessage.getDefaultInstance())).isEqualTo("{}");
+        assertThat(serialize(ExtendedTestMessage.newBuilder()
+                                                .setNested(Nested.getDefaultInstance())
+                                                .build()))
+                .isEqualTo("{\"nested\":{}}");
+    }
+
+    @Test
+    void roundTrip() throws Exception {
+        assertThat(deserialize(serialize(MESSAGE))).isEqualTo(MESSAGE);
+        assertThat(deserialize(messageMarshaller.writeValueAsString(MESSAGE))).isEqualTo(MESSAGE);
+    }
+
+    @Test
+    void deserializeAlternativeRepresentations() throws Exception {
+        final String json = "{\"int32\":\"12\",\"uint32\":1e3,\"int64\":34,\"test_enum\":1," +
+                            "\"float\":\"Infinity\",\"bytes\":\"_-8\",\"string_to_int_map\":{\"a\":2}," +
+                            "\"nested\":null,\"strings\":null,\"unknown\":{\"foo\":[1,{}]}}";
+        assertThat(deserialize(json)).isEqualTo(
+                ExtendedTestMessage.newBuilder()
+                                   .setInt32(12)
+                                   .setUint32(1000)
+                                   .setInt64(34)
+                                   .setTestEnum(TestEnum.ONE)
+                                   .setFloat(Float.POSITIVE_INFINITY)
+                                   .setBytes(ByteString.copyFrom(new byte[] { -1, -17 }))
+                                   .putStringToIntMap("a", 2)
+                                   .build());
+    }
+
+    @Test
+    void deserializeInvalidValues() {
+        assertThatThrownBy(() -> deserialize("{\"int32\":2147483648}"))
+                .isInstanceOf(InvalidProtocolBufferException.class);
+        assertThatThrownBy(() -> deserialize("{\"uint32\":-1}"))
+                .isInstanceOf(InvalidProtocolBufferException.class);
+        assertThatThrownBy(() -> deserialize("{\"int32\":1.5}"))
+                .isInstanceOf(InvalidProtocolBufferException.class);
+        assertThatThrownBy(() -> deserialize("{\"bool\":\"true\"}"))
+                .isInstanceOf(InvalidProtocolBufferException.class);
+        assertThatThrownBy(() -> deserialize("{\"strings\":[null]}"))
+                .isInstanceOf(InvalidProtocolBufferException.class);
+        assertThatThrownBy(() -> deserialize("{\"int32\":"))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> deserialize("[]"))
+                .isInstanceOf(InvalidProtocolBufferException.class);
+    }
+
+    @Test
+    void fallbackToMessageMarshaller() throws Exception {
+        final EchoTimestampRequest request =
+                EchoTimestampRequest.newBuilder()
+                                    .setTimestamp(Timestamp.newBuilder().setSeconds(1).setNanos(2))
+                                    .build();
+        final Marshaller<EchoTimestampRequest> marshaller = ProtoUtils.marshaller(request);
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        generatedMarshaller.serializeMessage(marshaller, request, os);
+        final String json = os.toString(StandardCharsets.UTF_8.name());
+        assertThat(json).isEqualTo(messageMarshaller.writeValueAsString(request));
+        assertThat(generatedMarshaller.deserializeMessage(
+                marshaller, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))))
+                .isEqualTo(request);
+    }
+
+    private static String serialize(Message message) throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        generatedMarshaller.serializeMessage(ProtoUtils.marshaller(message), message, os);
+        return os.toString(StandardCharsets.UTF_8.name());
+    }
+
+    private static ExtendedTestMessage deserialize(String json) throws IOException {
+        return generatedMarshaller.deserializeMessage(
+                ProtoUtils.marshaller(ExtendedTestMessage.getDefaultInstance()),
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -141,6 +141,27 @@ class GrpcMessageMarshallerTest {
         serialized.release();
     }
 
+    @ParameterizedTest
+    @MethodSource("messageMarshallerArgs")
+    void serializeResponseAfterHeader(GrpcMessageMarshaller<SimpleRequest, SimpleResponse> marshaller)
+            throws Exception {
+        final ByteBuf serialized = marshaller.serializeResponse(GrpcTestUtil.RESPONSE_MESSAGE, 5);
+        assertThat(serialized).isNotNull();
+        assertThat(serialized.isDirect()).isTrue();
+        assertThat(serialized.readableBytes()).isEqualTo(5 + GrpcTestUtil.RESPONSE_MESSAGE.getSerializedSize());
+        assertThat(ByteBufUtil.getBytes(serialized.skipBytes(5)))
+                .containsExactly(GrpcTestUtil.RESPONSE_MESSAGE.toByteArray());
+        serialized.release();
+    }
+
+    @ParameterizedTest
+    @MethodSource("messageMarshallerArgsWithMethodMarshaller")
+    void serializeResponseAfterHeader_methodMarshaller(
+            GrpcMessageMarshaller<SimpleRequest, SimpleResponse> marshaller) throws Exception {
+        // The method marshaller does not tell the size of a message in advance.
+        assertThat(marshaller.serializeResponse(GrpcTestUtil.RESPONSE_MESSAGE, 5)).isNull();
+    }
+
     @ParameterizedTest
     @MethodSource({"messageMarshallerArgs", "messageMarshallerArgsWithMethodMarshaller"})
     void deserializeResponse_bytebuf(GrpcMessageMarshaller<SimpleRequest, SimpleResponse> marshaller)
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.grpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.CodedOutputStream;
+
+import com.linecorp.armeria.common.HttpHeaders;
+
+class OrcaLoadReportTest {
+
+    @Test
+    void roundTrip() throws Exception {
+        final OrcaLoadReport report =
+                OrcaLoadReport.builder()
+                              .cpuUtilization(0.5)
+                              .memUtilization(0.25)
+                              .applicationUtilization(0.75)
+                              .rpsFractional(100.5)
+                              .eps(1.5)
+                              .requestCost(ImmutableMap.of("db", 3.0))
+                              .utilization(ImmutableMap.of("queue", 0.1, "disk", 0.2))
+                              .namedMetrics(ImmutableMap.of("foo", -1.0))
+                              .build();
+        final OrcaLoadReport decoded = OrcaLoadReport.parse(report.toByteArray());
+        assertThat(decoded.cpuUtilization()).isEqualTo(0.5);
+        assertThat(decoded.memUtilization()).isEqualTo(0.25);
+        assertThat(decoded.applicationUtilization()).isEqualTo(0.75);
+        assertThat(decoded.rpsFractional()).isEqualTo(100.5);
+        assertThat(decoded.eps()).isEqualTo(1.5);
+        assertThat(decoded.requestCost()).isEqualTo(ImmutableMap.of("db", 3.0));
+        assertThat(decoded.utilization()).isEqualTo(ImmutableMap.of("queue", 0.1, "disk", 0.2));
+        assertThat(decoded.namedMetrics()).isEqualTo(ImmutableMap.of("foo", -1.0));
+    }
+
+    @Test
+    void emptyReport() throws Exception {
+        final OrcaLoadReport report = OrcaLoadReport.builder().build();
+        assertThat(report.isEmpty()).isTrue();
+        assertThat(report.toByteArray()).isEmpty();
+        assertThat(OrcaLoadReport.parse(new byte[0]).isEmpty()).isTrue();
+    }
+
+    @Test
+    void deprecatedRps() throws Exception {
+        final byte[] bytes = new byte[CodedOutputStream.computeUInt64Size(3, 42) +
+                                      CodedOutputStream.computeDoubleSize(1, 0.5) +
+                                      CodedOutputStream.computeStringSize(100, "unknown")];
+        final CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        out.writeUInt64(3, 42);
+        out.writeDouble(1, 0.5);
+        // An unknown field should be skipped.
+        out.writeString(100, "unknown");
+        out.checkNoSpaceLeft();
+
+        final OrcaLoadReport report = OrcaLoadReport.parse(bytes);
+        assertThat(report.rpsFractional()).isEqualTo(42);
+        assertThat(report.cpuUtilization()).isEqualTo(0.5);
+    }
+
+    @Test
+    void fromHeaders() {
+        final OrcaLoadReport report = OrcaLoadReport.builder().cpuUtilization(0.5).build();
+        final HttpHeaders headers = HttpHeaders.of(OrcaLoadReport.ENDPOINT_LOAD_METRICS_BIN,
+                                                   report.toHeaderValue());
+        assertThat(OrcaLoadReport.fromHeaders(headers).cpuUtilization()).isEqualTo(0.5);
+
+        assertThat(OrcaLoadReport.fromHeaders(HttpHeaders.of())).isNull();
+        assertThat(OrcaLoadReport.fromHeaders(
+                HttpHeaders.of(OrcaLoadReport.ENDPOINT_LOAD_METRICS_BIN, "!invalid!"))).isNull();
+    }
+}
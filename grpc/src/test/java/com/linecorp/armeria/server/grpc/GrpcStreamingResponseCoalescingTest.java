@@ -0,0 +1,161 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.grpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.google.protobuf.ByteString;
+
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.client.grpc.GrpcClients;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpHeaders;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpObject;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.grpc.GrpcSerializationFormats;
+import com.linecorp.armeria.common.grpc.protocol.GrpcHeaderNames;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import io.grpc.stub.StreamObserver;
+import testing.grpc.Messages.Payload;
+import testing.grpc.Messages.ResponseParameters;
+import testing.grpc.Messages.StreamingOutputCallRequest;
+import testing.grpc.Messages.StreamingOutputCallResponse;
+import testing.grpc.TestServiceGrpc;
+import testing.grpc.TestServiceGrpc.TestServiceBlockingStub;
+import testing.grpc.TestServiceGrpc.TestServiceImplBase;
+
+class GrpcStreamingResponseCoalescingTest {
+
+    private static final int NUM_MESSAGES = 100;
+
+    @RegisterExtension
+    static ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.serviceUnder("/coalesced/",
+                            GrpcService.builder()
+                                       .addService(new StreamingService())
+                                       .coalesceStreamingResponses(1024, Duration.ofSeconds(10))
+                                       .build());
+            sb.serviceUnder("/default/",
+                            GrpcService.builder()
+                                       .addService(new StreamingService())
+                                       .build());
+        }
+    };
+
+    @ParameterizedTest
+    @CsvSource({ "coalesced", "default" })
+    void receiveAllMessagesInOrder(String prefix) {
+        final TestServiceBlockingStub client =
+                GrpcClients.builder(server.httpUri())
+                           .pathPrefix('/' + prefix + '/')
+                           .build(TestServiceBlockingStub.class);
+        final Iterator<StreamingOutputCallResponse> it = client.streamingOutputCall(newRequest());
+        for (int i = 0; i < NUM_MESSAGES; i++) {
+            assertThat(it.next().getPayload().getBody().byteAt(0)).isEqualTo((byte) i);
+        }
+        assertThat(it.hasNext()).isFalse();
+    }
+
+    @Test
+    void fewerDataFrames() {
+        final int numCoalesced = countDataFrames("coalesced");
+        final int numDefault = countDataFrames("default");
+        // 100 messages of 17 bytes are merged into chunks of about 1024 bytes.
+        assertThat(numCoalesced).isLessThanOrEqualTo(3);
+        assertThat(numDefault).isEqualTo(NUM_MESSAGES);
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThatThrownBy(() -> GrpcService.builder().coalesceStreamingResponses(0, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> GrpcService.builder().coalesceStreamingResponses(1024, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static int countDataFrames(String prefix) {
+        final byte[] message = newRequest().toByteArray();
+        final ByteBuffer framed = ByteBuffer.allocate(5 + message.length);
+        framed.put((byte) 0).putInt(message.length).put(message);
+        final RequestHeaders headers =
+                RequestHeaders.builder(HttpMethod.POST, '/' + prefix + '/' +
+                                                        TestServiceGrpc.getStreamingOutputCallMethod()
+                                                                       .getFullMethodName())
+                              .contentType(GrpcSerializationFormats.PROTO.mediaType())
+                              .build();
+        final List<HttpObject> objects = WebClient.of(server.httpUri())
+                                                  .execute(headers, HttpData.wrap(framed.array()))
+                                                  .collect().join();
+        int numDataFrames = 0;
+        int numBytes = 0;
+        for (HttpObject object : objects) {
+            if (object instanceof HttpData) {
+                numDataFrames++;
+                numBytes += ((HttpData) object).length();
+            } else if (!(object instanceof ResponseHeaders)) {
+                assertThat(((HttpHeaders) object).get(GrpcHeaderNames.GRPC_STATUS)).isEqualTo("0");
+            }
+        }
+        // The header of each message is 5 bytes long.
+        assertThat(numBytes).isEqualTo(NUM_MESSAGES * (5 + newResponse(0).getSerializedSize()));
+        return numDataFrames;
+    }
+
+    private static StreamingOutputCallRequest newRequest() {
+        final StreamingOutputCallRequest.Builder builder = StreamingOutputCallRequest.newBuilder();
+        for (int i = 0; i < NUM_MESSAGES; i++) {
+            builder.addResponseParameters(ResponseParameters.newBuilder().setSize(8));
+        }
+        return builder.build();
+    }
+
+    private static StreamingOutputCallResponse newResponse(int sequence) {
+        final byte[] body = new byte[8];
+        body[0] = (byte) sequence;
+        return StreamingOutputCallResponse.newBuilder()
+                                          .setPayload(Payload.newBuilder().setBody(ByteString.copyFrom(body)))
+                                          .build();
+    }
+
+    private static final class StreamingService extends TestServiceImplBase {
+        @Override
+        public void streamingOutputCall(StreamingOutputCallRequest request,
+                                        StreamObserver<StreamingOutputCallResponse> responseObserver) {
+            for (int i = 0; i < request.getResponseParametersCount(); i++) {
+                responseObserver.onNext(newResponse(i));
+            }
+            responseObserver.onCompleted();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.grpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.google.common.collect.ImmutableMap;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.ClientRequestContextCaptor;
+import com.linecorp.armeria.client.Clients;
+import com.linecorp.armeria.client.grpc.GrpcClients;
+import com.linecorp.armeria.common.HttpHeaders;
+import com.linecorp.armeria.internal.common.grpc.OrcaLoadReport;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+import testing.grpc.EmptyProtos.Empty;
+import testing.grpc.TestServiceGrpc.TestServiceBlockingStub;
+import testing.grpc.TestServiceGrpc.TestServiceImplBase;
+
+class OrcaLoadReportingServiceTest {
+
+    private static final ServerMetricRecorder serverMetricRecorder = ServerMetricRecorder.of();
+
+    @RegisterExtension
+    static ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            serverMetricRecorder.setCpuUtilizationMetric(0.3);
+            serverMetricRecorder.setQpsMetric(10);
+            serverMetricRecorder.putUtilizationMetric("queue", 0.4);
+            sb.service(GrpcService.builder()
+                                  .addService(new TestServiceImplBase() {
+                                      @Override
+                                      public void emptyCall(Empty request,
+                                                            StreamObserver<Empty> responseObserver) {
+                                          assertThat(CallMetricRecorder.current().isEnabled()).isTrue();
+                                          CallMetricRecorder.current()
+                                                            .recordCpuUtilizationMetric(0.8)
+                                                            .recordRequestCostMetric("db", 2);
+                                          responseObserver.onNext(Empty.getDefaultInstance());
+                                          responseObserver.onCompleted();
+                                      }
+                                  })
+                                  .addService(OrcaService.of(serverMetricRecorder, Duration.ofMillis(100)))
+                                  .build(),
+                       OrcaLoadReportingService.newDecorator(serverMetricRecorder));
+        }
+    };
+
+    @Test
+    void disabledWithoutDecorator() {
+        assertThat(CallMetricRecorder.current().isEnabled()).isFalse();
+        // Should not throw.
+        CallMetricRecorder.current().recordCpuUtilizationMetric(1.0);
+    }
+
+    @Test
+    void reportInTrailers() {
+        final TestServiceBlockingStub client = GrpcClients.newClient(server.httpUri(),
+                                                                     TestServiceBlockingStub.class);
+        final ClientRequestContext ctx;
+        try (ClientRequestContextCaptor captor = Clients.newContextCaptor()) {
+            client.emptyCall(Empty.getDefaultInstance());
+            ctx = captor.get();
+        }
+        final HttpHeaders trailers = ctx.log().whenComplete().join().responseTrailers();
+        final OrcaLoadReport report = OrcaLoadReport.fromHeaders(trailers);
+        assertThat(report).isNotNull();
+        // The metrics of the call override the ones of the server.
+        assertThat(report.cpuUtilization()).isEqualTo(0.8);
+        assertThat(report.rpsFractional()).isEqualTo(10);
+        assertThat(report.utilization()).isEqualTo(ImmutableMap.of("queue", 0.4));
+        assertThat(report.requestCost()).isEqualTo(ImmutableMap.of("db", 2.0));
+    }
+
+    @Test
+    void outOfBandReports() {
+        final TestServiceBlockingStub client = GrpcClients.newClient(server.httpUri(),
+                                                                     TestServiceBlockingStub.class);
+        final ClientCall<Long, OrcaLoadReport> call =
+                client.getChannel().newCall(OrcaService.STREAM_CORE_METRICS, CallOptions.DEFAULT);
+        // A shorter interval than the minimum is ignored.
+        final Iterator<OrcaLoadReport> reports = ClientCalls.blockingServerStreamingCall(call, 10L);
+        try {
+            for (int i = 0; i < 2; i++) {
+                final OrcaLoadReport report = reports.next();
+                assertThat(report.cpuUtilization()).isEqualTo(0.3);
+                assertThat(report.rpsFractional()).isEqualTo(10);
+                assertThat(report.utilization()).isEqualTo(ImmutableMap.of("queue", 0.4));
+            }
+        } finally {
+            call.cancel("done", null);
+        }
+    }
+}
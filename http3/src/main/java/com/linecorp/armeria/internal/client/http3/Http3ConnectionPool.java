@@ -0,0 +1,215 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.client.http3;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.logging.ClientConnectionTimingsBuilder;
+import com.linecorp.armeria.common.util.TransportType;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.channel.EventLoop;
+import io.netty.incubator.codec.http3.Http3ClientConnectionHandler;
+import io.netty.incubator.codec.quic.QuicChannel;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+
+/**
+ * The QUIC connections of an {@link EventLoop}. All of them share a UDP socket registered to the
+ * {@link EventLoop}, and a new stream is opened on an existing connection to the same {@link Endpoint}
+ * for each request. All methods must be invoked from the {@link EventLoop}.
+ */
+final class Http3ConnectionPool {
+
+    /**
+     * The unresolved address of the remote peer, whose host name is sent as the server name of
+     * the TLS handshake.
+     */
+    static final AttributeKey<InetSocketAddress> PEER_ADDRESS =
+            AttributeKey.valueOf(Http3ConnectionPool.class, "PEER_ADDRESS");
+
+    private final EventLoop eventLoop;
+    private final ChannelHandler quicCodec;
+    private final int connectTimeoutMillis;
+    private final Map<PoolKey, Future<QuicChannel>> connections = new HashMap<>();
+
+    @Nullable
+    private ChannelFuture udpChannelFuture;
+    private boolean closed;
+
+    Http3ConnectionPool(EventLoop eventLoop, ChannelHandler quicCodec, int connectTimeoutMillis) {
+        this.eventLoop = eventLoop;
+        this.quicCodec = quicCodec;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    /**
+     * Returns the {@link Future} which is completed with an active QUIC connection to the specified
+     * {@link Endpoint}. A new connection is established if there is none.
+     */
+    Future<QuicChannel> acquire(Endpoint endpoint, ClientConnectionTimingsBuilder timingsBuilder) {
+        assert eventLoop.inEventLoop();
+        if (closed) {
+            return eventLoop.newFailedFuture(new IllegalStateException("factory has been closed"));
+        }
+
+        final PoolKey key = new PoolKey(endpoint.host(), endpoint.toSocketAddress(-1));
+        final Future<QuicChannel> existing = connections.get(key);
+        if (existing != null && (!existing.isDone() || existing.isSuccess() && existing.getNow().isActive())) {
+            if (!existing.isDone()) {
+                timingsBuilder.pendingAcquisitionStart();
+                existing.addListener(unused -> timingsBuilder.pendingAcquisitionEnd());
+            }
+            return existing;
+        }
+
+        final Promise<QuicChannel> promise = eventLoop.newPromise();
+        connections.put(key, promise);
+        promise.addListener(future -> {
+            if (future.isSuccess()) {
+                final QuicChannel quicChannel = (QuicChannel) future.getNow();
+                quicChannel.closeFuture().addListener(unused -> connections.remove(key, promise));
+            } else {
+                connections.remove(key, promise);
+            }
+        });
+
+        timingsBuilder.socketConnectStart();
+        udpChannel().addListener((ChannelFuture bindFuture) -> {
+            if (!bindFuture.isSuccess()) {
+                promise.tryFailure(bindFuture.cause());
+                return;
+            }
+            final Future<QuicChannel> connectFuture =
+                    QuicChannel.newBootstrap(bindFuture.channel())
+                               .handler(new Http3ClientConnectionHandler())
+                               .attr(PEER_ADDRESS, InetSocketAddress.createUnresolved(
+                                       key.host, key.address.getPort()))
+                               .remoteAddress(key.address)
+                               .connect();
+
+            // The handshake of a QUIC connection is not bounded by the connect timeout of a UDP socket.
+            final ScheduledFuture<?> connectTimeoutFuture = eventLoop.schedule(() -> {
+                if (promise.tryFailure(new ConnectTimeoutException(
+                        "connection timed out after " + connectTimeoutMillis + "ms: " + key.address))) {
+                    connectFuture.cancel(false);
+                }
+            }, connectTimeoutMillis, TimeUnit.MILLISECONDS);
+
+            connectFuture.addListener(unused -> {
+                connectTimeoutFuture.cancel(false);
+                timingsBuilder.socketConnectEnd();
+                if (connectFuture.isSuccess()) {
+                    final QuicChannel quicChannel = connectFuture.getNow();
+                    if (!promise.trySuccess(quicChannel)) {
+                        // Timed out or the pool has been closed.
+                        quicChannel.close();
+                    }
+                } else {
+                    promise.tryFailure(connectFuture.cause());
+                }
+            });
+        });
+        return promise;
+    }
+
+    private ChannelFuture udpChannel() {
+        if (udpChannelFuture == null) {
+            udpChannelFuture = new Bootstrap().group(eventLoop)
+                                              .channel(TransportType.datagramChannelType(eventLoop))
+                                              .handler(quicCodec)
+                                              .bind(0);
+        }
+        return udpChannelFuture;
+    }
+
+    /**
+     * Closes all QUIC connections and the UDP socket.
+     */
+    CompletableFuture<Void> closeAsync() {
+        assert eventLoop.inEventLoop();
+        closed = true;
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(connections.size() + 1);
+        for (Future<QuicChannel> connection : new ArrayList<>(connections.values())) {
+            final CompletableFuture<Void> closeFuture = new CompletableFuture<>();
+            futures.add(closeFuture);
+            connection.addListener(future -> {
+                if (future.isSuccess()) {
+                    ((Channel) future.getNow()).close().addListener(unused -> closeFuture.complete(null));
+                } else {
+                    closeFuture.complete(null);
+                }
+            });
+        }
+        connections.clear();
+
+        final CompletableFuture<Void> connectionsClosed =
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        if (udpChannelFuture == null) {
+            return connectionsClosed;
+        }
+        final Channel udpChannel = udpChannelFuture.channel();
+        return connectionsClosed.thenCompose(unused -> {
+            final CompletableFuture<Void> udpChannelClosed = new CompletableFuture<>();
+            udpChannel.close().addListener(future -> udpChannelClosed.complete(null));
+            return udpChannelClosed;
+        });
+    }
+
+    private static final class PoolKey {
+
+        private final String host;
+        private final InetSocketAddress address;
+
+        PoolKey(String host, InetSocketAddress address) {
+            this.host = host;
+            this.address = address;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PoolKey)) {
+                return false;
+            }
+            final PoolKey that = (PoolKey) o;
+            return host.equals(that.host) && address.equals(that.address);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(host, address);
+        }
+    }
+}
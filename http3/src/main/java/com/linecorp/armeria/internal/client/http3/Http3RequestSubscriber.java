@@ -0,0 +1,227 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.client.http3;
+
+import static com.linecorp.armeria.internal.common.HttpHeadersUtil.mergeRequestHeaders;
+
+import java.util.Map.Entry;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpHeaders;
+import com.linecorp.armeria.common.HttpObject;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.internal.client.ClientRequestContextExtension;
+import com.linecorp.armeria.internal.common.ArmeriaHttpUtil;
+import com.linecorp.armeria.internal.common.RequestContextUtil;
+import com.linecorp.armeria.unsafe.PooledObjects;
+
+import io.netty.buffer.ByteBufAccessMode;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.incubator.codec.http3.DefaultHttp3DataFrame;
+import io.netty.incubator.codec.http3.DefaultHttp3Headers;
+import io.netty.incubator.codec.http3.DefaultHttp3HeadersFrame;
+import io.netty.incubator.codec.http3.Http3Frame;
+import io.netty.incubator.codec.http3.Http3Headers;
+import io.netty.incubator.codec.quic.QuicStreamChannel;
+
+/**
+ * Writes an {@link HttpRequest} into a request stream as HTTP/3 frames. The next {@link HttpObject} is
+ * requested only after the previous frame has been written, so that the QUIC flow control applies to
+ * the {@link HttpRequest} as well.
+ */
+final class Http3RequestSubscriber implements Subscriber<HttpObject>, ChannelFutureListener {
+
+    private final ClientRequestContext ctx;
+    private final QuicStreamChannel channel;
+    private final Http3ResponseDecoder responseDecoder;
+    private final HttpRequest req;
+    private final String authority;
+    private final ChannelFutureListener requestEndListener = this::onRequestEnd;
+
+    @Nullable
+    private Subscription subscription;
+    private boolean loggedRequestFirstBytesTransferred;
+    private boolean requestEnded;
+
+    Http3RequestSubscriber(ClientRequestContext ctx, QuicStreamChannel channel,
+                           Http3ResponseDecoder responseDecoder, HttpRequest req, Endpoint endpoint) {
+        this.ctx = ctx;
+        this.channel = channel;
+        this.responseDecoder = responseDecoder;
+        this.req = req;
+        authority = ArmeriaHttpUtil.authorityHeader(endpoint.host(), endpoint.port(),
+                                                    SessionProtocol.H3.defaultPort());
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        assert this.subscription == null;
+        this.subscription = subscription;
+        if (responseDecoder.isDone()) {
+            subscription.cancel();
+            return;
+        }
+
+        final RequestHeaders headers = mergedRequestHeaders(req.headers());
+        ctx.logBuilder().requestHeaders(headers);
+        write(new DefaultHttp3HeadersFrame(toHttp3Headers(headers, false)), req.isEmpty());
+    }
+
+    @Override
+    public void onNext(HttpObject o) {
+        if (requestEnded || responseDecoder.isDone()) {
+            PooledObjects.close(o);
+            cancel();
+            return;
+        }
+
+        if (o instanceof HttpData) {
+            final HttpData data = (HttpData) o;
+            ctx.logBuilder().increaseRequestLength(data);
+            write(new DefaultHttp3DataFrame(data.byteBuf(ByteBufAccessMode.FOR_IO)), data.isEndOfStream());
+            return;
+        }
+
+        if (o instanceof HttpHeaders) {
+            final HttpHeaders trailers = (HttpHeaders) o;
+            if (trailers.contains(HttpHeaderNames.STATUS)) {
+                fail(new IllegalArgumentException("published a trailers with status: " + o));
+                return;
+            }
+            ctx.logBuilder().requestTrailers(trailers);
+            // Trailers always end the stream even if not explicitly set.
+            write(new DefaultHttp3HeadersFrame(toHttp3Headers(trailers, true)), true);
+            return;
+        }
+
+        PooledObjects.close(o);
+        fail(new IllegalArgumentException(
+                "published an HttpObject that's neither HttpHeaders nor HttpData: " + o));
+    }
+
+    @Override
+    public void onError(Throwable cause) {
+        fail(cause);
+    }
+
+    @Override
+    public void onComplete() {
+        if (requestEnded || responseDecoder.isDone()) {
+            return;
+        }
+        requestEnded = true;
+        channel.shutdownOutput().addListener(requestEndListener);
+    }
+
+    @Override
+    public void operationComplete(ChannelFuture future) {
+        if (!onWriteComplete(future)) {
+            return;
+        }
+        if (!requestEnded) {
+            assert subscription != null;
+            subscription.request(1);
+        }
+    }
+
+    private void onRequestEnd(ChannelFuture future) {
+        if (!onWriteComplete(future)) {
+            return;
+        }
+        ctx.logBuilder().endRequest();
+        // Successfully sent the request; schedule the response timeout.
+        responseDecoder.onRequestSent();
+    }
+
+    private boolean onWriteComplete(ChannelFuture future) {
+        try (SafeCloseable ignored = RequestContextUtil.pop()) {
+            if (!future.isSuccess()) {
+                fail(future.cause());
+                return false;
+            }
+            if (!loggedRequestFirstBytesTransferred) {
+                ctx.logBuilder().requestFirstBytesTransferred();
+                loggedRequestFirstBytesTransferred = true;
+            }
+            return true;
+        }
+    }
+
+    private void write(Http3Frame frame, boolean endOfStream) {
+        if (!endOfStream) {
+            channel.writeAndFlush(frame).addListener(this);
+            return;
+        }
+        requestEnded = true;
+        channel.writeAndFlush(frame)
+               .addListener(QuicStreamChannel.SHUTDOWN_OUTPUT)
+               .addListener(requestEndListener);
+    }
+
+    private void fail(Throwable cause) {
+        cancel();
+        responseDecoder.fail(cause);
+    }
+
+    private void cancel() {
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    private RequestHeaders mergedRequestHeaders(RequestHeaders headers) {
+        final ClientRequestContextExtension ctxExt = ctx.as(ClientRequestContextExtension.class);
+        final HttpHeaders internalHeaders = ctxExt != null ? ctxExt.internalRequestHeaders()
+                                                           : HttpHeaders.of();
+        return mergeRequestHeaders(headers, ctx.defaultRequestHeaders(), ctx.additionalRequestHeaders(),
+                                   internalHeaders);
+    }
+
+    private Http3Headers toHttp3Headers(HttpHeaders headers, boolean trailers) {
+        // The header fields disallowed in HTTP/2 are disallowed in HTTP/3 as well.
+        final Http2Headers converted = trailers ? ArmeriaHttpUtil.toNettyHttp2ClientTrailers(headers)
+                                                : ArmeriaHttpUtil.toNettyHttp2ClientHeaders(headers);
+        final Http3Headers http3Headers = new DefaultHttp3Headers();
+        for (Entry<CharSequence, CharSequence> e : converted) {
+            http3Headers.add(e.getKey(), e.getValue());
+        }
+        if (trailers) {
+            return http3Headers;
+        }
+
+        if (http3Headers.scheme() == null) {
+            http3Headers.scheme(SessionProtocol.HTTPS.uriText());
+        }
+        if (http3Headers.authority() == null) {
+            final CharSequence host = http3Headers.getAndRemove(HttpHeaderNames.HOST);
+            http3Headers.authority(host != null ? host : authority);
+        }
+        return http3Headers;
+    }
+}
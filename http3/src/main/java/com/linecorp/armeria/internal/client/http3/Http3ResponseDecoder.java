@@ -0,0 +1,251 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.client.http3;
+
+import java.util.Map.Entry;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.ResponseTimeoutMode;
+import com.linecorp.armeria.common.ContentTooLargeException;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpHeaders;
+import com.linecorp.armeria.common.HttpHeadersBuilder;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.stream.ClosedStreamException;
+import com.linecorp.armeria.internal.client.ClientRequestContextExtension;
+import com.linecorp.armeria.internal.client.DecodedHttpResponse;
+import com.linecorp.armeria.internal.common.CancellationScheduler;
+import com.linecorp.armeria.internal.common.CancellationScheduler.CancellationTask;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.incubator.codec.http3.Http3DataFrame;
+import io.netty.incubator.codec.http3.Http3Headers;
+import io.netty.incubator.codec.http3.Http3HeadersFrame;
+import io.netty.incubator.codec.http3.Http3RequestStreamInboundHandler;
+
+/**
+ * Decodes the HTTP/3 frames of a request stream into the {@link DecodedHttpResponse} and logs them.
+ * It also owns the response timeout of the request, which closes the stream when triggered.
+ */
+final class Http3ResponseDecoder extends Http3RequestStreamInboundHandler {
+
+    private final ClientRequestContext ctx;
+    private final DecodedHttpResponse res;
+    private final long maxResponseLength;
+
+    @Nullable
+    private Channel channel;
+    @Nullable
+    private CancellationScheduler responseCancellationScheduler;
+    private boolean responseStarted;
+    private boolean headersReceived;
+    private boolean done;
+
+    Http3ResponseDecoder(ClientRequestContext ctx, DecodedHttpResponse res) {
+        this.ctx = ctx;
+        this.res = res;
+        maxResponseLength = ctx.maxResponseLength();
+    }
+
+    /**
+     * Invoked when the request stream is created, before the request is written to the stream.
+     */
+    void init(Channel channel) {
+        this.channel = channel;
+        res.whenComplete().handle((unused, cause) -> {
+            if (cause != null) {
+                // The response has been aborted by its subscriber. Reset the stream.
+                failInEventLoop(cause);
+            }
+            return null;
+        });
+
+        final ClientRequestContextExtension ctxExt = ctx.as(ClientRequestContextExtension.class);
+        if (ctxExt != null) {
+            responseCancellationScheduler = ctxExt.responseCancellationScheduler();
+            responseCancellationScheduler.updateTask(new CancellationTask() {
+                @Override
+                public boolean canSchedule() {
+                    return res.isOpen() && !done;
+                }
+
+                @Override
+                public void run(Throwable cause) {
+                    failInEventLoop(cause);
+                }
+            });
+            if (ctx.responseTimeoutMode() == ResponseTimeoutMode.CONNECTION_ACQUIRED) {
+                responseCancellationScheduler.start();
+            }
+        }
+    }
+
+    /**
+     * Invoked when the request has been fully written to the stream.
+     */
+    void onRequestSent() {
+        startResponseTimeout();
+    }
+
+    @Override
+    protected void channelRead(ChannelHandlerContext chCtx, Http3HeadersFrame frame) {
+        if (done) {
+            return;
+        }
+
+        final Http3Headers headers = frame.headers();
+        if (headersReceived) {
+            final HttpHeaders trailers = toArmeria(headers, HttpHeaders.builder()).build();
+            ctx.logBuilder().responseTrailers(trailers);
+            res.tryWrite(trailers);
+            return;
+        }
+
+        startResponse();
+        final ResponseHeaders responseHeaders = toArmeria(headers, ResponseHeaders.builder()).build();
+        if (!responseHeaders.status().isInformational()) {
+            headersReceived = true;
+            ctx.logBuilder().responseHeaders(responseHeaders);
+        }
+        res.tryWrite(responseHeaders);
+    }
+
+    @Override
+    protected void channelRead(ChannelHandlerContext chCtx, Http3DataFrame frame) {
+        if (done || !headersReceived) {
+            frame.release();
+            if (!done) {
+                fail(new IllegalStateException("received a DATA frame before the response headers"));
+            }
+            return;
+        }
+
+        final int length = frame.content().readableBytes();
+        final long transferred = res.writtenBytes() + length;
+        if (maxResponseLength > 0 && transferred > maxResponseLength) {
+            frame.release();
+            fail(ContentTooLargeException.builder()
+                                         .maxContentLength(maxResponseLength)
+                                         .transferred(transferred)
+                                         .build());
+            return;
+        }
+
+        final HttpData data = HttpData.wrap(frame.content());
+        data.touch(ctx);
+        ctx.logBuilder().increaseResponseLength(data);
+        if (!res.tryWrite(data)) {
+            data.close();
+        }
+    }
+
+    @Override
+    protected void channelInputClosed(ChannelHandlerContext chCtx) {
+        if (done) {
+            return;
+        }
+        if (!headersReceived) {
+            fail(ClosedStreamException.get());
+            return;
+        }
+
+        done = true;
+        cancelResponseTimeout();
+        res.close();
+        ctx.logBuilder().endResponse();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext chCtx) throws Exception {
+        fail(ClosedStreamException.get());
+        super.channelInactive(chCtx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext chCtx, Throwable cause) {
+        fail(cause);
+    }
+
+    private void failInEventLoop(Throwable cause) {
+        assert channel != null;
+        if (channel.eventLoop().inEventLoop()) {
+            fail(cause);
+        } else {
+            channel.eventLoop().execute(() -> fail(cause));
+        }
+    }
+
+    /**
+     * Fails the request and the response, and resets the stream if it is still open.
+     */
+    void fail(Throwable cause) {
+        if (done) {
+            return;
+        }
+        done = true;
+        cancelResponseTimeout();
+        if (channel != null && channel.isActive()) {
+            channel.close();
+        }
+
+        final HttpRequest req = ctx.request();
+        assert req != null;
+        req.abort(cause);
+        ctx.logBuilder().endRequest(cause);
+        res.close(cause);
+        ctx.logBuilder().endResponse(cause);
+    }
+
+    boolean isDone() {
+        return done;
+    }
+
+    private void startResponse() {
+        if (responseStarted) {
+            return;
+        }
+        responseStarted = true;
+        ctx.logBuilder().startResponse();
+        ctx.logBuilder().responseFirstBytesTransferred();
+        startResponseTimeout();
+    }
+
+    private void startResponseTimeout() {
+        if (responseCancellationScheduler != null &&
+            ctx.responseTimeoutMode() == ResponseTimeoutMode.REQUEST_SENT) {
+            responseCancellationScheduler.start();
+        }
+    }
+
+    private void cancelResponseTimeout() {
+        if (responseCancellationScheduler != null) {
+            // Best-effort attempt to cancel the scheduled timeout task so that RequestContext#cause
+            // isn't set unnecessarily.
+            responseCancellationScheduler.cancelScheduled();
+        }
+    }
+
+    private static <T extends HttpHeadersBuilder> T toArmeria(Http3Headers headers, T builder) {
+        for (Entry<CharSequence, CharSequence> e : headers) {
+            builder.add(e.getKey(), e.getValue().toString());
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.client.http3;
+
+import java.net.InetSocketAddress;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.MapMaker;
+
+import com.linecorp.armeria.client.ClientFactoryOptions;
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.ClientTlsConfig;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.UnprocessedRequestException;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.TlsKeyPair;
+import com.linecorp.armeria.common.TlsProvider;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.logging.ClientConnectionTimings;
+import com.linecorp.armeria.common.logging.ClientConnectionTimingsBuilder;
+import com.linecorp.armeria.common.stream.SubscriptionOption;
+import com.linecorp.armeria.internal.client.DecodedHttpResponse;
+import com.linecorp.armeria.internal.client.Http3ClientTransport;
+import com.linecorp.armeria.internal.common.InboundTrafficController;
+import com.linecorp.armeria.internal.common.util.ChannelUtil;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoop;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.incubator.codec.http3.Http3;
+import io.netty.incubator.codec.quic.QuicChannel;
+import io.netty.incubator.codec.quic.QuicSslContext;
+import io.netty.incubator.codec.quic.QuicSslContextBuilder;
+import io.netty.incubator.codec.quic.QuicSslEngine;
+import io.netty.incubator.codec.quic.QuicStreamChannel;
+import io.netty.util.NetUtil;
+import io.netty.util.concurrent.Future;
+
+/**
+ * An {@link Http3ClientTransport} which sends requests over QUIC connections with the Netty HTTP/3 codec.
+ * The connections are pooled per {@link EventLoop}, so that a request and the connection it is sent over
+ * are always handled by the same {@link EventLoop}.
+ *
+ * <p>The certificates of a server are verified with the trusted certificates of
+ * {@link ClientFactoryOptions#tlsProvider()} and {@link ClientTlsConfig}. Note that
+ * {@link ClientFactoryOptions#tlsCustomizer()} is not applied because it customizes
+ * an {@link io.netty.handler.ssl.SslContextBuilder} rather than a {@link QuicSslContextBuilder}.
+ */
+final class QuicHttp3ClientTransport implements Http3ClientTransport {
+
+    private final ConcurrentMap<EventLoop, Http3ConnectionPool> pools = new MapMaker().weakKeys().makeMap();
+    private final ClientFactoryOptions options;
+    private final QuicSslContext sslContext;
+    @Nullable
+    private final QuicSslContext insecureSslContext;
+    private final Set<String> insecureHosts;
+    private final int connectTimeoutMillis;
+    private volatile boolean closed;
+
+    QuicHttp3ClientTransport(ClientFactoryOptions options) {
+        this.options = options;
+        final Integer connectTimeoutMillis =
+                (Integer) options.channelOptions().get(ChannelOption.CONNECT_TIMEOUT_MILLIS);
+        assert connectTimeoutMillis != null;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+
+        final TlsProvider tlsProvider = options.tlsProvider();
+        final ClientTlsConfig tlsConfig = options.tlsConfig();
+        sslContext = newSslContext(tlsProvider, tlsConfig.tlsNoVerifySet());
+        insecureHosts = ImmutableSet.copyOf(tlsConfig.insecureHosts());
+        insecureSslContext = insecureHosts.isEmpty() ? null : newSslContext(tlsProvider, true);
+    }
+
+    private static QuicSslContext newSslContext(TlsProvider tlsProvider, boolean noVerify) {
+        final QuicSslContextBuilder builder =
+                QuicSslContextBuilder.forClient()
+                                     .applicationProtocols(Http3.supportedApplicationProtocols());
+        if (noVerify) {
+            builder.trustManager(InsecureTrustManagerFactory.INSTANCE);
+        } else {
+            final List<X509Certificate> trustedCertificates = tlsProvider.trustedCertificates("*");
+            if (trustedCertificates != null) {
+                builder.trustManager(trustedCertificates.toArray(new X509Certificate[0]));
+            }
+        }
+        final TlsKeyPair keyPair = tlsProvider.keyPair("*");
+        if (keyPair != null) {
+            builder.keyManager(keyPair.privateKey(), null,
+                               keyPair.certificateChain().toArray(new X509Certificate[0]));
+        }
+        return builder.build();
+    }
+
+    private ChannelHandler newQuicCodec() {
+        return Http3.newQuicClientCodecBuilder()
+                    .sslEngineProvider(this::newSslEngine)
+                    .maxIdleTimeout(options.idleTimeoutMillis(), TimeUnit.MILLISECONDS)
+                    .initialMaxData(options.http2InitialConnectionWindowSize())
+                    .initialMaxStreamDataBidirectionalLocal(options.http2InitialStreamWindowSize())
+                    // A server must not open a bidirectional stream. See RFC 9114, Section 6.1.
+                    .initialMaxStreamsBidirectional(0)
+                    .build();
+    }
+
+    private QuicSslEngine newSslEngine(QuicChannel quicChannel) {
+        final InetSocketAddress peerAddress = quicChannel.attr(Http3ConnectionPool.PEER_ADDRESS).get();
+        assert peerAddress != null;
+        final String serverName = peerAddress.getHostString();
+        final QuicSslContext sslContext;
+        if (insecureSslContext != null && insecureHosts.contains(serverName)) {
+            sslContext = insecureSslContext;
+        } else {
+            sslContext = this.sslContext;
+        }
+        if (NetUtil.isValidIpV4Address(serverName) || NetUtil.isValidIpV6Address(serverName)) {
+            // An IP address must not be sent as a server name.
+            return sslContext.newEngine(quicChannel.alloc());
+        }
+        return sslContext.newEngine(quicChannel.alloc(), serverName, peerAddress.getPort());
+    }
+
+    @Override
+    public void execute(ClientRequestContext ctx, Endpoint endpoint, HttpRequest req, DecodedHttpResponse res,
+                        ClientConnectionTimingsBuilder timingsBuilder) {
+        final EventLoop eventLoop = ctx.eventLoop().withoutContext();
+        if (closed) {
+            ctx.logBuilder().session(null, ctx.sessionProtocol(), timingsBuilder.build());
+            ctx.cancel(new IllegalStateException("factory has been closed"));
+            return;
+        }
+
+        final Http3ConnectionPool pool =
+                pools.computeIfAbsent(eventLoop, unused -> new Http3ConnectionPool(eventLoop, newQuicCodec(),
+                                                                                   connectTimeoutMillis));
+        pool.acquire(endpoint, timingsBuilder).addListener((Future<QuicChannel> future) -> {
+            final ClientConnectionTimings connectionTimings = timingsBuilder.build();
+            if (!future.isSuccess()) {
+                ctx.logBuilder().session(null, ctx.sessionProtocol(), connectionTimings);
+                ctx.cancel(UnprocessedRequestException.of(future.cause()));
+                return;
+            }
+            newRequestStream(ctx, future.getNow(), endpoint, req, res, connectionTimings);
+        });
+    }
+
+    private static void newRequestStream(ClientRequestContext ctx, QuicChannel quicChannel, Endpoint endpoint,
+                                         HttpRequest req, DecodedHttpResponse res,
+                                         ClientConnectionTimings connectionTimings) {
+        final Http3ResponseDecoder responseDecoder = new Http3ResponseDecoder(ctx, res);
+        Http3.newRequestStream(quicChannel, responseDecoder).addListener((Future<QuicStreamChannel> future) -> {
+            if (!future.isSuccess()) {
+                ctx.logBuilder().session(null, ctx.sessionProtocol(), connectionTimings);
+                ctx.cancel(UnprocessedRequestException.of(future.cause()));
+                return;
+            }
+
+            final QuicStreamChannel streamChannel = future.getNow();
+            final QuicSslEngine sslEngine = quicChannel.sslEngine();
+            ChannelUtil.setConnectionInfo(streamChannel, (InetSocketAddress) quicChannel.localSocketAddress(),
+                                          (InetSocketAddress) quicChannel.remoteSocketAddress(),
+                                          sslEngine != null ? sslEngine.getSession() : null);
+            ctx.logBuilder().session(streamChannel, SessionProtocol.H3, connectionTimings);
+            res.init(InboundTrafficController.ofHttp1(streamChannel));
+            responseDecoder.init(streamChannel);
+            req.subscribe(new Http3RequestSubscriber(ctx, streamChannel, responseDecoder, req, endpoint),
+                          streamChannel.eventLoop(), SubscriptionOption.WITH_POOLED_OBJECTS);
+        });
+    }
+
+    @Override
+    public CompletableFuture<?> closeAsync() {
+        closed = true;
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(pools.size());
+        pools.forEach((eventLoop, pool) -> {
+            final CompletableFuture<Void> future = new CompletableFuture<>();
+            futures.add(future);
+            eventLoop.execute(() -> pool.closeAsync().handle((unused, cause) -> future.complete(null)));
+        });
+        pools.clear();
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+}
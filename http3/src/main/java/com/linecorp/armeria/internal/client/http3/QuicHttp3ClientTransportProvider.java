@@ -0,0 +1,32 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.client.http3;
+
+import com.linecorp.armeria.client.ClientFactoryOptions;
+import com.linecorp.armeria.internal.client.Http3ClientTransport;
+import com.linecorp.armeria.internal.client.Http3ClientTransportProvider;
+
+/**
+ * Provides a {@link QuicHttp3ClientTransport}.
+ */
+public final class QuicHttp3ClientTransportProvider implements Http3ClientTransportProvider {
+
+    @Override
+    public Http3ClientTransport newTransport(ClientFactoryOptions options) {
+        return new QuicHttp3ClientTransport(options);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.server.http3;
+
+import java.net.InetSocketAddress;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLEngine;
+
+import com.linecorp.armeria.common.TlsKeyPair;
+import com.linecorp.armeria.common.TlsProvider;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.util.TlsEngineType;
+import com.linecorp.armeria.internal.common.SslContextFactory;
+import com.linecorp.armeria.internal.common.util.ChannelUtil;
+import com.linecorp.armeria.internal.server.Http3ServerTransport;
+import com.linecorp.armeria.server.ServerConfig;
+import com.linecorp.armeria.server.ServerPort;
+import com.linecorp.armeria.server.ServerTlsConfig;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelInitializer;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.incubator.codec.http3.Http3;
+import io.netty.incubator.codec.http3.Http3FrameToHttpObjectCodec;
+import io.netty.incubator.codec.http3.Http3ServerConnectionHandler;
+import io.netty.incubator.codec.quic.InsecureQuicTokenHandler;
+import io.netty.incubator.codec.quic.QuicChannel;
+import io.netty.incubator.codec.quic.QuicSslContext;
+import io.netty.incubator.codec.quic.QuicSslContextBuilder;
+import io.netty.incubator.codec.quic.QuicStreamChannel;
+
+/**
+ * An {@link Http3ServerTransport} which accepts QUIC connections with the Netty HTTP/3 codec.
+ */
+public final class QuicHttp3ServerTransport implements Http3ServerTransport {
+
+    @Override
+    public CodecFactory newCodecFactory(ServerConfig config, TlsProvider tlsProvider,
+                                        @Nullable ServerTlsConfig tlsConfig,
+                                        ChannelHandler streamInitializer) {
+        final ClientAuth clientAuth = tlsConfig != null ? tlsConfig.clientAuth() : ClientAuth.NONE;
+        final int maxIdleSslContexts = tlsConfig != null ? tlsConfig.maxIdleSslContexts() : 0;
+        final TlsEngineType tlsEngineType = config.defaultVirtualHost().tlsEngineType();
+        assert tlsEngineType != null;
+        final SslContextFactory sslContextFactory = new SslContextFactory(
+                tlsProvider, tlsEngineType, tlsConfig, config.meterRegistry(), maxIdleSslContexts,
+                (keyPair, trustedCertificates) -> newServerSslContext(keyPair, trustedCertificates,
+                                                                      clientAuth));
+        final QuicSslContextMapping sslContextMapping =
+                new QuicSslContextMapping(sslContextFactory, config.blockingTaskExecutor());
+        return new QuicCodecFactory(config, QuicSslContextBuilder.buildForServerWithSni(sslContextMapping),
+                                    sslContextMapping, new RequestStreamInitializer(streamInitializer));
+    }
+
+    private static QuicSslContext newServerSslContext(TlsKeyPair keyPair,
+                                                      List<X509Certificate> trustedCertificates,
+                                                      ClientAuth clientAuth) {
+        final QuicSslContextBuilder builder =
+                QuicSslContextBuilder.forServer(keyPair.privateKey(), null,
+                                                keyPair.certificateChain().toArray(new X509Certificate[0]))
+                                     .applicationProtocols(Http3.supportedApplicationProtocols())
+                                     .clientAuth(clientAuth);
+        if (!trustedCertificates.isEmpty()) {
+            builder.trustManager(trustedCertificates.toArray(new X509Certificate[0]));
+        }
+        return builder.build();
+    }
+
+    private static final class QuicCodecFactory implements CodecFactory {
+
+        private final ServerConfig config;
+        private final QuicSslContext sslContext;
+        private final QuicSslContextMapping sslContextMapping;
+        private final RequestStreamInitializer requestStreamInitializer;
+
+        QuicCodecFactory(ServerConfig config, QuicSslContext sslContext,
+                         QuicSslContextMapping sslContextMapping,
+                         RequestStreamInitializer requestStreamInitializer) {
+            this.config = config;
+            this.sslContext = sslContext;
+            this.sslContextMapping = sslContextMapping;
+            this.requestStreamInitializer = requestStreamInitializer;
+        }
+
+        @Override
+        public ChannelHandler newCodec() {
+            return Http3.newQuicServerCodecBuilder()
+                        .sslContext(sslContext)
+                        .maxIdleTimeout(config.idleTimeoutMillis(), TimeUnit.MILLISECONDS)
+                        .initialMaxData(config.http2InitialConnectionWindowSize())
+                        .initialMaxStreamDataBidirectionalLocal(config.http2InitialStreamWindowSize())
+                        .initialMaxStreamDataBidirectionalRemote(config.http2InitialStreamWindowSize())
+                        .initialMaxStreamsBidirectional(config.http2MaxStreamsPerConnection())
+                        .tokenHandler(InsecureQuicTokenHandler.INSTANCE)
+                        .handler(new ChannelInitializer<QuicChannel>() {
+                            @Override
+                            protected void initChannel(QuicChannel ch) {
+                                ch.pipeline().addLast(
+                                        new Http3ServerConnectionHandler(requestStreamInitializer));
+                            }
+                        })
+                        .build();
+        }
+
+        @Override
+        public void close() {
+            sslContextMapping.close();
+        }
+    }
+
+    /**
+     * Sets the connection information of a request stream and converts its HTTP/3 frames into
+     * HTTP/1 objects before the {@link ChannelHandler} of the {@link ServerPort} initializes the rest of
+     * the pipeline.
+     */
+    private static final class RequestStreamInitializer extends ChannelInitializer<QuicStreamChannel> {
+
+        private final ChannelHandler streamInitializer;
+
+        RequestStreamInitializer(ChannelHandler streamInitializer) {
+            this.streamInitializer = streamInitializer;
+        }
+
+        @Override
+        protected void initChannel(QuicStreamChannel ch) {
+            final QuicChannel parent = ch.parent();
+            @Nullable
+            final SSLEngine sslEngine = parent.sslEngine();
+            ChannelUtil.setConnectionInfo(ch, (InetSocketAddress) parent.localSocketAddress(),
+                                          (InetSocketAddress) parent.remoteSocketAddress(),
+                                          sslEngine != null ? sslEngine.getSession() : null);
+            ch.pipeline().addLast(new Http3FrameToHttpObjectCodec(true));
+            ch.pipeline().addLast(streamInitializer);
+        }
+    }
+}
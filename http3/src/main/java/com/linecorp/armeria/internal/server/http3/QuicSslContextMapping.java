@@ -0,0 +1,184 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.server.http3;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.internal.common.SslContextFactory;
+import com.linecorp.armeria.internal.common.SslContextFactory.SslContextMode;
+import com.linecorp.armeria.internal.common.TlsProviderUtil;
+import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
+
+import io.netty.handler.ssl.SslContext;
+import io.netty.incubator.codec.quic.QuicSslContext;
+import io.netty.util.Mapping;
+
+/**
+ * A {@link Mapping} which returns the {@link QuicSslContext} of the server name of a QUIC handshake.
+ *
+ * <p>Unlike the {@code SniHandler} of a TCP connection, the server name callback of a QUIC handshake
+ * can't be completed asynchronously. Therefore, the {@link QuicSslContext}s are resolved via
+ * {@link SslContextFactory#getOrCreateAsync(SslContextMode, String, Executor)} in the background, and
+ * the last resolved {@link QuicSslContext} of a server name is used for a handshake. The default
+ * {@link QuicSslContext} is used until the {@link QuicSslContext} of a server name is resolved for
+ * the first time. The {@link QuicSslContext} of a server name is resolved again on every handshake,
+ * so that the rotation of a key pair is reflected.
+ *
+ * <p>A resolved {@link QuicSslContext} is retained until it is replaced, the server name is evicted,
+ * or this mapping is closed. Then it is released to the {@link SslContextFactory}, which caches
+ * the idle ones up to {@code ServerTlsConfig.maxIdleSslContexts()}.
+ */
+final class QuicSslContextMapping implements Mapping<String, QuicSslContext>, SafeCloseable {
+
+    private static final String DEFAULT_HOSTNAME = "*";
+
+    /**
+     * The maximum number of the server names whose {@link QuicSslContext} is retained. The least recently
+     * used one is evicted first.
+     */
+    private static final int MAX_NUM_SERVER_NAMES = 1024;
+
+    private final SslContextFactory sslContextFactory;
+    private final Executor blockingTaskExecutor;
+    private final ReentrantShortLock lock = new ReentrantShortLock();
+    @GuardedBy("lock")
+    private final Map<String, SslContext> sslContexts = new LinkedHashMap<>(16, 0.75f, true);
+    @GuardedBy("lock")
+    private final Set<String> pendingHostnames = new HashSet<>();
+    @GuardedBy("lock")
+    private SslContext defaultSslContext;
+    @GuardedBy("lock")
+    private boolean closed;
+
+    /**
+     * Creates a new instance. The default {@link QuicSslContext} is built synchronously, because
+     * a handshake can't proceed without it.
+     */
+    QuicSslContextMapping(SslContextFactory sslContextFactory, Executor blockingTaskExecutor) {
+        this.sslContextFactory = sslContextFactory;
+        this.blockingTaskExecutor = blockingTaskExecutor;
+        defaultSslContext = sslContextFactory.getOrCreate(SslContextMode.SERVER, DEFAULT_HOSTNAME);
+    }
+
+    @Override
+    public QuicSslContext map(@Nullable String serverName) {
+        String hostname = DEFAULT_HOSTNAME;
+        if (serverName != null) {
+            try {
+                hostname = TlsProviderUtil.normalizeHostname(serverName);
+            } catch (IllegalArgumentException ignored) {
+                // Use the default context for a malformed server name.
+            }
+        }
+
+        resolve(hostname);
+
+        lock.lock();
+        try {
+            final SslContext sslContext = sslContexts.get(hostname);
+            return (QuicSslContext) (sslContext != null ? sslContext : defaultSslContext);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void resolve(String hostname) {
+        lock.lock();
+        try {
+            if (closed || !pendingHostnames.add(hostname)) {
+                // Being resolved already.
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        sslContextFactory.getOrCreateAsync(SslContextMode.SERVER, hostname, blockingTaskExecutor)
+                         .handle((sslContext, cause) -> {
+                             if (cause != null) {
+                                 lock.lock();
+                                 try {
+                                     pendingHostnames.remove(hostname);
+                                 } finally {
+                                     lock.unlock();
+                                 }
+                             } else {
+                                 update(hostname, sslContext);
+                             }
+                             return null;
+                         });
+    }
+
+    private void update(String hostname, SslContext sslContext) {
+        final List<SslContext> released = new ArrayList<>(2);
+        lock.lock();
+        try {
+            pendingHostnames.remove(hostname);
+            if (closed) {
+                released.add(sslContext);
+            } else if (DEFAULT_HOSTNAME.equals(hostname)) {
+                released.add(defaultSslContext);
+                defaultSslContext = sslContext;
+            } else {
+                final SslContext oldSslContext = sslContexts.put(hostname, sslContext);
+                if (oldSslContext != null) {
+                    released.add(oldSslContext);
+                }
+                if (sslContexts.size() > MAX_NUM_SERVER_NAMES) {
+                    final Iterator<Entry<String, SslContext>> it = sslContexts.entrySet().iterator();
+                    released.add(it.next().getValue());
+                    it.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        // The same SslContext may have been retained again, which keeps its reference count balanced.
+        released.forEach(sslContextFactory::release);
+    }
+
+    @Override
+    public void close() {
+        final List<SslContext> released;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            released = new ArrayList<>(sslContexts.size() + 1);
+            released.addAll(sslContexts.values());
+            released.add(defaultSslContext);
+            sslContexts.clear();
+        } finally {
+            lock.unlock();
+        }
+        released.forEach(sslContextFactory::release);
+    }
+}
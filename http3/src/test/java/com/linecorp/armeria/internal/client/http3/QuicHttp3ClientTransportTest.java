@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.client.http3;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Stopwatch;
+
+import com.linecorp.armeria.client.ClientFactory;
+import com.linecorp.armeria.client.ClientTlsConfig;
+import com.linecorp.armeria.client.UnprocessedRequestException;
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.TlsKeyPair;
+import com.linecorp.armeria.common.TlsProvider;
+
+import io.netty.channel.ConnectTimeoutException;
+
+class QuicHttp3ClientTransportTest {
+
+    @Test
+    void handshakeIsBoundedByConnectTimeout() throws Exception {
+        // A UDP socket which never replies to a QUIC handshake.
+        try (DatagramSocket socket = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+             ClientFactory factory = ClientFactory.builder()
+                                                  .connectTimeoutMillis(500)
+                                                  .tlsProvider(TlsProvider.of(TlsKeyPair.ofSelfSigned()),
+                                                               ClientTlsConfig.builder().tlsNoVerify().build())
+                                                  .build()) {
+            final WebClient client = WebClient.builder("h3://127.0.0.1:" + socket.getLocalPort())
+                                              .factory(factory)
+                                              .responseTimeoutMillis(0)
+                                              .build();
+            final Stopwatch stopwatch = Stopwatch.createStarted();
+            assertThatThrownBy(() -> client.get("/").aggregate().join())
+                    .isInstanceOf(CompletionException.class)
+                    .hasCauseInstanceOf(UnprocessedRequestException.class)
+                    .hasRootCauseInstanceOf(ConnectTimeoutException.class);
+            assertThat(stopwatch.elapsed().toMillis()).isLessThan(5000);
+        }
+    }
+}
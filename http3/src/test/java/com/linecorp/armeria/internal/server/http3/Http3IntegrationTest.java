@@ -0,0 +1,175 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.server.http3;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.google.common.base.Strings;
+
+import com.linecorp.armeria.client.ClientFactory;
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.ClientRequestContextCaptor;
+import com.linecorp.armeria.client.ClientTlsConfig;
+import com.linecorp.armeria.client.Clients;
+import com.linecorp.armeria.client.ResponseTimeoutException;
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpHeaders;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.TlsKeyPair;
+import com.linecorp.armeria.common.TlsProvider;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+class Http3IntegrationTest {
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.port(0, SessionProtocol.H3);
+            sb.tlsProvider(TlsProvider.of(TlsKeyPair.ofSelfSigned()));
+            sb.service("/hello", (ctx, req) -> HttpResponse.of("Hello, %s!", ctx.sessionProtocol()));
+            sb.service("/echo", (ctx, req) -> HttpResponse.of(req.aggregate().thenApply(
+                    agg -> HttpResponse.of(HttpStatus.OK, MediaType.PLAIN_TEXT_UTF_8, agg.content()))));
+            sb.service("/trailers", (ctx, req) -> HttpResponse.of(req.aggregate().thenApply(
+                    agg -> HttpResponse.of(ResponseHeaders.of(HttpStatus.OK), agg.content(), agg.trailers()))));
+            sb.service("/never", (ctx, req) -> HttpResponse.streaming());
+        }
+    };
+
+    private static ClientFactory clientFactory;
+
+    @BeforeAll
+    static void setUp() {
+        clientFactory = ClientFactory.builder()
+                                     .tlsProvider(TlsProvider.of(TlsKeyPair.ofSelfSigned()),
+                                                  ClientTlsConfig.builder().tlsNoVerify().build())
+                                     .build();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        clientFactory.closeAsync();
+    }
+
+    private static WebClient client() {
+        return WebClient.builder("h3://127.0.0.1:" + server.port(SessionProtocol.H3))
+                        .factory(clientFactory)
+                        .build();
+    }
+
+    @Test
+    void get() throws Exception {
+        final AggregatedHttpResponse res;
+        final ClientRequestContext cctx;
+        try (ClientRequestContextCaptor captor = Clients.newContextCaptor()) {
+            res = client().get("/hello").aggregate().join();
+            cctx = captor.get();
+        }
+        assertThat(res.status()).isEqualTo(HttpStatus.OK);
+        assertThat(res.contentUtf8()).isEqualTo("Hello, h3!");
+
+        final RequestLog clientLog = cctx.log().whenComplete().join();
+        assertThat(clientLog.sessionProtocol()).isEqualTo(SessionProtocol.H3);
+        assertThat(clientLog.responseHeaders().status()).isEqualTo(HttpStatus.OK);
+        assertThat(clientLog.responseLength()).isEqualTo("Hello, h3!".length());
+
+        final ServiceRequestContext sctx = server.requestContextCaptor().take();
+        assertThat(sctx.sessionProtocol()).isEqualTo(SessionProtocol.H3);
+        assertThat(sctx.sslSession()).isNotNull();
+        assertThat(sctx.<InetSocketAddress>remoteAddress().getAddress().isLoopbackAddress()).isTrue();
+        assertThat(sctx.<InetSocketAddress>localAddress().getPort())
+                .isEqualTo(server.port(SessionProtocol.H3));
+        final RequestLog serverLog = sctx.log().whenComplete().join();
+        assertThat(serverLog.responseHeaders().status()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void postLargeContent() {
+        // Larger than the initial flow control windows so that the streams have to wait for window updates.
+        final String content = Strings.repeat("0123456789abcdef", 1024 * 1024);
+        final AggregatedHttpResponse res = client().post("/echo", content).aggregate().join();
+        assertThat(res.status()).isEqualTo(HttpStatus.OK);
+        assertThat(res.contentUtf8()).isEqualTo(content);
+    }
+
+    @Test
+    void trailers() {
+        final HttpRequest req = HttpRequest.builder()
+                                           .post("/trailers")
+                                           .content(MediaType.PLAIN_TEXT_UTF_8, "foo")
+                                           .trailers(HttpHeaders.of("bar", "baz"))
+                                           .build();
+        final AggregatedHttpResponse res = client().execute(req).aggregate().join();
+        assertThat(res.contentUtf8()).isEqualTo("foo");
+        assertThat(res.trailers().get("bar")).isEqualTo("baz");
+    }
+
+    @Test
+    void concurrentRequests() {
+        final WebClient client = client();
+        final List<CompletableFuture<AggregatedHttpResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(client.execute(RequestHeaders.of(HttpMethod.GET, "/hello")).aggregate());
+        }
+        for (CompletableFuture<AggregatedHttpResponse> future : futures) {
+            assertThat(future.join().contentUtf8()).isEqualTo("Hello, h3!");
+        }
+    }
+
+    @Test
+    void responseTimeout() {
+        final WebClient client = WebClient.builder("h3://127.0.0.1:" + server.port(SessionProtocol.H3))
+                                          .factory(clientFactory)
+                                          .responseTimeout(Duration.ofMillis(500))
+                                          .build();
+        assertThatThrownBy(() -> client.get("/never").aggregate().join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(ResponseTimeoutException.class);
+    }
+
+    @Test
+    void contentLengthIsSet() {
+        final AggregatedHttpResponse res = client().get("/hello").aggregate().join();
+        assertThat(res.headers().contentLength()).isEqualTo("Hello, h3!".length());
+        assertThat(res.headers().contains(HttpHeaderNames.CONNECTION)).isFalse();
+    }
+}
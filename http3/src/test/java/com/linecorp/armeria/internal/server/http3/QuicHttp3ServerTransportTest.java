@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.server.http3;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.awaitility.Awaitility.await;
+
+import java.security.cert.Certificate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.ClientFactory;
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.ClientRequestContextCaptor;
+import com.linecorp.armeria.client.ClientTlsConfig;
+import com.linecorp.armeria.client.Clients;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.TlsKeyPair;
+import com.linecorp.armeria.common.TlsProvider;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.internal.common.util.ChannelUtil;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import io.netty.channel.EventLoop;
+
+class QuicHttp3ServerTransportTest {
+
+    private static final int NUM_WORKERS = 4;
+
+    private static final TlsKeyPair defaultKeyPair = TlsKeyPair.ofSelfSigned();
+    private static final TlsKeyPair fooKeyPair = TlsKeyPair.ofSelfSigned("foo.com");
+
+    private static final Set<EventLoop> serverEventLoops = ConcurrentHashMap.newKeySet();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.port(0, SessionProtocol.H3);
+            sb.workerGroup(NUM_WORKERS);
+            sb.tlsProvider(TlsProvider.builder()
+                                      .keyPair(defaultKeyPair)
+                                      .keyPair("foo.com", fooKeyPair)
+                                      .build());
+            sb.service("/", (ctx, req) -> {
+                serverEventLoops.add(ctx.eventLoop().withoutContext());
+                return HttpResponse.of(HttpStatus.OK);
+            });
+        }
+    };
+
+    private static ClientFactory newClientFactory() {
+        return ClientFactory.builder()
+                            .tlsProvider(TlsProvider.of(TlsKeyPair.ofSelfSigned()),
+                                         ClientTlsConfig.builder().tlsNoVerify().build())
+                            .build();
+    }
+
+    @Test
+    void connectionsAreDistributedAcrossWorkerEventLoops() {
+        assumeThat(ChannelUtil.reusePortOption(ChannelUtil.transportType(server.server().config()
+                                                                                  .workerGroup())))
+                .isNotNull();
+
+        serverEventLoops.clear();
+        // Each ClientFactory sends its requests from its own UDP socket, i.e. a different source port.
+        for (int i = 0; i < 16; i++) {
+            try (ClientFactory factory = newClientFactory()) {
+                final WebClient client =
+                        WebClient.builder("h3://127.0.0.1:" + server.port(SessionProtocol.H3))
+                                 .factory(factory)
+                                 .build();
+                assertThat(client.get("/").aggregate().join().status()).isEqualTo(HttpStatus.OK);
+            }
+        }
+        assertThat(serverEventLoops).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void sslContextOfServerNameIsResolvedInBackground() {
+        final Endpoint endpoint = Endpoint.of("foo.com", server.port(SessionProtocol.H3))
+                                          .withIpAddr("127.0.0.1");
+        // The first handshake may be done with the default key pair while the key pair of "foo.com" is
+        // resolved, but the following handshakes must use the key pair of "foo.com".
+        await().untilAsserted(() -> {
+            try (ClientFactory factory = newClientFactory()) {
+                assertThat(peerCertificate(factory, endpoint))
+                        .isEqualTo(fooKeyPair.certificateChain().get(0));
+            }
+        });
+    }
+
+    @Test
+    void defaultKeyPairIsUsedWithoutServerName() {
+        final Endpoint endpoint = Endpoint.of("127.0.0.1", server.port(SessionProtocol.H3));
+        try (ClientFactory factory = newClientFactory()) {
+            assertThat(peerCertificate(factory, endpoint))
+                    .isEqualTo(defaultKeyPair.certificateChain().get(0));
+        }
+    }
+
+    private static Certificate peerCertificate(ClientFactory factory, Endpoint endpoint) throws Exception {
+        final WebClient client = WebClient.builder(SessionProtocol.H3, endpoint)
+                                          .factory(factory)
+                                          .build();
+        final ClientRequestContext ctx;
+        try (ClientRequestContextCaptor captor = Clients.newContextCaptor()) {
+            assertThat(client.get("/").aggregate().join().status()).isEqualTo(HttpStatus.OK);
+            ctx = captor.get();
+        }
+        final RequestLog log = ctx.log().whenComplete().join();
+        assertThat(log.sslSession()).isNotNull();
+        return log.sslSession().getPeerCertificates()[0];
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.testing;
+
+import java.lang.reflect.Method;
+import java.util.ServiceLoader;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.opentest4j.TestAbortedException;
+
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.internal.server.Http3ServerTransport;
+
+/**
+ * An {@link InvocationInterceptor} which aborts the invocation of a parameterized test with
+ * {@link SessionProtocol#H3} if the {@code armeria-http3} module is not in the class path, so that a test
+ * which iterates over all {@link SessionProtocol}s does not have to exclude {@link SessionProtocol#H3}.
+ * The HTTP/3 specific behaviors are tested in the {@code armeria-http3} module.
+ *
+ * <p>This interceptor is registered automatically via {@code junit.jupiter.extensions.autodetection.enabled}.
+ */
+public final class Http3ArgumentInterceptor implements InvocationInterceptor {
+
+    private static final boolean HTTP3_AVAILABLE =
+            ServiceLoader.load(Http3ServerTransport.class,
+                               Http3ArgumentInterceptor.class.getClassLoader()).iterator().hasNext();
+
+    @Override
+    public void interceptTestTemplateMethod(Invocation<Void> invocation,
+                                            ReflectiveInvocationContext<Method> invocationContext,
+                                            ExtensionContext extensionContext) throws Throwable {
+        if (!HTTP3_AVAILABLE && invocationContext.getArguments().contains(SessionProtocol.H3)) {
+            invocation.skip();
+            throw new TestAbortedException("armeria-http3 module is not in the class path");
+        }
+        invocation.proceed();
+    }
+}
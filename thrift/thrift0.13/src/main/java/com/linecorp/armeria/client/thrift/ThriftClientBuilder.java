@@ -17,6 +17,8 @@
 package com.linecorp.armeria.client.thrift;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.linecorp.armeria.client.thrift.ThriftClientOptions.BATCH_DELAY_MILLIS;
+import static com.linecorp.armeria.client.thrift.ThriftClientOptions.MAX_BATCH_SIZE;
 import static com.linecorp.armeria.client.thrift.ThriftClientOptions.MAX_RESPONSE_CONTAINER_LENGTH;
 import static com.linecorp.armeria.client.thrift.ThriftClientOptions.MAX_RESPONSE_STRING_LENGTH;
 import static java.util.Objects.requireNonNull;
@@ -56,6 +58,7 @@ import com.linecorp.armeria.common.auth.AuthToken;
 import com.linecorp.armeria.common.auth.BasicToken;
 import com.linecorp.armeria.common.auth.OAuth1aToken;
 import com.linecorp.armeria.common.auth.OAuth2Token;
+import com.linecorp.armeria.common.logging.RequestLog;
 import com.linecorp.armeria.common.thrift.ThriftSerializationFormats;
 
 /**
@@ -178,6 +181,38 @@ public final class ThriftClientBuilder extends AbstractClientOptionsBuilder {
         return option(MAX_RESPONSE_CONTAINER_LENGTH.newValue(maxResponseContainerLength));
     }
 
+    /**
+     * Packs up to {@code maxBatchSize} calls to the same {@link Endpoint} and path into a single HTTP
+     * request. A call waits at most {@code maxDelay} for other calls before the request is sent, so that
+     * concurrent calls share one request and one response instead of a stream each.
+     * Batching is disabled by default.
+     *
+     * <p>Note that:
+     * <ul>
+     *   <li>The server must enable {@code THttpServiceBuilder.allowBatchedRequests(boolean)}.</li>
+     *   <li>Only the calls encoded with {@link ThriftSerializationFormats#BINARY} or
+     *       {@link ThriftSerializationFormats#COMPACT} can be batched.</li>
+     *   <li>Only the calls whose {@link ClientRequestContext}s have the same HTTP-level properties, such as
+     *       the additional request headers and the timeouts, are packed together.</li>
+     *   <li>The HTTP request of a batch is sent with a {@link ClientRequestContext} of its own. The
+     *       {@link RequestLog} of each call contains the session of the HTTP request and its own request
+     *       and response content, but not the HTTP headers.</li>
+     *   <li>The response timeout of a call starts when it is queued, and a call which is cancelled or
+     *       timed out fails alone.</li>
+     * </ul>
+     *
+     * @param maxBatchSize the maximum number of calls in a single HTTP request. {@code 1} disables batching.
+     * @param maxDelay the maximum time to wait for other calls
+     */
+    @UnstableApi
+    public ThriftClientBuilder batchCalls(int maxBatchSize, Duration maxDelay) {
+        checkArgument(maxBatchSize > 0, "maxBatchSize: %s (expected: > 0)", maxBatchSize);
+        requireNonNull(maxDelay, "maxDelay");
+        checkArgument(!maxDelay.isNegative(), "maxDelay: %s (expected: >= 0)", maxDelay);
+        option(MAX_BATCH_SIZE.newValue(maxBatchSize));
+        return option(BATCH_DELAY_MILLIS.newValue(maxDelay.toMillis()));
+    }
+
     /**
      * Returns a newly-created Thrift client which implements the specified {@code clientType}, based on the
      * properties of this builder.
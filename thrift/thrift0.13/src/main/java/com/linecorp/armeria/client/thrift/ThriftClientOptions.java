@@ -18,6 +18,7 @@ package com.linecorp.armeria.client.thrift;
 
 import com.linecorp.armeria.client.ClientOption;
 import com.linecorp.armeria.client.ClientOptions;
+import com.linecorp.armeria.client.Endpoint;
 import com.linecorp.armeria.common.annotation.UnstableApi;
 
 /**
@@ -41,5 +42,22 @@ public final class ThriftClientOptions {
     public static final ClientOption<Integer> MAX_RESPONSE_CONTAINER_LENGTH =
             ClientOption.define("THRIFT_MAX_CONTAINER_LENGTH", -1);
 
+    /**
+     * The maximum number of calls to the same {@link Endpoint} and path which are packed into a single
+     * HTTP request. {@code 1} disables batching, which is the default.
+     * Note that the server must enable {@code THttpServiceBuilder.allowBatchedRequests(boolean)}.
+     */
+    @UnstableApi
+    public static final ClientOption<Integer> MAX_BATCH_SIZE =
+            ClientOption.define("THRIFT_MAX_BATCH_SIZE", 1);
+
+    /**
+     * The maximum number of milliseconds a call waits for other calls to be packed together into a single
+     * HTTP request. This option is used only when {@link #MAX_BATCH_SIZE} is greater than {@code 1}.
+     */
+    @UnstableApi
+    public static final ClientOption<Long> BATCH_DELAY_MILLIS =
+            ClientOption.define("THRIFT_BATCH_DELAY_MILLIS", 0L);
+
     private ThriftClientOptions() {}
 }
@@ -54,6 +54,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.MapMaker;
 
 import com.linecorp.armeria.common.annotation.Nullable;
@@ -61,7 +62,7 @@ import com.linecorp.armeria.common.util.SystemInfo;
 import com.linecorp.armeria.internal.common.thrift.ThriftMetadataAccess;
 
 /**
- * A struct parsing context. Builds a map from field name to TField.
+ * A struct parsing context. Looks up a field by its name from the cached {@link StructMetadata}.
  *
  * @author Alex Roetter
  */
@@ -70,6 +71,21 @@ final class StructContext extends PairContext {
     private static final Supplier<Class<?>> thriftMessageClassFinder;
     private static final Map<String, Class<?>> fieldMetaDataClassCache = new MapMaker().weakValues().makeMap();
 
+    // The field metadata of a struct never changes, so it is computed only once per struct class
+    // instead of every time a struct is read or written.
+    private static final ClassValue<StructMetadata> structMetadataCache = new ClassValue<StructMetadata>() {
+        @Override
+        protected StructMetadata computeValue(Class<?> type) {
+            return new StructMetadata(type);
+        }
+    };
+
+    /**
+     * The metadata used when the class of the struct is not needed, e.g. when writing a struct without
+     * named enums. Using it avoids walking the call stack to find the class.
+     */
+    static final StructMetadata EMPTY_METADATA = new StructMetadata(ImmutableMap.of(), ImmutableMap.of());
+
     static {
         Supplier<Class<?>> supplier = null;
         if (SystemInfo.javaVersion() >= 9) {
@@ -84,39 +100,37 @@ final class StructContext extends PairContext {
         thriftMessageClassFinder = supplier != null ? supplier : new DefaultThriftMessageClassFinder();
     }
 
-    // When processing a given thrift struct, we need certain information
-    // for every field in that struct. We store that here, in a map
-    // from fieldName (a string) to a TField object describing that
-    // field.
-    private final Map<String, TField> fieldNameMap;
-
-    private final Map<String, Class<?>> classMap;
+    private final StructMetadata metadata;
 
     /**
-     * Build the name -> TField map.
+     * Looks up the metadata of the struct whose {@code read()} or {@code write()} method is being called.
      */
     StructContext(@Nullable JsonNode json) {
         this(json, getCurrentThriftMessageClass());
     }
 
     StructContext(@Nullable JsonNode json, Class<?> clazz) {
+        this(json, structMetadataCache.get(clazz));
+    }
+
+    StructContext(@Nullable JsonNode json, StructMetadata metadata) {
         super(json);
-        classMap = new HashMap<>();
-        fieldNameMap = computeFieldNameMap(clazz);
+        this.metadata = metadata;
     }
 
     @Override
     protected TField getTFieldByName(String name) throws TException {
-        if (!fieldNameMap.containsKey(name)) {
+        final TField field = metadata.fieldNameMap.get(name);
+        if (field == null) {
             throw new TException("Unknown field: " + name);
         }
-        return fieldNameMap.get(name);
+        return field;
     }
 
     @Override
     @Nullable
     protected Class<?> getClassByFieldName(String fieldName) {
-        return classMap.get(fieldName);
+        return metadata.classMap.get(fieldName);
     }
 
     /**
@@ -160,11 +174,10 @@ final class StructContext extends PairContext {
     }
 
     /**
-     * Compute a new field name map for the current thrift message
-     * we are parsing.
+     * Compute a new field name map for the given thrift message class.
      */
-    private <T extends TBase<T, F>, F extends TFieldIdEnum> Map<String, TField> computeFieldNameMap(
-            Class<?> clazz) {
+    private static <T extends TBase<T, F>, F extends TFieldIdEnum> Map<String, TField> computeFieldNameMap(
+            Class<?> clazz, Map<String, Class<?>> classMap) {
         final Map<String, TField> map = new HashMap<>();
 
         if (isTBase(clazz)) {
@@ -176,7 +189,7 @@ final class StructContext extends PairContext {
             for (Entry<? extends TFieldIdEnum, FieldMetaData> e : metaDataMap.entrySet()) {
                 final String fieldName = e.getKey().getFieldName();
                 final FieldMetaData metaData = e.getValue();
-                updateClassMap(metaData, clazz);
+                updateClassMap(metaData, clazz, classMap);
 
                 // Workaround a bug in the generated thrift message read()
                 // method by mapping the ENUM type to the INT32 type
@@ -199,7 +212,8 @@ final class StructContext extends PairContext {
         return map;
     }
 
-    private void updateClassMap(FieldMetaData metaData, Class<?> clazz) {
+    private static void updateClassMap(FieldMetaData metaData, Class<?> clazz,
+                                       Map<String, Class<?>> classMap) {
         final String fieldName = metaData.fieldName;
 
         final FieldValueMetaData elementMetaData;
@@ -214,11 +228,11 @@ final class StructContext extends PairContext {
 
                 final FieldMetaData keyMetaData = new FieldMetaData(
                         fieldName + TTextProtocol.MAP_KEY_SUFFIX, req, mapMetaData.keyMetaData);
-                updateClassMap(keyMetaData, clazz);
+                updateClassMap(keyMetaData, clazz, classMap);
 
                 final FieldMetaData valueMetaData = new FieldMetaData(
                         fieldName + TTextProtocol.MAP_VALUE_SUFFIX, req, mapMetaData.valueMetaData);
-                updateClassMap(valueMetaData, clazz);
+                updateClassMap(valueMetaData, clazz, classMap);
 
                 return;
             } else {
@@ -256,4 +270,28 @@ final class StructContext extends PairContext {
             }
         }
     }
+
+    /**
+     * The field metadata of a struct class, which maps a field name to the {@link TField} and
+     * the Java class of the field.
+     */
+    static final class StructMetadata {
+        // When processing a given thrift struct, we need certain information
+        // for every field in that struct. We store that here, in a map
+        // from fieldName (a string) to a TField object describing that
+        // field.
+        final Map<String, TField> fieldNameMap;
+        final Map<String, Class<?>> classMap;
+
+        StructMetadata(Class<?> clazz) {
+            final Map<String, Class<?>> classMap = new HashMap<>();
+            fieldNameMap = ImmutableMap.copyOf(computeFieldNameMap(clazz, classMap));
+            this.classMap = ImmutableMap.copyOf(classMap);
+        }
+
+        StructMetadata(Map<String, TField> fieldNameMap, Map<String, Class<?>> classMap) {
+            this.fieldNameMap = fieldNameMap;
+            this.classMap = classMap;
+        }
+    }
 }
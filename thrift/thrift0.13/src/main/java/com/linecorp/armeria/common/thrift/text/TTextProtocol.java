@@ -32,10 +32,12 @@ package com.linecorp.armeria.common.thrift.text;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
-import java.util.Stack;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import org.apache.thrift.TBase;
@@ -61,10 +63,10 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser.Feature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.primitives.Ints;
 
 import com.linecorp.armeria.common.annotation.Nullable;
-import com.linecorp.armeria.internal.common.util.TemporaryThreadLocals;
 
 /**
  * A simple text format for serializing/deserializing Thrift
@@ -122,14 +124,25 @@ final class TTextProtocol extends TProtocol {
 
     private static final TStruct ANONYMOUS_STRUCT = new TStruct();
 
-    // How many bytes to read at once.
-    private static final int READ_BUFFER_SIZE = 1024;
     private static final byte UNUSED_TYPE = TType.STOP;
 
-    private final Stack<WriterByteArrayOutputStream> writers;
-    private final Stack<BaseContext> contextStack;
-    private final Stack<BaseContext> currentFieldContext;
-    private final Stack<String> currentFieldName;
+    // Maps the value of an enum constant to its name, which is looked up for every named enum written.
+    private static final ClassValue<Map<Integer, String>> enumNameCache =
+            new ClassValue<Map<Integer, String>>() {
+                @Override
+                protected Map<Integer, String> computeValue(Class<?> type) {
+                    final Map<Integer, String> names = new HashMap<>();
+                    for (Object constant : type.getEnumConstants()) {
+                        names.putIfAbsent(((TEnum) constant).getValue(), constant.toString());
+                    }
+                    return ImmutableMap.copyOf(names);
+                }
+            };
+
+    private final Deque<WriterByteArrayOutputStream> writers;
+    private final Deque<BaseContext> contextStack;
+    private final Deque<BaseContext> currentFieldContext;
+    private final Deque<String> currentFieldName;
     private final boolean useNamedEnums;
     @Nullable
     private JsonNode root;
@@ -149,10 +162,10 @@ final class TTextProtocol extends TProtocol {
     TTextProtocol(TTransport trans, boolean useNamedEnums) {
         super(trans);
 
-        writers = new Stack<>();
-        contextStack = new Stack<>();
-        currentFieldContext = new Stack<>();
-        currentFieldName = new Stack<>();
+        writers = new ArrayDeque<>();
+        contextStack = new ArrayDeque<>();
+        currentFieldContext = new ArrayDeque<>();
+        currentFieldName = new ArrayDeque<>();
         this.useNamedEnums = useNamedEnums;
         reset();
     }
@@ -210,7 +223,15 @@ final class TTextProtocol extends TProtocol {
     @Override
     public void writeStructBegin(TStruct struct) throws TException {
         writeCurrentContext();
-        writeJsonObjectBegin(new StructContext(null));
+        final StructContext context;
+        if (!useNamedEnums) {
+            // The field classes are used only for writing named enums.
+            context = new StructContext(null, StructContext.EMPTY_METADATA);
+        } else {
+            final Class<?> fieldClass = getCurrentFieldClassIfIs(TBase.class);
+            context = fieldClass != null ? new StructContext(null, fieldClass) : new StructContext(null);
+        }
+        writeJsonObjectBegin(context);
     }
 
     @Override
@@ -374,14 +395,12 @@ final class TTextProtocol extends TProtocol {
             return;
         }
 
-        try {
-            final Method method = fieldClass.getMethod("findByValue", int.class);
-            final String str = method.invoke(null, i32).toString();
-            writeNameOrValue(TypedParser.STRING, str);
-        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+        final String str = fieldClass.isEnum() ? enumNameCache.get(fieldClass).get(i32) : null;
+        if (str == null) {
             throw new TTransportException("invalid value for enum field " +
                                           fieldClass.getSimpleName() + ':' + i32);
         }
+        writeNameOrValue(TypedParser.STRING, str);
     }
 
     @Override
@@ -725,20 +744,8 @@ final class TTextProtocol extends TProtocol {
         if (root != null) {
             return;
         }
-        final ByteArrayOutputStream content = new ByteArrayOutputStream();
-        try (TemporaryThreadLocals tempThreadLocals = TemporaryThreadLocals.acquire()) {
-            final byte[] buffer = tempThreadLocals.byteArray(READ_BUFFER_SIZE);
-            try {
-                while (trans_.read(buffer, 0, READ_BUFFER_SIZE) > 0) {
-                    content.write(buffer);
-                }
-            } catch (TTransportException e) {
-                if (TTransportException.END_OF_FILE != e.getType()) {
-                    throw new IOException(e);
-                }
-            }
-            root = OBJECT_MAPPER.readTree(content.toByteArray());
-        }
+        // Parse directly from the transport rather than copying its content into a byte array first.
+        root = OBJECT_MAPPER.readTree(new TTransportInputStream());
     }
 
     /**
@@ -896,6 +903,33 @@ final class TTextProtocol extends TProtocol {
         }
     }
 
+    /**
+     * An input stream that reads all data from a TTransport until its end.
+     */
+    private class TTransportInputStream extends InputStream {
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return read(b, 0, 1) > 0 ? b[0] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            try {
+                final int numRead = trans_.read(b, off, len);
+                return numRead > 0 ? numRead : -1;
+            } catch (TTransportException e) {
+                if (TTransportException.END_OF_FILE != e.getType()) {
+                    throw new IOException(e);
+                }
+                return -1;
+            }
+        }
+    }
+
     /**
      * Just a byte array output stream that forwards all data to
      * a TTransport when it is flushed or closed.
@@ -914,8 +948,8 @@ final class TTextProtocol extends TProtocol {
         public void flush() throws IOException {
             try {
                 super.flush();
-                final byte[] bytes = toByteArray();
-                trans_.write(bytes);
+                // Write the internal buffer as is rather than a copy of it.
+                trans_.write(buf, 0, count);
                 trans_.flush();
             } catch (TTransportException ex) {
                 throw new IOException(ex);
@@ -16,13 +16,22 @@
 
 package com.linecorp.armeria.internal.client.thrift;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.linecorp.armeria.client.thrift.ThriftClientOptions.BATCH_DELAY_MILLIS;
+import static com.linecorp.armeria.client.thrift.ThriftClientOptions.MAX_BATCH_SIZE;
 import static com.linecorp.armeria.client.thrift.ThriftClientOptions.MAX_RESPONSE_CONTAINER_LENGTH;
 import static com.linecorp.armeria.client.thrift.ThriftClientOptions.MAX_RESPONSE_STRING_LENGTH;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.thrift.TApplicationException;
@@ -42,14 +51,17 @@ import com.google.common.primitives.Ints;
 import com.linecorp.armeria.client.ClientOptions;
 import com.linecorp.armeria.client.ClientRequestContext;
 import com.linecorp.armeria.client.DecoratingClient;
+import com.linecorp.armeria.client.Endpoint;
 import com.linecorp.armeria.client.HttpClient;
 import com.linecorp.armeria.client.InvalidResponseHeadersException;
+import com.linecorp.armeria.client.ResponseTimeoutMode;
 import com.linecorp.armeria.client.RpcClient;
 import com.linecorp.armeria.client.UnprocessedRequestException;
 import com.linecorp.armeria.client.circuitbreaker.FailFastException;
 import com.linecorp.armeria.common.AggregationOptions;
 import com.linecorp.armeria.common.CompletableRpcResponse;
 import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpHeaders;
 import com.linecorp.armeria.common.HttpMethod;
 import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.HttpResponse;
@@ -59,21 +71,29 @@ import com.linecorp.armeria.common.RequestHeaders;
 import com.linecorp.armeria.common.RpcRequest;
 import com.linecorp.armeria.common.RpcResponse;
 import com.linecorp.armeria.common.SerializationFormat;
+import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.logging.RequestLogAccess;
+import com.linecorp.armeria.common.logging.RequestLogBuilder;
 import com.linecorp.armeria.common.logging.RequestLogProperty;
 import com.linecorp.armeria.common.thrift.ThriftCall;
 import com.linecorp.armeria.common.thrift.ThriftReply;
 import com.linecorp.armeria.common.thrift.ThriftSerializationFormats;
 import com.linecorp.armeria.common.util.CompletionActions;
 import com.linecorp.armeria.common.util.Exceptions;
+import com.linecorp.armeria.internal.client.ClientRequestContextExtension;
+import com.linecorp.armeria.internal.client.ClientUtil;
 import com.linecorp.armeria.internal.common.thrift.TApplicationExceptions;
 import com.linecorp.armeria.internal.common.thrift.TByteBufTransport;
 import com.linecorp.armeria.internal.common.thrift.ThriftFieldAccess;
 import com.linecorp.armeria.internal.common.thrift.ThriftFunction;
+import com.linecorp.armeria.internal.common.thrift.ThriftHttpHeaderNames;
 import com.linecorp.armeria.internal.common.thrift.ThriftProtocolUtil;
 import com.linecorp.armeria.internal.common.thrift.ThriftServiceMetadata;
+import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 
 final class THttpClientDelegate extends DecoratingClient<HttpRequest, HttpResponse, RpcRequest, RpcResponse>
         implements RpcClient {
@@ -88,6 +108,11 @@ final class THttpClientDelegate extends DecoratingClient<HttpRequest, HttpRespon
     private final MediaType mediaType;
     private final Map<Class<?>, ThriftServiceMetadata> metadataMap = new ConcurrentHashMap<>();
 
+    private final int maxBatchSize;
+    private final long batchDelayMillis;
+    private final ReentrantShortLock batchLock = new ReentrantShortLock();
+    private final Map<BatchKey, Batch> pendingBatches = new HashMap<>();
+
     THttpClientDelegate(HttpClient httpClient, ClientOptions options, SerializationFormat serializationFormat) {
         super(httpClient);
         this.serializationFormat = serializationFormat;
@@ -106,6 +131,11 @@ final class THttpClientDelegate extends DecoratingClient<HttpRequest, HttpRespon
                                                            maxStringLength, maxContainerLength);
         this.maxStringLength = maxStringLength;
         mediaType = serializationFormat.mediaType();
+        maxBatchSize = options.get(MAX_BATCH_SIZE);
+        checkArgument(maxBatchSize <= 1 || ThriftProtocolUtil.isBatchable(serializationFormat),
+                      "Cannot batch the calls encoded with %s (expected: %s or %s)", serializationFormat,
+                      ThriftSerializationFormats.BINARY, ThriftSerializationFormats.COMPACT);
+        batchDelayMillis = options.get(BATCH_DELAY_MILLIS);
     }
 
     @Override
@@ -131,7 +161,7 @@ final class THttpClientDelegate extends DecoratingClient<HttpRequest, HttpRespon
         try {
             final TMessage header = new TMessage(fullMethod(ctx, func.name()), func.messageType(), seqId);
 
-            final ByteBuf buf = ctx.alloc().buffer(128);
+            final ByteBuf buf = ctx.alloc().buffer(func.encodedSizeHint());
 
             try {
                 final TByteBufTransport outTransport = new TByteBufTransport(buf);
@@ -141,6 +171,7 @@ final class THttpClientDelegate extends DecoratingClient<HttpRequest, HttpRespon
                 final TBase tArgs = func.newArgs(args);
                 tArgs.write(tProtocol);
                 tProtocol.writeMessageEnd();
+                func.updateEncodedSizeHint(buf.readableBytes());
 
                 ctx.logBuilder().requestContent(call, new ThriftCall(header, tArgs));
             } catch (Throwable t) {
@@ -148,6 +179,21 @@ final class THttpClientDelegate extends DecoratingClient<HttpRequest, HttpRespon
                 Exceptions.throwUnsafely(t);
             }
 
+            if (maxBatchSize > 1 && ctx.endpoint() != null) {
+                addToBatch(new BatchedCall(ctx, seqId, func, reply, buf));
+            } else {
+                execute0(ctx, seqId, func, reply, buf);
+            }
+        } catch (Throwable cause) {
+            handlePreDecodeException(ctx, reply, func, cause, null);
+        }
+
+        return reply;
+    }
+
+    private void execute0(ClientRequestContext ctx, int seqId, ThriftFunction func,
+                          CompletableRpcResponse reply, ByteBuf buf) {
+        try {
             final HttpRequest httpReq = HttpRequest.of(
                     RequestHeaders.builder(HttpMethod.POST, ctx.path())
                                   .scheme(ctx.sessionProtocol())
@@ -166,7 +212,7 @@ final class THttpClientDelegate extends DecoratingClient<HttpRequest, HttpRespon
                 throw t;
             }
 
-            httpResponse.aggregate(AggregationOptions.usePooledObjects(ctx.alloc(), ctx.eventLoop()))
+            httpResponse.aggregate(newAggregationOptions(ctx))
                         .handle((res, cause) -> {
                             if (cause != null) {
                                 handlePreDecodeException(ctx, reply, func, Exceptions.peel(cause), httpReq);
@@ -194,8 +240,254 @@ final class THttpClientDelegate extends DecoratingClient<HttpRequest, HttpRespon
         } catch (Throwable cause) {
             handlePreDecodeException(ctx, reply, func, cause, null);
         }
+    }
 
-        return reply;
+    private void addToBatch(BatchedCall call) {
+        // The call is not sent with its own context, so start its response timeout here and
+        // fail the call alone when it is cancelled or timed out. Register them before the call is visible
+        // to a flush, which may send and complete the call on another event loop.
+        startResponseTimeout(call.ctx);
+        call.ctx.whenResponseCancelled().thenAccept(cause -> cancel(call, cause));
+
+        final BatchKey key = call.key;
+        Batch fullBatch = null;
+        batchLock.lock();
+        try {
+            if (call.cancellationCause != null) {
+                // Cancelled before it is queued. The reply was failed by cancel() already.
+                call.buf.release();
+                endRequestAndResponse(call, call.cancellationCause);
+                return;
+            }
+            Batch batch = pendingBatches.get(key);
+            if (batch == null) {
+                final Batch newBatch = new Batch(key, maxBatchSize);
+                newBatch.flushFuture = call.ctx.eventLoop().schedule(() -> flush(newBatch),
+                                                                     batchDelayMillis, TimeUnit.MILLISECONDS);
+                pendingBatches.put(key, newBatch);
+                batch = newBatch;
+            }
+            batch.calls.add(call);
+            if (batch.calls.size() >= maxBatchSize) {
+                pendingBatches.remove(key);
+                fullBatch = batch;
+            }
+        } finally {
+            batchLock.unlock();
+        }
+
+        if (fullBatch != null) {
+            assert fullBatch.flushFuture != null;
+            fullBatch.flushFuture.cancel(false);
+            send(fullBatch.calls);
+        }
+    }
+
+    private void flush(Batch batch) {
+        batchLock.lock();
+        try {
+            if (!pendingBatches.remove(batch.key, batch)) {
+                // Sent already because the batch became full or all of its calls were cancelled.
+                return;
+            }
+        } finally {
+            batchLock.unlock();
+        }
+        send(batch.calls);
+    }
+
+    private void cancel(BatchedCall call, Throwable cause) {
+        boolean queued = false;
+        batchLock.lock();
+        try {
+            call.cancellationCause = cause;
+            final Batch batch = pendingBatches.get(call.key);
+            if (batch != null && batch.calls.remove(call)) {
+                queued = true;
+                if (batch.calls.isEmpty()) {
+                    pendingBatches.remove(call.key);
+                    assert batch.flushFuture != null;
+                    batch.flushFuture.cancel(false);
+                }
+            }
+        } finally {
+            batchLock.unlock();
+        }
+
+        // A call which was sent already ignores its reply.
+        handlePreDecodeException(call.ctx, call.reply, call.func, cause, null);
+        if (queued) {
+            call.buf.release();
+            // The call is never sent, so nothing else completes its log.
+            endRequestAndResponse(call, cause);
+        }
+    }
+
+    private static void endRequestAndResponse(BatchedCall call, Throwable cause) {
+        call.ctx.logBuilder().endRequest(cause);
+        endResponse(call, cause);
+    }
+
+    private static void startResponseTimeout(ClientRequestContext ctx) {
+        if (ctx.responseTimeoutMode() != ResponseTimeoutMode.REQUEST_SENT) {
+            // Started already when the context was initialized.
+            return;
+        }
+        final ClientRequestContextExtension ctxExtension = ctx.as(ClientRequestContextExtension.class);
+        if (ctxExtension != null) {
+            ctxExtension.responseCancellationScheduler().start();
+        }
+    }
+
+    private void send(List<BatchedCall> calls) {
+        if (calls.size() == 1) {
+            final BatchedCall call = calls.get(0);
+            execute0(call.ctx, call.seqId, call.func, call.reply, call.buf);
+            return;
+        }
+
+        final ClientRequestContext firstCtx = calls.get(0).ctx;
+        final CompositeByteBuf buf = firstCtx.alloc().compositeBuffer(calls.size());
+        for (BatchedCall call : calls) {
+            buf.addComponent(true, call.buf);
+        }
+
+        // The calls have the same HTTP-level properties, but send the request with a context of its own so
+        // that a cancelled or timed out call does not abort the request of the other calls.
+        final HttpRequest httpReq;
+        final ClientRequestContext batchCtx;
+        try {
+            httpReq = HttpRequest.of(
+                    RequestHeaders.builder(HttpMethod.POST, firstCtx.path())
+                                  .scheme(firstCtx.sessionProtocol())
+                                  .contentType(mediaType)
+                                  .setInt(ThriftHttpHeaderNames.THRIFT_BATCH, calls.size())
+                                  .build(),
+                    HttpData.wrap(buf).withEndOfStream());
+            batchCtx = firstCtx.newDerivedContext(firstCtx.options().requestIdGenerator().get(),
+                                                  httpReq, null, firstCtx.endpoint());
+        } catch (Throwable cause) {
+            buf.release();
+            handleBatchException(calls, cause, null);
+            return;
+        }
+
+        batchCtx.logBuilder().serializationFormat(serializationFormat);
+        final RequestLogAccess batchLog = batchCtx.log();
+        for (BatchedCall call : calls) {
+            final RequestLogBuilder logBuilder = call.ctx.logBuilder();
+            batchLog.whenAvailable(RequestLogProperty.SESSION).thenAccept(log -> {
+                logBuilder.session(log.channel(), log.sessionProtocol(), log.sslSession(),
+                                   log.connectionTimings());
+            });
+            batchLog.whenRequestComplete().thenAccept(log -> {
+                final Throwable requestCause = log.requestCause();
+                if (requestCause != null) {
+                    logBuilder.endRequest(requestCause);
+                } else {
+                    logBuilder.endRequest();
+                }
+            });
+        }
+
+        final HttpResponse httpResponse =
+                ClientUtil.executeWithFallback(unwrap(), batchCtx,
+                                               (unused, cause) -> HttpResponse.ofFailure(cause));
+        httpResponse.aggregate(newAggregationOptions(batchCtx))
+                    .handle((res, cause) -> {
+                        if (cause != null) {
+                            handleBatchException(calls, Exceptions.peel(cause), httpReq);
+                            return null;
+                        }
+
+                        try (HttpData content = res.content()) {
+                            if (res.status().code() != HttpStatus.OK.code()) {
+                                handleBatchException(calls, new InvalidResponseHeadersException(res.headers()),
+                                                     httpReq);
+                                return null;
+                            }
+                            handleBatch(calls, content);
+                        }
+                        return null;
+                    }).exceptionally(CompletionActions::log);
+    }
+
+    private void handleBatch(List<BatchedCall> calls, HttpData content) {
+        final Map<Integer, BatchedCall> pendingCalls = new HashMap<>();
+        for (BatchedCall call : calls) {
+            if (call.func.isOneWay()) {
+                handleSuccess(call.ctx, call.reply, null, null);
+                endResponse(call, null);
+            } else {
+                pendingCalls.put(call.seqId, call);
+            }
+        }
+
+        // The replies are in the order of completion, so match them by their sequence IDs.
+        final ByteBuf buf = content.byteBuf();
+        final TProtocol inputProtocol = responseProtocolFactory.getProtocol(new TByteBufTransport(buf));
+        BatchedCall current = null;
+        try {
+            while (!pendingCalls.isEmpty() && buf.isReadable()) {
+                ThriftProtocolUtil.maybeCheckMessageLength(serializationFormat, buf, maxStringLength);
+                final TMessage header = inputProtocol.readMessageBegin();
+                current = pendingCalls.remove(header.seqid);
+                if (current == null) {
+                    throw new TApplicationException(TApplicationException.BAD_SEQUENCE_ID);
+                }
+                handleReply(current.ctx, current.seqId, current.reply, current.func, inputProtocol, header);
+                endResponse(current, null);
+                current = null;
+            }
+        } catch (Throwable cause) {
+            // The rest of the content cannot be decoded.
+            if (current != null) {
+                pendingCalls.put(current.seqId, current);
+            }
+            handleBatchException(pendingCalls.values(), cause, null);
+            return;
+        }
+
+        if (!pendingCalls.isEmpty()) {
+            handleBatchException(pendingCalls.values(),
+                                 new TApplicationException(TApplicationException.MISSING_RESULT), null);
+        }
+    }
+
+    private static void handleBatchException(Collection<BatchedCall> calls, Throwable cause,
+                                             @Nullable HttpRequest request) {
+        if (request != null) {
+            // abort the request to potentially release pooled buffers
+            request.abort(cause);
+        }
+        for (BatchedCall call : calls) {
+            handlePreDecodeException(call.ctx, call.reply, call.func, cause, null);
+            endResponse(call, cause);
+        }
+    }
+
+    private static void endResponse(BatchedCall call, @Nullable Throwable cause) {
+        final ClientRequestContextExtension ctxExtension =
+                call.ctx.as(ClientRequestContextExtension.class);
+        if (ctxExtension != null) {
+            // The call is done, so it must not time out anymore.
+            ctxExtension.responseCancellationScheduler().cancelScheduled();
+        }
+        final RequestLogBuilder logBuilder = call.ctx.logBuilder();
+        if (cause != null) {
+            logBuilder.endResponse(cause);
+        } else {
+            logBuilder.endResponse();
+        }
+    }
+
+    private static AggregationOptions newAggregationOptions(ClientRequestContext ctx) {
+        // Decode the received buffers in place rather than merging them into a new buffer.
+        return AggregationOptions.builder()
+                                 .usePooledObjects(ctx.alloc())
+                                 .executor(ctx.eventLoop())
+                                 .compositeContent(true)
+                                 .build();
     }
 
     private static String fullMethod(ClientRequestContext ctx, String method) {
@@ -237,6 +529,12 @@ final class THttpClientDelegate extends DecoratingClient<HttpRequest, HttpRespon
         final TTransport inputTransport = new TByteBufTransport(buf);
         final TProtocol inputProtocol = responseProtocolFactory.getProtocol(inputTransport);
         final TMessage header = inputProtocol.readMessageBegin();
+        handleReply(ctx, seqId, reply, func, inputProtocol, header);
+    }
+
+    private static void handleReply(ClientRequestContext ctx, int seqId, CompletableRpcResponse reply,
+                                    ThriftFunction func, TProtocol inputProtocol,
+                                    TMessage header) throws TException {
         final TApplicationException appEx = readApplicationException(seqId, func, inputProtocol, header);
         if (appEx != null) {
             handleException(ctx, reply, new ThriftReply(header, appEx), appEx);
@@ -341,4 +639,100 @@ final class THttpClientDelegate extends DecoratingClient<HttpRequest, HttpRespon
             return new TTransportException(cause);
         }
     }
+
+    private static final class BatchedCall {
+
+        private final BatchKey key;
+        private final ClientRequestContext ctx;
+        private final int seqId;
+        private final ThriftFunction func;
+        private final CompletableRpcResponse reply;
+        private final ByteBuf buf;
+        // Guarded by THttpClientDelegate.batchLock.
+        @Nullable
+        private Throwable cancellationCause;
+
+        BatchedCall(ClientRequestContext ctx, int seqId, ThriftFunction func,
+                    CompletableRpcResponse reply, ByteBuf buf) {
+            key = new BatchKey(ctx);
+            this.ctx = ctx;
+            this.seqId = seqId;
+            this.func = func;
+            this.reply = reply;
+            this.buf = buf;
+        }
+    }
+
+    private static final class Batch {
+
+        private final BatchKey key;
+        private final List<BatchedCall> calls;
+        @Nullable
+        private ScheduledFuture<?> flushFuture;
+
+        Batch(BatchKey key, int maxBatchSize) {
+            this.key = key;
+            calls = new ArrayList<>(maxBatchSize);
+        }
+    }
+
+    /**
+     * The HTTP-level properties of a call. Only the calls with the same properties are sent together,
+     * because the HTTP request of a batch is sent with the properties of one of them.
+     */
+    private static final class BatchKey {
+
+        private final Endpoint endpoint;
+        private final SessionProtocol sessionProtocol;
+        private final String path;
+        @Nullable
+        private final String query;
+        private final HttpHeaders additionalRequestHeaders;
+        private final long responseTimeoutMillis;
+        private final long writeTimeoutMillis;
+        private final long maxResponseLength;
+        // Compared by identity because the options contain the decorators.
+        private final ClientOptions options;
+
+        BatchKey(ClientRequestContext ctx) {
+            final Endpoint endpoint = ctx.endpoint();
+            assert endpoint != null;
+            this.endpoint = endpoint;
+            sessionProtocol = ctx.sessionProtocol();
+            path = ctx.path();
+            query = ctx.query();
+            additionalRequestHeaders = ctx.additionalRequestHeaders();
+            responseTimeoutMillis = ctx.responseTimeoutMillis();
+            writeTimeoutMillis = ctx.writeTimeoutMillis();
+            maxResponseLength = ctx.maxResponseLength();
+            options = ctx.options();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BatchKey)) {
+                return false;
+            }
+            final BatchKey that = (BatchKey) o;
+            return endpoint.equals(that.endpoint) &&
+                   sessionProtocol == that.sessionProtocol &&
+                   path.equals(that.path) &&
+                   Objects.equals(query, that.query) &&
+                   additionalRequestHeaders.equals(that.additionalRequestHeaders) &&
+                   responseTimeoutMillis == that.responseTimeoutMillis &&
+                   writeTimeoutMillis == that.writeTimeoutMillis &&
+                   maxResponseLength == that.maxResponseLength &&
+                   options == that.options;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(endpoint, sessionProtocol, path, query, additionalRequestHeaders,
+                                responseTimeoutMillis, writeTimeoutMillis, maxResponseLength,
+                                System.identityHashCode(options));
+        }
+    }
 }
@@ -45,6 +45,9 @@ import com.linecorp.armeria.internal.server.annotation.DecoratorAnnotationUtil.D
  */
 public final class ThriftFunction {
 
+    private static final int MIN_ENCODED_SIZE_HINT = 128;
+    private static final int MAX_ENCODED_SIZE_HINT = 1024 * 1024;
+
     private enum Type {
         SYNC,
         ASYNC
@@ -64,6 +67,8 @@ public final class ThriftFunction {
     private final Map<Class<Throwable>, TFieldIdEnum> exceptionFields;
     private final Class<?>[] declaredExceptions;
     private final List<DecoratorAndOrder> declaredDecorators;
+    // Updated without synchronization because a stale value only costs an extra buffer expansion.
+    private volatile int encodedSizeHint = MIN_ENCODED_SIZE_HINT;
 
     ThriftFunction(Class<?> serviceType, ProcessFunction<?, ?> func,
                    @Nullable Object implementation) throws Exception {
@@ -248,6 +253,30 @@ public final class ThriftFunction {
         return newArgs;
     }
 
+    /**
+     * Returns the estimated number of bytes of a message encoded for this function, which is the call
+     * message on the client side and the reply message on the server side. Use it as the initial capacity
+     * of the buffer to encode the message into, so that the buffer is rarely expanded and copied.
+     */
+    public int encodedSizeHint() {
+        return encodedSizeHint;
+    }
+
+    /**
+     * Updates {@link #encodedSizeHint()} with the number of bytes of the message encoded last.
+     * The hint grows immediately, but shrinks gradually so that an occasional small message does not
+     * make the following large messages expand their buffers again.
+     */
+    public void updateEncodedSizeHint(int encodedSize) {
+        final int hint = encodedSizeHint;
+        if (encodedSize > hint) {
+            // Leave some room for the next message which may be slightly larger.
+            encodedSizeHint = (int) Math.min((long) encodedSize + (encodedSize >>> 2), MAX_ENCODED_SIZE_HINT);
+        } else if (encodedSize < hint >>> 1) {
+            encodedSizeHint = Math.max(hint - (hint >>> 3), MIN_ENCODED_SIZE_HINT);
+        }
+    }
+
     /**
      * Returns a new empty result instance.
      */
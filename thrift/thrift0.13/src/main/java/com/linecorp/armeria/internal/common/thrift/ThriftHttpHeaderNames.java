@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.thrift;
+
+import com.linecorp.armeria.common.HttpHeaderNames;
+
+import io.netty.util.AsciiString;
+
+/**
+ * Thrift-over-HTTP related HTTP header names.
+ */
+public final class ThriftHttpHeaderNames {
+
+    /**
+     * {@code "armeria-thrift-batch"}. Indicates that the content of a request consists of more than one
+     * Thrift call message and the content of its response consists of the reply messages of the calls,
+     * in the order of completion.
+     */
+    public static final AsciiString THRIFT_BATCH = HttpHeaderNames.of("armeria-thrift-batch");
+
+    private ThriftHttpHeaderNames() {}
+}
@@ -86,6 +86,16 @@ public final class ThriftProtocolUtil {
         }
     }
 
+    /**
+     * Returns whether the messages encoded with the specified {@link SerializationFormat} can be
+     * concatenated into a single batched request or response. Only the binary formats qualify because
+     * a text-based {@link TProtocol} such as {@code TTextProtocol} reads its transport to the end.
+     */
+    public static boolean isBatchable(SerializationFormat serializationFormat) {
+        return serializationFormat == ThriftSerializationFormats.BINARY ||
+               serializationFormat == ThriftSerializationFormats.COMPACT;
+    }
+
     /**
      * Returns whether the current `libthrift` runtime implementation limits the numbers of bytes to
      * read for `TBinaryProtocol`.
@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -40,6 +41,8 @@ import org.apache.thrift.protocol.TMessageType;
 import org.apache.thrift.protocol.TProtocol;
 import org.apache.thrift.protocol.TProtocolException;
 import org.apache.thrift.protocol.TProtocolFactory;
+import org.apache.thrift.protocol.TProtocolUtil;
+import org.apache.thrift.protocol.TType;
 import org.apache.thrift.transport.TTransport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,22 +50,30 @@ import org.slf4j.LoggerFactory;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.primitives.Ints;
+import com.google.errorprone.annotations.MustBeClosed;
 
 import com.linecorp.armeria.common.AggregatedHttpRequest;
 import com.linecorp.armeria.common.AggregationOptions;
 import com.linecorp.armeria.common.DependencyInjector;
 import com.linecorp.armeria.common.ExchangeType;
 import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpHeaderNames;
 import com.linecorp.armeria.common.HttpHeaders;
 import com.linecorp.armeria.common.HttpMethod;
 import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpResponseWriter;
 import com.linecorp.armeria.common.HttpStatus;
 import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.RequestContext;
+import com.linecorp.armeria.common.ResponseHeaders;
 import com.linecorp.armeria.common.RpcRequest;
 import com.linecorp.armeria.common.RpcResponse;
 import com.linecorp.armeria.common.SerializationFormat;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.logging.RequestLogAccess;
+import com.linecorp.armeria.common.logging.RequestLogBuilder;
 import com.linecorp.armeria.common.logging.RequestLogProperty;
 import com.linecorp.armeria.common.thrift.ThriftCall;
 import com.linecorp.armeria.common.thrift.ThriftProtocolFactories;
@@ -71,9 +82,11 @@ import com.linecorp.armeria.common.thrift.ThriftSerializationFormats;
 import com.linecorp.armeria.common.util.CompletionActions;
 import com.linecorp.armeria.common.util.Exceptions;
 import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.internal.common.RequestContextUtil;
 import com.linecorp.armeria.internal.common.thrift.TByteBufTransport;
 import com.linecorp.armeria.internal.common.thrift.ThriftFieldAccess;
 import com.linecorp.armeria.internal.common.thrift.ThriftFunction;
+import com.linecorp.armeria.internal.common.thrift.ThriftHttpHeaderNames;
 import com.linecorp.armeria.internal.common.thrift.ThriftMetadataAccess;
 import com.linecorp.armeria.internal.common.thrift.ThriftProtocolUtil;
 import com.linecorp.armeria.internal.server.annotation.DecoratorAnnotationUtil.DecoratorAndOrder;
@@ -86,6 +99,7 @@ import com.linecorp.armeria.server.RpcService;
 import com.linecorp.armeria.server.Service;
 import com.linecorp.armeria.server.ServiceConfig;
 import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.ServiceRequestContextWrapper;
 import com.linecorp.armeria.server.VirtualHost;
 
 import io.netty.buffer.ByteBuf;
@@ -110,6 +124,11 @@ public final class THttpService extends DecoratingService<RpcRequest, RpcRespons
             "Thrift protocol specified in Accept header must match " +
             "the one specified in the content-type header";
 
+    private static final String BATCHED_REQUESTS_NOT_ALLOWED = "Batched requests are not allowed";
+
+    private static final String BATCHED_REQUESTS_NOT_SUPPORTED =
+            "Batched requests must be encoded with a binary Thrift protocol";
+
     /**
      * Creates a new instance of {@link THttpServiceBuilder} which can build an instance of {@link THttpService}
      * fluently.
@@ -285,6 +304,7 @@ public final class THttpService extends DecoratingService<RpcRequest, RpcRespons
     private final Set<SerializationFormat> supportedSerializationFormats;
     private final BiFunction<? super ServiceRequestContext, ? super Throwable, ? extends RpcResponse>
             exceptionHandler;
+    private final boolean allowBatchedRequests;
 
     private int maxRequestStringLength;
     private int maxRequestContainerLength;
@@ -299,7 +319,7 @@ public final class THttpService extends DecoratingService<RpcRequest, RpcRespons
                  Set<SerializationFormat> supportedSerializationFormats,
                  int maxRequestStringLength, int maxRequestContainerLength,
                  BiFunction<? super ServiceRequestContext, ? super Throwable, ? extends RpcResponse>
-                         exceptionHandler) {
+                         exceptionHandler, boolean allowBatchedRequests) {
         super(delegate);
         thriftService = findThriftService(delegate);
         this.defaultSerializationFormat = defaultSerializationFormat;
@@ -307,6 +327,7 @@ public final class THttpService extends DecoratingService<RpcRequest, RpcRespons
         this.maxRequestStringLength = maxRequestStringLength;
         this.maxRequestContainerLength = maxRequestContainerLength;
         this.exceptionHandler = exceptionHandler;
+        this.allowBatchedRequests = allowBatchedRequests;
         responseProtocolFactories = supportedSerializationFormats
                 .stream()
                 .collect(toImmutableMap(
@@ -418,11 +439,28 @@ public final class THttpService extends DecoratingService<RpcRequest, RpcRespons
                                    MediaType.PLAIN_TEXT_UTF_8, ACCEPT_THRIFT_PROTOCOL_MUST_MATCH_CONTENT_TYPE);
         }
 
+        final boolean batched = req.headers().contains(ThriftHttpHeaderNames.THRIFT_BATCH);
+        if (batched) {
+            if (!allowBatchedRequests) {
+                return HttpResponse.of(HttpStatus.BAD_REQUEST,
+                                       MediaType.PLAIN_TEXT_UTF_8, BATCHED_REQUESTS_NOT_ALLOWED);
+            }
+            if (!ThriftProtocolUtil.isBatchable(serializationFormat)) {
+                return HttpResponse.of(HttpStatus.BAD_REQUEST,
+                                       MediaType.PLAIN_TEXT_UTF_8, BATCHED_REQUESTS_NOT_SUPPORTED);
+            }
+        }
+
         final CompletableFuture<HttpResponse> responseFuture = new CompletableFuture<>();
         final HttpResponse res = HttpResponse.of(responseFuture);
         ctx.logBuilder().serializationFormat(serializationFormat);
         ctx.logBuilder().defer(RequestLogProperty.REQUEST_CONTENT);
-        req.aggregate(AggregationOptions.usePooledObjects(ctx.alloc(), ctx.eventLoop()))
+        // Decode the received buffers in place rather than merging them into a new buffer.
+        req.aggregate(AggregationOptions.builder()
+                                        .usePooledObjects(ctx.alloc())
+                                        .executor(ctx.eventLoop())
+                                        .compositeContent(true)
+                                        .build())
            .handle((aReq, cause) -> {
                if (cause != null) {
                    cause = Exceptions.peel(cause);
@@ -440,7 +478,11 @@ public final class THttpService extends DecoratingService<RpcRequest, RpcRespons
                    responseFuture.complete(errorRes);
                    return null;
                }
-               decodeAndInvoke(ctx, aReq, serializationFormat, responseFuture);
+               if (batched) {
+                   decodeAndInvokeBatch(ctx, aReq, serializationFormat, responseFuture);
+               } else {
+                   decodeAndInvoke(ctx, aReq, serializationFormat, responseFuture);
+               }
                return null;
            }).exceptionally(CompletionActions::log);
         return res;
@@ -520,23 +562,7 @@ public final class THttpService extends DecoratingService<RpcRequest, RpcRespons
 
                 header = inProto.readMessageBegin();
             } catch (Exception e) {
-                logger.debug("{} Failed to decode a {} header:", ctx, serializationFormat, e);
-
-                final HttpStatus httpStatus;
-                String message;
-                if (e instanceof TProtocolException &&
-                    ((TProtocolException) e).getType() == TProtocolException.SIZE_LIMIT) {
-                    httpStatus = HttpStatus.REQUEST_ENTITY_TOO_LARGE;
-                    message = firstNonNull(e.getMessage(), httpStatus.toString());
-                } else {
-                    httpStatus = HttpStatus.BAD_REQUEST;
-                    message = "Failed to decode a " + serializationFormat + " header";
-                }
-                if (ctx.config().verboseResponses()) {
-                    message += '\n' + Exceptions.traceText(e);
-                }
-
-                httpRes.complete(HttpResponse.of(httpStatus, MediaType.PLAIN_TEXT_UTF_8, message));
+                httpRes.complete(headerDecodeFailureResponse(ctx, serializationFormat, e));
                 return;
             }
 
@@ -584,17 +610,8 @@ public final class THttpService extends DecoratingService<RpcRequest, RpcRespons
                 decodedReq = toRpcRequest(f.serviceType(), header.name, args);
                 ctx.logBuilder().requestContent(decodedReq, new ThriftCall(header, args));
             } catch (Exception e) {
-                final TApplicationException cause;
-                if (ctx.config().verboseResponses()) {
-                    cause = new TApplicationException(
-                            TApplicationException.PROTOCOL_ERROR, "failed to decode arguments: " + e);
-                } else {
-                    // The exception could have sensitive information such as the required field.
-                    // So we don't include the cause message unless verboseResponses returns true.
-                    cause = new TApplicationException(TApplicationException.PROTOCOL_ERROR,
-                                                      "failed to decode arguments for " + header.name);
-                }
-                handlePreDecodeException(ctx, httpRes, cause, serializationFormat, seqId, methodName);
+                handlePreDecodeException(ctx, httpRes, argsDecodeFailure(ctx, header, e),
+                                         serializationFormat, seqId, methodName);
                 return;
             }
         } finally {
@@ -616,6 +633,185 @@ public final class THttpService extends DecoratingService<RpcRequest, RpcRespons
         invoke(ctx, serializationFormat, seqId, f, decodedReq, httpRes);
     }
 
+    private static TApplicationException argsDecodeFailure(ServiceRequestContext ctx, TMessage header,
+                                                           Exception cause) {
+        if (ctx.config().verboseResponses()) {
+            return new TApplicationException(
+                    TApplicationException.PROTOCOL_ERROR, "failed to decode arguments: " + cause);
+        }
+        // The exception could have sensitive information such as the required field.
+        // So we don't include the cause message unless verboseResponses returns true.
+        return new TApplicationException(TApplicationException.PROTOCOL_ERROR,
+                                         "failed to decode arguments for " + header.name);
+    }
+
+    private static HttpResponse headerDecodeFailureResponse(ServiceRequestContext ctx,
+                                                            SerializationFormat serializationFormat,
+                                                            Exception cause) {
+        logger.debug("{} Failed to decode a {} header:", ctx, serializationFormat, cause);
+
+        final HttpStatus httpStatus;
+        String message;
+        if (cause instanceof TProtocolException &&
+            ((TProtocolException) cause).getType() == TProtocolException.SIZE_LIMIT) {
+            httpStatus = HttpStatus.REQUEST_ENTITY_TOO_LARGE;
+            message = firstNonNull(cause.getMessage(), httpStatus.toString());
+        } else {
+            httpStatus = HttpStatus.BAD_REQUEST;
+            message = "Failed to decode a " + serializationFormat + " header";
+        }
+        if (ctx.config().verboseResponses()) {
+            message += '\n' + Exceptions.traceText(cause);
+        }
+
+        return HttpResponse.of(httpStatus, MediaType.PLAIN_TEXT_UTF_8, message);
+    }
+
+    private void decodeAndInvokeBatch(
+            ServiceRequestContext ctx, AggregatedHttpRequest req,
+            SerializationFormat serializationFormat, CompletableFuture<HttpResponse> httpRes) {
+
+        // Each call is logged by its own context, whose log is a child of the log of the HTTP request,
+        // so the log of the HTTP request has no RPC content.
+        ctx.logBuilder().requestContent(null, null);
+        ctx.logBuilder().responseContent(null, null);
+
+        final List<BatchedCall> calls = new ArrayList<>();
+        try (HttpData content = req.content()) {
+            final ByteBuf buf = content.byteBuf();
+            final TByteBufTransport inTransport = new TByteBufTransport(buf);
+            final TProtocolFactory protocolFactory = requestProtocolFactories.get(serializationFormat);
+            assert protocolFactory != null;
+            final TProtocol inProto = protocolFactory.getProtocol(inTransport);
+
+            while (buf.isReadable()) {
+                final TMessage header;
+                try {
+                    ThriftProtocolUtil.maybeCheckMessageLength(serializationFormat, buf,
+                                                               maxRequestStringLength);
+                    header = inProto.readMessageBegin();
+                } catch (Exception e) {
+                    httpRes.complete(headerDecodeFailureResponse(ctx, serializationFormat, e));
+                    return;
+                }
+
+                final BatchedCall call = decodeBatchedCall(ctx, inProto, header);
+                calls.add(call);
+                if (call.corrupted) {
+                    // Failed to decode the arguments. The rest of the content cannot be decoded.
+                    break;
+                }
+            }
+        }
+
+        final HttpResponseWriter res = HttpResponse.streaming();
+        res.write(ResponseHeaders.of(HttpStatus.OK,
+                                     HttpHeaderNames.CONTENT_TYPE, serializationFormat.mediaType()));
+        httpRes.complete(res);
+
+        if (calls.isEmpty()) {
+            res.close();
+            return;
+        }
+
+        // Invoke all calls without waiting for the replies of the previous calls.
+        final AtomicInteger pendingCalls = new AtomicInteger(calls.size());
+        for (BatchedCall call : calls) {
+            final BatchedCallContext callCtx = new BatchedCallContext(ctx, call.decodedReq);
+            final RequestLogBuilder logBuilder = callCtx.logBuilder();
+            ctx.logBuilder().addChild(callCtx.log());
+            logBuilder.startRequest();
+            logBuilder.session(ctx.log().partial().channel(), ctx.sessionProtocol(), ctx.sslSession(), null);
+            logBuilder.requestHeaders(req.headers());
+            logBuilder.serializationFormat(serializationFormat);
+            logBuilder.requestContent(call.decodedReq, call.rawRequest);
+            logBuilder.endRequest();
+
+            final CompletableFuture<HttpResponse> callRes = new CompletableFuture<>();
+            callRes.thenCompose(r -> r.aggregate(AggregationOptions.usePooledObjects(ctx.alloc(),
+                                                                                      ctx.eventLoop())))
+                   .handle((aRes, cause) -> {
+                       final HttpData content;
+                       if (cause != null) {
+                           // e.g. an HttpStatusException raised by the service.
+                           cause = Exceptions.peel(cause);
+                           content = encodeException(callCtx, RpcResponse.ofFailure(cause),
+                                                     serializationFormat, call.seqId, call.methodName, cause);
+                           logBuilder.endResponse(cause);
+                       } else {
+                           content = aRes.content();
+                           logBuilder.responseHeaders(aRes.headers());
+                           logBuilder.endResponse();
+                       }
+                       if (content.isEmpty() || !res.tryWrite(content)) {
+                           content.close();
+                       }
+                       if (pendingCalls.decrementAndGet() == 0) {
+                           res.close();
+                       }
+                       return null;
+                   }).exceptionally(CompletionActions::log);
+
+            if (call.decodedReq != null) {
+                assert call.func != null;
+                invoke(callCtx, serializationFormat, call.seqId, call.func, call.decodedReq, callRes);
+            } else {
+                assert call.cause != null;
+                handlePreDecodeException(callCtx, callRes, call.cause, serializationFormat,
+                                         call.seqId, call.methodName);
+            }
+        }
+    }
+
+    private BatchedCall decodeBatchedCall(ServiceRequestContext ctx, TProtocol inProto, TMessage header) {
+        final int seqId = header.seqid;
+        final int colonIdx = header.name.indexOf(':');
+        final String serviceName;
+        final String methodName;
+        if (colonIdx < 0) {
+            serviceName = "";
+            methodName = header.name;
+        } else {
+            serviceName = header.name.substring(0, colonIdx);
+            methodName = header.name.substring(colonIdx + 1);
+        }
+
+        final TApplicationException cause;
+        final ThriftServiceEntry entry = entries().get(serviceName);
+        final ThriftFunction f = entry != null ? entry.metadata.function(methodName) : null;
+        if (header.type != TMessageType.CALL && header.type != TMessageType.ONEWAY) {
+            cause = new TApplicationException(TApplicationException.INVALID_MESSAGE_TYPE,
+                                              "unexpected TMessageType: " + typeString(header.type));
+        } else if (f == null) {
+            cause = new TApplicationException(TApplicationException.UNKNOWN_METHOD,
+                                              "unknown method: " + header.name);
+        } else if (!f.declaredDecorators().isEmpty()) {
+            cause = new TApplicationException(TApplicationException.INTERNAL_ERROR,
+                                              "method with decorators cannot be batched: " + header.name);
+        } else {
+            try {
+                final TBase<?, ?> args = f.newArgs();
+                args.read(inProto);
+                inProto.readMessageEnd();
+                return new BatchedCall(seqId, methodName, f, toRpcRequest(f.serviceType(), header.name, args),
+                                       new ThriftCall(header, args), null, false);
+            } catch (Exception e) {
+                return new BatchedCall(seqId, methodName, null, null, null,
+                                       argsDecodeFailure(ctx, header, e), true);
+            }
+        }
+
+        // Skip the arguments of the call which is not going to be invoked.
+        try {
+            TProtocolUtil.skip(inProto, TType.STRUCT);
+            inProto.readMessageEnd();
+        } catch (Exception e) {
+            return new BatchedCall(seqId, methodName, null, null, null,
+                                   argsDecodeFailure(ctx, header, e), true);
+        }
+        return new BatchedCall(seqId, methodName, null, null, null, cause, false);
+    }
+
     private static String typeString(byte typeValue) {
         switch (typeValue) {
             case TMessageType.CALL:
@@ -700,7 +896,7 @@ public final class THttpService extends DecoratingService<RpcRequest, RpcRespons
         final TBase<?, ?> wrappedResult = func.newResult();
         func.setSuccess(wrappedResult, returnValue);
         respond(serializationFormat,
-                encodeSuccess(ctx, rpcRes, serializationFormat, func.name(), seqId, wrappedResult),
+                encodeSuccess(ctx, rpcRes, serializationFormat, func, seqId, wrappedResult),
                 httpRes);
     }
 
@@ -746,7 +942,7 @@ public final class THttpService extends DecoratingService<RpcRequest, RpcRespons
         final TBase<?, ?> result = func.newResult();
         final HttpData content;
         if (func.setException(result, cause)) {
-            content = encodeSuccess(ctx, rpcRes, serializationFormat, func.name(), seqId, result);
+            content = encodeSuccess(ctx, rpcRes, serializationFormat, func, seqId, result);
         } else {
             content = encodeException(ctx, rpcRes, serializationFormat, seqId, func.name(), cause);
         }
@@ -769,20 +965,21 @@ public final class THttpService extends DecoratingService<RpcRequest, RpcRespons
     }
 
     private HttpData encodeSuccess(ServiceRequestContext ctx, RpcResponse reply,
-                                   SerializationFormat serializationFormat, String methodName, int seqId,
+                                   SerializationFormat serializationFormat, ThriftFunction func, int seqId,
                                    TBase<?, ?> result) {
 
-        final ByteBuf buf = ctx.alloc().buffer(128);
+        final ByteBuf buf = ctx.alloc().buffer(func.encodedSizeHint());
         boolean success = false;
         try {
             final TTransport transport = new TByteBufTransport(buf);
             final TProtocolFactory protocolFactory = responseProtocolFactories.get(serializationFormat);
             assert protocolFactory != null;
             final TProtocol outProto = protocolFactory.getProtocol(transport);
-            final TMessage header = new TMessage(methodName, TMessageType.REPLY, seqId);
+            final TMessage header = new TMessage(func.name(), TMessageType.REPLY, seqId);
             outProto.writeMessageBegin(header);
             result.write(outProto);
             outProto.writeMessageEnd();
+            func.updateEncodedSizeHint(buf.readableBytes());
 
             ctx.logBuilder().responseContent(reply, new ThriftReply(header, result));
 
@@ -862,4 +1059,91 @@ public final class THttpService extends DecoratingService<RpcRequest, RpcRespons
             this.decodedReq = decodedReq;
         }
     }
+
+    private static final class BatchedCall {
+
+        private final int seqId;
+        private final String methodName;
+        @Nullable
+        private final ThriftFunction func;
+        @Nullable
+        private final RpcRequest decodedReq;
+        @Nullable
+        private final ThriftCall rawRequest;
+        @Nullable
+        private final TApplicationException cause;
+        private final boolean corrupted;
+
+        private BatchedCall(int seqId, String methodName, @Nullable ThriftFunction func,
+                            @Nullable RpcRequest decodedReq, @Nullable ThriftCall rawRequest,
+                            @Nullable TApplicationException cause, boolean corrupted) {
+            this.seqId = seqId;
+            this.methodName = methodName;
+            this.func = func;
+            this.decodedReq = decodedReq;
+            this.rawRequest = rawRequest;
+            this.cause = cause;
+            this.corrupted = corrupted;
+        }
+    }
+
+    /**
+     * The {@link ServiceRequestContext} of a call in a batched request. It has its own {@link RpcRequest}
+     * and {@link RequestLog}, and shares the other properties with the context of the HTTP request.
+     * The {@link RequestLog} is a child of the {@link RequestLog} of the HTTP request, so the decorators of
+     * a {@link THttpService} can find the calls of a batched request via {@link RequestLog#children()}.
+     */
+    private static final class BatchedCallContext extends ServiceRequestContextWrapper {
+
+        private final RequestLogBuilder logBuilder;
+        @Nullable
+        private volatile RpcRequest rpcReq;
+
+        BatchedCallContext(ServiceRequestContext delegate, @Nullable RpcRequest rpcReq) {
+            super(delegate);
+            logBuilder = RequestLog.builder(this);
+            this.rpcReq = rpcReq;
+        }
+
+        @Nullable
+        @Override
+        public RpcRequest rpcRequest() {
+            return rpcReq;
+        }
+
+        @Override
+        public void updateRpcRequest(RpcRequest rpcReq) {
+            this.rpcReq = requireNonNull(rpcReq, "rpcReq");
+        }
+
+        @Override
+        public RequestLogAccess log() {
+            return logBuilder;
+        }
+
+        @Override
+        public RequestLogBuilder logBuilder() {
+            return logBuilder;
+        }
+
+        @Override
+        @MustBeClosed
+        public SafeCloseable push() {
+            // The context of the HTTP request is usually pushed already, so this context is pushed over it
+            // rather than being treated as a reentrance, which would leave this context in the thread-local.
+            final RequestContext oldCtx = RequestContextUtil.getAndSet(this);
+            if (oldCtx == this) {
+                final SafeCloseable closeable = RequestContextUtil.invokeHook(this);
+                return closeable != null ? closeable : RequestContextUtil.noopSafeCloseable();
+            }
+            if (oldCtx == null || oldCtx.unwrapAll() == unwrapAll() ||
+                RequestContextUtil.equalsIgnoreWrapper(oldCtx.root(), this)) {
+                return RequestContextUtil.invokeHookAndPop(this, oldCtx);
+            }
+
+            // Put the oldCtx back before throwing an exception.
+            RequestContextUtil.pop(this, oldCtx);
+            throw RequestContextUtil.newIllegalContextPushingException(this, oldCtx);
+        }
+    }
 }
@@ -35,9 +35,12 @@ import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimaps;
 
+import com.linecorp.armeria.common.RpcRequest;
 import com.linecorp.armeria.common.RpcResponse;
 import com.linecorp.armeria.common.SerializationFormat;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.logging.RequestLog;
 import com.linecorp.armeria.common.thrift.ThriftProtocolFactoryProvider;
 import com.linecorp.armeria.common.thrift.ThriftSerializationFormats;
 import com.linecorp.armeria.server.RpcService;
@@ -86,6 +89,7 @@ public final class THttpServiceBuilder {
     private int maxRequestStringLength = -1;
     private int maxRequestContainerLength = -1;
     private boolean useBlockingTaskExecutor;
+    private boolean allowBatchedRequests;
 
     THttpServiceBuilder() {}
 
@@ -203,6 +207,25 @@ public final class THttpServiceBuilder {
         return this;
     }
 
+    /**
+     * Sets whether the service accepts a request which packs more than one Thrift call, sent by a client
+     * built with {@code ThriftClientBuilder.batchCalls(int, Duration)}. The calls of such a request are
+     * invoked concurrently and their replies are streamed back in the order of completion.
+     * This option is disabled by default.
+     *
+     * <p>Note that each call of a batched request is invoked with a {@link ServiceRequestContext} which has
+     * its own {@link RpcRequest} and {@link RequestLog} but shares the other properties, such as the
+     * attributes and the request timeout, with the context of the HTTP request. A batched request must be
+     * encoded with {@link ThriftSerializationFormats#BINARY} or {@link ThriftSerializationFormats#COMPACT}.
+     * A method with decorators declared by annotations cannot be invoked in a batched request because the
+     * decorators handle an HTTP request.
+     */
+    @UnstableApi
+    public THttpServiceBuilder allowBatchedRequests(boolean allowBatchedRequests) {
+        this.allowBatchedRequests = allowBatchedRequests;
+        return this;
+    }
+
     /**
      * Sets the {@link BiFunction} that returns an {@link RpcResponse} using the given {@link Throwable}
      * and {@link ServiceRequestContext}.
@@ -260,7 +283,7 @@ public final class THttpServiceBuilder {
 
         return new THttpService(
                 decorate(tcs), defaultSerializationFormat, builder.build(),
-                maxRequestStringLength, maxRequestContainerLength, exceptionHandler
+                maxRequestStringLength, maxRequestContainerLength, exceptionHandler, allowBatchedRequests
         );
     }
 }
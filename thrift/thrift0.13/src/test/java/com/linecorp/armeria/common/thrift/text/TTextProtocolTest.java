@@ -161,6 +161,20 @@ class TTextProtocolTest {
         assertThat(msg2).isEqualTo(msg1);
     }
 
+    @Test
+    void readFromTransportInSmallChunks() throws Exception {
+        // Returns only a few bytes at a time, so that the JSON is parsed across many transport reads.
+        final ByteArrayInputStream bais = new ByteArrayInputStream(testData.getBytes()) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        };
+        final TTextProtocolTestMsg msg = new TTextProtocolTestMsg();
+        msg.read(new TTextProtocol(new TIOStreamTransport(bais)));
+        assertThat(msg).isEqualTo(testMsg());
+    }
+
     private TTextProtocolTestMsg testMsg() {
         return new TTextProtocolTestMsg()
                 .setA(12345L)
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.thrift;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.thrift.TApplicationException;
+import org.apache.thrift.transport.TTransportException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.ClientRequestContextCaptor;
+import com.linecorp.armeria.client.Clients;
+import com.linecorp.armeria.client.InvalidResponseHeadersException;
+import com.linecorp.armeria.client.ResponseCancellationException;
+import com.linecorp.armeria.client.ResponseTimeoutException;
+import com.linecorp.armeria.client.thrift.ThriftClients;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.RpcRequest;
+import com.linecorp.armeria.common.RpcResponse;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.thrift.ThriftFuture;
+import com.linecorp.armeria.common.thrift.ThriftSerializationFormats;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import testing.thrift.main.HelloService;
+
+class ThriftBatchedRequestTest {
+
+    private static final AtomicInteger numHttpRequests = new AtomicInteger();
+    private static final Queue<ServiceRequestContext> serviceContexts = new ConcurrentLinkedQueue<>();
+    private static final Queue<ServiceRequestContext> httpContexts = new ConcurrentLinkedQueue<>();
+
+    private static final HelloService.AsyncIface HELLO_SERVICE_HANDLER = (name, resultHandler) -> {
+        switch (name) {
+            case "error":
+                resultHandler.onError(new IllegalArgumentException(name));
+                return;
+            case "slow":
+                // Reply after the other calls of the batch.
+                ServiceRequestContext.current().eventLoop().schedule(
+                        () -> resultHandler.onComplete("Hello, " + name + '!'), 500, TimeUnit.MILLISECONDS);
+                return;
+            default:
+                serviceContexts.add(ServiceRequestContext.current());
+                resultHandler.onComplete("Hello, " + name + '!');
+        }
+    };
+
+    @RegisterExtension
+    static ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.service("/batch", THttpService.builder()
+                                             .addService(HELLO_SERVICE_HANDLER)
+                                             .allowBatchedRequests(true)
+                                             .build());
+            sb.service("/no-batch", THttpService.of(HELLO_SERVICE_HANDLER));
+            sb.decorator((delegate, ctx, req) -> {
+                numHttpRequests.incrementAndGet();
+                httpContexts.add(ctx);
+                return delegate.serve(ctx, req);
+            });
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        numHttpRequests.set(0);
+        serviceContexts.clear();
+        httpContexts.clear();
+    }
+
+    @Test
+    void packCallsIntoSingleRequest() throws Exception {
+        final HelloService.AsyncIface client = newClient("/batch");
+        final ThriftFuture<String> slow = new ThriftFuture<>();
+        final ThriftFuture<String> foo = new ThriftFuture<>();
+        final ThriftFuture<String> bar = new ThriftFuture<>();
+        final List<ClientRequestContext> contexts;
+        try (ClientRequestContextCaptor captor = Clients.newContextCaptor()) {
+            client.hello("slow", slow);
+            client.hello("foo", foo);
+            client.hello("bar", bar);
+            contexts = captor.getAll();
+        }
+
+        // The replies are matched by their sequence IDs even if they are not in the order of the calls.
+        assertThat(slow.get()).isEqualTo("Hello, slow!");
+        assertThat(foo.get()).isEqualTo("Hello, foo!");
+        assertThat(bar.get()).isEqualTo("Hello, bar!");
+        assertThat(numHttpRequests).hasValue(1);
+
+        // Each call has its own log.
+        assertThat(contexts).hasSize(3);
+        final List<String> replies = ImmutableList.of("Hello, slow!", "Hello, foo!", "Hello, bar!");
+        for (int i = 0; i < 3; i++) {
+            final RequestLog log = contexts.get(i).log().whenComplete().join();
+            assertThat(log.name()).isEqualTo("hello");
+            assertThat(((RpcResponse) log.responseContent()).join()).isEqualTo(replies.get(i));
+        }
+
+        // Each call is invoked with its own context on the server side, whose log is a child of
+        // the log of the HTTP request.
+        final ServiceRequestContext httpCtx = httpContexts.poll();
+        assertThat(httpCtx).isNotNull();
+        final RequestLog httpLog = httpCtx.log().whenComplete().join();
+        assertThat(httpLog.requestContent()).isNull();
+        assertThat(httpLog.children()).hasSize(3);
+        final List<ServiceRequestContext> callContexts = ImmutableList.copyOf(serviceContexts);
+        assertThat(callContexts).hasSize(2);
+        assertThat(callContexts.get(0)).isNotSameAs(callContexts.get(1));
+        for (ServiceRequestContext callCtx : callContexts) {
+            assertThat(callCtx).isNotSameAs(httpCtx);
+            assertThat(callCtx.root()).isSameAs(httpCtx);
+            assertThat(httpLog.children()).contains(callCtx.log());
+            final RpcRequest rpcReq = callCtx.rpcRequest();
+            assertThat(rpcReq).isNotNull();
+            final RequestLog log = callCtx.log().whenComplete().join();
+            assertThat(log.requestContent()).isSameAs(rpcReq);
+            assertThat(((RpcResponse) log.responseContent()).join())
+                    .isEqualTo("Hello, " + rpcReq.params().get(0) + '!');
+        }
+    }
+
+    @Test
+    void failOnlyFailedCall() throws Exception {
+        final HelloService.AsyncIface client = newClient("/batch");
+        final ThriftFuture<String> foo = new ThriftFuture<>();
+        final ThriftFuture<String> error = new ThriftFuture<>();
+        final ThriftFuture<String> bar = new ThriftFuture<>();
+        client.hello("foo", foo);
+        client.hello("error", error);
+        client.hello("bar", bar);
+
+        assertThat(foo.get()).isEqualTo("Hello, foo!");
+        assertThat(bar.get()).isEqualTo("Hello, bar!");
+        assertThatThrownBy(error::join).isInstanceOf(CompletionException.class)
+                                       .hasCauseInstanceOf(TApplicationException.class);
+        assertThat(numHttpRequests).hasValue(1);
+    }
+
+    @Test
+    void sendIncompleteBatchAfterDelay() throws Exception {
+        final HelloService.AsyncIface client = newClient("/batch");
+        final ThriftFuture<String> foo = new ThriftFuture<>();
+        final ThriftFuture<String> bar = new ThriftFuture<>();
+        client.hello("foo", foo);
+        client.hello("bar", bar);
+
+        assertThat(foo.get()).isEqualTo("Hello, foo!");
+        assertThat(bar.get()).isEqualTo("Hello, bar!");
+        assertThat(numHttpRequests).hasValue(1);
+    }
+
+    @Test
+    void timeOutQueuedCall() {
+        final HelloService.AsyncIface client =
+                ThriftClients.builder(server.httpUri())
+                             .path("/batch")
+                             .responseTimeoutMillis(100)
+                             .batchCalls(3, Duration.ofSeconds(10))
+                             .build(HelloService.AsyncIface.class);
+        final ThriftFuture<String> foo = new ThriftFuture<>();
+        client.hello("foo", foo);
+
+        // Fails before the batch is sent.
+        assertThatThrownBy(foo::join).isInstanceOf(CompletionException.class)
+                                     .hasCauseInstanceOf(TTransportException.class)
+                                     .hasRootCauseInstanceOf(ResponseTimeoutException.class);
+        assertThat(numHttpRequests).hasValue(0);
+    }
+
+    @Test
+    void cancelQueuedCall() throws Exception {
+        final HelloService.AsyncIface client = newClient("/batch");
+        final ThriftFuture<String> foo = new ThriftFuture<>();
+        final ThriftFuture<String> bar = new ThriftFuture<>();
+        final ClientRequestContext fooCtx;
+        try (ClientRequestContextCaptor captor = Clients.newContextCaptor()) {
+            client.hello("foo", foo);
+            fooCtx = captor.get();
+        }
+        client.hello("bar", bar);
+        fooCtx.cancel();
+
+        assertThatThrownBy(foo::join).isInstanceOf(CompletionException.class)
+                                     .hasRootCauseInstanceOf(ResponseCancellationException.class);
+        // The log of the cancelled call is completed although the call is never sent.
+        final RequestLog fooLog = fooCtx.log().whenComplete().get(10, TimeUnit.SECONDS);
+        assertThat(fooLog.requestCause()).isInstanceOf(ResponseCancellationException.class);
+        assertThat(fooLog.responseCause()).isInstanceOf(ResponseCancellationException.class);
+        // The other call is not affected.
+        assertThat(bar.get()).isEqualTo("Hello, bar!");
+        assertThat(numHttpRequests).hasValue(1);
+        assertThat(serviceContexts).hasSize(1);
+    }
+
+    @Test
+    void rejectTextProtocol() {
+        assertThatThrownBy(() -> ThriftClients.builder(server.httpUri())
+                                              .path("/batch")
+                                              .serializationFormat(ThriftSerializationFormats.TEXT)
+                                              .batchCalls(3, Duration.ofMillis(200))
+                                              .build(HelloService.AsyncIface.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cannot batch");
+
+        final AggregatedHttpResponse res =
+                server.blockingWebClient().execute(
+                        RequestHeaders.builder(HttpMethod.POST, "/batch")
+                                      .contentType(ThriftSerializationFormats.TEXT.mediaType())
+                                      .setInt("armeria-thrift-batch", 2)
+                                      .build(),
+                        "{}{}");
+        assertThat(res.status()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void batchedRequestsNotAllowed() {
+        final HelloService.AsyncIface client = newClient("/no-batch");
+        final ThriftFuture<String> foo = new ThriftFuture<>();
+        final ThriftFuture<String> bar = new ThriftFuture<>();
+        final ThriftFuture<String> baz = new ThriftFuture<>();
+        client.hello("foo", foo);
+        client.hello("bar", bar);
+        client.hello("baz", baz);
+
+        for (ThriftFuture<String> future : ImmutableList.of(foo, bar, baz)) {
+            assertThatThrownBy(future::join).isInstanceOf(CompletionException.class)
+                                            .cause()
+                                            .isInstanceOf(TTransportException.class)
+                                            .cause()
+                                            .isInstanceOf(InvalidResponseHeadersException.class)
+                                            .hasMessageContaining(":status=400");
+        }
+    }
+
+    private static HelloService.AsyncIface newClient(String path) {
+        return ThriftClients.builder(server.httpUri())
+                            .path(path)
+                            .batchCalls(3, Duration.ofMillis(200))
+                            .build(HelloService.AsyncIface.class);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.thrift;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.google.common.base.Strings;
+
+import com.linecorp.armeria.client.thrift.ThriftClients;
+import com.linecorp.armeria.common.SerializationFormat;
+import com.linecorp.armeria.internal.common.thrift.ThriftFunction;
+import com.linecorp.armeria.internal.common.thrift.ThriftServiceMetadata;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import testing.thrift.main.HelloService;
+
+class ThriftCompositeContentTest {
+
+    @RegisterExtension
+    static ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.service("/hello", THttpService.builder()
+                                             .addService((HelloService.Iface) name -> name)
+                                             .build());
+        }
+    };
+
+    @ParameterizedTest
+    @CsvSource({ "tbinary", "tcompact", "tjson", "ttext" })
+    void largePayloadSplitIntoMultipleFrames(String format) throws Exception {
+        final HelloService.Iface client =
+                ThriftClients.builder(server.httpUri(SerializationFormat.of(format)))
+                             .path("/hello")
+                             .build(HelloService.Iface.class);
+        // Much larger than the default HTTP/2 frame size, so that the body is received in many chunks.
+        final String name = Strings.repeat("armeria", 64 * 1024);
+        assertThat(client.hello(name)).isEqualTo(name);
+        assertThat(client.hello("foo")).isEqualTo("foo");
+    }
+
+    @Test
+    void encodedSizeHint() {
+        final ThriftFunction func = new ThriftServiceMetadata(HelloService.Iface.class).function("hello");
+        assertThat(func).isNotNull();
+        assertThat(func.encodedSizeHint()).isEqualTo(128);
+
+        // Grows immediately with some room for a slightly larger message.
+        func.updateEncodedSizeHint(1000);
+        assertThat(func.encodedSizeHint()).isEqualTo(1250);
+        func.updateEncodedSizeHint(1100);
+        assertThat(func.encodedSizeHint()).isEqualTo(1250);
+
+        // Shrinks gradually.
+        func.updateEncodedSizeHint(10);
+        assertThat(func.encodedSizeHint()).isEqualTo(1250 - 1250 / 8);
+        for (int i = 0; i < 100; i++) {
+            func.updateEncodedSizeHint(10);
+        }
+        assertThat(func.encodedSizeHint()).isEqualTo(128);
+
+        // Capped to prevent a huge message from making the following buffers huge.
+        func.updateEncodedSizeHint(Integer.MAX_VALUE / 2);
+        assertThat(func.encodedSizeHint()).isEqualTo(1024 * 1024);
+    }
+}